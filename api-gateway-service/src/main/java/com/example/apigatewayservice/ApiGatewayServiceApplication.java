@@ -1,5 +1,6 @@
 package com.example.apigatewayservice;
 
+import com.example.apigatewayservice.DomainClientLayer.game.ConsistencyTokenInterceptor;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.ConfigurableApplicationContext;
@@ -11,7 +12,9 @@ public class ApiGatewayServiceApplication {
 
 	@Bean
 	RestTemplate restTemplate() {
-		return new RestTemplate();
+		RestTemplate restTemplate = new RestTemplate();
+		restTemplate.getInterceptors().add(new ConsistencyTokenInterceptor());
+		return restTemplate;
 	}
 	public static void main(String[] args) {
 		ConfigurableApplicationContext context = SpringApplication.run(ApiGatewayServiceApplication.class, args);
@@ -1,8 +1,15 @@
 package com.example.apigatewayservice.DomainClientLayer.download;
 
+import com.example.apigatewayservice.presentationlayer.download.BulkDownloadRequestModel;
+import com.example.apigatewayservice.presentationlayer.download.BulkDownloadResponseModel;
+import com.example.apigatewayservice.presentationlayer.download.DownloadPageResponseModel;
+import com.example.apigatewayservice.presentationlayer.download.DownloadPatchResponseModel;
+import com.example.apigatewayservice.presentationlayer.download.DownloadProgressModel;
 import com.example.apigatewayservice.presentationlayer.download.DownloadRequestModel;
 import com.example.apigatewayservice.presentationlayer.download.DownloadResponseModel;
+import com.example.apigatewayservice.presentationlayer.download.PatchDownloadRequestModel;
 import com.example.apigatewayservice.exception.HttpErrorInfo;
+import com.example.apigatewayservice.exception.InvalidDownloadStateException;
 import com.example.apigatewayservice.exception.InvalidInputException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
@@ -10,16 +17,26 @@ import org.springframework.beans.factory.annotation.Value;
 import com.example.apigatewayservice.exception.NotFoundException;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 
+import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
 
@@ -30,6 +47,7 @@ public class DownloadServiceClient {
     private final RestTemplate restTemplate;
     private final ObjectMapper mapper;
     private final String DOWNLOAD_SERVICE_BASE_URL;
+    private final WebClient streamingClient; // RestTemplate cannot relay Server-Sent Events
 
     public DownloadServiceClient(
             RestTemplate restTemplate,
@@ -40,6 +58,7 @@ public class DownloadServiceClient {
         this.restTemplate = restTemplate;
         this.mapper = mapper;
         this.DOWNLOAD_SERVICE_BASE_URL = "http://" + downloadServiceHost + ":" + downloadServicePort + "/api/v1/downloads"; // Base path from backend controller
+        this.streamingClient = WebClient.create(DOWNLOAD_SERVICE_BASE_URL);
         log.info("Download Service Base URL: {}", DOWNLOAD_SERVICE_BASE_URL);
     }
 
@@ -90,6 +109,53 @@ public class DownloadServiceClient {
     }
 
 
+    public DownloadPageResponseModel getDownloadPage(String userId, List<String> statuses, Instant from, Instant to, String cursor, Integer limit) {
+        MultiValueMap<String, String> params = listingParams(userId, statuses, from, to);
+        if (cursor != null) {
+            params.add("cursor", cursor);
+        }
+        if (limit != null) {
+            params.add("limit", limit.toString());
+        }
+        String url = UriComponentsBuilder.fromUriString(DOWNLOAD_SERVICE_BASE_URL + "/page").queryParams(params).build().toUriString();
+        log.debug("3. Client sending GET request to: {}", url);
+        try {
+            DownloadPageResponseModel response = restTemplate.getForObject(url, DownloadPageResponseModel.class);
+            log.debug("5. Client received response from GET page");
+            return response;
+        } catch (HttpClientErrorException ex) {
+            log.warn("Client GET page request failed: {}", ex.getMessage());
+            throw handleHttpClientException(ex);
+        }
+    }
+
+    public Flux<DownloadResponseModel> streamDownloads(String userId, List<String> statuses, Instant from, Instant to) {
+        MultiValueMap<String, String> params = listingParams(userId, statuses, from, to);
+        log.debug("3. Client opening NDJSON stream to: {}/stream with {}", DOWNLOAD_SERVICE_BASE_URL, params);
+        return streamingClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/stream").queryParams(params).build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .bodyToFlux(DownloadResponseModel.class);
+    }
+
+    private static MultiValueMap<String, String> listingParams(String userId, List<String> statuses, Instant from, Instant to) {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        if (userId != null) {
+            params.add("userId", userId);
+        }
+        if (statuses != null) {
+            statuses.forEach(status -> params.add("status", status));
+        }
+        if (from != null) {
+            params.add("from", from.toString());
+        }
+        if (to != null) {
+            params.add("to", to.toString());
+        }
+        return params;
+    }
+
     private DownloadResponseModel postForStateChange(String id, String action) {
         String url = DOWNLOAD_SERVICE_BASE_URL + "/" + id + "/" + action;
         log.debug("3. Client sending POST request for action '{}' to: {}", action, url);
@@ -127,6 +193,30 @@ public class DownloadServiceClient {
         }
     }
 
+    public DownloadResponseModel createPatchDownload(String baseId, PatchDownloadRequestModel requestModel) {
+        String url = DOWNLOAD_SERVICE_BASE_URL + "/" + baseId + "/patch";
+        log.debug("3. Client sending POST request to: {}", url);
+        try {
+            DownloadResponseModel response = restTemplate.postForObject(url, requestModel, DownloadResponseModel.class);
+            log.debug("5. Client received response from POST patch");
+            return response;
+        } catch (HttpClientErrorException ex) {
+            log.warn("Client POST patch request failed: {}", ex.getMessage());
+            throw handleHttpClientException(ex);
+        }
+    }
+
+    public DownloadPatchResponseModel getPatchReport(String id) {
+        String url = DOWNLOAD_SERVICE_BASE_URL + "/" + id + "/patch";
+        log.debug("3. Client sending GET request to: {}", url);
+        try {
+            return restTemplate.getForObject(url, DownloadPatchResponseModel.class);
+        } catch (HttpClientErrorException ex) {
+            log.warn("Client GET patch report request failed: {}", ex.getMessage());
+            throw handleHttpClientException(ex);
+        }
+    }
+
     public DownloadResponseModel startDownload(String id) {
         return postForStateChange(id, "start");
     }
@@ -143,6 +233,57 @@ public class DownloadServiceClient {
         return postForStateChange(id, "cancel");
     }
 
+    public BulkDownloadResponseModel bulkDownloadAction(String action, BulkDownloadRequestModel requestModel) {
+        String url = DOWNLOAD_SERVICE_BASE_URL + "/bulk/" + action;
+        log.debug("3. Client sending POST request for bulk action '{}' to: {}", action, url);
+        try {
+            BulkDownloadResponseModel response = restTemplate.postForObject(url, requestModel, BulkDownloadResponseModel.class);
+            log.debug("5. Client received response from POST bulk action '{}'", action);
+            return response;
+        } catch (HttpClientErrorException ex) {
+            log.warn("Client POST bulk action '{}' request failed: {}", action, ex.getMessage());
+            throw handleHttpClientException(ex);
+        }
+    }
+
+    public BulkDownloadResponseModel pauseDownloads(BulkDownloadRequestModel requestModel) {
+        return bulkDownloadAction("pause", requestModel);
+    }
+
+    public BulkDownloadResponseModel resumeDownloads(BulkDownloadRequestModel requestModel) {
+        return bulkDownloadAction("resume", requestModel);
+    }
+
+    public BulkDownloadResponseModel cancelDownloads(BulkDownloadRequestModel requestModel) {
+        return bulkDownloadAction("cancel", requestModel);
+    }
+
+    public BulkDownloadResponseModel deleteDownloads(BulkDownloadRequestModel requestModel) {
+        return bulkDownloadAction("delete", requestModel);
+    }
+
+    public Flux<ServerSentEvent<DownloadProgressModel>> streamDownloadProgress(String id) {
+        log.debug("3. Client opening progress stream to: {}/{}/progress", DOWNLOAD_SERVICE_BASE_URL, id);
+        return streamProgress("/{id}/progress", id);
+    }
+
+    public Flux<ServerSentEvent<DownloadProgressModel>> streamUserDownloadProgress(String userId) {
+        log.debug("3. Client opening progress stream to: {}/user/{}/progress", DOWNLOAD_SERVICE_BASE_URL, userId);
+        return streamProgress("/user/{userId}/progress", userId);
+    }
+
+    private Flux<ServerSentEvent<DownloadProgressModel>> streamProgress(String path, String pathVariable) {
+        return streamingClient.get()
+                .uri(path, pathVariable)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<DownloadProgressModel>>() {})
+                .onErrorMap(WebClientResponseException.NotFound.class, ex -> {
+                    log.warn("Client progress stream request failed: {}", ex.getMessage());
+                    return new NotFoundException("Download not found: " + pathVariable);
+                });
+    }
+
     public void deleteDownload(String id) {
         String url = DOWNLOAD_SERVICE_BASE_URL + "/" + id;
         log.debug("3. Client sending DELETE request to: {}", url);
@@ -168,6 +309,10 @@ public class DownloadServiceClient {
             log.warn("Converting {} to InvalidInputException", ex.getStatusCode());
             return new InvalidInputException(getErrorMessage(ex));
         }
+        if (ex.getStatusCode() == CONFLICT) {
+            log.warn("Converting {} to InvalidDownloadStateException", ex.getStatusCode());
+            return new InvalidDownloadStateException(getErrorMessage(ex));
+        }
 
 
 
@@ -0,0 +1,68 @@
+package com.example.apigatewayservice.DomainClientLayer.game;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+/**
+ * Read-your-writes through the gateway. The game service returns a consistency token on responses to writes and
+ * reads after that write for any request that sends it back. The gateway relays it both ways: the client's token
+ * goes out with each call made to the game service for its request, and a new one the service returns replaces it
+ * for the request's later calls and is sent back to the client.
+ * <p>
+ * The token is held for the current thread while {@link #relay} runs, which covers the whole of a controller
+ * method, since its calls to the game service block. {@link ConsistencyTokenInterceptor} adds and collects it.
+ */
+public final class ConsistencyToken {
+
+    public static final String HEADER = "X-Consistency-Token";
+
+    private static final ThreadLocal<Relay> CURRENT = new ThreadLocal<>();
+
+    private ConsistencyToken() {
+    }
+
+    /**
+     * Runs a controller method's calls with the client's token, or none, and adds the newest token the game service
+     * issued while they ran to the response.
+     */
+    public static <T> ResponseEntity<T> relay(String token, Supplier<ResponseEntity<T>> calls) {
+        Relay relay = new Relay(token);
+        CURRENT.set(relay);
+        try {
+            ResponseEntity<T> response = calls.get();
+            if (relay.issued == null) {
+                return response;
+            }
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(response.getHeaders())
+                    .header(HEADER, relay.issued)
+                    .body(response.getBody());
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    // The token to send to the game service now, or null.
+    static String current() {
+        Relay relay = CURRENT.get();
+        return relay == null ? null : relay.token;
+    }
+
+    static void issued(String token) {
+        Relay relay = CURRENT.get();
+        if (relay != null) {
+            relay.token = token;
+            relay.issued = token;
+        }
+    }
+
+    private static final class Relay {
+        private String token;
+        private String issued;
+
+        private Relay(String token) {
+            this.token = token;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.apigatewayservice.DomainClientLayer.game;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Sends the {@link ConsistencyToken} of the request being served with each call, and keeps any new one the
+ * response carries. Outside {@link ConsistencyToken#relay} it changes nothing, so calls to the other services pass
+ * through untouched.
+ */
+public class ConsistencyTokenInterceptor implements ClientHttpRequestInterceptor {
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String token = ConsistencyToken.current();
+        if (token != null) {
+            request.getHeaders().set(ConsistencyToken.HEADER, token);
+        }
+        ClientHttpResponse response = execution.execute(request, body);
+        String issued = response.getHeaders().getFirst(ConsistencyToken.HEADER);
+        if (issued != null) {
+            ConsistencyToken.issued(issued);
+        }
+        return response;
+    }
+}
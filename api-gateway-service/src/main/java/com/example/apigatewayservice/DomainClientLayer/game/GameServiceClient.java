@@ -3,9 +3,14 @@ package com.example.apigatewayservice.DomainClientLayer.game;
 import com.example.apigatewayservice.exception.HttpErrorInfo;
 import com.example.apigatewayservice.exception.InvalidInputException;
 import com.example.apigatewayservice.exception.NotFoundException;
+import com.example.apigatewayservice.presentationlayer.game.GameBrowseResponseModel;
+import com.example.apigatewayservice.presentationlayer.game.GameCatalogPageResponseModel;
 import com.example.apigatewayservice.presentationlayer.game.GameRequestModel;
 import com.example.apigatewayservice.presentationlayer.game.GameResponseModel;
+import com.example.apigatewayservice.presentationlayer.game.ReviewAddedResponseModel;
+import com.example.apigatewayservice.presentationlayer.game.ReviewPageResponseModel;
 import com.example.apigatewayservice.presentationlayer.game.ReviewRequestModel;
+import com.example.apigatewayservice.presentationlayer.game.SuggestionResponseModel;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.extern.slf4j.Slf4j;
@@ -18,10 +23,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 
 import static org.springframework.http.HttpMethod.PUT;
@@ -46,21 +54,29 @@ public class GameServiceClient {
         log.info("Game Service URL: {}", gameServiceUrl); // Log the constructed URL
     }
 
-    // GET All Games
-    public List<GameResponseModel> getAllGames() {
+    // GET one keyset page of the catalog; the cursor is passed through as the game service issued it
+    public GameCatalogPageResponseModel getGames(String sort, String direction, String cursor, Integer limit) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(gameServiceUrl);
+        if (sort != null) {
+            builder.queryParam("sort", sort);
+        }
+        if (direction != null) {
+            builder.queryParam("direction", direction);
+        }
+        if (cursor != null) {
+            builder.queryParam("cursor", cursor);
+        }
+        if (limit != null) {
+            builder.queryParam("limit", limit);
+        }
+        URI url = builder.build().encode().toUri();
         try {
-            String url = gameServiceUrl;
-            log.debug("Fetching all games from URL: {}", url);
-            List<GameResponseModel> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<List<GameResponseModel>>() {}
-            ).getBody();
-            log.debug("Received {} games", response != null ? response.size() : 0);
+            log.debug("Fetching a page of games from URL: {}", url);
+            GameCatalogPageResponseModel response = restTemplate.getForObject(url, GameCatalogPageResponseModel.class);
+            log.debug("Received {} games", response != null && response.getGames() != null ? response.getGames().size() : 0);
             return response;
         } catch (HttpClientErrorException ex) {
-            log.warn("getAllGames failed with status: {}", ex.getStatusCode());
+            log.warn("getGames failed with status: {}", ex.getStatusCode());
             throw handleHttpClientException(ex);
         }
     }
@@ -133,13 +149,94 @@ public class GameServiceClient {
         }
     }
 
+    // GET games matching a free-text query, most relevant first
+    public List<GameResponseModel> searchGames(String query, Integer limit) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(gameServiceUrl + "/search").queryParam("q", query);
+        if (limit != null) {
+            builder.queryParam("limit", limit);
+        }
+        // Encoded once here and passed as a URI, so a query containing '%' or '&' reaches the service unchanged.
+        URI url = builder.build().encode().toUri();
+        try {
+            log.debug("Searching games via URL: {}", url);
+            List<GameResponseModel> response = restTemplate.exchange(
+                    url,
+                    HttpMethod.GET,
+                    null,
+                    new ParameterizedTypeReference<List<GameResponseModel>>() {}
+            ).getBody();
+            log.debug("Received {} search hits", response != null ? response.size() : 0);
+            return response;
+        } catch (HttpClientErrorException ex) {
+            log.warn("searchGames failed for query: {} with status: {}", query, ex.getStatusCode());
+            throw handleHttpClientException(ex);
+        }
+    }
+
+    // GET the titles a typed prefix completes, most popular first
+    public List<SuggestionResponseModel> suggestTitles(String prefix, Integer limit) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(gameServiceUrl + "/suggest").queryParam("prefix", prefix);
+        if (limit != null) {
+            builder.queryParam("limit", limit);
+        }
+        URI url = builder.build().encode().toUri();
+        try {
+            log.debug("Fetching title suggestions via URL: {}", url);
+            return restTemplate.exchange(
+                    url,
+                    HttpMethod.GET,
+                    null,
+                    new ParameterizedTypeReference<List<SuggestionResponseModel>>() {}
+            ).getBody();
+        } catch (HttpClientErrorException ex) {
+            log.warn("suggestTitles failed for prefix: {} with status: {}", prefix, ex.getStatusCode());
+            throw handleHttpClientException(ex);
+        }
+    }
+
+    // GET one page of the catalog narrowed by storefront filters, with facet counts
+    public GameBrowseResponseModel browseGames(MultiValueMap<String, String> filters) {
+        URI url = UriComponentsBuilder.fromUriString(gameServiceUrl + "/browse").queryParams(filters).build().encode().toUri();
+        try {
+            log.debug("Browsing games via URL: {}", url);
+            GameBrowseResponseModel response = restTemplate.getForObject(url, GameBrowseResponseModel.class);
+            log.debug("Received {} of {} matching games", response != null && response.getGames() != null ? response.getGames().size() : 0,
+                    response != null ? response.getTotal() : 0);
+            return response;
+        } catch (HttpClientErrorException ex) {
+            log.warn("browseGames failed for filters: {} with status: {}", filters, ex.getStatusCode());
+            throw handleHttpClientException(ex);
+        }
+    }
+
+    // GET one keyset page of a game's reviews
+    public ReviewPageResponseModel getReviews(String gameUuid, String cursor, Integer limit) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(gameServiceUrl + "/" + gameUuid + "/reviews");
+        if (cursor != null) {
+            builder.queryParam("cursor", cursor);
+        }
+        if (limit != null) {
+            builder.queryParam("limit", limit);
+        }
+        String url = builder.build().toUriString();
+        try {
+            log.debug("Fetching reviews of game {} from URL: {}", gameUuid, url);
+            ReviewPageResponseModel response = restTemplate.getForObject(url, ReviewPageResponseModel.class);
+            log.debug("Received {} reviews", response != null && response.getReviews() != null ? response.getReviews().size() : 0);
+            return response;
+        } catch (HttpClientErrorException ex) {
+            log.warn("getReviews failed for game UUID: {} with status: {}", gameUuid, ex.getStatusCode());
+            throw handleHttpClientException(ex);
+        }
+    }
+
     // POST (Add Review)
-    public GameResponseModel addReview(ReviewRequestModel reviewRequestModel, String gameUuid) {
+    public ReviewAddedResponseModel addReview(ReviewRequestModel reviewRequestModel, String gameUuid) {
         try {
             String url = gameServiceUrl + "/review/" + gameUuid;
             log.debug("Adding review to game {} via URL: {}", gameUuid, url);
-            GameResponseModel response = restTemplate.postForObject(url, reviewRequestModel, GameResponseModel.class);
-            log.debug("Added review to game: {}", response != null ? response.getId() : "null");
+            ReviewAddedResponseModel response = restTemplate.postForObject(url, reviewRequestModel, ReviewAddedResponseModel.class);
+            log.debug("Added review to game: {}", response != null ? response.getGameId() : "null");
             return response;
         } catch (HttpClientErrorException ex) {
             log.warn("addReview failed for game UUID: {} with status: {}", gameUuid, ex.getStatusCode());
@@ -1,8 +1,18 @@
 package com.example.apigatewayservice.businesslogiclayer.download;
 
+import com.example.apigatewayservice.presentationlayer.download.BulkDownloadRequestModel;
+import com.example.apigatewayservice.presentationlayer.download.BulkDownloadResponseModel;
+import com.example.apigatewayservice.presentationlayer.download.DownloadPageResponseModel;
+import com.example.apigatewayservice.presentationlayer.download.DownloadPatchResponseModel;
+import com.example.apigatewayservice.presentationlayer.download.DownloadProgressModel;
 import com.example.apigatewayservice.presentationlayer.download.DownloadRequestModel;
 import com.example.apigatewayservice.presentationlayer.download.DownloadResponseModel;
+import com.example.apigatewayservice.presentationlayer.download.PatchDownloadRequestModel;
 
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
 import java.util.List;
 
 public interface DownloadService {
@@ -14,6 +24,16 @@ public interface DownloadService {
     DownloadResponseModel resumeDownload(String id);
     DownloadResponseModel cancelDownload(String id);
     void deleteDownload(String id);
+    DownloadResponseModel createPatchDownload(String baseId, PatchDownloadRequestModel patchDownloadRequestModel);
+    DownloadPatchResponseModel getPatchReport(String id);
+    DownloadPageResponseModel getDownloadPage(String userId, List<String> statuses, Instant from, Instant to, String cursor, Integer limit);
+    Flux<DownloadResponseModel> streamDownloads(String userId, List<String> statuses, Instant from, Instant to);
+    BulkDownloadResponseModel pauseDownloads(BulkDownloadRequestModel bulkDownloadRequestModel);
+    BulkDownloadResponseModel resumeDownloads(BulkDownloadRequestModel bulkDownloadRequestModel);
+    BulkDownloadResponseModel cancelDownloads(BulkDownloadRequestModel bulkDownloadRequestModel);
+    BulkDownloadResponseModel deleteDownloads(BulkDownloadRequestModel bulkDownloadRequestModel);
+    Flux<ServerSentEvent<DownloadProgressModel>> streamDownloadProgress(String id);
+    Flux<ServerSentEvent<DownloadProgressModel>> streamUserDownloadProgress(String userId);
 
     DownloadResponseModel updateDownload(String id, DownloadRequestModel downloadRequestModel);
 }
\ No newline at end of file
@@ -1,12 +1,21 @@
 package com.example.apigatewayservice.businesslogiclayer.download;
 
 import com.example.apigatewayservice.DomainClientLayer.download.DownloadServiceClient;
+import com.example.apigatewayservice.presentationlayer.download.BulkDownloadRequestModel;
+import com.example.apigatewayservice.presentationlayer.download.BulkDownloadResponseModel;
+import com.example.apigatewayservice.presentationlayer.download.DownloadPageResponseModel;
+import com.example.apigatewayservice.presentationlayer.download.DownloadPatchResponseModel;
+import com.example.apigatewayservice.presentationlayer.download.DownloadProgressModel;
 import com.example.apigatewayservice.presentationlayer.download.DownloadRequestModel;
 import com.example.apigatewayservice.presentationlayer.download.DownloadResponseModel;
+import com.example.apigatewayservice.presentationlayer.download.PatchDownloadRequestModel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
+import java.time.Instant;
 import java.util.List;
 @Service
 @RequiredArgsConstructor
@@ -63,6 +72,66 @@ public class DownloadServiceImpl implements DownloadService {
         downloadServiceClient.deleteDownload(id);
     }
 
+    @Override
+    public DownloadResponseModel createPatchDownload(String baseId, PatchDownloadRequestModel patchDownloadRequestModel) {
+        log.debug("2. Delegating createPatchDownload from base {} to client", baseId);
+        return downloadServiceClient.createPatchDownload(baseId, patchDownloadRequestModel);
+    }
+
+    @Override
+    public DownloadPatchResponseModel getPatchReport(String id) {
+        log.debug("2. Delegating getPatchReport for id {} to client", id);
+        return downloadServiceClient.getPatchReport(id);
+    }
+
+    @Override
+    public DownloadPageResponseModel getDownloadPage(String userId, List<String> statuses, Instant from, Instant to, String cursor, Integer limit) {
+        log.debug("2. Delegating getDownloadPage to client");
+        return downloadServiceClient.getDownloadPage(userId, statuses, from, to, cursor, limit);
+    }
+
+    @Override
+    public Flux<DownloadResponseModel> streamDownloads(String userId, List<String> statuses, Instant from, Instant to) {
+        log.debug("2. Delegating streamDownloads to client");
+        return downloadServiceClient.streamDownloads(userId, statuses, from, to);
+    }
+
+    @Override
+    public BulkDownloadResponseModel pauseDownloads(BulkDownloadRequestModel bulkDownloadRequestModel) {
+        log.debug("2. Delegating bulk pauseDownloads to client");
+        return downloadServiceClient.pauseDownloads(bulkDownloadRequestModel);
+    }
+
+    @Override
+    public BulkDownloadResponseModel resumeDownloads(BulkDownloadRequestModel bulkDownloadRequestModel) {
+        log.debug("2. Delegating bulk resumeDownloads to client");
+        return downloadServiceClient.resumeDownloads(bulkDownloadRequestModel);
+    }
+
+    @Override
+    public BulkDownloadResponseModel cancelDownloads(BulkDownloadRequestModel bulkDownloadRequestModel) {
+        log.debug("2. Delegating bulk cancelDownloads to client");
+        return downloadServiceClient.cancelDownloads(bulkDownloadRequestModel);
+    }
+
+    @Override
+    public BulkDownloadResponseModel deleteDownloads(BulkDownloadRequestModel bulkDownloadRequestModel) {
+        log.debug("2. Delegating bulk deleteDownloads to client");
+        return downloadServiceClient.deleteDownloads(bulkDownloadRequestModel);
+    }
+
+    @Override
+    public Flux<ServerSentEvent<DownloadProgressModel>> streamDownloadProgress(String id) {
+        log.debug("2. Delegating streamDownloadProgress for id {} to client", id);
+        return downloadServiceClient.streamDownloadProgress(id);
+    }
+
+    @Override
+    public Flux<ServerSentEvent<DownloadProgressModel>> streamUserDownloadProgress(String userId) {
+        log.debug("2. Delegating streamUserDownloadProgress for user {} to client", userId);
+        return downloadServiceClient.streamUserDownloadProgress(userId);
+    }
+
     @Override
     public DownloadResponseModel updateDownload(String id, DownloadRequestModel downloadRequestModel) {
         return downloadServiceClient.updateDownload(id, downloadRequestModel);
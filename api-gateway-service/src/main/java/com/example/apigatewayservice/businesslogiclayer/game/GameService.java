@@ -1,22 +1,32 @@
 package com.example.apigatewayservice.businesslogiclayer.game;
 
 import com.example.apigatewayservice.DomainClientLayer.game.GameServiceClient;
+import com.example.apigatewayservice.presentationlayer.game.GameBrowseResponseModel;
+import com.example.apigatewayservice.presentationlayer.game.GameCatalogPageResponseModel;
 import com.example.apigatewayservice.presentationlayer.game.GameRequestModel;
 import com.example.apigatewayservice.presentationlayer.game.GameResponseModel;
+import com.example.apigatewayservice.presentationlayer.game.ReviewAddedResponseModel;
+import com.example.apigatewayservice.presentationlayer.game.ReviewPageResponseModel;
 import com.example.apigatewayservice.presentationlayer.game.ReviewRequestModel;
+import com.example.apigatewayservice.presentationlayer.game.SuggestionResponseModel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.util.MultiValueMap;
 
 import java.util.List;
 
 public interface GameService {
-    List<GameResponseModel> getAllGames();
+    GameCatalogPageResponseModel getGames(String sort, String direction, String cursor, Integer limit);
     GameResponseModel getGameById(String uuid);
     GameResponseModel createGame(GameRequestModel gameRequestModel);
     GameResponseModel updateGame(GameRequestModel gameRequestModel);
     void deleteGame(String uuid); // Changed to void based on client implementation
-    GameResponseModel addReview(ReviewRequestModel reviewRequestModel, String gameUuid);
+    ReviewAddedResponseModel addReview(ReviewRequestModel reviewRequestModel, String gameUuid);
+    ReviewPageResponseModel getReviews(String gameUuid, String cursor, Integer limit);
+    List<GameResponseModel> searchGames(String query, Integer limit);
+    GameBrowseResponseModel browseGames(MultiValueMap<String, String> filters);
+    List<SuggestionResponseModel> suggestTitles(String prefix, Integer limit);
 }
 
 
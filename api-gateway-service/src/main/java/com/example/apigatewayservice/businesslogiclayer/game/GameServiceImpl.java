@@ -1,12 +1,18 @@
 package com.example.apigatewayservice.businesslogiclayer.game;// GameGatewayServiceImpl.java (Implementation)
 
 import com.example.apigatewayservice.DomainClientLayer.game.GameServiceClient;
+import com.example.apigatewayservice.presentationlayer.game.GameBrowseResponseModel;
+import com.example.apigatewayservice.presentationlayer.game.GameCatalogPageResponseModel;
 import com.example.apigatewayservice.presentationlayer.game.GameRequestModel;
 import com.example.apigatewayservice.presentationlayer.game.GameResponseModel;
+import com.example.apigatewayservice.presentationlayer.game.ReviewAddedResponseModel;
+import com.example.apigatewayservice.presentationlayer.game.ReviewPageResponseModel;
 import com.example.apigatewayservice.presentationlayer.game.ReviewRequestModel;
+import com.example.apigatewayservice.presentationlayer.game.SuggestionResponseModel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.util.MultiValueMap;
 
 import java.util.List;
 
@@ -18,9 +24,9 @@ public class GameServiceImpl implements GameService {
     private final GameServiceClient gameServiceClient;
 
     @Override
-    public List<GameResponseModel> getAllGames() {
-        log.debug("Calling client for getAllGames");
-        return gameServiceClient.getAllGames();
+    public GameCatalogPageResponseModel getGames(String sort, String direction, String cursor, Integer limit) {
+        log.debug("Calling client for getGames sorted by: {} {}", sort, direction);
+        return gameServiceClient.getGames(sort, direction, cursor, limit);
     }
 
     @Override
@@ -48,8 +54,32 @@ public class GameServiceImpl implements GameService {
     }
 
     @Override
-    public GameResponseModel addReview(ReviewRequestModel reviewRequestModel, String gameUuid) {
+    public ReviewAddedResponseModel addReview(ReviewRequestModel reviewRequestModel, String gameUuid) {
         log.debug("Calling client for addReview for game UUID: {}", gameUuid);
         return gameServiceClient.addReview(reviewRequestModel, gameUuid);
     }
+
+    @Override
+    public ReviewPageResponseModel getReviews(String gameUuid, String cursor, Integer limit) {
+        log.debug("Calling client for getReviews for game UUID: {}", gameUuid);
+        return gameServiceClient.getReviews(gameUuid, cursor, limit);
+    }
+
+    @Override
+    public List<GameResponseModel> searchGames(String query, Integer limit) {
+        log.debug("Calling client for searchGames with query: {}", query);
+        return gameServiceClient.searchGames(query, limit);
+    }
+
+    @Override
+    public GameBrowseResponseModel browseGames(MultiValueMap<String, String> filters) {
+        log.debug("Calling client for browseGames with filters: {}", filters);
+        return gameServiceClient.browseGames(filters);
+    }
+
+    @Override
+    public List<SuggestionResponseModel> suggestTitles(String prefix, Integer limit) {
+        log.debug("Calling client for suggestTitles with prefix: {}", prefix);
+        return gameServiceClient.suggestTitles(prefix, limit);
+    }
 }
\ No newline at end of file
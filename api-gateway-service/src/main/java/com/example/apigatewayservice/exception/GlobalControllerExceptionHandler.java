@@ -30,6 +30,13 @@ public class GlobalControllerExceptionHandler {
         return createHttpErrorInfo(HttpStatus.UNPROCESSABLE_ENTITY, exchange, ex);
     }
 
+    @ExceptionHandler(InvalidDownloadStateException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<HttpErrorInfo> handleInvalidDownloadStateException(ServerWebExchange exchange, InvalidDownloadStateException ex) {
+        log.warn("Handling InvalidDownloadStateException: {}", ex.getMessage());
+        return createHttpErrorInfo(HttpStatus.CONFLICT, exchange, ex);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     @ResponseStatus(INTERNAL_SERVER_ERROR)
     public ResponseEntity<HttpErrorInfo> handleGenericRuntimeException(ServerWebExchange exchange, RuntimeException ex) {
@@ -0,0 +1,12 @@
+package com.example.apigatewayservice.exception;
+
+public class InvalidDownloadStateException extends RuntimeException{
+
+    public InvalidDownloadStateException() {}
+
+    public InvalidDownloadStateException(String message) { super(message); }
+
+    public InvalidDownloadStateException(Throwable cause) { super(cause); }
+
+    public InvalidDownloadStateException(String message, Throwable cause) { super(message, cause); }
+}
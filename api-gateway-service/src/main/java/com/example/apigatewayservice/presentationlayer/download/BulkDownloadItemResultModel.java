@@ -0,0 +1,13 @@
+package com.example.apigatewayservice.presentationlayer.download;
+
+import lombok.*;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkDownloadItemResultModel {
+    String id;
+    String outcome;
+    String status;
+}
@@ -0,0 +1,15 @@
+package com.example.apigatewayservice.presentationlayer.download;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkDownloadRequestModel {
+    List<String> ids;
+    String userId;
+    String status;
+}
@@ -0,0 +1,16 @@
+package com.example.apigatewayservice.presentationlayer.download;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkDownloadResponseModel {
+    String action;
+    int matched;
+    int applied;
+    List<BulkDownloadItemResultModel> results;
+}
@@ -7,8 +7,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
+import java.time.Instant;
 import java.util.List;
 
 @Slf4j
@@ -33,6 +36,26 @@ public class DownloadController {
 //        return ResponseEntity.status(HttpStatus.CREATED).body(newDownload);
 //    }
 //
+    @GetMapping("/page")
+    public ResponseEntity<DownloadPageResponseModel> getDownloadPage(@RequestParam(required = false) String userId,
+                                                                     @RequestParam(required = false) List<String> status,
+                                                                     @RequestParam(required = false) Instant from,
+                                                                     @RequestParam(required = false) Instant to,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) Integer limit) {
+        log.debug("1. Received in API-Gateway Download Controller getDownloadPage");
+        return ResponseEntity.ok(downloadService.getDownloadPage(userId, status, from, to, cursor, limit));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<DownloadResponseModel> streamDownloads(@RequestParam(required = false) String userId,
+                                                       @RequestParam(required = false) List<String> status,
+                                                       @RequestParam(required = false) Instant from,
+                                                       @RequestParam(required = false) Instant to) {
+        log.debug("1. Received in API-Gateway Download Controller streamDownloads");
+        return downloadService.streamDownloads(userId, status, from, to);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<DownloadResponseModel> getDownload(@PathVariable String id) {
         log.debug("1. Received in API-Gateway Download Controller getDownload for id: {}", id);
@@ -40,6 +63,42 @@ public class DownloadController {
         return ResponseEntity.ok(dto);
     }
 
+    @PostMapping(value = "/bulk/pause", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkDownloadResponseModel> pauseDownloads(@RequestBody BulkDownloadRequestModel bulkDownloadRequestModel) {
+        log.debug("1. Received in API-Gateway Download Controller bulk pauseDownloads");
+        return ResponseEntity.ok(downloadService.pauseDownloads(bulkDownloadRequestModel));
+    }
+
+    @PostMapping(value = "/bulk/resume", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkDownloadResponseModel> resumeDownloads(@RequestBody BulkDownloadRequestModel bulkDownloadRequestModel) {
+        log.debug("1. Received in API-Gateway Download Controller bulk resumeDownloads");
+        return ResponseEntity.ok(downloadService.resumeDownloads(bulkDownloadRequestModel));
+    }
+
+    @PostMapping(value = "/bulk/cancel", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkDownloadResponseModel> cancelDownloads(@RequestBody BulkDownloadRequestModel bulkDownloadRequestModel) {
+        log.debug("1. Received in API-Gateway Download Controller bulk cancelDownloads");
+        return ResponseEntity.ok(downloadService.cancelDownloads(bulkDownloadRequestModel));
+    }
+
+    @PostMapping(value = "/bulk/delete", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkDownloadResponseModel> deleteDownloads(@RequestBody BulkDownloadRequestModel bulkDownloadRequestModel) {
+        log.debug("1. Received in API-Gateway Download Controller bulk deleteDownloads");
+        return ResponseEntity.ok(downloadService.deleteDownloads(bulkDownloadRequestModel));
+    }
+
+    @GetMapping(value = "/{id}/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<DownloadProgressModel>> streamDownloadProgress(@PathVariable String id) {
+        log.debug("1. Received in API-Gateway Download Controller streamDownloadProgress for id: {}", id);
+        return downloadService.streamDownloadProgress(id);
+    }
+
+    @GetMapping(value = "/user/{userId}/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<DownloadProgressModel>> streamUserDownloadProgress(@PathVariable String userId) {
+        log.debug("1. Received in API-Gateway Download Controller streamUserDownloadProgress for user: {}", userId);
+        return downloadService.streamUserDownloadProgress(userId);
+    }
+
     @GetMapping
     public ResponseEntity<List<DownloadResponseModel>> getAllDownloads() {
         log.debug("1. Received in API-Gateway Download Controller getAllDownloads");
@@ -54,6 +113,19 @@ public class DownloadController {
         return ResponseEntity.ok(updatedDto);
     }
 
+    @PostMapping(value = "/{id}/patch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DownloadResponseModel> createPatchDownload(@PathVariable String id, @RequestBody PatchDownloadRequestModel patchDownloadRequestModel) {
+        log.debug("1. Received in API-Gateway Download Controller createPatchDownload from base: {}", id);
+        DownloadResponseModel newDownload = downloadService.createPatchDownload(id, patchDownloadRequestModel);
+        return ResponseEntity.status(HttpStatus.CREATED).body(newDownload);
+    }
+
+    @GetMapping("/{id}/patch")
+    public ResponseEntity<DownloadPatchResponseModel> getPatchReport(@PathVariable String id) {
+        log.debug("1. Received in API-Gateway Download Controller getPatchReport for id: {}", id);
+        return ResponseEntity.ok(downloadService.getPatchReport(id));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<DownloadResponseModel> updateDownload(@PathVariable String id, @RequestBody DownloadRequestModel downloadRequestModel) {
         DownloadResponseModel updatedDto = downloadService.updateDownload(id, downloadRequestModel);
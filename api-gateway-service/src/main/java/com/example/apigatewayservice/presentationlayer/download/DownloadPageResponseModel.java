@@ -0,0 +1,14 @@
+package com.example.apigatewayservice.presentationlayer.download;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DownloadPageResponseModel {
+    List<DownloadResponseModel> items;
+    String nextCursor;
+}
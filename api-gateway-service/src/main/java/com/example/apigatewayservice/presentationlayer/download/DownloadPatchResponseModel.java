@@ -0,0 +1,19 @@
+package com.example.apigatewayservice.presentationlayer.download;
+
+import lombok.*;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DownloadPatchResponseModel {
+    String id;
+    String baseDownloadId;
+    boolean applied;
+    long targetBytes;
+    long bytesFromBase;
+    long bytesFetched;
+    long bytesSaved;
+    double megabytesPerSecond;
+    String fallbackReason;
+}
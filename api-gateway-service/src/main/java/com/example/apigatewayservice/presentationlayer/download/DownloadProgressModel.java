@@ -0,0 +1,20 @@
+package com.example.apigatewayservice.presentationlayer.download;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DownloadProgressModel {
+    String id;
+    String userId;
+    String status;
+    long bytesDownloaded;
+    Long totalBytes;
+    Double percentComplete;
+    long bytesPerSecond;
+}
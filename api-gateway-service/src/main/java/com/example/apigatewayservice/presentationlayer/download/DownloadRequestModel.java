@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -12,4 +14,7 @@ import lombok.NoArgsConstructor;
 
 public class DownloadRequestModel {
     String sourceUrl;
+    List<String> mirrorUrls;
+    boolean install;
+    String installManifestUrl;
 }
@@ -2,6 +2,9 @@ package com.example.apigatewayservice.presentationlayer.download;
 
 import lombok.*;
 
+import java.time.Instant;
+import java.util.List;
+
 @Data
 @EqualsAndHashCode
 @AllArgsConstructor
@@ -12,4 +15,9 @@ public class DownloadResponseModel {
     String id;
     String sourceUrl;
     String status;
+    String userId;
+    List<String> mirrorUrls;
+    boolean install;
+    Instant createdAt;
+    Instant updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.example.apigatewayservice.presentationlayer.download;
+
+import lombok.*;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PatchDownloadRequestModel {
+    String targetUrl;
+    String signatureUrl;
+}
@@ -0,0 +1,19 @@
+package com.example.apigatewayservice.presentationlayer.game;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class GameBrowseResponseModel {
+    private List<GameResponseModel> games; // one page, ordered by title
+    private int total; // games matching every filter
+    private Map<String, Map<String, Integer>> facets; // facet -> value -> matching games, ignoring that facet's own filter
+}
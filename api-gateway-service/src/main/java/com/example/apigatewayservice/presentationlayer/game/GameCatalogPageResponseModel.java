@@ -0,0 +1,17 @@
+package com.example.apigatewayservice.presentationlayer.game;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class GameCatalogPageResponseModel {
+    private List<GameSummaryResponseModel> games;
+    private String nextCursor; // null on the last page
+}
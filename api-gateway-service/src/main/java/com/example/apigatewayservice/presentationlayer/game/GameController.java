@@ -1,11 +1,13 @@
 package com.example.apigatewayservice.presentationlayer.game;
 
+import com.example.apigatewayservice.DomainClientLayer.game.ConsistencyToken;
 import com.example.apigatewayservice.businesslogiclayer.game.GameService;
 import com.example.apigatewayservice.exception.InvalidInputException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -21,47 +23,86 @@ public class GameController {
 
 
     @GetMapping("{uuid}")
-    public ResponseEntity<GameResponseModel> getGameByGameId(@PathVariable String uuid) {
+    public ResponseEntity<GameResponseModel> getGameByGameId(@PathVariable String uuid,
+                                                             @RequestHeader(value = ConsistencyToken.HEADER, required = false) String consistencyToken) {
         log.info("Received request to get game by UUID: {}", uuid);
 
-        GameResponseModel game = gameService.getGameById(uuid);
-        return ResponseEntity.ok(game);
+        return ConsistencyToken.relay(consistencyToken, () -> ResponseEntity.ok(gameService.getGameById(uuid)));
+    }
+
+    @GetMapping("{uuid}/reviews")
+    public ResponseEntity<ReviewPageResponseModel> getReviews(@PathVariable String uuid,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer limit,
+                                                              @RequestHeader(value = ConsistencyToken.HEADER, required = false) String consistencyToken) {
+        log.info("Received request to get reviews of game UUID: {}", uuid);
+        return ConsistencyToken.relay(consistencyToken,
+                () -> ResponseEntity.ok(gameService.getReviews(uuid, cursor, limit)));
     }
 
     @GetMapping
-    public ResponseEntity<List<GameResponseModel>> getAllGames() {
-        log.info("Received request to get all games");
-        List<GameResponseModel> games = gameService.getAllGames();
-        return ResponseEntity.ok(games);
+    public ResponseEntity<GameCatalogPageResponseModel> getGames(@RequestParam(required = false) String sort,
+                                                                 @RequestParam(required = false) String direction,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Integer limit,
+                                                                 @RequestHeader(value = ConsistencyToken.HEADER, required = false) String consistencyToken) {
+        log.info("Received request to get a page of games sorted by: {}", sort);
+        return ConsistencyToken.relay(consistencyToken,
+                () -> ResponseEntity.ok(gameService.getGames(sort, direction, cursor, limit)));
+    }
+
+    @GetMapping("search")
+    public ResponseEntity<List<GameResponseModel>> searchGames(@RequestParam String q,
+                                                               @RequestParam(required = false) Integer limit,
+                                                               @RequestHeader(value = ConsistencyToken.HEADER, required = false) String consistencyToken) {
+        log.info("Received request to search games for: {}", q);
+        return ConsistencyToken.relay(consistencyToken, () -> ResponseEntity.ok(gameService.searchGames(q, limit)));
+    }
+
+    @GetMapping("browse")
+    public ResponseEntity<GameBrowseResponseModel> browseGames(@RequestParam MultiValueMap<String, String> filters) {
+        log.info("Received request to browse games with filters: {}", filters);
+        return ResponseEntity.ok(gameService.browseGames(filters));
+    }
+
+    @GetMapping("suggest")
+    public ResponseEntity<List<SuggestionResponseModel>> suggestTitles(@RequestParam String prefix,
+                                                                       @RequestParam(required = false) Integer limit) {
+        log.debug("Received request for title suggestions for: {}", prefix);
+        return ResponseEntity.ok(gameService.suggestTitles(prefix, limit));
     }
 
     @PostMapping
-    public ResponseEntity<GameResponseModel> addGame(@RequestBody GameRequestModel gameRequestModel) {
+    public ResponseEntity<GameResponseModel> addGame(@RequestBody GameRequestModel gameRequestModel,
+                                                     @RequestHeader(value = ConsistencyToken.HEADER, required = false) String consistencyToken) {
         log.info("Received request to add a new game");
-        GameResponseModel addedGame = gameService.createGame(gameRequestModel);
-        return ResponseEntity.status(HttpStatus.CREATED).body(addedGame);
+        return ConsistencyToken.relay(consistencyToken,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(gameService.createGame(gameRequestModel)));
     }
 
     @PutMapping
-    public ResponseEntity<GameResponseModel> updateGame(@RequestBody GameRequestModel gameRequestModel) {
+    public ResponseEntity<GameResponseModel> updateGame(@RequestBody GameRequestModel gameRequestModel,
+                                                        @RequestHeader(value = ConsistencyToken.HEADER, required = false) String consistencyToken) {
         log.info("Received request to update a game");
-        GameResponseModel updatedGame = gameService.updateGame(gameRequestModel);
-        return ResponseEntity.ok(updatedGame);
+        return ConsistencyToken.relay(consistencyToken, () -> ResponseEntity.ok(gameService.updateGame(gameRequestModel)));
     }
 
     @DeleteMapping("{uuid}")
-    public ResponseEntity<Void> deleteGame(@PathVariable String uuid) {
+    public ResponseEntity<Void> deleteGame(@PathVariable String uuid, @RequestHeader(value = ConsistencyToken.HEADER, required = false) String consistencyToken) {
         log.info("Received request to delete game with UUID: {}", uuid);
 
-        gameService.deleteGame(uuid);
-        return ResponseEntity.noContent().build();
+        return ConsistencyToken.relay(consistencyToken, () -> {
+            gameService.deleteGame(uuid);
+            return ResponseEntity.noContent().build();
+        });
     }
 
     @PostMapping("review/{uuid}")
-    public ResponseEntity<GameResponseModel> addReviewToGame(@PathVariable String uuid, @RequestBody ReviewRequestModel reviewRequestModel) {
+    public ResponseEntity<ReviewAddedResponseModel> addReviewToGame(@PathVariable String uuid, @RequestBody ReviewRequestModel reviewRequestModel,
+                                                                    @RequestHeader(value = ConsistencyToken.HEADER, required = false) String consistencyToken) {
         log.info("Received request to add review to game UUID: {}", uuid);
 
-        GameResponseModel reviewedGame = gameService.addReview(reviewRequestModel, uuid);
-        return ResponseEntity.ok(reviewedGame);
+        return ConsistencyToken.relay(consistencyToken,
+                () -> ResponseEntity.ok(gameService.addReview(reviewRequestModel, uuid)));
     }
 }
\ No newline at end of file
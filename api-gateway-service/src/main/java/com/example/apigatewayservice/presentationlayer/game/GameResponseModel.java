@@ -21,4 +21,5 @@ public class GameResponseModel {
     private String developer;
     private String genre;
     private List<Review> reviews;
+    private RatingSummaryResponseModel ratings;
 }
@@ -0,0 +1,22 @@
+package com.example.apigatewayservice.presentationlayer.game;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class GameSummaryResponseModel {
+    private String id;
+    private String title;
+    private double price;
+    private String releaseDate;
+    private String publisher;
+    private String developer;
+    private String genre;
+    private long ratingCount;
+    private Double ratingAverage; // null until the game has a rating
+}
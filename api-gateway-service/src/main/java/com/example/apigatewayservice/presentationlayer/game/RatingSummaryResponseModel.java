@@ -0,0 +1,19 @@
+package com.example.apigatewayservice.presentationlayer.game;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RatingSummaryResponseModel {
+    private long count;
+    private long sum;
+    private Double average; // null until the game has a rating
+    private Map<Integer, Long> histogram; // stars -> number of reviews
+}
@@ -13,13 +13,13 @@ import java.time.LocalDateTime;
 public class Review {
     private ReviewId reviewId;
     private String comment;
-    private String rating;
+    private Integer rating; // stars, 1 to 5
     private LocalDateTime timestamp;
 
 
     public Review(String s, int i) {
         reviewId = new ReviewId(s);
-        rating = String.valueOf(i);
+        rating = i;
     }
 
 }
\ No newline at end of file
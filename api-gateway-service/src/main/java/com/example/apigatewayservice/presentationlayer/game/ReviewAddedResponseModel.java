@@ -0,0 +1,16 @@
+package com.example.apigatewayservice.presentationlayer.game;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReviewAddedResponseModel {
+    private String gameId;
+    private ReviewResponseModel review;
+    private RatingSummaryResponseModel ratings; // the game's totals including this review
+}
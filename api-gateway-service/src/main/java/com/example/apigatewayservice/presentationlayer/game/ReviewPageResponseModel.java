@@ -0,0 +1,17 @@
+package com.example.apigatewayservice.presentationlayer.game;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReviewPageResponseModel {
+    private List<ReviewResponseModel> reviews;
+    private String nextCursor; // null on the last page
+}
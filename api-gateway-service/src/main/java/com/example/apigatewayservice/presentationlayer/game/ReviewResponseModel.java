@@ -0,0 +1,19 @@
+package com.example.apigatewayservice.presentationlayer.game;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReviewResponseModel {
+    private String id;
+    private String comment;
+    private Integer rating;
+    private LocalDateTime timestamp;
+}
@@ -1,10 +1,17 @@
 package com.example.apigatewayservice.DomainClientLayer.download;
 
 import com.example.apigatewayservice.exception.HttpErrorInfo;
+import com.example.apigatewayservice.exception.InvalidDownloadStateException;
 import com.example.apigatewayservice.exception.InvalidInputException;
 import com.example.apigatewayservice.exception.NotFoundException;
+import com.example.apigatewayservice.presentationlayer.download.BulkDownloadItemResultModel;
+import com.example.apigatewayservice.presentationlayer.download.BulkDownloadRequestModel;
+import com.example.apigatewayservice.presentationlayer.download.BulkDownloadResponseModel;
+import com.example.apigatewayservice.presentationlayer.download.DownloadPageResponseModel;
+import com.example.apigatewayservice.presentationlayer.download.DownloadPatchResponseModel;
 import com.example.apigatewayservice.presentationlayer.download.DownloadRequestModel;
 import com.example.apigatewayservice.presentationlayer.download.DownloadResponseModel;
+import com.example.apigatewayservice.presentationlayer.download.PatchDownloadRequestModel;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,6 +26,7 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
@@ -158,6 +166,65 @@ class DownloadServiceClientTest {
         verify(restTemplate).postForObject(eq(url), isNull(), eq(DownloadResponseModel.class));
     }
 
+    @Test
+    void pauseDownloads_success() {
+        String url = BASE_URL + "/bulk/pause";
+        BulkDownloadRequestModel request = BulkDownloadRequestModel.builder().userId("user-1").status("DOWNLOADING").build();
+        BulkDownloadResponseModel response = BulkDownloadResponseModel.builder()
+                .action("pause").matched(1).applied(1)
+                .results(List.of(BulkDownloadItemResultModel.builder().id(DOWNLOAD_ID).outcome("APPLIED").status("PAUSED").build()))
+                .build();
+        when(restTemplate.postForObject(eq(url), eq(request), eq(BulkDownloadResponseModel.class))).thenReturn(response);
+        BulkDownloadResponseModel result = downloadServiceClient.pauseDownloads(request);
+        assertEquals(response, result);
+        verify(restTemplate).postForObject(eq(url), eq(request), eq(BulkDownloadResponseModel.class));
+    }
+
+    @Test
+    void createPatchDownload_success() {
+        String url = BASE_URL + "/" + DOWNLOAD_ID + "/patch";
+        PatchDownloadRequestModel request = PatchDownloadRequestModel.builder()
+                .targetUrl("http://example.com/v2.bin").signatureUrl("http://example.com/v2.sig").build();
+        DownloadResponseModel response = DownloadResponseModel.builder().id("patch-1").status("PENDING").build();
+        when(restTemplate.postForObject(eq(url), eq(request), eq(DownloadResponseModel.class))).thenReturn(response);
+        DownloadResponseModel result = downloadServiceClient.createPatchDownload(DOWNLOAD_ID, request);
+        assertEquals(response, result);
+    }
+
+    @Test
+    void getPatchReport_success() {
+        String url = BASE_URL + "/" + DOWNLOAD_ID + "/patch";
+        DownloadPatchResponseModel report = DownloadPatchResponseModel.builder().id(DOWNLOAD_ID).applied(true).bytesSaved(900).build();
+        when(restTemplate.getForObject(url, DownloadPatchResponseModel.class)).thenReturn(report);
+        DownloadPatchResponseModel result = downloadServiceClient.getPatchReport(DOWNLOAD_ID);
+        assertEquals(900, result.getBytesSaved());
+    }
+
+    @Test
+    void deleteDownloads_success() {
+        String url = BASE_URL + "/bulk/delete";
+        BulkDownloadRequestModel request = BulkDownloadRequestModel.builder().ids(List.of(DOWNLOAD_ID)).build();
+        BulkDownloadResponseModel response = BulkDownloadResponseModel.builder().action("delete").matched(1).applied(1).build();
+        when(restTemplate.postForObject(eq(url), eq(request), eq(BulkDownloadResponseModel.class))).thenReturn(response);
+        BulkDownloadResponseModel result = downloadServiceClient.deleteDownloads(request);
+        assertEquals(response, result);
+        verify(restTemplate).postForObject(eq(url), eq(request), eq(BulkDownloadResponseModel.class));
+    }
+
+    @Test
+    void getDownloadPage_success() {
+        String url = BASE_URL + "/page?userId=user-1&status=PAUSED&status=FAILED&from=2025-01-01T00:00:00Z&cursor=abc&limit=20";
+        DownloadPageResponseModel page = DownloadPageResponseModel.builder()
+                .items(List.of(sampleDownloadResponse))
+                .nextCursor("def")
+                .build();
+        when(restTemplate.getForObject(url, DownloadPageResponseModel.class)).thenReturn(page);
+        DownloadPageResponseModel result = downloadServiceClient.getDownloadPage(
+                "user-1", List.of("PAUSED", "FAILED"), Instant.parse("2025-01-01T00:00:00Z"), null, "abc", 20);
+        assertEquals(page, result);
+        verify(restTemplate).getForObject(url, DownloadPageResponseModel.class);
+    }
+
     // --- Exception Cases ---
     @Test
     void getDownload_notFoundException() throws IOException {
@@ -187,6 +254,33 @@ class DownloadServiceClientTest {
         verify(objectMapper).readValue(errorMsgJson, HttpErrorInfo.class);
     }
 
+    @Test
+    void pauseDownload_invalidDownloadStateException() throws IOException {
+        String url = BASE_URL + "/" + DOWNLOAD_ID + "/pause";
+        String errorMsgJson = "{\"message\":\"Download cannot be paused from COMPLETED\"}";
+        HttpClientErrorException ex = mockHttpClientErrorException(HttpStatus.CONFLICT, errorMsgJson);
+        when(objectMapper.readValue(errorMsgJson, HttpErrorInfo.class))
+                .thenReturn(new HttpErrorInfo(HttpStatus.CONFLICT, "/path", "Download cannot be paused from COMPLETED"));
+        when(restTemplate.postForObject(eq(url), isNull(), eq(DownloadResponseModel.class))).thenThrow(ex);
+
+        InvalidDownloadStateException thrown = assertThrows(InvalidDownloadStateException.class, () -> downloadServiceClient.pauseDownload(DOWNLOAD_ID));
+        assertEquals("Download cannot be paused from COMPLETED", thrown.getMessage());
+    }
+
+    @Test
+    void createPatchDownload_whenBaseIsNotOnDisk_invalidDownloadStateException() throws IOException {
+        String url = BASE_URL + "/" + DOWNLOAD_ID + "/patch";
+        PatchDownloadRequestModel request = PatchDownloadRequestModel.builder()
+                .targetUrl("http://example.com/v2.bin").signatureUrl("http://example.com/v2.sig").build();
+        String errorMsgJson = "{\"message\":\"Base download is not on disk\"}";
+        HttpClientErrorException ex = mockHttpClientErrorException(HttpStatus.CONFLICT, errorMsgJson);
+        when(objectMapper.readValue(errorMsgJson, HttpErrorInfo.class))
+                .thenReturn(new HttpErrorInfo(HttpStatus.CONFLICT, "/path", "Base download is not on disk"));
+        when(restTemplate.postForObject(eq(url), eq(request), eq(DownloadResponseModel.class))).thenThrow(ex);
+
+        assertThrows(InvalidDownloadStateException.class, () -> downloadServiceClient.createPatchDownload(DOWNLOAD_ID, request));
+    }
+
     @Test
     void getDownload_genericHttpClientErrorException() {
         String url = BASE_URL + "/" + DOWNLOAD_ID;
@@ -0,0 +1,86 @@
+package com.example.apigatewayservice.DomainClientLayer.game;
+
+import com.example.apigatewayservice.presentationlayer.game.GameResponseModel;
+import com.example.apigatewayservice.presentationlayer.game.ReviewRequestModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ConsistencyTokenTest {
+
+    private static final String BASE_URL = "http://game-service:8080/api/v1/game";
+
+    private MockRestServiceServer server;
+    private GameServiceClient gameServiceClient;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new ConsistencyTokenInterceptor());
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+        gameServiceClient = new GameServiceClient(restTemplate, new ObjectMapper(), "game-service", "8080");
+    }
+
+    private static HttpHeaders token(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(ConsistencyToken.HEADER, token);
+        return headers;
+    }
+
+    @Test
+    void whenGameServiceIssuesAToken_thenSendItOnTheLaterCallsAndBackToTheClient() {
+        server.expect(requestTo(BASE_URL + "/review/game-1"))
+                .andExpect(header(ConsistencyToken.HEADER, "100"))
+                .andRespond(withSuccess("{\"gameId\":\"game-1\"}", MediaType.APPLICATION_JSON).headers(token("200")));
+        server.expect(requestTo(BASE_URL + "/game-1"))
+                .andExpect(header(ConsistencyToken.HEADER, "200"))
+                .andRespond(withSuccess("{\"id\":\"game-1\"}", MediaType.APPLICATION_JSON));
+
+        ResponseEntity<GameResponseModel> response = ConsistencyToken.relay("100", () -> {
+            gameServiceClient.addReview(ReviewRequestModel.builder().comment("Great").rating("5").build(), "game-1");
+            return ResponseEntity.ok(gameServiceClient.getGameByGameId("game-1"));
+        });
+
+        server.verify();
+        assertEquals("game-1", response.getBody().getId());
+        assertEquals("200", response.getHeaders().getFirst(ConsistencyToken.HEADER));
+        assertNull(ConsistencyToken.current());
+    }
+
+    @Test
+    void whenNoTokenIsIssued_thenLeaveTheResponseAsItIs() {
+        server.expect(requestTo(BASE_URL + "/game-1"))
+                .andExpect(header(ConsistencyToken.HEADER, "100"))
+                .andRespond(withSuccess("{\"id\":\"game-1\"}", MediaType.APPLICATION_JSON));
+
+        ResponseEntity<GameResponseModel> response =
+                ConsistencyToken.relay("100", () -> ResponseEntity.ok(gameServiceClient.getGameByGameId("game-1")));
+
+        server.verify();
+        assertFalse(response.getHeaders().containsKey(ConsistencyToken.HEADER));
+    }
+
+    @Test
+    void whenCalledOutsideARelay_thenSendNoToken() {
+        server.expect(requestTo(BASE_URL + "/game-1"))
+                .andExpect(headerDoesNotExist(ConsistencyToken.HEADER))
+                .andRespond(withSuccess("{\"id\":\"game-1\"}", MediaType.APPLICATION_JSON).headers(token("200")));
+
+        GameResponseModel game = gameServiceClient.getGameByGameId("game-1");
+
+        server.verify();
+        assertEquals("game-1", game.getId());
+        assertNull(ConsistencyToken.current());
+    }
+}
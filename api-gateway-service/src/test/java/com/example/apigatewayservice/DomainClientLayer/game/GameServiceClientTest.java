@@ -3,9 +3,16 @@ package com.example.apigatewayservice.DomainClientLayer.game;
 import com.example.apigatewayservice.exception.HttpErrorInfo;
 import com.example.apigatewayservice.exception.InvalidInputException;
 import com.example.apigatewayservice.exception.NotFoundException;
+import com.example.apigatewayservice.presentationlayer.game.GameBrowseResponseModel;
+import com.example.apigatewayservice.presentationlayer.game.GameCatalogPageResponseModel;
 import com.example.apigatewayservice.presentationlayer.game.GameRequestModel;
 import com.example.apigatewayservice.presentationlayer.game.GameResponseModel;
+import com.example.apigatewayservice.presentationlayer.game.GameSummaryResponseModel;
+import com.example.apigatewayservice.presentationlayer.game.ReviewPageResponseModel;
+import com.example.apigatewayservice.presentationlayer.game.ReviewResponseModel;
+import com.example.apigatewayservice.presentationlayer.game.ReviewAddedResponseModel;
 import com.example.apigatewayservice.presentationlayer.game.ReviewRequestModel;
+import com.example.apigatewayservice.presentationlayer.game.SuggestionResponseModel;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,12 +23,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
+import java.net.URI;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -92,17 +103,27 @@ class GameServiceClientTest {
     // --- Success Cases ---
 
     @Test
-    void getAllGames_success() {
-        List<GameResponseModel> expectedResponse = List.of(sampleGameResponse);
-        ResponseEntity<List<GameResponseModel>> responseEntity = new ResponseEntity<>(expectedResponse, HttpStatus.OK);
-        when(restTemplate.exchange(eq(BASE_URL), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
-                .thenReturn(responseEntity);
+    void getGames_success() {
+        GameCatalogPageResponseModel expectedResponse = GameCatalogPageResponseModel.builder()
+                .games(List.of(GameSummaryResponseModel.builder().id(GAME_ID).title("Test Game").build()))
+                .build();
+        when(restTemplate.getForObject(eq(URI.create(BASE_URL)), eq(GameCatalogPageResponseModel.class))).thenReturn(expectedResponse);
 
-        List<GameResponseModel> result = gameServiceClient.getAllGames();
+        GameCatalogPageResponseModel result = gameServiceClient.getGames(null, null, null, null);
 
-        assertFalse(result.isEmpty());
-        assertEquals(sampleGameResponse, result.get(0));
-        verify(restTemplate).exchange(eq(BASE_URL), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class));
+        assertEquals(expectedResponse, result);
+        verify(restTemplate).getForObject(eq(URI.create(BASE_URL)), eq(GameCatalogPageResponseModel.class));
+    }
+
+    @Test
+    void getGames_withCursor_passesSortAndCursorThrough() {
+        URI url = URI.create(BASE_URL + "?sort=price&direction=desc&cursor=UFJJQ0V8ZGVzY3xifD05Ljk5&limit=24");
+        GameCatalogPageResponseModel expectedResponse = GameCatalogPageResponseModel.builder().games(List.of()).build();
+        when(restTemplate.getForObject(eq(url), eq(GameCatalogPageResponseModel.class))).thenReturn(expectedResponse);
+
+        GameCatalogPageResponseModel result = gameServiceClient.getGames("price", "desc", "UFJJQ0V8ZGVzY3xifD05Ljk5", 24);
+
+        assertEquals(expectedResponse, result);
     }
 
     @Test
@@ -156,13 +177,84 @@ class GameServiceClientTest {
     @Test
     void addReview_success() {
         String url = BASE_URL + "/review/" + GAME_ID;
-        when(restTemplate.postForObject(eq(url), eq(sampleReviewRequest), eq(GameResponseModel.class)))
-                .thenReturn(sampleGameResponse); // Assuming adding a review returns the updated game
+        ReviewAddedResponseModel added = ReviewAddedResponseModel.builder().gameId(GAME_ID).build();
+        when(restTemplate.postForObject(eq(url), eq(sampleReviewRequest), eq(ReviewAddedResponseModel.class)))
+                .thenReturn(added); // the new review and the game's updated totals, not the whole game
 
-        GameResponseModel result = gameServiceClient.addReview(sampleReviewRequest, GAME_ID);
+        ReviewAddedResponseModel result = gameServiceClient.addReview(sampleReviewRequest, GAME_ID);
 
-        assertEquals(sampleGameResponse, result);
-        verify(restTemplate).postForObject(eq(url), eq(sampleReviewRequest), eq(GameResponseModel.class));
+        assertEquals(added, result);
+        verify(restTemplate).postForObject(eq(url), eq(sampleReviewRequest), eq(ReviewAddedResponseModel.class));
+    }
+
+    @Test
+    void getReviews_success() {
+        String url = BASE_URL + "/" + GAME_ID + "/reviews?cursor=abc&limit=10";
+        ReviewPageResponseModel page = ReviewPageResponseModel.builder()
+                .reviews(List.of(ReviewResponseModel.builder().id("review-1").comment("Great").rating(5).build()))
+                .nextCursor("def")
+                .build();
+        when(restTemplate.getForObject(eq(url), eq(ReviewPageResponseModel.class))).thenReturn(page);
+
+        ReviewPageResponseModel result = gameServiceClient.getReviews(GAME_ID, "abc", 10);
+
+        assertEquals(page, result);
+        verify(restTemplate).getForObject(eq(url), eq(ReviewPageResponseModel.class));
+    }
+
+    @Test
+    void getReviews_withoutCursorOrLimit_callsBareUrl() {
+        String url = BASE_URL + "/" + GAME_ID + "/reviews";
+        when(restTemplate.getForObject(eq(url), eq(ReviewPageResponseModel.class)))
+                .thenReturn(new ReviewPageResponseModel(Collections.emptyList(), null));
+
+        ReviewPageResponseModel result = gameServiceClient.getReviews(GAME_ID, null, null);
+
+        assertTrue(result.getReviews().isEmpty());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void searchGames_success_encodesQueryOnce() {
+        URI url = URI.create(BASE_URL + "/search?q=zelda%20%26%20link&limit=5");
+        ResponseEntity<List<GameResponseModel>> responseEntity = new ResponseEntity<>(List.of(sampleGameResponse), HttpStatus.OK);
+        when(restTemplate.exchange(eq(url), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .thenReturn(responseEntity);
+
+        List<GameResponseModel> result = gameServiceClient.searchGames("zelda & link", 5);
+
+        assertEquals(List.of(sampleGameResponse), result);
+    }
+
+    @Test
+    void browseGames_success_forwardsEveryFilter() {
+        MultiValueMap<String, String> filters = new LinkedMultiValueMap<>();
+        filters.add("genre", "RPG");
+        filters.add("genre", "ACTION");
+        filters.add("publisher", "Electronic Arts");
+        URI url = URI.create(BASE_URL + "/browse?genre=RPG&genre=ACTION&publisher=Electronic%20Arts");
+        GameBrowseResponseModel page = GameBrowseResponseModel.builder()
+                .games(List.of(sampleGameResponse))
+                .total(1)
+                .facets(Map.of("genre", Map.of("RPG", 1)))
+                .build();
+        when(restTemplate.getForObject(eq(url), eq(GameBrowseResponseModel.class))).thenReturn(page);
+
+        GameBrowseResponseModel result = gameServiceClient.browseGames(filters);
+
+        assertEquals(page, result);
+    }
+
+    @Test
+    void suggestTitles_success_forwardsPrefixAndLimit() {
+        URI url = URI.create(BASE_URL + "/suggest?prefix=half-l&limit=5");
+        List<SuggestionResponseModel> suggestions = List.of(new SuggestionResponseModel("hl2", "Half-Life 2"));
+        when(restTemplate.exchange(eq(url), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .thenReturn(new ResponseEntity<>(suggestions, HttpStatus.OK));
+
+        List<SuggestionResponseModel> result = gameServiceClient.suggestTitles("half-l", 5);
+
+        assertEquals(suggestions, result);
     }
 
     // --- Exception Cases ---
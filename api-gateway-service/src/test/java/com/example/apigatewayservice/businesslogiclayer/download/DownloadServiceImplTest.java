@@ -1,18 +1,27 @@
 package com.example.apigatewayservice.businesslogiclayer.download;
 
 import com.example.apigatewayservice.DomainClientLayer.download.DownloadServiceClient;
+import com.example.apigatewayservice.presentationlayer.download.BulkDownloadRequestModel;
+import com.example.apigatewayservice.presentationlayer.download.BulkDownloadResponseModel;
+import com.example.apigatewayservice.presentationlayer.download.DownloadPageResponseModel;
+import com.example.apigatewayservice.presentationlayer.download.DownloadPatchResponseModel;
+import com.example.apigatewayservice.presentationlayer.download.DownloadProgressModel;
 import com.example.apigatewayservice.presentationlayer.download.DownloadRequestModel;
 import com.example.apigatewayservice.presentationlayer.download.DownloadResponseModel;
+import com.example.apigatewayservice.presentationlayer.download.PatchDownloadRequestModel;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -114,4 +123,82 @@ class DownloadServiceImplTest {
         assertEquals(expectedResponse, actualResponse);
         verify(downloadServiceClient, times(1)).updateDownload(DOWNLOAD_ID, requestModel);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void getDownloadPage_callsClient() {
+        DownloadPageResponseModel expectedResponse = DownloadPageResponseModel.builder()
+                .items(List.of(buildSampleDownloadResponseModel()))
+                .nextCursor("next")
+                .build();
+        when(downloadServiceClient.getDownloadPage("user-1", List.of("PAUSED"), null, null, null, 10)).thenReturn(expectedResponse);
+        DownloadPageResponseModel actualResponse = downloadService.getDownloadPage("user-1", List.of("PAUSED"), null, null, null, 10);
+        assertEquals(expectedResponse, actualResponse);
+        verify(downloadServiceClient, times(1)).getDownloadPage("user-1", List.of("PAUSED"), null, null, null, 10);
+    }
+
+    @Test
+    void streamDownloads_callsClient() {
+        Flux<DownloadResponseModel> expectedStream = Flux.just(buildSampleDownloadResponseModel());
+        when(downloadServiceClient.streamDownloads("user-1", null, null, null)).thenReturn(expectedStream);
+        Flux<DownloadResponseModel> actualStream = downloadService.streamDownloads("user-1", null, null, null);
+        assertSame(expectedStream, actualStream);
+        verify(downloadServiceClient, times(1)).streamDownloads("user-1", null, null, null);
+    }
+
+    @Test
+    void pauseDownloads_callsClient() {
+        BulkDownloadRequestModel requestModel = BulkDownloadRequestModel.builder().userId("user-1").build();
+        BulkDownloadResponseModel expectedResponse = BulkDownloadResponseModel.builder().action("pause").matched(2).applied(2).build();
+        when(downloadServiceClient.pauseDownloads(requestModel)).thenReturn(expectedResponse);
+        BulkDownloadResponseModel actualResponse = downloadService.pauseDownloads(requestModel);
+        assertEquals(expectedResponse, actualResponse);
+        verify(downloadServiceClient, times(1)).pauseDownloads(requestModel);
+    }
+
+    @Test
+    void createPatchDownload_callsClient() {
+        PatchDownloadRequestModel requestModel = PatchDownloadRequestModel.builder()
+                .targetUrl("http://example.com/v2.bin").signatureUrl("http://example.com/v2.sig").build();
+        DownloadResponseModel expectedResponse = DownloadResponseModel.builder().id("patch-1").status("PENDING").build();
+        when(downloadServiceClient.createPatchDownload(DOWNLOAD_ID, requestModel)).thenReturn(expectedResponse);
+        DownloadResponseModel actualResponse = downloadService.createPatchDownload(DOWNLOAD_ID, requestModel);
+        assertEquals(expectedResponse, actualResponse);
+        verify(downloadServiceClient, times(1)).createPatchDownload(DOWNLOAD_ID, requestModel);
+    }
+
+    @Test
+    void getPatchReport_callsClient() {
+        DownloadPatchResponseModel expectedResponse = DownloadPatchResponseModel.builder().id(DOWNLOAD_ID).applied(false).fallbackReason("delta too large").build();
+        when(downloadServiceClient.getPatchReport(DOWNLOAD_ID)).thenReturn(expectedResponse);
+        assertEquals(expectedResponse, downloadService.getPatchReport(DOWNLOAD_ID));
+    }
+
+    @Test
+    void cancelDownloads_callsClient() {
+        BulkDownloadRequestModel requestModel = BulkDownloadRequestModel.builder().ids(List.of(DOWNLOAD_ID)).build();
+        BulkDownloadResponseModel expectedResponse = BulkDownloadResponseModel.builder().action("cancel").matched(1).applied(1).build();
+        when(downloadServiceClient.cancelDownloads(requestModel)).thenReturn(expectedResponse);
+        BulkDownloadResponseModel actualResponse = downloadService.cancelDownloads(requestModel);
+        assertEquals(expectedResponse, actualResponse);
+        verify(downloadServiceClient, times(1)).cancelDownloads(requestModel);
+    }
+
+    @Test
+    void streamDownloadProgress_callsClient() {
+        Flux<ServerSentEvent<DownloadProgressModel>> expectedStream = Flux.just(ServerSentEvent.builder(
+                DownloadProgressModel.builder().id(DOWNLOAD_ID).status("DOWNLOADING").bytesDownloaded(1024).build()).build());
+        when(downloadServiceClient.streamDownloadProgress(DOWNLOAD_ID)).thenReturn(expectedStream);
+        Flux<ServerSentEvent<DownloadProgressModel>> actualStream = downloadService.streamDownloadProgress(DOWNLOAD_ID);
+        assertSame(expectedStream, actualStream);
+        verify(downloadServiceClient, times(1)).streamDownloadProgress(DOWNLOAD_ID);
+    }
+
+    @Test
+    void streamUserDownloadProgress_callsClient() {
+        Flux<ServerSentEvent<DownloadProgressModel>> expectedStream = Flux.empty();
+        when(downloadServiceClient.streamUserDownloadProgress("user-1")).thenReturn(expectedStream);
+        Flux<ServerSentEvent<DownloadProgressModel>> actualStream = downloadService.streamUserDownloadProgress("user-1");
+        assertSame(expectedStream, actualStream);
+        verify(downloadServiceClient, times(1)).streamUserDownloadProgress("user-1");
+    }
+}
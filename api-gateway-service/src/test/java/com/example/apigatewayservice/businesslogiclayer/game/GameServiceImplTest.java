@@ -1,8 +1,10 @@
 package com.example.apigatewayservice.businesslogiclayer.game;
 
 import com.example.apigatewayservice.DomainClientLayer.game.GameServiceClient;
+import com.example.apigatewayservice.presentationlayer.game.GameCatalogPageResponseModel;
 import com.example.apigatewayservice.presentationlayer.game.GameRequestModel;
 import com.example.apigatewayservice.presentationlayer.game.GameResponseModel;
+import com.example.apigatewayservice.presentationlayer.game.ReviewAddedResponseModel;
 import com.example.apigatewayservice.presentationlayer.game.ReviewRequestModel;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -51,14 +53,14 @@ class GameServiceImplTest {
     }
 
     @Test
-    void getAllGames_callsClient() {
-        List<GameResponseModel> expectedResponse = List.of(buildSampleGameResponseModel());
-        when(gameServiceClient.getAllGames()).thenReturn(expectedResponse);
+    void getGames_callsClient() {
+        GameCatalogPageResponseModel expectedResponse = GameCatalogPageResponseModel.builder().games(List.of()).nextCursor("next").build();
+        when(gameServiceClient.getGames("title", "asc", "cursor", 10)).thenReturn(expectedResponse);
 
-        List<GameResponseModel> actualResponse = gameService.getAllGames();
+        GameCatalogPageResponseModel actualResponse = gameService.getGames("title", "asc", "cursor", 10);
 
         assertEquals(expectedResponse, actualResponse);
-        verify(gameServiceClient, times(1)).getAllGames();
+        verify(gameServiceClient, times(1)).getGames("title", "asc", "cursor", 10);
     }
 
     @Test
@@ -108,10 +110,10 @@ class GameServiceImplTest {
     @Test
     void addReview_callsClient() {
         ReviewRequestModel reviewRequestModel = buildSampleReviewRequestModel();
-        GameResponseModel expectedResponse = buildSampleGameResponseModel(); // Assuming review addition returns the game
+        ReviewAddedResponseModel expectedResponse = ReviewAddedResponseModel.builder().gameId(GAME_ID).build();
         when(gameServiceClient.addReview(reviewRequestModel, GAME_ID)).thenReturn(expectedResponse);
 
-        GameResponseModel actualResponse = gameService.addReview(reviewRequestModel, GAME_ID);
+        ReviewAddedResponseModel actualResponse = gameService.addReview(reviewRequestModel, GAME_ID);
 
         assertEquals(expectedResponse, actualResponse);
         verify(gameServiceClient, times(1)).addReview(reviewRequestModel, GAME_ID);
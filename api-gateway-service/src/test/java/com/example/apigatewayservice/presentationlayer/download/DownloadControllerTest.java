@@ -2,6 +2,7 @@ package com.example.apigatewayservice.presentationlayer.download;
 
 import com.example.apigatewayservice.businesslogiclayer.download.DownloadService;
 import com.example.apigatewayservice.exception.HttpErrorInfo;
+import com.example.apigatewayservice.exception.InvalidDownloadStateException;
 import com.example.apigatewayservice.exception.InvalidInputException;
 import com.example.apigatewayservice.exception.NotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -217,6 +218,19 @@ class DownloadControllerTest {
         verify(downloadService).pauseDownload(VALID_DOWNLOAD_ID);
     }
 
+    @Test
+    void pauseDownload_whenNotPausable_thenReturnConflict() {
+        String errorMessage = "Download " + VALID_DOWNLOAD_ID + " cannot be paused from COMPLETED";
+        when(downloadService.pauseDownload(VALID_DOWNLOAD_ID)).thenThrow(new InvalidDownloadStateException(errorMessage));
+        webTestClient.post().uri(BASE_URI_DOWNLOADS + "/" + VALID_DOWNLOAD_ID + "/pause")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                .expectBody(HttpErrorInfo.class)
+                .value(error -> assertEquals(errorMessage, error.getMessage()));
+        verify(downloadService).pauseDownload(VALID_DOWNLOAD_ID);
+    }
+
     @Test
     void resumeDownload_whenExists_thenReturnOk() {
         when(downloadService.resumeDownload(VALID_DOWNLOAD_ID)).thenReturn(sampleDownloadResponse);
@@ -144,33 +144,57 @@ class GameControllerTest {
 
     // --- GET All Games ---
     @Test
-    void getAllGames_whenGamesExist_thenReturnListOfGames() {
-        List<GameResponseModel> expectedGames = List.of(sampleGameResponse);
-        when(gameService.getAllGames()).thenReturn(expectedGames);
+    void getGames_whenGamesExist_thenReturnOnePageWithCursor() {
+        GameCatalogPageResponseModel expectedPage = GameCatalogPageResponseModel.builder()
+                .games(List.of(GameSummaryResponseModel.builder().id(VALID_GAME_ID).title("Test Game").build()))
+                .nextCursor("next")
+                .build();
+        when(gameService.getGames("rating", null, "abc", 1)).thenReturn(expectedPage);
 
-        webTestClient.get().uri(BASE_URI_GAMES)
+        webTestClient.get().uri(BASE_URI_GAMES + "?sort=rating&cursor=abc&limit=1")
                 .accept(MediaType.APPLICATION_JSON)
                 .exchange()
                 .expectStatus().isOk()
                 .expectHeader().contentType(MediaType.APPLICATION_JSON)
-                .expectBodyList(GameResponseModel.class)
-                .hasSize(1)
-                .value(list -> assertEquals(expectedGames.get(0).getId(), list.get(0).getId()));
-        verify(gameService, times(1)).getAllGames();
+                .expectBody(GameCatalogPageResponseModel.class)
+                .value(page -> {
+                    assertEquals(VALID_GAME_ID, page.getGames().get(0).getId());
+                    assertEquals("next", page.getNextCursor());
+                });
+        verify(gameService, times(1)).getGames("rating", null, "abc", 1);
     }
 
     @Test
-    void getAllGames_whenNoGamesExist_thenReturnEmptyList() {
-        when(gameService.getAllGames()).thenReturn(Collections.emptyList());
+    void getGames_whenNoGamesExist_thenReturnEmptyPage() {
+        when(gameService.getGames(null, null, null, null))
+                .thenReturn(GameCatalogPageResponseModel.builder().games(Collections.emptyList()).build());
 
         webTestClient.get().uri(BASE_URI_GAMES)
                 .accept(MediaType.APPLICATION_JSON)
                 .exchange()
                 .expectStatus().isOk()
                 .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody(GameCatalogPageResponseModel.class)
+                .value(page -> {
+                    assertTrue(page.getGames().isEmpty());
+                    assertNull(page.getNextCursor());
+                });
+        verify(gameService, times(1)).getGames(null, null, null, null);
+    }
+
+    // --- GET Search ---
+    @Test
+    void searchGames_thenReturnHitsFromTheService() {
+        when(gameService.searchGames("zelda", 5)).thenReturn(List.of(sampleGameResponse));
+
+        webTestClient.get().uri(uriBuilder -> uriBuilder.path(BASE_URI_GAMES + "/search")
+                        .queryParam("q", "zelda").queryParam("limit", 5).build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
                 .expectBodyList(GameResponseModel.class)
-                .hasSize(0);
-        verify(gameService, times(1)).getAllGames();
+                .hasSize(1);
+        verify(gameService, times(1)).searchGames("zelda", 5);
     }
 
     // --- POST (Add Game) ---
@@ -287,8 +311,13 @@ class GameControllerTest {
     
     // --- POST (Add Review) ---
     @Test
-    void addReviewToGame_whenGameExistsAndValidRequest_thenReturnGameWithReview() {
-        when(gameService.addReview(any(ReviewRequestModel.class), eq(VALID_GAME_ID))).thenReturn(sampleGameResponse);
+    void addReviewToGame_whenGameExistsAndValidRequest_thenReturnReviewWithTotals() {
+        ReviewAddedResponseModel added = ReviewAddedResponseModel.builder()
+                .gameId(VALID_GAME_ID)
+                .review(ReviewResponseModel.builder().id("review-1").comment("Great").rating(5).build())
+                .ratings(RatingSummaryResponseModel.builder().count(1).sum(5).average(5.0).build())
+                .build();
+        when(gameService.addReview(any(ReviewRequestModel.class), eq(VALID_GAME_ID))).thenReturn(added);
 
         webTestClient.post().uri(BASE_URI_GAMES + "/review/" + VALID_GAME_ID)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -297,10 +326,10 @@ class GameControllerTest {
                 .exchange()
                 .expectStatus().isOk() // GameController returns OK for this
                 .expectHeader().contentType(MediaType.APPLICATION_JSON)
-                .expectBody(GameResponseModel.class)
+                .expectBody(ReviewAddedResponseModel.class)
                 .value(response -> {
                     assertNotNull(response);
-                    assertEquals(sampleGameResponse.getId(), response.getId());
+                    assertEquals(added, response);
                 });
         verify(gameService, times(1)).addReview(any(ReviewRequestModel.class), eq(VALID_GAME_ID));
     }
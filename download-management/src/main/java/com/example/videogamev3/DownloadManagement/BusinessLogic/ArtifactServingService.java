@@ -0,0 +1,236 @@
+package com.example.videogamev3.DownloadManagement.BusinessLogic;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.Download;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
+import com.example.videogamev3.DownloadManagement.Engine.ArtifactChannels;
+import com.example.videogamev3.DownloadManagement.Engine.ByteRange;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadEngine;
+import com.example.videogamev3.DownloadManagement.Presentation.ArtifactServingResponseModel;
+import com.example.videogamev3.DownloadManagement.utils.exceptions.DownloadNotFoundException;
+import com.example.videogamev3.DownloadManagement.utils.exceptions.InvalidDownloadStateException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Serves completed artifacts from this node's disk, so clients and other nodes can use it as an edge cache
+ * (or list it as a mirror) instead of going to origin. Supports Range, If-Range and If-None-Match.
+ * <p>
+ * A single region is handed to Tomcat's sendfile when the connector offers it, so the bytes go from the page
+ * cache to the socket without passing through the heap. That is the only zero-copy path. Otherwise, and always
+ * for multipart responses, regions are copied: {@link FileChannel#transferTo} reads from a channel shared by
+ * every reader of the file, but the servlet output stream is not a socket channel, so the JDK moves the bytes
+ * through a heap buffer. Sendfile cannot take a multipart body, since it sends one region of one file.
+ */
+@Service
+public class ArtifactServingService {
+
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final DownloadRepository downloadRepository;
+    private final DownloadEngine downloadEngine;
+    private final ArtifactChannels artifactChannels;
+    private final boolean sendfile;
+    private final long sendfileMinBytes;
+    private final int maxRanges;
+
+    public ArtifactServingService(DownloadRepository downloadRepository,
+                                  DownloadEngine downloadEngine,
+                                  ArtifactChannels artifactChannels,
+                                  @Value("${app.download.serving.sendfile:true}") boolean sendfile,
+                                  @Value("${app.download.serving.sendfile-min-bytes:49152}") long sendfileMinBytes,
+                                  @Value("${app.download.serving.max-ranges:16}") int maxRanges) {
+        this.downloadRepository = downloadRepository;
+        this.downloadEngine = downloadEngine;
+        this.artifactChannels = artifactChannels;
+        this.sendfile = sendfile;
+        this.sendfileMinBytes = sendfileMinBytes;
+        this.maxRanges = maxRanges;
+    }
+
+    public void serve(String id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Download download = downloadRepository.findDownloadById_Uuid(id);
+        if (download == null) {
+            throw new DownloadNotFoundException("Download not found with ID: " + id);
+        }
+        if (!DownloadService.ON_DISK.contains(download.getDownloadStatus())) {
+            throw new InvalidDownloadStateException("Download " + id + " is " + download.getDownloadStatus() + "; only completed downloads are served");
+        }
+        Path file = downloadEngine.completedFile(id);
+        if (!Files.isRegularFile(file)) {
+            throw new DownloadNotFoundException("The file of download " + id + " is not on this node");
+        }
+
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        String etag = etagOf(download, length, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+
+        if (etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        List<ByteRange> ranges = null;
+        if (ifRangeHolds(request, etag, lastModified)) {
+            ranges = ByteRange.parse(request.getHeader(HttpHeaders.RANGE), length, maxRanges);
+        }
+        boolean head = "HEAD".equalsIgnoreCase(request.getMethod());
+
+        if (ranges == null) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            sendRegion(file, new ByteRange(0, length - 1), head, request, response);
+        } else if (ranges.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+        } else if (ranges.size() == 1) {
+            ByteRange range = ranges.get(0);
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, range.contentRange(length));
+            sendRegion(file, range, head, request, response);
+        } else {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            sendMultipart(file, ranges, length, head, response);
+        }
+    }
+
+    public ArtifactServingResponseModel getServingStats() {
+        return new ArtifactServingResponseModel(
+                artifactChannels.openFiles(),
+                artifactChannels.activeReaders(),
+                artifactChannels.totalBytesServed(),
+                artifactChannels.bytesPerSecond(),
+                artifactChannels.sendfileResponses(),
+                artifactChannels.sendfileBytes());
+    }
+
+    private void sendRegion(Path file, ByteRange range, boolean head, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long count = Math.max(0, range.length());
+        response.setContentLengthLong(count);
+        if (head || count == 0) {
+            return;
+        }
+        if (sendfile && count >= sendfileMinBytes && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat streams the region itself once this handler returns.
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, range.getStart());
+            request.setAttribute(SENDFILE_END, range.getEnd() + 1);
+            artifactChannels.handedToSendfile(count); // not served yet, and Tomcat never reports when it is
+            return;
+        }
+        // A copy through the heap, counted as served chunk by chunk once each write has returned.
+        try (ArtifactChannels.Lease lease = artifactChannels.acquire(file)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            transfer(lease.channel(), range, out);
+        }
+    }
+
+    private void sendMultipart(Path file, List<ByteRange> ranges, long length, boolean head, HttpServletResponse response) throws IOException {
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        long contentLength = 0;
+        for (ByteRange range : ranges) {
+            contentLength += partHeader(boundary, range, length).length + range.length() + 2;
+        }
+        byte[] closing = ("--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        response.setContentLengthLong(contentLength + closing.length);
+        if (head) {
+            return;
+        }
+        // A copy too: every part goes through the heap between its part header and the next.
+        OutputStream body = response.getOutputStream();
+        WritableByteChannel out = Channels.newChannel(body);
+        try (ArtifactChannels.Lease lease = artifactChannels.acquire(file)) {
+            for (ByteRange range : ranges) {
+                body.write(partHeader(boundary, range, length));
+                transfer(lease.channel(), range, out);
+                body.write('\r');
+                body.write('\n');
+            }
+        }
+        body.write(closing);
+    }
+
+    private static byte[] partHeader(String boundary, ByteRange range, long length) {
+        return ("--" + boundary + "\r\n"
+                + "Content-Type: " + MediaType.APPLICATION_OCTET_STREAM_VALUE + "\r\n"
+                + "Content-Range: " + range.contentRange(length) + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private void transfer(FileChannel channel, ByteRange range, WritableByteChannel out) throws IOException {
+        long position = range.getStart();
+        long remaining = range.length();
+        while (remaining > 0) {
+            long sent = channel.transferTo(position, remaining, out);
+            if (sent <= 0) {
+                throw new IOException("File ended at byte " + position + " while serving " + range.contentRange(channel.size()));
+            }
+            position += sent;
+            remaining -= sent;
+            artifactChannels.served(sent);
+        }
+    }
+
+    // The root hash identifies the exact bytes, so it makes a strong validator; files without one get a weak tag.
+    static String etagOf(Download download, long length, long lastModified) {
+        if (download.getChunkManifest() != null && download.getChunkManifest().getRootHash() != null) {
+            return "\"" + download.getChunkManifest().getRootHash() + "\"";
+        }
+        return "W/\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If-Range asks for the range only while the file is still the version the client has; a strong ETag or an
+     * exact Last-Modified date must match, otherwise the whole file is sent.
+     */
+    private static boolean ifRangeHolds(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return !etag.startsWith("W/") && ifRange.equals(etag);
+        }
+        try {
+            long date = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return date >= 0 && date / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false; // unparseable validator: play safe and send everything
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.videogamev3.DownloadManagement.BusinessLogic;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.Download;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadEngine;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadProgressRegistry;
+import com.example.videogamev3.DownloadManagement.Presentation.BulkDownloadItemOutcome;
+import com.example.videogamev3.DownloadManagement.Presentation.BulkDownloadItemResultModel;
+import com.example.videogamev3.DownloadManagement.Presentation.BulkDownloadRequestModel;
+import com.example.videogamev3.DownloadManagement.Presentation.BulkDownloadResponseModel;
+import com.example.videogamev3.DownloadManagement.utils.exceptions.InvalidDownloadDataException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Pause, resume, cancel and delete over many downloads at once. Each call is one projected read to resolve the
+ * targets, one updateMany (or deleteMany) guarded by the same source states as the single-download
+ * transitions, and one hand-off of the whole batch to the engine.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkDownloadService {
+
+    private final DownloadRepository downloadRepository;
+    private final DownloadEngine downloadEngine;
+    private final DownloadProgressRegistry progressRegistry;
+
+    public BulkDownloadResponseModel pauseDownloads(BulkDownloadRequestModel request) {
+        return transitionAll("pause", request, DownloadService.PAUSABLE, DownloadStatus.PAUSED,
+                applied -> downloadEngine.stopAll(idsOf(applied)));
+    }
+
+    public BulkDownloadResponseModel resumeDownloads(BulkDownloadRequestModel request) {
+        // The engine needs the whole document, manifest included, but only of the downloads actually resumed.
+        return transitionAll("resume", request, DownloadService.RESUMABLE, DownloadStatus.DOWNLOADING,
+                applied -> downloadEngine.startAll(downloadRepository.findDownloadsById_UuidIn(idsOf(applied))));
+    }
+
+    public BulkDownloadResponseModel cancelDownloads(BulkDownloadRequestModel request) {
+        return transitionAll("cancel", request, DownloadService.CANCELLABLE, DownloadStatus.CANCELLED,
+                applied -> downloadEngine.discardAll(idsOf(applied)));
+    }
+
+    public BulkDownloadResponseModel deleteDownloads(BulkDownloadRequestModel request) {
+        Set<String> requestedIds = validate(request);
+        List<Download> targets = downloadRepository.findBulkTargets(requestedIds, request.getUserId(), request.getStatus());
+        List<String> targetIds = idsOf(targets);
+
+        if (!targetIds.isEmpty()) {
+            long deleted = downloadRepository.deleteAllByUuid(targetIds);
+            downloadEngine.discardAll(targetIds);
+            targetIds.forEach(progressRegistry::remove);
+            log.info("Bulk delete removed {} of {} matched downloads", deleted, targetIds.size());
+        }
+
+        List<BulkDownloadItemResultModel> results = new ArrayList<>();
+        targetIds.forEach(id -> results.add(new BulkDownloadItemResultModel(id, BulkDownloadItemOutcome.APPLIED, null)));
+        addNotFound(results, requestedIds, targetIds);
+        return new BulkDownloadResponseModel("delete", targets.size(), targetIds.size(), results);
+    }
+
+    private BulkDownloadResponseModel transitionAll(String action,
+                                                    BulkDownloadRequestModel request,
+                                                    Set<DownloadStatus> allowedFrom,
+                                                    DownloadStatus targetStatus,
+                                                    Consumer<List<Download>> engineNotification) {
+        Set<String> requestedIds = validate(request);
+        List<Download> targets = downloadRepository.findBulkTargets(requestedIds, request.getUserId(), request.getStatus());
+
+        List<String> eligibleIds = targets.stream()
+                .filter(download -> allowedFrom.contains(download.getDownloadStatus()))
+                .map(download -> download.getId().getUuid())
+                .toList();
+
+        Set<String> appliedIds = new HashSet<>();
+        Map<String, DownloadStatus> currentStatuses = new LinkedHashMap<>();
+        targets.forEach(download -> currentStatuses.put(download.getId().getUuid(), download.getDownloadStatus()));
+
+        if (!eligibleIds.isEmpty()) {
+            long modified = downloadRepository.transitionStatusAll(eligibleIds, allowedFrom, targetStatus);
+            if (modified == eligibleIds.size()) {
+                appliedIds.addAll(eligibleIds);
+            } else {
+                // Something else moved part of the batch between the read and the updateMany; re-read only those ids.
+                log.debug("Bulk {} modified {} of {} eligible downloads, reconciling", action, modified, eligibleIds.size());
+                for (Download current : downloadRepository.findBulkTargets(eligibleIds, null, null)) {
+                    currentStatuses.put(current.getId().getUuid(), current.getDownloadStatus());
+                    if (current.getDownloadStatus() == targetStatus) {
+                        appliedIds.add(current.getId().getUuid());
+                    }
+                }
+            }
+        }
+
+        List<Download> applied = targets.stream()
+                .filter(download -> appliedIds.contains(download.getId().getUuid()))
+                .toList();
+        applied.forEach(download -> {
+            download.setDownloadStatus(targetStatus);
+            currentStatuses.put(download.getId().getUuid(), targetStatus);
+            progressRegistry.updateStatus(download);
+        });
+        if (!applied.isEmpty()) {
+            engineNotification.accept(applied);
+        }
+
+        List<BulkDownloadItemResultModel> results = new ArrayList<>();
+        currentStatuses.forEach((id, status) -> results.add(new BulkDownloadItemResultModel(
+                id,
+                appliedIds.contains(id) ? BulkDownloadItemOutcome.APPLIED : BulkDownloadItemOutcome.INVALID_STATE,
+                status.toString())));
+        addNotFound(results, requestedIds, currentStatuses.keySet());
+
+        log.info("Bulk {} applied to {} of {} matched downloads", action, applied.size(), targets.size());
+        return new BulkDownloadResponseModel(action, targets.size(), applied.size(), results);
+    }
+
+    private static Set<String> validate(BulkDownloadRequestModel request) {
+        if (request == null) {
+            throw new InvalidDownloadDataException("Bulk request body is required");
+        }
+        Set<String> requestedIds = request.getIds() == null ? Set.of() : new LinkedHashSet<>(request.getIds());
+        if (requestedIds.isEmpty() && request.getUserId() == null && request.getStatus() == null) {
+            // An empty selector would match the whole collection.
+            throw new InvalidDownloadDataException("Bulk request needs a list of ids or a userId/status filter");
+        }
+        return requestedIds;
+    }
+
+    private static void addNotFound(List<BulkDownloadItemResultModel> results, Set<String> requestedIds, Collection<String> matchedIds) {
+        Set<String> matched = new HashSet<>(matchedIds);
+        requestedIds.stream()
+                .filter(id -> !matched.contains(id))
+                .forEach(id -> results.add(new BulkDownloadItemResultModel(id, BulkDownloadItemOutcome.NOT_FOUND, null)));
+    }
+
+    private static List<String> idsOf(List<Download> downloads) {
+        return downloads.stream()
+                .map(download -> download.getId().getUuid())
+                .collect(Collectors.toList());
+    }
+}
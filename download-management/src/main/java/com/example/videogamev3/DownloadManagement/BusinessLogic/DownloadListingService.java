@@ -0,0 +1,111 @@
+package com.example.videogamev3.DownloadManagement.BusinessLogic;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.Download;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadCursor;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadFilter;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataMapper.DownloadResponseMapper;
+import com.example.videogamev3.DownloadManagement.Presentation.DownloadPageResponseModel;
+import com.example.videogamev3.DownloadManagement.utils.exceptions.InvalidDownloadDataException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Filtered listings of downloads, either as keyset pages or as one NDJSON stream read through a Mongo cursor,
+ * so neither path ever materialises the whole collection.
+ */
+@Service
+@Slf4j
+public class DownloadListingService {
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final DownloadRepository downloadRepository;
+    private final DownloadResponseMapper downloadResponseMapper;
+    private final ObjectMapper objectMapper;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int streamBatchSize;
+
+    public DownloadListingService(DownloadRepository downloadRepository,
+                                  DownloadResponseMapper downloadResponseMapper,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.download.listing.default-page-size:50}") int defaultPageSize,
+                                  @Value("${app.download.listing.max-page-size:500}") int maxPageSize,
+                                  @Value("${app.download.listing.stream-batch-size:500}") int streamBatchSize) {
+        this.downloadRepository = downloadRepository;
+        this.downloadResponseMapper = downloadResponseMapper;
+        this.objectMapper = objectMapper;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.streamBatchSize = streamBatchSize;
+    }
+
+    public DownloadPageResponseModel getDownloadPage(DownloadFilter filter, String cursor, Integer limit) {
+        validate(filter);
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new InvalidDownloadDataException("limit must be between 1 and " + maxPageSize);
+        }
+        DownloadCursor after = decodeCursor(cursor);
+
+        // One extra document tells us whether there is a next page without a count query.
+        List<Download> downloads = downloadRepository.findPage(filter, after, pageSize + 1);
+        String nextCursor = null;
+        if (downloads.size() > pageSize) {
+            downloads = downloads.subList(0, pageSize);
+            nextCursor = DownloadCursor.after(downloads.get(pageSize - 1)).encode();
+        }
+        log.debug("Listing page of {} downloads for filter {}", downloads.size(), filter);
+        return new DownloadPageResponseModel(downloadResponseMapper.downloadEntityToDownloadResponseModel(downloads), nextCursor);
+    }
+
+    /**
+     * Validates eagerly so a bad filter is still a 400; the Mongo cursor is only opened once the response body is written.
+     */
+    public StreamingResponseBody streamDownloads(DownloadFilter filter) {
+        validate(filter);
+        return out -> writeNdjson(filter, out);
+    }
+
+    private void writeNdjson(DownloadFilter filter, OutputStream out) throws IOException {
+        long written = 0;
+        try (Stream<Download> downloads = downloadRepository.streamAll(filter, streamBatchSize)) {
+            for (Download download : (Iterable<Download>) downloads::iterator) {
+                out.write(objectMapper.writeValueAsBytes(downloadResponseMapper.downloadEntityToDownloadResponseModel(download)));
+                out.write(NEWLINE);
+                if (++written % streamBatchSize == 0) {
+                    out.flush(); // hand each cursor batch to the client as it arrives
+                }
+            }
+        }
+        out.flush();
+        log.debug("Streamed {} downloads for filter {}", written, filter);
+    }
+
+    private static void validate(DownloadFilter filter) {
+        if (filter.getUpdatedFrom() != null && filter.getUpdatedTo() != null
+                && !filter.getUpdatedFrom().isBefore(filter.getUpdatedTo())) {
+            throw new InvalidDownloadDataException("from must be before to");
+        }
+    }
+
+    private static DownloadCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return DownloadCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDownloadDataException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
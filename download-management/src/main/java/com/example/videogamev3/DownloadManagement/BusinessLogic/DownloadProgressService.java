@@ -0,0 +1,108 @@
+package com.example.videogamev3.DownloadManagement.BusinessLogic;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.Download;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadProgress;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadProgressRegistry;
+import com.example.videogamev3.DownloadManagement.Presentation.DownloadProgressModel;
+import com.example.videogamev3.DownloadManagement.utils.exceptions.DownloadNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Server-Sent Event streams of download progress. Mongo is read once per subscription to seed the
+ * registry; every update after that comes from engine state, sampled at most once per update interval.
+ */
+@Service
+@Slf4j
+public class DownloadProgressService {
+
+    private static final Set<DownloadStatus> TERMINAL_STATUSES = Set.of(DownloadStatus.COMPLETED, DownloadStatus.CANCELLED, DownloadStatus.FAILED, DownloadStatus.INSTALLED);
+
+    private final DownloadRepository downloadRepository;
+    private final DownloadProgressRegistry progressRegistry;
+    private final Duration updateInterval;
+
+    public DownloadProgressService(DownloadRepository downloadRepository,
+                                   DownloadProgressRegistry progressRegistry,
+                                   @Value("${app.download.progress.update-interval-ms:500}") long updateIntervalMs) {
+        this.downloadRepository = downloadRepository;
+        this.progressRegistry = progressRegistry;
+        this.updateInterval = Duration.ofMillis(updateIntervalMs);
+    }
+
+    public Flux<ServerSentEvent<DownloadProgressModel>> streamDownloadProgress(String id) {
+        if (progressRegistry.get(id).isEmpty()) {
+            Download download = downloadRepository.findDownloadById_Uuid(id);
+            if (download == null) {
+                log.warn("Download not found with ID: {}", id);
+                throw new DownloadNotFoundException("Download not found with ID: " + id);
+            }
+            progressRegistry.track(download);
+        }
+        log.debug("Opening progress stream for download {}", id);
+
+        return Flux.interval(Duration.ZERO, updateInterval)
+                .onBackpressureDrop()
+                .map(tick -> progressRegistry.get(id))
+                .takeWhile(progress -> progress.isPresent()) // download deleted while streaming
+                .map(progress -> progress.get())
+                .distinctUntilChanged(DownloadProgress::getVersion)
+                .takeUntil(progress -> TERMINAL_STATUSES.contains(progress.getStatus()))
+                .map(this::toEvent);
+    }
+
+    public Flux<ServerSentEvent<DownloadProgressModel>> streamUserDownloadProgress(String userId) {
+        List<Download> downloads = downloadRepository.getDownloadsByUserId(userId);
+        downloads.forEach(progressRegistry::track);
+        log.debug("Opening progress stream for user {} ({} downloads)", userId, downloads.size());
+
+        return Flux.defer(() -> {
+            Map<String, Long> lastSentVersions = new HashMap<>();
+            return Flux.interval(Duration.ZERO, updateInterval)
+                    .onBackpressureDrop()
+                    .concatMapIterable(tick -> changedSince(userId, lastSentVersions));
+        }).map(this::toEvent);
+    }
+
+    private List<DownloadProgress> changedSince(String userId, Map<String, Long> lastSentVersions) {
+        return progressRegistry.forUser(userId).stream()
+                .filter(progress -> {
+                    long version = progress.getVersion();
+                    Long previous = lastSentVersions.put(progress.getDownloadId(), version);
+                    return previous == null || previous != version;
+                })
+                .toList();
+    }
+
+    private ServerSentEvent<DownloadProgressModel> toEvent(DownloadProgress progress) {
+        return ServerSentEvent.builder(toModel(progress))
+                .id(progress.getDownloadId() + ":" + progress.getVersion())
+                .event("progress")
+                .build();
+    }
+
+    private DownloadProgressModel toModel(DownloadProgress progress) {
+        long bytes = progress.getBytesDownloaded();
+        Long total = progress.getTotalBytes();
+        Double percent = total != null && total > 0 ? Math.min(100.0, bytes * 100.0 / total) : null;
+        return new DownloadProgressModel(
+                progress.getDownloadId(),
+                progress.getUserId(),
+                progress.getStatus() != null ? progress.getStatus().toString() : null,
+                bytes,
+                total,
+                percent,
+                progress.getBytesPerSecond());
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.videogamev3.DownloadManagement.BusinessLogic;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.Download;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadEngine;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadJournal;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadProgressRegistry;
+import com.example.videogamev3.DownloadManagement.Engine.JournaledTransfer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Restarts the transfers this node was running when it last went down. The journal says which transfers were
+ * unfinished and how far each got durably; Mongo says whether the user still wants them. Installs are restarted
+ * only for completed files in this node's download directory, since other nodes share the collection.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DownloadRecoveryService {
+
+    private final DownloadRepository downloadRepository;
+    private final DownloadEngine downloadEngine;
+    private final DownloadJournal downloadJournal;
+    private final DownloadProgressRegistry progressRegistry;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverInterruptedDownloads() {
+        recover(downloadJournal.recoverable());
+        reinstall(downloadRepository.findDownloadsByDownloadStatus(DownloadStatus.INSTALLING));
+    }
+
+    /**
+     * Resumes every journaled transfer whose download is still DOWNLOADING, starting from the journaled manifest.
+     * Returns the number of transfers handed back to the engine.
+     */
+    public int recover(Collection<JournaledTransfer> transfers) {
+        if (transfers.isEmpty()) {
+            return 0;
+        }
+        long started = System.nanoTime();
+        Map<String, JournaledTransfer> byId = transfers.stream()
+                .collect(Collectors.toMap(JournaledTransfer::getDownloadId, Function.identity(), (a, b) -> b));
+
+        // One query for the whole set rather than a lookup per transfer.
+        List<Download> downloads = downloadRepository.findDownloadsById_UuidInAndDownloadStatus(byId.keySet(), DownloadStatus.DOWNLOADING);
+        List<Download> resumable = new ArrayList<>();
+        Set<String> resumed = new HashSet<>();
+        for (Download download : downloads) {
+            JournaledTransfer transfer = byId.get(download.getId().getUuid());
+            // The journal only holds chunks whose bytes were forced to disk, so it wins over the document.
+            download.setChunkManifest(transfer.toManifest());
+            download.setBytesDownloaded(transfer.getDurableOffset());
+            download.setTotalBytes(transfer.getTotalBytes());
+            progressRegistry.track(download);
+            resumable.add(download);
+            resumed.add(transfer.getDownloadId());
+        }
+        byId.keySet().stream()
+                .filter(id -> !resumed.contains(id))
+                .forEach(downloadJournal::transferEnded); // paused, cancelled or deleted while this node was down
+
+        downloadEngine.startAll(resumable);
+        log.info("Recovered {} of {} journaled transfers in {} ms",
+                resumable.size(), byId.size(), (System.nanoTime() - started) / 1_000_000);
+        return resumable.size();
+    }
+
+    /**
+     * Installs that were cut short start over from the completed file; the transfer itself is already done.
+     * Downloads whose file is not on this node are left to the node that has it.
+     */
+    public int reinstall(List<Download> installing) {
+        int restarted = 0;
+        for (Download download : installing) {
+            if (!Files.isRegularFile(downloadEngine.completedFile(download.getId().getUuid()))) {
+                log.debug("Download {} is INSTALLING on another node", download.getId().getUuid());
+                continue;
+            }
+            try {
+                downloadEngine.install(download);
+                restarted++;
+            } catch (IOException e) {
+                log.warn("Could not restart the install of download {}: {}", download.getId().getUuid(), e.getMessage());
+            }
+        }
+        if (restarted > 0) {
+            log.info("Restarted {} interrupted installs", restarted);
+        }
+        return restarted;
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.videogamev3.DownloadManagement.BusinessLogic;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.ArchivedDownload;
+import com.example.videogamev3.DownloadManagement.DataAccess.ArchivedDownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.CollectionSize;
+import com.example.videogamev3.DownloadManagement.DataAccess.Download;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRollup;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRollupRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import com.example.videogamev3.DownloadManagement.DataAccess.RollupScope;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadEngine;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadProgressRegistry;
+import com.example.videogamev3.DownloadManagement.Presentation.ArchivedDownloadResponseModel;
+import com.example.videogamev3.DownloadManagement.Presentation.DownloadRollupResponseModel;
+import com.example.videogamev3.DownloadManagement.Presentation.RetentionResponseModel;
+import com.example.videogamev3.DownloadManagement.utils.exceptions.InvalidDownloadDataException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the hot {@code downloads} collection, and with it its indexes, down to recent and active downloads.
+ * Finished downloads older than the retention period are copied in batches to the compact
+ * {@code downloads_archive} collection, counted into per-user and per-source rollups and deleted from the hot
+ * collection. Completed files stay on disk; the part files cancelled and failed ones left behind are deleted, as
+ * nothing can resume them any more, and the engine starts whatever queued transfer fits in the room that frees.
+ * <p>
+ * Each step is safe to repeat: archiving skips records that are already there and the delete only removes
+ * downloads that are still finished and old, so one resumed meanwhile stays hot and loses its archive copy
+ * instead. Rollups are counted from what was actually deleted, right after the delete; a crash between the two
+ * leaves that batch out of the totals.
+ */
+@Service
+@Slf4j
+public class DownloadRetentionService {
+
+    static final Set<DownloadStatus> ARCHIVABLE = EnumSet.of(DownloadStatus.COMPLETED, DownloadStatus.INSTALLED,
+            DownloadStatus.CANCELLED, DownloadStatus.FAILED);
+    private static final Set<DownloadStatus> UNFINISHED = EnumSet.of(DownloadStatus.CANCELLED, DownloadStatus.FAILED);
+
+    private final DownloadRepository downloadRepository;
+    private final ArchivedDownloadRepository archivedDownloadRepository;
+    private final DownloadRollupRepository rollupRepository;
+    private final DownloadProgressRegistry progressRegistry;
+    private final DownloadEngine downloadEngine;
+    private final int retentionDays;
+    private final long sweepIntervalMinutes;
+    private final int batchSize;
+    private final int maxBatchesPerSweep;
+    private final int maxPageSize;
+    private final AtomicLong totalArchived = new AtomicLong();
+    private ScheduledExecutorService sweeper;
+    private volatile Instant lastSweepAt;
+    private volatile long lastSweepArchived;
+    private volatile long lastSweepMillis;
+
+    public DownloadRetentionService(DownloadRepository downloadRepository,
+                                    ArchivedDownloadRepository archivedDownloadRepository,
+                                    DownloadRollupRepository rollupRepository,
+                                    DownloadProgressRegistry progressRegistry,
+                                    DownloadEngine downloadEngine,
+                                    @Value("${app.download.retention.days:30}") int retentionDays,
+                                    @Value("${app.download.retention.sweep-interval-minutes:60}") long sweepIntervalMinutes,
+                                    @Value("${app.download.retention.batch-size:500}") int batchSize,
+                                    @Value("${app.download.retention.max-batches-per-sweep:20}") int maxBatchesPerSweep,
+                                    @Value("${app.download.listing.max-page-size:500}") int maxPageSize) {
+        this.downloadRepository = downloadRepository;
+        this.archivedDownloadRepository = archivedDownloadRepository;
+        this.rollupRepository = rollupRepository;
+        this.progressRegistry = progressRegistry;
+        this.downloadEngine = downloadEngine;
+        this.retentionDays = retentionDays;
+        this.sweepIntervalMinutes = sweepIntervalMinutes;
+        this.batchSize = batchSize;
+        this.maxBatchesPerSweep = maxBatchesPerSweep;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startSweeping() {
+        if (retentionDays <= 0) {
+            log.info("Download retention is disabled; finished downloads stay in the hot collection");
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "download-retention-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweepQuietly, 0, sweepIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void stopSweeping() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /**
+     * Archives finished downloads last updated more than the retention period before {@code now}, at most
+     * max-batches-per-sweep batches at a time; whatever is left goes in the next sweep.
+     *
+     * @return the number of downloads moved out of the hot collection
+     */
+    public int sweep(Instant now) {
+        if (retentionDays <= 0) {
+            return 0;
+        }
+        long started = System.nanoTime();
+        Instant cutoff = now.minus(Duration.ofDays(retentionDays));
+        int archived = 0;
+        for (int batches = 0; batches < maxBatchesPerSweep; batches++) {
+            List<Download> batch = downloadRepository.findArchivable(ARCHIVABLE, cutoff, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            archived += archive(batch, cutoff, now);
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        lastSweepAt = now;
+        lastSweepArchived = archived;
+        lastSweepMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        totalArchived.addAndGet(archived);
+        if (archived > 0) {
+            log.info("Archived {} downloads finished before {} in {} ms", archived, cutoff, lastSweepMillis);
+        }
+        return archived;
+    }
+
+    public RetentionResponseModel getRetentionReport() {
+        CollectionSize hot = downloadRepository.collectionSize(Download.class);
+        CollectionSize archive = downloadRepository.collectionSize(ArchivedDownload.class);
+        return new RetentionResponseModel(
+                retentionDays,
+                lastSweepAt,
+                lastSweepArchived,
+                lastSweepMillis,
+                totalArchived.get(),
+                hot.getDocuments(),
+                hot.getIndexBytes(),
+                archive.getDocuments(),
+                archive.getIndexBytes());
+    }
+
+    public List<ArchivedDownloadResponseModel> getArchivedDownloads(String userId, int limit) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new InvalidDownloadDataException("limit must be between 1 and " + maxPageSize);
+        }
+        return archivedDownloadRepository.findByUserIdOrderByUpdatedAtDesc(userId, PageRequest.of(0, limit)).stream()
+                .map(archived -> new ArchivedDownloadResponseModel(
+                        archived.getId(),
+                        archived.getUserId(),
+                        archived.getSourceUrl(),
+                        archived.getDownloadStatus().toString(),
+                        archived.getBytesDownloaded(),
+                        archived.getTotalBytes(),
+                        archived.getCreatedAt(),
+                        archived.getUpdatedAt(),
+                        archived.getArchivedAt()))
+                .toList();
+    }
+
+    /**
+     * Totals of the archived downloads of one user or source; all zero when nothing of it was archived yet.
+     */
+    public DownloadRollupResponseModel getRollup(RollupScope scope, String key) {
+        if (key == null || key.isBlank()) {
+            throw new InvalidDownloadDataException("A rollup needs a " + scope.toString().toLowerCase());
+        }
+        DownloadRollup rollup = rollupRepository.findById(DownloadRollup.idOf(scope, key))
+                .orElseGet(() -> new DownloadRollup(scope, key));
+        return new DownloadRollupResponseModel(
+                scope.toString(),
+                key,
+                rollup.getDownloads(),
+                rollup.getCompleted(),
+                rollup.getInstalled(),
+                rollup.getCancelled(),
+                rollup.getFailed(),
+                rollup.getBytesDownloaded(),
+                rollup.getLastArchivedAt());
+    }
+
+    private int archive(List<Download> batch, Instant cutoff, Instant now) {
+        List<ArchivedDownload> records = batch.stream().map(download -> ArchivedDownload.of(download, now)).toList();
+        List<String> ids = records.stream().map(ArchivedDownload::getId).toList();
+        archivedDownloadRepository.insertMissing(records);
+
+        long deleted = downloadRepository.deleteArchived(ids, ARCHIVABLE, cutoff);
+        Set<String> stillHot = Set.of();
+        if (deleted < ids.size()) {
+            // Resumed, retried or otherwise touched since it was selected: it stays hot, so the copy goes.
+            stillHot = downloadRepository.findBulkTargets(ids, null, null).stream()
+                    .map(download -> download.getId().getUuid())
+                    .collect(Collectors.toSet());
+            archivedDownloadRepository.deleteAllById(stillHot);
+        }
+
+        Map<String, DownloadRollup> deltas = new HashMap<>();
+        List<String> partFiles = new ArrayList<>();
+        int moved = 0;
+        for (ArchivedDownload record : records) {
+            if (stillHot.contains(record.getId())) {
+                continue;
+            }
+            moved++;
+            if (record.getUserId() != null) {
+                deltas.computeIfAbsent(DownloadRollup.idOf(RollupScope.USER, record.getUserId()),
+                        id -> new DownloadRollup(RollupScope.USER, record.getUserId())).count(record);
+            }
+            if (record.getSourceUrl() != null) {
+                deltas.computeIfAbsent(DownloadRollup.idOf(RollupScope.SOURCE, record.getSourceUrl()),
+                        id -> new DownloadRollup(RollupScope.SOURCE, record.getSourceUrl())).count(record);
+            }
+            if (UNFINISHED.contains(record.getDownloadStatus())) {
+                partFiles.add(record.getId());
+            }
+            progressRegistry.remove(record.getId());
+        }
+        archivedDownloadRepository.incrementRollups(deltas.values());
+        if (!partFiles.isEmpty()) {
+            downloadEngine.discardPartFiles(partFiles);
+        }
+        return moved;
+    }
+
+    private void sweepQuietly() {
+        try {
+            sweep(Instant.now());
+        } catch (RuntimeException e) {
+            log.warn("Download retention sweep failed, retrying in {} minutes: {}", sweepIntervalMinutes, e.getMessage());
+        }
+    }
+}
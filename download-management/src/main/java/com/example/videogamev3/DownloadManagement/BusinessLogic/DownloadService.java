@@ -1,15 +1,35 @@
 package com.example.videogamev3.DownloadManagement.BusinessLogic;
 
+import com.example.videogamev3.DownloadManagement.DataAccess.ArchivedDownload;
+import com.example.videogamev3.DownloadManagement.DataAccess.ArchivedDownloadRepository;
 import com.example.videogamev3.DownloadManagement.DataAccess.Download;
 import com.example.videogamev3.DownloadManagement.DataAccess.DownloadId;
 import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
 import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import com.example.videogamev3.DownloadManagement.DataAccess.InstallStats;
+import com.example.videogamev3.DownloadManagement.DataAccess.PatchStats;
 import com.example.videogamev3.DownloadManagement.DataMapper.DownloadRequestMapper;
 import com.example.videogamev3.DownloadManagement.DataMapper.DownloadResponseMapper;
+import com.example.videogamev3.DownloadManagement.Engine.BlockSignature;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadEngine;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadProgressRegistry;
+import com.example.videogamev3.DownloadManagement.Engine.MirrorRegistry;
+import com.example.videogamev3.DownloadManagement.Engine.ProgressWriteStats;
+import com.example.videogamev3.DownloadManagement.Engine.VerificationReport;
+import com.example.videogamev3.DownloadManagement.Engine.VolumeSpace;
+import com.example.videogamev3.DownloadManagement.Presentation.DiskSpaceResponseModel;
+import com.example.videogamev3.DownloadManagement.Presentation.DownloadInstallResponseModel;
 import com.example.videogamev3.DownloadManagement.Presentation.DownloadRequestModel;
+import com.example.videogamev3.DownloadManagement.Presentation.DownloadPatchResponseModel;
 import com.example.videogamev3.DownloadManagement.Presentation.DownloadResponseModel;
+import com.example.videogamev3.DownloadManagement.Presentation.DownloadVerificationResponseModel;
+import com.example.videogamev3.DownloadManagement.Presentation.MirrorStatsResponseModel;
+import com.example.videogamev3.DownloadManagement.Presentation.PatchDownloadRequestModel;
+import com.example.videogamev3.DownloadManagement.Presentation.ProgressWritesResponseModel;
 import com.example.videogamev3.DownloadManagement.utils.exceptions.DuplicateDownloadIDException;
 import com.example.videogamev3.DownloadManagement.utils.exceptions.DownloadNotFoundException;
+import com.example.videogamev3.DownloadManagement.utils.exceptions.InvalidDownloadDataException;
+import com.example.videogamev3.DownloadManagement.utils.exceptions.InvalidDownloadStateException;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +37,7 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.mapping.context.MappingContext;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.index.IndexOperations;
@@ -25,8 +46,14 @@ import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexRes
 import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
 import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -34,9 +61,21 @@ import java.util.UUID;
 @Slf4j // Added for logging
 public class DownloadService {
 
+    // Source states each transition may start from; enforced by the database, not by a prior read.
+    static final Set<DownloadStatus> STARTABLE = EnumSet.of(DownloadStatus.PENDING, DownloadStatus.PAUSED);
+    static final Set<DownloadStatus> PAUSABLE = EnumSet.of(DownloadStatus.DOWNLOADING);
+    static final Set<DownloadStatus> RESUMABLE = EnumSet.of(DownloadStatus.PAUSED);
+    static final Set<DownloadStatus> CANCELLABLE = EnumSet.complementOf(EnumSet.of(DownloadStatus.COMPLETED, DownloadStatus.CANCELLED, DownloadStatus.INSTALLED));
+    // States in which the completed file is on disk.
+    static final Set<DownloadStatus> ON_DISK = EnumSet.of(DownloadStatus.COMPLETED, DownloadStatus.INSTALLING, DownloadStatus.INSTALLED);
+
     private final DownloadRepository downloadRepository;
     private final DownloadResponseMapper downloadResponseMapper;
     private final DownloadRequestMapper downloadRequestMapper;
+    private final DownloadEngine downloadEngine;
+    private final DownloadProgressRegistry progressRegistry;
+    private final MirrorRegistry mirrorRegistry;
+    private final ArchivedDownloadRepository archivedDownloadRepository;
 
     public DownloadResponseModel createDownload(DownloadRequestModel downloadRequestModel) {
         log.info("Attempting to create new download from request: {}", downloadRequestModel);
@@ -45,19 +84,128 @@ public class DownloadService {
         // --- Proceed with creation ---
         Download download = downloadRequestMapper.downloadRequestModelToDownload(downloadRequestModel);
         download.setDownloadStatus(DownloadStatus.PENDING);
+        Instant now = Instant.now();
+        download.setCreatedAt(now);
+        download.setUpdatedAt(now);
+
+        Download savedDownload = insertWithNewId(download);
+        log.info("Successfully created download with ID: {}", savedDownload.getId().getUuid());
+        return downloadResponseMapper.downloadEntityToDownloadResponseModel(savedDownload);
+    }
+
+    /**
+     * Creates a download of a newer game version that is built from the completed {@code baseId} download plus
+     * the blocks that changed, falling back to a full download when the delta is not worth it.
+     */
+    public DownloadResponseModel createPatchDownload(String baseId, PatchDownloadRequestModel patchDownloadRequestModel) {
+        log.info("Attempting to create patch download of {} from request: {}", baseId, patchDownloadRequestModel);
+        if (patchDownloadRequestModel == null || isBlank(patchDownloadRequestModel.getTargetUrl())
+                || isBlank(patchDownloadRequestModel.getSignatureUrl())) {
+            throw new InvalidDownloadDataException("A patch download needs a targetUrl and a signatureUrl");
+        }
+        // An installed version is usually older than the retention period, so the base may only be in the archive.
+        Download base = downloadRepository.findDownloadById_Uuid(baseId);
+        ArchivedDownload archivedBase = base == null ? archivedDownloadRepository.findById(baseId).orElse(null) : null;
+        if (base == null && archivedBase == null) {
+            throw new DownloadNotFoundException("Download not found with ID: " + baseId);
+        }
+        DownloadStatus baseStatus = base != null ? base.getDownloadStatus() : archivedBase.getDownloadStatus();
+        if (!ON_DISK.contains(baseStatus)) {
+            throw new InvalidDownloadStateException("Download " + baseId + " is " + baseStatus
+                    + "; only a COMPLETED download can be patched");
+        }
 
-        // Generate and check ID (Handling potential extremely rare collision)
+        String userId = base != null ? base.getUserId() : archivedBase.getUserId();
+        Download download = new Download(null, patchDownloadRequestModel.getTargetUrl(), DownloadStatus.PENDING, userId);
+        download.setBaseDownloadId(baseId);
+        download.setSignatureUrl(patchDownloadRequestModel.getSignatureUrl());
+        Instant now = Instant.now();
+        download.setCreatedAt(now);
+        download.setUpdatedAt(now);
+
+        Download savedDownload = insertWithNewId(download);
+        log.info("Created patch download {} from base {}", savedDownload.getId().getUuid(), baseId);
+        return downloadResponseMapper.downloadEntityToDownloadResponseModel(savedDownload);
+    }
+
+    public DownloadInstallResponseModel getInstallReport(String id) {
+        Download download = findDownloadManagerOrFail(id);
+        if (!download.isInstall()) {
+            throw new InvalidDownloadDataException("Download " + id + " is not installed after transfer");
+        }
+        InstallStats stats = download.getInstallStats();
+        if (stats == null) {
+            throw new InvalidDownloadStateException("Download " + id + " is " + download.getDownloadStatus() + " and has not been installed yet");
+        }
+        return new DownloadInstallResponseModel(
+                id,
+                download.getDownloadStatus().toString(),
+                downloadEngine.installDirectory(id).toAbsolutePath().toString(),
+                stats.isInstalled(),
+                stats.getEntries(),
+                stats.getBytesExtracted(),
+                stats.getVerifiedEntries(),
+                stats.getSecondsAfterTransfer(),
+                stats.getError());
+    }
+
+    public DownloadPatchResponseModel getPatchReport(String id) {
+        Download download = findDownloadManagerOrFail(id);
+        if (download.getBaseDownloadId() == null) {
+            throw new InvalidDownloadDataException("Download " + id + " is not a patch download");
+        }
+        PatchStats stats = download.getPatchStats();
+        if (stats == null) {
+            throw new InvalidDownloadStateException("Patch download " + id + " has not been transferred yet");
+        }
+        return new DownloadPatchResponseModel(
+                id,
+                download.getBaseDownloadId(),
+                stats.isApplied(),
+                stats.getTargetBytes(),
+                stats.getBytesFromBase(),
+                stats.getBytesFetched(),
+                stats.getBytesSaved(),
+                stats.getMegabytesPerSecond(),
+                stats.getFallbackReason());
+    }
+
+    /**
+     * Block signature of a completed download, written in {@link BlockSignature}'s text format.
+     */
+    public StreamingResponseBody getBlockSignature(String id) {
+        Download download = findDownloadManagerOrFail(id);
+        if (!ON_DISK.contains(download.getDownloadStatus())) {
+            throw new InvalidDownloadStateException("Download " + id + " is " + download.getDownloadStatus()
+                    + "; signatures are only published for COMPLETED downloads");
+        }
+        BlockSignature signature;
+        try {
+            signature = downloadEngine.signature(id);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the file of download " + id, e);
+        }
+        return signature::writeTo;
+    }
+
+    // Generate ID; the unique index on id.uuid rejects the (extremely rare) collision
+    private Download insertWithNewId(Download download) {
         DownloadId downloadId = new DownloadId(UUID.randomUUID().toString());
-        if (downloadRepository.existsDownloadById_Uuid(downloadId.getUuid())) {
-            // THROW DuplicateDownloadIDException (Correctly placed)
+        download.setId(downloadId);
+
+        Download savedDownload;
+        try {
+            savedDownload = downloadRepository.insert(download);
+        } catch (DuplicateKeyException e) {
             log.warn("Duplicate Download ID generated (collision): {}", downloadId.getUuid());
-            throw new DuplicateDownloadIDException("Duplicate Download ID generated: " + downloadId.getUuid());
+            throw new DuplicateDownloadIDException("Duplicate Download ID generated: " + downloadId.getUuid(), e);
         }
-        download.setId(downloadId);
+        progressRegistry.track(savedDownload);
+        return savedDownload;
+    }
 
-        Download savedDownload = downloadRepository.save(download);
-        log.info("Successfully created download with ID: {}", savedDownload.getId().getUuid());
-        return downloadResponseMapper.downloadEntityToDownloadResponseModel(savedDownload);
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
     }
 
     // No annotation needed if read-only and not modifying state within transaction
@@ -71,59 +219,33 @@ public class DownloadService {
 
     public DownloadResponseModel startDownload(String id) {
         log.info("Attempting to start download with ID: {}", id);
-        Download download = findDownloadManagerOrFail(id); // Throws DownloadNotFoundException if not found
-
-        // Add state validation logic if needed (e.g., throw InvalidDownloadStateException)
-        if (download.getDownloadStatus() == DownloadStatus.PENDING || download.getDownloadStatus() == DownloadStatus.PAUSED) {
-            download.setDownloadStatus(DownloadStatus.DOWNLOADING);
-            downloadRepository.save(download);
-            log.info("Started download {}", id);
-        } else {
-            // Consider throwing InvalidDownloadStateException instead of just logging error
-            log.warn("Cannot start download {} from state: {}", id, download.getDownloadStatus());
-        }
+        Download download = transitionOrFail(id, STARTABLE, DownloadStatus.DOWNLOADING);
+        downloadEngine.start(download);
+        log.info("Started download {}", id);
         return downloadResponseMapper.downloadEntityToDownloadResponseModel(download);
     }
 
     public DownloadResponseModel pauseDownload(String id) {
         log.info("Attempting to pause download with ID: {}", id);
-        Download download = findDownloadManagerOrFail(id); // Throws DownloadNotFoundException if not found
-
-        if (download.getDownloadStatus() == DownloadStatus.DOWNLOADING) {
-            download.setDownloadStatus(DownloadStatus.PAUSED);
-            downloadRepository.save(download);
-            log.info("Paused download {}", id);
-        } else {
-            log.warn("Cannot pause download {} from state: {}", id, download.getDownloadStatus());
-        }
+        Download download = transitionOrFail(id, PAUSABLE, DownloadStatus.PAUSED);
+        downloadEngine.stop(id);
+        log.info("Paused download {}", id);
         return downloadResponseMapper.downloadEntityToDownloadResponseModel(download);
     }
 
     public DownloadResponseModel resumeDownload(String id) {
         log.info("Attempting to resume download with ID: {}", id);
-        Download download = findDownloadManagerOrFail(id); // Throws DownloadNotFoundException if not found
-
-        if (download.getDownloadStatus() == DownloadStatus.PAUSED) {
-            download.setDownloadStatus(DownloadStatus.DOWNLOADING);
-            downloadRepository.save(download);
-            log.info("Resumed download {}", id);
-        } else {
-            log.warn("Cannot resume download {} from state: {}", id, download.getDownloadStatus());
-        }
+        Download download = transitionOrFail(id, RESUMABLE, DownloadStatus.DOWNLOADING);
+        downloadEngine.start(download);
+        log.info("Resumed download {}", id);
         return downloadResponseMapper.downloadEntityToDownloadResponseModel(download);
     }
 
     public DownloadResponseModel cancelDownload(String id) {
         log.info("Attempting to cancel download with ID: {}", id);
-        Download download = findDownloadManagerOrFail(id); // Throws DownloadNotFoundException if not found
-
-        if (download.getDownloadStatus() != DownloadStatus.COMPLETED && download.getDownloadStatus() != DownloadStatus.CANCELLED) {
-            download.setDownloadStatus(DownloadStatus.CANCELLED);
-            downloadRepository.save(download);
-            log.info("Cancelled download {}", id);
-        } else {
-            log.warn("Cannot cancel download {} from state: {}", id, download.getDownloadStatus());
-        }
+        Download download = transitionOrFail(id, CANCELLABLE, DownloadStatus.CANCELLED);
+        downloadEngine.discard(id);
+        log.info("Cancelled download {}", id);
         return downloadResponseMapper.downloadEntityToDownloadResponseModel(download);
     }
 
@@ -142,10 +264,51 @@ public class DownloadService {
         Download downloadToDelete = findDownloadManagerOrFail(id);
 
         downloadRepository.delete(downloadToDelete);
+        downloadEngine.discard(id);
+        progressRegistry.remove(id);
         log.info("Deleted download {}", id);
 
     }
 
+    public DownloadVerificationResponseModel verifyDownload(String id) {
+        log.info("Attempting to verify download with ID: {}", id);
+        Download download = findDownloadManagerOrFail(id);
+        if (download.getChunkManifest() == null || download.getChunkManifest().getChunkHashes().isEmpty()) {
+            throw new InvalidDownloadDataException("Download " + id + " has no written chunks to verify");
+        }
+        if (downloadEngine.isActive(id)) {
+            throw new InvalidDownloadDataException("Download " + id + " is still transferring; pause it before verifying");
+        }
+
+        VerificationReport report;
+        try {
+            report = downloadEngine.verify(download);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the file of download " + id, e);
+        }
+        return new DownloadVerificationResponseModel(
+                id,
+                report.getChunksVerified(),
+                report.getBytesVerified(),
+                report.getCorruptChunks(),
+                report.getRepairedChunks(),
+                report.isIntact(),
+                report.getMegabytesPerSecond());
+    }
+
+    // One conditional findAndModify; the extra read only happens on the failure path, to tell 404 from 409.
+    private Download transitionOrFail(String id, Set<DownloadStatus> allowedFrom, DownloadStatus targetStatus) {
+        Download download = downloadRepository.transitionStatus(id, allowedFrom, targetStatus);
+        if (download == null) {
+            Download current = findDownloadManagerOrFail(id); // Throws DownloadNotFoundException if not found
+            log.warn("Cannot move download {} from state {} to {}", id, current.getDownloadStatus(), targetStatus);
+            throw new InvalidDownloadStateException("Cannot move download " + id + " from "
+                    + current.getDownloadStatus() + " to " + targetStatus);
+        }
+        progressRegistry.updateStatus(download);
+        return download;
+    }
+
     private Download findDownloadManagerOrFail(String id) {
         log.debug("Finding download entity with ID: {}", id);
         Download download = downloadRepository.findDownloadById_Uuid(id);
@@ -165,12 +328,16 @@ public class DownloadService {
         IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
         IndexOperations indexOps = mongoTemplate.indexOps(Download.class);
         resolver.resolveIndexFor(Download.class).forEach(indexOps::ensureIndex);
+        long backfilled = downloadRepository.backfillTimestamps();
+        if (backfilled > 0) {
+            log.info("Backfilled timestamps on {} downloads", backfilled);
+        }
     }
 
     @Bean
     CommandLineRunner initData(DownloadRepository downloadRepository) {
         return args -> {
-            downloadRepository.deleteAll();
+            // Seeds an empty collection only: after a restart, recovery needs the downloads that were running.
             if (downloadRepository.count() == 0) {
                 downloadRepository.saveAll(List.of(
                         new Download(
@@ -180,10 +347,65 @@ public class DownloadService {
                                 new DownloadId(), "http://tsn.com", DownloadStatus.DOWNLOADING, "123e4567-e89b-12d3-a456-426614174000"
                         )
                 ));
+                downloadRepository.backfillTimestamps();
             }
         };
     }
 
+    /**
+     * How well progress writes to Mongo are being batched: flush latency, batch size and document writes per chunk.
+     */
+    public ProgressWritesResponseModel getProgressWrites() {
+        ProgressWriteStats stats = downloadEngine.progressWrites();
+        return new ProgressWritesResponseModel(
+                stats.getChunksRecorded(),
+                stats.getDocumentsWritten(),
+                stats.getBulkWrites(),
+                stats.getFailedBulkWrites(),
+                stats.getPendingDownloads(),
+                stats.getPendingChunks(),
+                stats.getAverageBatchDocuments(),
+                stats.getMaxBatchDocuments(),
+                stats.getLastFlushMillis(),
+                stats.getAverageFlushMillis(),
+                stats.getMaxFlushMillis(),
+                stats.getWriteAmplification());
+    }
+
+    /**
+     * Free, reserved and still reservable space on the download volume, plus the downloads waiting for room.
+     */
+    public DiskSpaceResponseModel getDiskSpace() {
+        VolumeSpace space;
+        try {
+            space = downloadEngine.diskSpace();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the download volume", e);
+        }
+        return new DiskSpaceResponseModel(
+                space.getVolume(),
+                space.getTotalBytes(),
+                space.getUsableBytes(),
+                space.getReservedBytes(),
+                space.getAvailableBytes(),
+                space.getReservations(),
+                downloadEngine.queuedForSpace());
+    }
+
+    /**
+     * Recent throughput and error rate of every mirror this node has fetched from, fastest first.
+     */
+    public List<MirrorStatsResponseModel> getMirrorStats() {
+        return mirrorRegistry.snapshots().stream()
+                .map(snapshot -> new MirrorStatsResponseModel(
+                        snapshot.getOrigin(),
+                        snapshot.getSamples(),
+                        Math.round(snapshot.getBytesPerSecond()),
+                        snapshot.getErrorRate(),
+                        mirrorRegistry.isHealthy(snapshot)))
+                .toList();
+    }
+
     public List<DownloadResponseModel> getAllDownloadsByUserId(String userId) {
         List<Download> downloads = downloadRepository.getDownloadsByUserId(userId);
         return downloadResponseMapper.downloadEntityToDownloadResponseModel(downloads);
@@ -192,8 +414,16 @@ public class DownloadService {
     public DownloadResponseModel updateDownload(String id, DownloadRequestModel downloadRequestModel) {
         Download download = findDownloadManagerOrFail(id);
 
+        // A $set of just these fields: saving the loaded document would put back the manifest and progress
+        // of a transfer that is running meanwhile.
+        if (!downloadRepository.updateSources(id, downloadRequestModel.getSourceUrl(), downloadRequestModel.getMirrorUrls())) {
+            throw new DownloadNotFoundException("Download not found with ID: " + id);
+        }
         download.setSourceUrl(downloadRequestModel.getSourceUrl());
-        downloadRepository.save(download);
+        if (downloadRequestModel.getMirrorUrls() != null) {
+            download.setMirrorUrls(downloadRequestModel.getMirrorUrls());
+        }
+        download.setUpdatedAt(Instant.now());
         return downloadResponseMapper.downloadEntityToDownloadResponseModel(download);
     }
 }
\ No newline at end of file
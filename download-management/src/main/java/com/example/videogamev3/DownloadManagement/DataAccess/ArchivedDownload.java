@@ -0,0 +1,48 @@
+package com.example.videogamev3.DownloadManagement.DataAccess;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * What is kept of a finished download once it leaves the hot {@code downloads} collection: enough to list a
+ * user's history, none of the transfer state (manifest, mirrors, patch and install details). Keyed by the
+ * download's uuid, so archiving the same download twice leaves a single record.
+ */
+@Document(collection = "downloads_archive")
+@CompoundIndex(name = "archive_user_updated", def = "{'userId': 1, 'updatedAt': -1}")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedDownload {
+    @Id
+    private String id;
+    private String userId;
+    private String sourceUrl;
+    private DownloadStatus downloadStatus;
+    private long bytesDownloaded;
+    private Long totalBytes;
+    private String rootHash;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Instant archivedAt;
+
+    public static ArchivedDownload of(Download download, Instant archivedAt) {
+        return new ArchivedDownload(
+                download.getId().getUuid(),
+                download.getUserId(),
+                download.getSourceUrl(),
+                download.getDownloadStatus(),
+                download.getBytesDownloaded(),
+                download.getTotalBytes(),
+                download.getChunkManifest() != null ? download.getChunkManifest().getRootHash() : null,
+                download.getCreatedAt(),
+                download.getUpdatedAt(),
+                archivedAt);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.videogamev3.DownloadManagement.DataAccess;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedDownloadRepository extends MongoRepository<ArchivedDownload, String>, ArchivedDownloadRepositoryCustom {
+    List<ArchivedDownload> findByUserIdOrderByUpdatedAtDesc(String userId, Pageable pageable);
+}
@@ -0,0 +1,22 @@
+package com.example.videogamev3.DownloadManagement.DataAccess;
+
+import java.util.Collection;
+
+/**
+ * Writes of the retention sweep, which must stay safe to repeat after a crash halfway through a batch.
+ */
+public interface ArchivedDownloadRepositoryCustom {
+
+    /**
+     * Inserts the records that are not archived yet, in one unordered bulk; records already present are left as
+     * they are.
+     *
+     * @return the number of records actually inserted
+     */
+    int insertMissing(Collection<ArchivedDownload> archived);
+
+    /**
+     * Adds each rollup's counts to the stored totals of its scope and key, creating them as needed.
+     */
+    void incrementRollups(Collection<DownloadRollup> deltas);
+}
@@ -0,0 +1,61 @@
+package com.example.videogamev3.DownloadManagement.DataAccess;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+
+@RequiredArgsConstructor
+public class ArchivedDownloadRepositoryCustomImpl implements ArchivedDownloadRepositoryCustom {
+
+    private final MongoOperations mongoOperations;
+
+    @Override
+    public int insertMissing(Collection<ArchivedDownload> archived) {
+        if (archived.isEmpty()) {
+            return 0;
+        }
+        // Upserts that only set fields on insert, so a record left behind by an interrupted sweep is kept as it was.
+        BulkOperations bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, ArchivedDownload.class);
+        for (ArchivedDownload record : archived) {
+            Update update = new Update()
+                    .setOnInsert("userId", record.getUserId())
+                    .setOnInsert("sourceUrl", record.getSourceUrl())
+                    .setOnInsert("downloadStatus", record.getDownloadStatus())
+                    .setOnInsert("bytesDownloaded", record.getBytesDownloaded())
+                    .setOnInsert("totalBytes", record.getTotalBytes())
+                    .setOnInsert("rootHash", record.getRootHash())
+                    .setOnInsert("createdAt", record.getCreatedAt())
+                    .setOnInsert("updatedAt", record.getUpdatedAt())
+                    .setOnInsert("archivedAt", record.getArchivedAt());
+            bulk.upsert(new Query(Criteria.where("_id").is(record.getId())), update);
+        }
+        return bulk.execute().getUpserts().size();
+    }
+
+    @Override
+    public void incrementRollups(Collection<DownloadRollup> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, DownloadRollup.class);
+        for (DownloadRollup delta : deltas) {
+            Update update = new Update()
+                    .setOnInsert("scope", delta.getScope())
+                    .setOnInsert("key", delta.getKey())
+                    .inc("downloads", delta.getDownloads())
+                    .inc("completed", delta.getCompleted())
+                    .inc("installed", delta.getInstalled())
+                    .inc("cancelled", delta.getCancelled())
+                    .inc("failed", delta.getFailed())
+                    .inc("bytesDownloaded", delta.getBytesDownloaded())
+                    .max("lastArchivedAt", delta.getLastArchivedAt());
+            bulk.upsert(new Query(Criteria.where("_id").is(delta.getId())), update);
+        }
+        bulk.execute();
+    }
+}
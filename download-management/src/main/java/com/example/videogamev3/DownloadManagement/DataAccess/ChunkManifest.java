@@ -0,0 +1,26 @@
+package com.example.videogamev3.DownloadManagement.DataAccess;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-chunk SHA-256 hashes of a download's payload, stored on the {@link Download} document.
+ * chunkHashes.get(i) covers bytes [i * chunkSize, (i + 1) * chunkSize); only the last chunk may be shorter.
+ * rootHash is the SHA-256 of the concatenated chunk digests and is set once the transfer completes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChunkManifest {
+    private int chunkSize;
+    private List<String> chunkHashes = new ArrayList<>();
+    private String rootHash;
+
+    public ChunkManifest(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.videogamev3.DownloadManagement.DataAccess;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Document count and on-disk footprint of one collection, as reported by collStats.
+ */
+@Getter
+@AllArgsConstructor
+public class CollectionSize {
+    private final String collection;
+    private final long documents;
+    private final long dataBytes;
+    private final long indexBytes;
+}
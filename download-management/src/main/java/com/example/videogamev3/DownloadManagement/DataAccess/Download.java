@@ -4,15 +4,48 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
+import java.util.List;
+
 @Document(collection = "downloads")
+@CompoundIndexes({
+        @CompoundIndex(name = "download_uuid_unique", def = "{'_id.uuid': 1}", unique = true),
+        // Listing indexes; the trailing _id.uuid is the keyset tie-breaker so pages are served without an in-memory sort
+        @CompoundIndex(name = "user_status_updated", def = "{'userId': 1, 'downloadStatus': 1, 'updatedAt': -1, '_id.uuid': -1}"),
+        @CompoundIndex(name = "updated_at", def = "{'updatedAt': -1, '_id.uuid': -1}")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Download {
     private DownloadId id;
     private String sourceUrl;
+    // Further URLs serving the same bytes as sourceUrl; the engine spreads segments across all of them.
+    private List<String> mirrorUrls;
     private DownloadStatus downloadStatus;
     private String userId;
-}
\ No newline at end of file
+    private long bytesDownloaded;
+    private Long totalBytes;
+    private ChunkManifest chunkManifest;
+    // Set on patch downloads: the installed version to patch from and where the target's block signature is published.
+    private String baseDownloadId;
+    private String signatureUrl;
+    private PatchStats patchStats;
+    // Set on downloads that are unpacked into the install directory while they transfer.
+    private boolean install;
+    private String installManifestUrl;
+    private InstallStats installStats;
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    public Download(DownloadId id, String sourceUrl, DownloadStatus downloadStatus, String userId) {
+        this.id = id;
+        this.sourceUrl = sourceUrl;
+        this.downloadStatus = downloadStatus;
+        this.userId = userId;
+    }
+}
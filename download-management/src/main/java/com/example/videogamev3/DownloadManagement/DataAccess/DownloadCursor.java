@@ -0,0 +1,40 @@
+package com.example.videogamev3.DownloadManagement.DataAccess;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Keyset position in a listing sorted by {@code updatedAt} then uuid, both descending. Sent to clients as an
+ * opaque URL-safe token so the format can change without breaking them.
+ */
+@Data
+@AllArgsConstructor
+public class DownloadCursor {
+    private Instant updatedAt;
+    private String uuid;
+
+    public static DownloadCursor after(Download download) {
+        return new DownloadCursor(download.getUpdatedAt(), download.getId().getUuid());
+    }
+
+    public String encode() {
+        String raw = updatedAt.toEpochMilli() + ":" + uuid;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the token was not produced by {@link #encode()}
+     */
+    public static DownloadCursor decode(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separator = raw.indexOf(':');
+        if (separator <= 0 || separator == raw.length() - 1) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return new DownloadCursor(Instant.ofEpochMilli(Long.parseLong(raw.substring(0, separator))), raw.substring(separator + 1));
+    }
+}
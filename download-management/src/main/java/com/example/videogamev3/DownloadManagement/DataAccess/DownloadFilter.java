@@ -0,0 +1,21 @@
+package com.example.videogamev3.DownloadManagement.DataAccess;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Listing filter; every field is optional. The time range applies to {@code updatedAt}, from inclusive to exclusive.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DownloadFilter {
+    private String userId;
+    private List<DownloadStatus> statuses;
+    private Instant updatedFrom;
+    private Instant updatedTo;
+}
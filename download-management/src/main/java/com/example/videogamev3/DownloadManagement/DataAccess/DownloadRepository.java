@@ -3,10 +3,11 @@ package com.example.videogamev3.DownloadManagement.DataAccess;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface DownloadRepository extends MongoRepository<Download, String> {
+public interface DownloadRepository extends MongoRepository<Download, String>, DownloadRepositoryCustom {
     Download findDownloadById_Uuid(String id);
 
     boolean existsDownloadById_Uuid(String existingId);
@@ -14,4 +15,10 @@ public interface DownloadRepository extends MongoRepository<Download, String> {
     void deleteDownloadById_Uuid(String idToDelete);
 
     List<Download> getDownloadsByUserId(String userId);
-}
\ No newline at end of file
+
+    List<Download> findDownloadsById_UuidIn(Collection<String> ids);
+
+    List<Download> findDownloadsById_UuidInAndDownloadStatus(Collection<String> ids, DownloadStatus status);
+
+    List<Download> findDownloadsByDownloadStatus(DownloadStatus status);
+}
@@ -0,0 +1,86 @@
+package com.example.videogamev3.DownloadManagement.DataAccess;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Partial updates used by the transfer engine, so progress never rewrites the whole document.
+ */
+public interface DownloadRepositoryCustom {
+
+    /**
+     * Moves a download to {@code targetStatus} in a single findAndModify, but only while its current
+     * status is one of {@code allowedFrom}.
+     *
+     * @return the updated document, or {@code null} when the id is unknown or the status did not match
+     */
+    Download transitionStatus(String downloadId, Collection<DownloadStatus> allowedFrom, DownloadStatus targetStatus);
+
+    /**
+     * Selects the targets of a bulk operation: either the given uuids, or every download matching the
+     * optional userId and status filter. Only the id, user, status and progress counters are read, so a bulk
+     * action over thousands of downloads never loads their chunk manifests.
+     */
+    List<Download> findBulkTargets(Collection<String> downloadIds, String userId, DownloadStatus status);
+
+    /**
+     * Bulk form of {@link #transitionStatus}: one updateMany over the given uuids, still guarded by the allowed source states.
+     *
+     * @return the number of documents actually modified
+     */
+    long transitionStatusAll(Collection<String> downloadIds, Collection<DownloadStatus> allowedFrom, DownloadStatus targetStatus);
+
+    long deleteAllByUuid(Collection<String> downloadIds);
+
+    /**
+     * Oldest first, up to {@code limit} downloads in one of {@code statuses} that were last updated before
+     * {@code updatedBefore}; served by the updated_at index.
+     */
+    List<Download> findArchivable(Collection<DownloadStatus> statuses, Instant updatedBefore, int limit);
+
+    /**
+     * Deletes the given downloads, but only those still in one of {@code statuses} and not updated since
+     * {@code updatedBefore}, so a download that was resumed or touched after it was selected stays.
+     *
+     * @return the number of documents deleted
+     */
+    long deleteArchived(Collection<String> downloadIds, Collection<DownloadStatus> statuses, Instant updatedBefore);
+
+    CollectionSize collectionSize(Class<?> entityClass);
+
+    /**
+     * One keyset page, newest {@code updatedAt} first; {@code after} is null for the first page.
+     */
+    List<Download> findPage(DownloadFilter filter, DownloadCursor after, int limit);
+
+    /**
+     * Same order as {@link #findPage}, backed by a server-side cursor. The caller must close the stream.
+     */
+    Stream<Download> streamAll(DownloadFilter filter, int batchSize);
+
+    long backfillTimestamps();
+
+    /**
+     * Writes buffered progress of many downloads in one unordered bulk of partial updates.
+     *
+     * @return the number of documents matched; downloads deleted meanwhile are skipped
+     */
+    int recordProgress(Collection<ProgressUpdate> updates);
+
+    void resetTransfer(String downloadId, ChunkManifest chunkManifest, long bytesDownloaded, Long totalBytes);
+
+    boolean finishTransfer(String downloadId, DownloadStatus finalStatus, String rootHash);
+
+    /**
+     * Sets the source url, and the mirror urls when given, leaving the rest of the document to the engine.
+     *
+     * @return false when the id is unknown
+     */
+    boolean updateSources(String downloadId, String sourceUrl, List<String> mirrorUrls);
+
+    void recordPatch(String downloadId, PatchStats patchStats);
+
+    void recordInstall(String downloadId, InstallStats installStats);
+}
@@ -0,0 +1,204 @@
+package com.example.videogamev3.DownloadManagement.DataAccess;
+
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class DownloadRepositoryCustomImpl implements DownloadRepositoryCustom {
+
+    public static final Sort LISTING_SORT = Sort.by(Sort.Direction.DESC, "updatedAt", "id.uuid");
+
+    private final MongoOperations mongoOperations;
+
+    @Override
+    public List<Download> findPage(DownloadFilter filter, DownloadCursor after, int limit) {
+        return mongoOperations.find(listingQuery(filter, after).with(LISTING_SORT).limit(limit), Download.class);
+    }
+
+    @Override
+    public Stream<Download> streamAll(DownloadFilter filter, int batchSize) {
+        return mongoOperations.stream(listingQuery(filter, null).with(LISTING_SORT).cursorBatchSize(batchSize), Download.class);
+    }
+
+    @Override
+    public long backfillTimestamps() {
+        // Documents written before the timestamps existed would otherwise never be reached by a cursor.
+        Instant now = Instant.now();
+        mongoOperations.updateMulti(new Query(Criteria.where("createdAt").exists(false)), new Update().set("createdAt", now), Download.class);
+        return mongoOperations.updateMulti(new Query(Criteria.where("updatedAt").exists(false)), new Update().set("updatedAt", now), Download.class)
+                .getModifiedCount();
+    }
+
+    /**
+     * Filter for the listing endpoints, positioned after {@code after} when paging. Matches the
+     * user_status_updated index (or updated_at when no user is given) so the sort is read from the index.
+     */
+    public static Query listingQuery(DownloadFilter filter, DownloadCursor after) {
+        Query query = new Query();
+        if (filter.getUserId() != null) {
+            query.addCriteria(Criteria.where("userId").is(filter.getUserId()));
+        }
+        if (filter.getStatuses() != null && !filter.getStatuses().isEmpty()) {
+            query.addCriteria(Criteria.where("downloadStatus").in(filter.getStatuses()));
+        }
+        if (filter.getUpdatedFrom() != null || filter.getUpdatedTo() != null || after != null) {
+            Criteria updated = Criteria.where("updatedAt");
+            if (filter.getUpdatedFrom() != null) {
+                updated.gte(filter.getUpdatedFrom());
+            }
+            if (filter.getUpdatedTo() != null) {
+                updated.lt(filter.getUpdatedTo());
+            }
+            if (after != null) {
+                // Gives the index scan an upper bound; the $or below only trims ties on the boundary timestamp.
+                updated.lte(after.getUpdatedAt());
+            }
+            query.addCriteria(updated);
+        }
+        if (after != null) {
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("updatedAt").lt(after.getUpdatedAt()),
+                    Criteria.where("id.uuid").lt(after.getUuid())));
+        }
+        return query;
+    }
+
+    @Override
+    public Download transitionStatus(String downloadId, Collection<DownloadStatus> allowedFrom, DownloadStatus targetStatus) {
+        Query query = byUuid(downloadId).addCriteria(Criteria.where("downloadStatus").in(allowedFrom));
+        Update update = touch().set("downloadStatus", targetStatus);
+        return mongoOperations.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Download.class);
+    }
+
+    @Override
+    public List<Download> findBulkTargets(Collection<String> downloadIds, String userId, DownloadStatus status) {
+        Query query = new Query();
+        if (downloadIds != null && !downloadIds.isEmpty()) {
+            query.addCriteria(Criteria.where("id.uuid").in(downloadIds));
+        }
+        if (userId != null) {
+            query.addCriteria(Criteria.where("userId").is(userId));
+        }
+        if (status != null) {
+            query.addCriteria(Criteria.where("downloadStatus").is(status));
+        }
+        query.fields().include("id", "userId", "downloadStatus", "bytesDownloaded", "totalBytes");
+        return mongoOperations.find(query, Download.class);
+    }
+
+    @Override
+    public long transitionStatusAll(Collection<String> downloadIds, Collection<DownloadStatus> allowedFrom, DownloadStatus targetStatus) {
+        Query query = new Query(Criteria.where("id.uuid").in(downloadIds).and("downloadStatus").in(allowedFrom));
+        Update update = touch().set("downloadStatus", targetStatus);
+        return mongoOperations.updateMulti(query, update, Download.class).getModifiedCount();
+    }
+
+    @Override
+    public long deleteAllByUuid(Collection<String> downloadIds) {
+        return mongoOperations.remove(new Query(Criteria.where("id.uuid").in(downloadIds)), Download.class).getDeletedCount();
+    }
+
+    @Override
+    public List<Download> findArchivable(Collection<DownloadStatus> statuses, Instant updatedBefore, int limit) {
+        Query query = new Query(Criteria.where("updatedAt").lt(updatedBefore).and("downloadStatus").in(statuses))
+                .with(Sort.by(Sort.Direction.ASC, "updatedAt", "id.uuid"))
+                .limit(limit);
+        return mongoOperations.find(query, Download.class);
+    }
+
+    @Override
+    public long deleteArchived(Collection<String> downloadIds, Collection<DownloadStatus> statuses, Instant updatedBefore) {
+        Query query = new Query(Criteria.where("id.uuid").in(downloadIds)
+                .and("downloadStatus").in(statuses)
+                .and("updatedAt").lt(updatedBefore));
+        return mongoOperations.remove(query, Download.class).getDeletedCount();
+    }
+
+    @Override
+    public CollectionSize collectionSize(Class<?> entityClass) {
+        String collection = mongoOperations.getCollectionName(entityClass);
+        if (!mongoOperations.collectionExists(collection)) {
+            return new CollectionSize(collection, 0, 0, 0);
+        }
+        Document stats = mongoOperations.executeCommand(new Document("collStats", collection));
+        return new CollectionSize(
+                collection,
+                ((Number) stats.getOrDefault("count", 0)).longValue(),
+                ((Number) stats.getOrDefault("size", 0)).longValue(),
+                ((Number) stats.getOrDefault("totalIndexSize", 0)).longValue());
+    }
+
+    @Override
+    public int recordProgress(Collection<ProgressUpdate> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        // Unordered: one download's update failing does not hold back the others.
+        BulkOperations bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, Download.class);
+        for (ProgressUpdate progress : updates) {
+            Update update = touch().set("bytesDownloaded", progress.getBytesDownloaded());
+            progress.getChunkHashes().forEach((index, hash) -> update.set("chunkManifest.chunkHashes." + index, hash));
+            bulk.updateOne(byUuid(progress.getDownloadId()), update);
+        }
+        return bulk.execute().getMatchedCount();
+    }
+
+    @Override
+    public void resetTransfer(String downloadId, ChunkManifest chunkManifest, long bytesDownloaded, Long totalBytes) {
+        Update update = touch()
+                .set("chunkManifest", chunkManifest)
+                .set("bytesDownloaded", bytesDownloaded)
+                .set("totalBytes", totalBytes);
+        mongoOperations.updateFirst(byUuid(downloadId), update, Download.class);
+    }
+
+    @Override
+    public boolean finishTransfer(String downloadId, DownloadStatus finalStatus, String rootHash) {
+        // Only a transfer that is still running may finish; a concurrent pause or cancel wins.
+        Query query = byUuid(downloadId).addCriteria(Criteria.where("downloadStatus").is(DownloadStatus.DOWNLOADING));
+        Update update = touch()
+                .set("downloadStatus", finalStatus)
+                .set("chunkManifest.rootHash", rootHash);
+        return mongoOperations.updateFirst(query, update, Download.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public boolean updateSources(String downloadId, String sourceUrl, List<String> mirrorUrls) {
+        Update update = touch().set("sourceUrl", sourceUrl);
+        if (mirrorUrls != null) {
+            update.set("mirrorUrls", mirrorUrls);
+        }
+        return mongoOperations.updateFirst(byUuid(downloadId), update, Download.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public void recordPatch(String downloadId, PatchStats patchStats) {
+        mongoOperations.updateFirst(byUuid(downloadId), touch().set("patchStats", patchStats), Download.class);
+    }
+
+    @Override
+    public void recordInstall(String downloadId, InstallStats installStats) {
+        mongoOperations.updateFirst(byUuid(downloadId), touch().set("installStats", installStats), Download.class);
+    }
+
+    // Every partial update stamps updatedAt, which the listing indexes and cursors are built on.
+    private static Update touch() {
+        return new Update().set("updatedAt", Instant.now());
+    }
+
+    private static Query byUuid(String downloadId) {
+        return new Query(Criteria.where("id.uuid").is(downloadId));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.videogamev3.DownloadManagement.DataAccess;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Running totals of the archived downloads of one user or one source, kept up to date as downloads are archived
+ * so history can be summarised without scanning the archive. One document per scope and key.
+ */
+@Document(collection = "download_rollups")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DownloadRollup {
+    @Id
+    private String id;
+    private RollupScope scope;
+    private String key;
+    private long downloads;
+    private long completed;
+    private long installed;
+    private long cancelled;
+    private long failed;
+    private long bytesDownloaded;
+    private Instant lastArchivedAt;
+
+    public DownloadRollup(RollupScope scope, String key) {
+        this.id = idOf(scope, key);
+        this.scope = scope;
+        this.key = key;
+    }
+
+    public static String idOf(RollupScope scope, String key) {
+        return scope + ":" + key;
+    }
+
+    /**
+     * Adds one archived download to these totals.
+     */
+    public void count(ArchivedDownload archived) {
+        downloads++;
+        switch (archived.getDownloadStatus()) {
+            case COMPLETED -> completed++;
+            case INSTALLED -> installed++;
+            case CANCELLED -> cancelled++;
+            case FAILED -> failed++;
+            default -> { }
+        }
+        bytesDownloaded += archived.getBytesDownloaded();
+        if (lastArchivedAt == null || archived.getArchivedAt().isAfter(lastArchivedAt)) {
+            lastArchivedAt = archived.getArchivedAt();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.videogamev3.DownloadManagement.DataAccess;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DownloadRollupRepository extends MongoRepository<DownloadRollup, String> {
+}
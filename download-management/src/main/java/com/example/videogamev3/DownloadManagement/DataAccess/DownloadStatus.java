@@ -6,5 +6,7 @@ public enum DownloadStatus {
     PAUSED,
     COMPLETED,
     CANCELLED,
-    FAILED
+    FAILED,
+    INSTALLING,
+    INSTALLED
 }
\ No newline at end of file
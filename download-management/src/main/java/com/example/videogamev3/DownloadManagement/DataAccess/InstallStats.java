@@ -0,0 +1,21 @@
+package com.example.videogamev3.DownloadManagement.DataAccess;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of the install stage of a download, stored on its {@link Download}. secondsAfterTransfer is how long
+ * the game took to become playable once its last byte had arrived; with the pipelined extractor it stays near 0.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InstallStats {
+    private boolean installed;
+    private int entries;
+    private long bytesExtracted;
+    private int verifiedEntries;
+    private double secondsAfterTransfer;
+    private String error;
+}
@@ -0,0 +1,26 @@
+package com.example.videogamev3.DownloadManagement.DataAccess;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a patch download, stored on its {@link Download}. When {@code applied} is false the delta was not
+ * worth it (or not possible) and the target was downloaded in full; {@code fallbackReason} says why.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatchStats {
+    private boolean applied;
+    private long targetBytes;
+    private long bytesFromBase;
+    private long bytesFetched;
+    private long bytesSaved;
+    private double megabytesPerSecond;
+    private String fallbackReason;
+
+    public static PatchStats fallback(long targetBytes, String reason) {
+        return new PatchStats(false, targetBytes, 0, 0, 0, 0, reason);
+    }
+}
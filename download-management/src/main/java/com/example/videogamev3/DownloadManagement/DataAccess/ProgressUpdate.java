@@ -0,0 +1,36 @@
+package com.example.videogamev3.DownloadManagement.DataAccess;
+
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Transfer progress of one download accumulated since its last write to Mongo: the chunk hashes committed
+ * meanwhile, by index, and the offset reached. Hashes are written to their array positions rather than pushed,
+ * so writing the same update twice (e.g. a retried batch) leaves the document unchanged.
+ */
+@Getter
+public class ProgressUpdate {
+
+    private final String downloadId;
+    private final Map<Integer, String> chunkHashes = new TreeMap<>();
+    private long bytesDownloaded;
+
+    public ProgressUpdate(String downloadId) {
+        this.downloadId = downloadId;
+    }
+
+    public void chunkCommitted(int chunkIndex, String sha256Hex, long chunkEndOffset) {
+        chunkHashes.put(chunkIndex, sha256Hex);
+        bytesDownloaded = Math.max(bytesDownloaded, chunkEndOffset);
+    }
+
+    /**
+     * Folds in an update recorded after this one.
+     */
+    public void followedBy(ProgressUpdate later) {
+        chunkHashes.putAll(later.chunkHashes);
+        bytesDownloaded = later.bytesDownloaded;
+    }
+}
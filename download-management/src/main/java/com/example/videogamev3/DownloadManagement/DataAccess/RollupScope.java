@@ -0,0 +1,9 @@
+package com.example.videogamev3.DownloadManagement.DataAccess;
+
+/**
+ * What a {@link DownloadRollup} counts by. Downloads carry no game id, so a game is identified by its source URL.
+ */
+public enum RollupScope {
+    USER,
+    SOURCE
+}
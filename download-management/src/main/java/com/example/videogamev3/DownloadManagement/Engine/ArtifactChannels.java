@@ -0,0 +1,154 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-only channels of completed artifacts, shared by everyone serving the same file. Readers only use
+ * positional transfers, so any number of them can work one channel at once; it is closed when the last lets go.
+ * Also keeps the served-bytes counters reported by the serving endpoint.
+ * <p>
+ * Regions handed to Tomcat's sendfile are counted apart. Tomcat writes them after the handler returns and never
+ * says when it is done, so they cannot be counted as served. The handle Tomcat opens for them is its own, so it
+ * is not in {@link #openFiles()} either.
+ */
+@Component
+public class ArtifactChannels {
+
+    private static final int RATE_WINDOW_SECONDS = 10;
+
+    private final Map<Path, SharedChannel> open = new HashMap<>();
+    private final LongAdder bytesServed = new LongAdder();
+    private final LongAdder sendfileResponses = new LongAdder();
+    private final LongAdder sendfileBytes = new LongAdder();
+    private final long[] bucketSeconds = new long[RATE_WINDOW_SECONDS];
+    private final long[] bucketBytes = new long[RATE_WINDOW_SECONDS];
+
+    public Lease acquire(Path file) throws IOException {
+        synchronized (open) {
+            SharedChannel shared = open.get(file);
+            if (shared == null) {
+                shared = new SharedChannel(file, FileChannel.open(file, StandardOpenOption.READ));
+                open.put(file, shared);
+            }
+            shared.readers++;
+            return new Lease(shared);
+        }
+    }
+
+    /**
+     * Records bytes that have been written to the client.
+     */
+    public void served(long bytes) {
+        bytesServed.add(bytes);
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        int bucket = (int) (second % RATE_WINDOW_SECONDS);
+        synchronized (bucketBytes) {
+            if (bucketSeconds[bucket] != second) {
+                bucketSeconds[bucket] = second;
+                bucketBytes[bucket] = 0;
+            }
+            bucketBytes[bucket] += bytes;
+        }
+    }
+
+    public void handedToSendfile(long bytes) {
+        sendfileResponses.increment();
+        sendfileBytes.add(bytes);
+    }
+
+    public int openFiles() {
+        synchronized (open) {
+            return open.size();
+        }
+    }
+
+    public int activeReaders() {
+        synchronized (open) {
+            return open.values().stream().mapToInt(shared -> shared.readers).sum();
+        }
+    }
+
+    public long totalBytesServed() {
+        return bytesServed.sum();
+    }
+
+    public long sendfileResponses() {
+        return sendfileResponses.sum();
+    }
+
+    public long sendfileBytes() {
+        return sendfileBytes.sum();
+    }
+
+    /**
+     * Average over the last few whole seconds, so a single large response does not read as a spike.
+     */
+    public long bytesPerSecond() {
+        long now = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        long bytes = 0;
+        synchronized (bucketBytes) {
+            for (int i = 0; i < RATE_WINDOW_SECONDS; i++) {
+                long age = now - bucketSeconds[i];
+                if (age >= 1 && age <= RATE_WINDOW_SECONDS) {
+                    bytes += bucketBytes[i];
+                }
+            }
+        }
+        return bytes / RATE_WINDOW_SECONDS;
+    }
+
+    private void release(SharedChannel shared) throws IOException {
+        synchronized (open) {
+            if (--shared.readers > 0) {
+                return;
+            }
+            open.remove(shared.file, shared);
+        }
+        shared.channel.close();
+    }
+
+    private static final class SharedChannel {
+        private final Path file;
+        private final FileChannel channel;
+        private int readers;
+
+        private SharedChannel(Path file, FileChannel channel) {
+            this.file = file;
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * One reader's hold on a shared channel. Use only positional operations on it; never move its position.
+     */
+    public final class Lease implements Closeable {
+        private final SharedChannel shared;
+        private boolean closed;
+
+        private Lease(SharedChannel shared) {
+            this.shared = shared;
+        }
+
+        public FileChannel channel() {
+            return shared.channel;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                release(shared);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import lombok.Getter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Weak (rolling) and strong (SHA-256) checksum of every fixed-size block of a file, published next to a game
+ * version so a node holding an older version can work out which blocks it already has.
+ * <p>
+ * Text format: a {@code <blockSize> <length>} header line, then one {@code <weak hex> <sha256 hex>} line per block.
+ */
+public class BlockSignature {
+
+    @Getter
+    private final int blockSize;
+    @Getter
+    private final long length;
+    private final int[] weak;
+    private final String[] strong;
+
+    public BlockSignature(int blockSize, long length, int[] weak, String[] strong) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        long expectedBlocks = (length + blockSize - 1) / blockSize;
+        if (weak.length != expectedBlocks || strong.length != expectedBlocks) {
+            throw new IllegalArgumentException("Signature of " + length + " bytes in " + blockSize
+                    + " byte blocks needs " + expectedBlocks + " entries, got " + weak.length);
+        }
+        this.blockSize = blockSize;
+        this.length = length;
+        this.weak = weak;
+        this.strong = strong;
+    }
+
+    public static BlockSignature of(FileChannel channel, int blockSize) throws IOException {
+        long length = channel.size();
+        int count = (int) ((length + blockSize - 1) / blockSize);
+        int[] weak = new int[count];
+        String[] strong = new String[count];
+        ByteBuffer block = ByteBuffer.allocate(blockSize);
+        MessageDigest sha256 = IntegrityVerifier.newSha256();
+        for (int i = 0; i < count; i++) {
+            long start = (long) i * blockSize;
+            block.clear().limit((int) Math.min(blockSize, length - start));
+            while (block.hasRemaining()) {
+                if (channel.read(block, start + block.position()) < 0) {
+                    throw new IOException("File shrank while computing its signature");
+                }
+            }
+            weak[i] = RollingChecksum.of(block.array(), 0, block.limit());
+            sha256.update(block.array(), 0, block.limit());
+            strong[i] = IntegrityVerifier.toHex(sha256.digest());
+        }
+        return new BlockSignature(blockSize, length, weak, strong);
+    }
+
+    public static BlockSignature read(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IOException("Empty block signature");
+        }
+        try {
+            String[] parts = header.trim().split(" ");
+            int blockSize = Integer.parseInt(parts[0]);
+            long length = Long.parseLong(parts[1]);
+            int count = (int) ((length + blockSize - 1) / blockSize);
+            int[] weak = new int[count];
+            String[] strong = new String[count];
+            for (int i = 0; i < count; i++) {
+                String line = reader.readLine();
+                if (line == null) {
+                    throw new IOException("Block signature ends after " + i + " of " + count + " blocks");
+                }
+                int space = line.indexOf(' ');
+                weak[i] = Integer.parseUnsignedInt(line.substring(0, space), 16);
+                strong[i] = line.substring(space + 1).trim();
+            }
+            return new BlockSignature(blockSize, length, weak, strong);
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed block signature: " + e.getMessage(), e);
+        }
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII));
+        writer.write(blockSize + " " + length + "\n");
+        for (int i = 0; i < weak.length; i++) {
+            writer.write(String.format("%08x %s\n", weak[i], strong[i]));
+        }
+        writer.flush();
+    }
+
+    public int blockCount() {
+        return weak.length;
+    }
+
+    public long blockOffset(int index) {
+        return (long) index * blockSize;
+    }
+
+    public int blockLength(int index) {
+        return (int) Math.min(blockSize, length - blockOffset(index));
+    }
+
+    public int weak(int index) {
+        return weak[index];
+    }
+
+    public String strong(int index) {
+        return strong[index];
+    }
+}
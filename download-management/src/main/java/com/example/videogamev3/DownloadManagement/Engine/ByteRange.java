@@ -0,0 +1,80 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One satisfiable range of an HTTP Range header, resolved against the length of the file being served.
+ * end is inclusive, as in the header and in Content-Range.
+ */
+@Getter
+@EqualsAndHashCode
+public class ByteRange {
+
+    private final long start;
+    private final long end;
+
+    public ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    public String contentRange(long fileLength) {
+        return "bytes " + start + "-" + end + "/" + fileLength;
+    }
+
+    /**
+     * Parses "bytes=0-499,1000-,-200" against a file of fileLength bytes. Returns null when the header is
+     * absent, malformed or asks for more than maxRanges ranges, in which case the whole file is served; returns
+     * an empty list when it is well formed but nothing in it is satisfiable (416).
+     */
+    public static List<ByteRange> parse(String header, long fileLength, int maxRanges) {
+        if (header == null || !header.regionMatches(true, 0, "bytes=", 0, 6)) {
+            return null;
+        }
+        String[] specs = header.substring(6).split(",");
+        if (specs.length > maxRanges) {
+            return null;
+        }
+        List<ByteRange> ranges = new ArrayList<>(specs.length);
+        for (String rawSpec : specs) {
+            String spec = rawSpec.trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            try {
+                String first = spec.substring(0, dash).trim();
+                String last = spec.substring(dash + 1).trim();
+                if (first.isEmpty()) {
+                    long suffix = Long.parseLong(last); // "-200": the last 200 bytes
+                    if (suffix < 0) {
+                        return null;
+                    }
+                    if (suffix > 0 && fileLength > 0) {
+                        ranges.add(new ByteRange(Math.max(0, fileLength - suffix), fileLength - 1));
+                    }
+                    continue;
+                }
+                long start = Long.parseLong(first);
+                long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+                if (start < 0 || end < start) {
+                    return null;
+                }
+                if (start < fileLength) {
+                    ranges.add(new ByteRange(start, Math.min(end, fileLength - 1)));
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+
+/**
+ * Writes a download's payload to disk and hashes it in the same pass.
+ * Every byte is fed to the current chunk's SHA-256 straight from the buffer being written,
+ * so the chunk manifest is available without ever reading the file back.
+ */
+public class ChunkDigestWriter {
+
+    private final FileChannel channel;
+    private final int chunkSize;
+    private final ChunkListener listener;
+    private final MessageDigest chunkDigest;
+    private long position;
+    private int chunkIndex;
+    private int chunkFill;
+
+    public ChunkDigestWriter(FileChannel channel, int chunkSize, long startOffset, ChunkListener listener) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        if (startOffset % chunkSize != 0) {
+            throw new IllegalArgumentException("Resume offset " + startOffset + " is not aligned to chunk size " + chunkSize);
+        }
+        this.channel = channel;
+        this.chunkSize = chunkSize;
+        this.listener = listener;
+        this.chunkDigest = IntegrityVerifier.newSha256();
+        this.position = startOffset;
+        this.chunkIndex = (int) (startOffset / chunkSize);
+    }
+
+    public void write(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            int take = Math.min(source.remaining(), chunkSize - chunkFill);
+            ByteBuffer slice = source.slice();
+            slice.limit(take);
+
+            chunkDigest.update(slice.duplicate());
+            while (slice.hasRemaining()) {
+                position += channel.write(slice, position);
+            }
+            source.position(source.position() + take);
+
+            chunkFill += take;
+            if (chunkFill == chunkSize) {
+                completeChunk();
+            }
+        }
+    }
+
+    /**
+     * Flushes the trailing partial chunk, if any. Call once the source is exhausted.
+     */
+    public void finish() {
+        if (chunkFill > 0) {
+            completeChunk();
+        }
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    private void completeChunk() {
+        String hash = IntegrityVerifier.toHex(chunkDigest.digest());
+        listener.onChunkCompleted(chunkIndex, hash, position);
+        chunkIndex++;
+        chunkFill = 0;
+    }
+}
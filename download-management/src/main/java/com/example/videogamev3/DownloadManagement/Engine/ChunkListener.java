@@ -0,0 +1,9 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+/**
+ * Called by {@link ChunkDigestWriter} every time a chunk has been fully written to disk.
+ */
+@FunctionalInterface
+public interface ChunkListener {
+    void onChunkCompleted(int chunkIndex, String sha256Hex, long chunkEndOffset);
+}
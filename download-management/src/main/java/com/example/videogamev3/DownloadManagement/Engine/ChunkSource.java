@@ -0,0 +1,16 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import java.io.IOException;
+
+/**
+ * Something a byte range of a download can be fetched from.
+ */
+@FunctionalInterface
+public interface ChunkSource {
+
+    /**
+     * @param offset first byte to return
+     * @param length number of bytes wanted, or a negative value to read until the end
+     */
+    RangeStream open(long offset, long length) throws IOException;
+}
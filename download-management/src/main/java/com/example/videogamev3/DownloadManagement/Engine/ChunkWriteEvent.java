@@ -0,0 +1,36 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one manifest chunk, from its first byte arriving to its hash being committed, so a
+ * recording lines up slow chunks with GC, disk and socket activity on the same timeline. Costs next to nothing
+ * while no recording has it enabled.
+ */
+@Name("com.example.videogamev3.download.ChunkWrite")
+@Label("Download Chunk Write")
+@Category({"Download Management", "Transfer"})
+@Description("One chunk of a download received, hashed and written to its part file")
+@StackTrace(false)
+public class ChunkWriteEvent extends Event {
+
+    @Label("Download Id")
+    String downloadId;
+
+    @Label("Chunk Index")
+    int chunkIndex;
+
+    @Label("Chunk Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("End Offset")
+    @DataAmount
+    long endOffset;
+}
@@ -0,0 +1,168 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * rsync-style block matching done entirely on the receiving side (as zsync does): the target version publishes
+ * a {@link BlockSignature}, the installed base file is scanned once with a rolling checksum to find every target
+ * block it already contains, and only the remaining blocks are fetched with range requests.
+ */
+public final class DeltaPatcher {
+
+    private static final int MIN_SCAN_WINDOW = 1 << 20;
+
+    private DeltaPatcher() {
+    }
+
+    /**
+     * Receives the target file block by block, in order.
+     */
+    @FunctionalInterface
+    public interface BlockSink {
+        void write(ByteBuffer block) throws IOException;
+    }
+
+    public static DeltaPlan plan(FileChannel base, BlockSignature target) throws IOException {
+        int blockSize = target.getBlockSize();
+        long[] baseOffsets = new long[target.blockCount()];
+        Arrays.fill(baseOffsets, -1);
+
+        // Only full-size blocks can be found by a window of blockSize; a short last block is always fetched.
+        Map<Integer, List<Integer>> blocksByWeak = new HashMap<>();
+        for (int i = 0; i < target.blockCount(); i++) {
+            if (target.blockLength(i) == blockSize) {
+                blocksByWeak.computeIfAbsent(target.weak(i), weak -> new ArrayList<>()).add(i);
+            }
+        }
+        if (!blocksByWeak.isEmpty() && base.size() >= blockSize) {
+            scan(base, target, blocksByWeak, baseOffsets);
+        }
+        return new DeltaPlan(target, baseOffsets);
+    }
+
+    /**
+     * Writes the target file to {@code sink}: planned blocks are copied from {@code base}, the rest are fetched
+     * from {@code targetSource} and checked against their strong checksum before being passed on.
+     */
+    public static void apply(FileChannel base, DeltaPlan plan, BlockSignature target, ChunkSource targetSource,
+                             BlockSink sink, BooleanSupplier stopped) throws IOException {
+        byte[] block = new byte[target.getBlockSize()];
+        MessageDigest sha256 = IntegrityVerifier.newSha256();
+        int count = target.blockCount();
+        int index = 0;
+        while (index < count && !stopped.getAsBoolean()) {
+            if (plan.baseOffset(index) >= 0) {
+                ByteBuffer buffer = ByteBuffer.wrap(block, 0, target.blockLength(index));
+                while (buffer.hasRemaining()) {
+                    if (base.read(buffer, plan.baseOffset(index) + buffer.position()) < 0) {
+                        throw new IOException("Base file ended inside block " + index);
+                    }
+                }
+                sink.write(ByteBuffer.wrap(block, 0, target.blockLength(index)));
+                index++;
+                continue;
+            }
+
+            int runEnd = index;
+            while (runEnd + 1 < count && plan.baseOffset(runEnd + 1) < 0) {
+                runEnd++;
+            }
+            long start = target.blockOffset(index);
+            long length = target.blockOffset(runEnd) + target.blockLength(runEnd) - start;
+            try (RangeStream range = targetSource.open(start, length)) {
+                InputStream body = range.getBody();
+                if (range.getStart() < start) {
+                    body.skipNBytes(start - range.getStart()); // the source ignored Range; read past what we have
+                }
+                for (; index <= runEnd && !stopped.getAsBoolean(); index++) {
+                    int blockLength = target.blockLength(index);
+                    if (body.readNBytes(block, 0, blockLength) != blockLength) {
+                        throw new IOException("Patch target ended inside block " + index);
+                    }
+                    sha256.update(block, 0, blockLength);
+                    if (!IntegrityVerifier.toHex(sha256.digest()).equals(target.strong(index))) {
+                        throw new IOException("Block " + index + " of the patch target does not match its signature");
+                    }
+                    sink.write(ByteBuffer.wrap(block, 0, blockLength));
+                }
+            }
+        }
+    }
+
+    private static void scan(FileChannel base, BlockSignature target, Map<Integer, List<Integer>> blocksByWeak,
+                             long[] baseOffsets) throws IOException {
+        int blockSize = target.getBlockSize();
+        byte[] window = new byte[Math.max(4 * blockSize, MIN_SCAN_WINDOW)];
+        long windowStart = 0;
+        int filled = fill(base, window, 0, 0);
+        int position = 0;
+        int unmatched = blocksByWeak.values().stream().mapToInt(List::size).sum();
+
+        RollingChecksum checksum = new RollingChecksum(blockSize);
+        checksum.reset(window, 0);
+        MessageDigest sha256 = IntegrityVerifier.newSha256();
+
+        while (unmatched > 0) {
+            boolean matched = false;
+            List<Integer> candidates = blocksByWeak.get(checksum.value());
+            if (candidates != null) {
+                String strong = null;
+                for (int index : candidates) {
+                    if (baseOffsets[index] >= 0) {
+                        continue;
+                    }
+                    if (strong == null) {
+                        sha256.update(window, position, blockSize);
+                        strong = IntegrityVerifier.toHex(sha256.digest());
+                    }
+                    // A target can repeat a block; every copy is served from the same base offset.
+                    if (strong.equals(target.strong(index))) {
+                        baseOffsets[index] = windowStart + position;
+                        unmatched--;
+                        matched = true;
+                    }
+                }
+            }
+
+            int advance = matched ? blockSize : 1;
+            if (position + advance + blockSize > filled) {
+                // Slide the window: keep the unread tail and top it up from the file.
+                System.arraycopy(window, position, window, 0, filled - position);
+                windowStart += position;
+                filled -= position;
+                position = 0;
+                filled += fill(base, window, filled, windowStart + filled);
+                if (advance + blockSize > filled) {
+                    return;
+                }
+            }
+            if (matched) {
+                position += blockSize;
+                checksum.reset(window, position);
+            } else {
+                checksum.roll(window[position], window[position + blockSize]);
+                position++;
+            }
+        }
+    }
+
+    private static int fill(FileChannel channel, byte[] buffer, int offset, long filePosition) throws IOException {
+        ByteBuffer target = ByteBuffer.wrap(buffer, offset, buffer.length - offset);
+        while (target.hasRemaining()) {
+            if (channel.read(target, filePosition + target.position() - offset) < 0) {
+                break;
+            }
+        }
+        return target.position() - offset;
+    }
+}
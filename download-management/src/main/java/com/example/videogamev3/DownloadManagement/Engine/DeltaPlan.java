@@ -0,0 +1,54 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import lombok.Getter;
+
+/**
+ * Where each block of a patch target comes from: an offset in the installed base file, or -1 when it has to
+ * be fetched from the target's source. Consecutive fetched blocks are requested as one range.
+ */
+@Getter
+public class DeltaPlan {
+
+    // Rough cost of one extra HTTP range round trip (request line, headers, Content-Range), in bytes.
+    static final int RANGE_REQUEST_OVERHEAD_BYTES = 512;
+
+    private final long[] baseOffsets;
+    private final long bytesFromBase;
+    private final long bytesToFetch;
+    private final int fetchRanges;
+
+    DeltaPlan(BlockSignature target, long[] baseOffsets) {
+        this.baseOffsets = baseOffsets;
+        long fromBase = 0;
+        long toFetch = 0;
+        int ranges = 0;
+        for (int i = 0; i < baseOffsets.length; i++) {
+            if (baseOffsets[i] >= 0) {
+                fromBase += target.blockLength(i);
+            } else {
+                toFetch += target.blockLength(i);
+                if (i == 0 || baseOffsets[i - 1] >= 0) {
+                    ranges++;
+                }
+            }
+        }
+        this.bytesFromBase = fromBase;
+        this.bytesToFetch = toFetch;
+        this.fetchRanges = ranges;
+    }
+
+    public long baseOffset(int blockIndex) {
+        return baseOffsets[blockIndex];
+    }
+
+    /**
+     * Bytes on the wire for the delta, counting the per-range overhead.
+     */
+    public long deltaCost() {
+        return bytesToFetch + (long) fetchRanges * RANGE_REQUEST_OVERHEAD_BYTES;
+    }
+
+    public boolean isSmallerThan(long fullDownloadBytes) {
+        return deltaCost() < fullDownloadBytes;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Per-volume ledger of the disk space promised to running transfers. A reservation covers the bytes a file
+ * still has to grow by; as chunks land (or the file is pre-allocated) that part is on disk and shows up in the
+ * volume's free space instead, so it stops counting against the reservation.
+ */
+@Component
+public class DiskReservationLedger {
+
+    private final long minFreeBytes;
+    private final Map<String, Reservation> reservations = new HashMap<>();
+    private final List<Runnable> releaseListeners = new CopyOnWriteArrayList<>();
+
+    public DiskReservationLedger(@Value("${app.download.disk.min-free-bytes:1073741824}") long minFreeBytes) {
+        this.minFreeBytes = minFreeBytes;
+    }
+
+    /**
+     * Reserves room for a file of fileBytes of which bytesOnDisk are already written, if the directory's volume
+     * has that much usable space beyond what other reservations still need and the configured headroom.
+     */
+    public synchronized boolean tryReserve(String id, Path directory, long fileBytes, long bytesOnDisk) throws IOException {
+        FileStore volume = Files.getFileStore(directory);
+        long needed = Math.max(0, fileBytes - bytesOnDisk);
+        if (volume.getUsableSpace() - outstanding(volume) - minFreeBytes < needed) {
+            return false;
+        }
+        reservations.put(id, new Reservation(volume, fileBytes, bytesOnDisk));
+        return true;
+    }
+
+    public synchronized boolean isReserved(String id) {
+        return reservations.containsKey(id);
+    }
+
+    /**
+     * Records that the file's first upTo bytes now physically occupy the disk.
+     */
+    public synchronized void allocated(String id, long upTo) {
+        Reservation reservation = reservations.get(id);
+        if (reservation != null) {
+            reservation.allocatedUpTo = Math.max(reservation.allocatedUpTo, upTo);
+        }
+    }
+
+    /**
+     * Drops the reservation, then tells every release listener that room may have come free. Listeners run
+     * outside the ledger's lock, so they may reserve again.
+     */
+    public void release(String id) {
+        boolean released;
+        synchronized (this) {
+            released = reservations.remove(id) != null;
+        }
+        if (released) {
+            releaseListeners.forEach(Runnable::run);
+        }
+    }
+
+    public void onRelease(Runnable listener) {
+        releaseListeners.add(listener);
+    }
+
+    public synchronized VolumeSpace report(Path directory) throws IOException {
+        FileStore volume = Files.getFileStore(directory);
+        long count = reservations.values().stream().filter(reservation -> reservation.volume.equals(volume)).count();
+        long reserved = outstanding(volume);
+        long usable = volume.getUsableSpace();
+        return new VolumeSpace(volume.toString(), volume.getTotalSpace(), usable, reserved,
+                Math.max(0, usable - reserved - minFreeBytes), (int) count);
+    }
+
+    private long outstanding(FileStore volume) {
+        return reservations.values().stream()
+                .filter(reservation -> reservation.volume.equals(volume))
+                .mapToLong(Reservation::outstanding)
+                .sum();
+    }
+
+    private static final class Reservation {
+        private final FileStore volume;
+        private final long fileBytes;
+        private long allocatedUpTo;
+
+        private Reservation(FileStore volume, long fileBytes, long allocatedUpTo) {
+            this.volume = volume;
+            this.fileBytes = fileBytes;
+            this.allocatedUpTo = allocatedUpTo;
+        }
+
+        private long outstanding() {
+            return Math.max(0, fileBytes - allocatedUpTo);
+        }
+    }
+}
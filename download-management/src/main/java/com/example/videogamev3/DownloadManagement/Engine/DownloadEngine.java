@@ -0,0 +1,959 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.ChunkManifest;
+import com.example.videogamev3.DownloadManagement.DataAccess.Download;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import com.example.videogamev3.DownloadManagement.DataAccess.PatchStats;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.http.HttpClient;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the actual transfers. Each running download streams its source URL into {@code <id>.part},
+ * hashing chunks as they are written, and is renamed to {@code <id>} once complete.
+ */
+@Slf4j
+@Component
+public class DownloadEngine {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_ATTEMPTS_PER_MIRROR = 3;
+
+    private final DownloadRepository downloadRepository;
+    private final DownloadProgressRegistry progressRegistry;
+    private final DownloadJournal journal;
+    private final MirrorRegistry mirrorRegistry;
+    private final DiskReservationLedger diskLedger;
+    private final InstallPipeline installPipeline;
+    private final ProgressWriteBehind progressWrites;
+    private final DownloadMetrics metrics;
+    private final Path downloadDirectory;
+    private final int chunkSize;
+    private final int syncEveryChunks;
+    private final int patchBlockSize;
+    private final long segmentSize;
+    private final int probeBytes;
+    private final int maxParallelSegments;
+    private final Preallocation preallocation;
+    private final Duration requestTimeout;
+    private final HttpClient httpClient;
+    private final ExecutorService workers;
+    // Fetches the segments of multi-mirror transfers; each transfer keeps at most max-parallel-segments in it.
+    private final ExecutorService segmentFetchers;
+    // Looks at the queue of transfers waiting for space every so often, for room freed outside the engine.
+    private final ScheduledExecutorService spaceChecker;
+    private final Map<String, TransferTask> activeTransfers = new ConcurrentHashMap<>();
+    // Transfers whose file does not fit on the volume yet, oldest first; guarded by its own monitor.
+    private final Map<String, WaitingTransfer> waitingForSpace = new LinkedHashMap<>();
+    private volatile boolean shuttingDown;
+
+    public DownloadEngine(DownloadRepository downloadRepository,
+                          DownloadProgressRegistry progressRegistry,
+                          DownloadJournal journal,
+                          MirrorRegistry mirrorRegistry,
+                          DiskReservationLedger diskLedger,
+                          InstallPipeline installPipeline,
+                          ProgressWriteBehind progressWrites,
+                          DownloadMetrics metrics,
+                          @Value("${app.download.engine.directory:./downloads}") String downloadDirectory,
+                          @Value("${app.download.engine.chunk-size:4194304}") int chunkSize,
+                          @Value("${app.download.engine.max-parallel:4}") int maxParallel,
+                          @Value("${app.download.engine.request-timeout-seconds:30}") long requestTimeoutSeconds,
+                          @Value("${app.download.journal.sync-every-chunks:4}") int syncEveryChunks,
+                          @Value("${app.download.patch.block-size:65536}") int patchBlockSize,
+                          @Value("${app.download.mirrors.segment-size:8388608}") long segmentSize,
+                          @Value("${app.download.mirrors.probe-bytes:65536}") int probeBytes,
+                          @Value("${app.download.mirrors.max-parallel-segments:3}") int maxParallelSegments,
+                          @Value("${app.download.disk.preallocation:SPARSE}") Preallocation preallocation,
+                          @Value("${app.download.disk.recheck-interval-seconds:30}") long spaceRecheckSeconds) {
+        this.downloadRepository = downloadRepository;
+        this.progressRegistry = progressRegistry;
+        this.journal = journal;
+        this.mirrorRegistry = mirrorRegistry;
+        this.diskLedger = diskLedger;
+        this.installPipeline = installPipeline;
+        this.progressWrites = progressWrites;
+        this.metrics = metrics;
+        this.downloadDirectory = Paths.get(downloadDirectory);
+        this.chunkSize = chunkSize;
+        this.syncEveryChunks = Math.max(1, syncEveryChunks);
+        this.patchBlockSize = patchBlockSize;
+        this.segmentSize = segmentSize;
+        this.probeBytes = probeBytes;
+        this.maxParallelSegments = Math.max(1, maxParallelSegments);
+        this.preallocation = preallocation;
+        this.requestTimeout = Duration.ofSeconds(requestTimeoutSeconds);
+        this.httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(requestTimeout)
+                .build();
+        this.workers = Executors.newFixedThreadPool(maxParallel);
+        this.segmentFetchers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "download-segment");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.spaceChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "download-space-recheck");
+            thread.setDaemon(true);
+            return thread;
+        });
+        spaceChecker.scheduleWithFixedDelay(this::startWaiting, spaceRecheckSeconds, spaceRecheckSeconds, TimeUnit.SECONDS);
+        diskLedger.onRelease(this::startWaiting);
+        metrics.gauge("download.transfers.running", "Transfers holding or waiting for a worker", activeTransfers::size);
+        metrics.gauge("download.transfers.queued", "Transfers queued until the volume has room", this::queuedCount);
+        log.info("Download engine writing to {} with {} byte chunks and {} workers", this.downloadDirectory.toAbsolutePath(), chunkSize, maxParallel);
+    }
+
+    public void start(Download download) {
+        String id = download.getId().getUuid();
+        TransferTask task = new TransferTask(download);
+        if (activeTransfers.putIfAbsent(id, task) != null) {
+            log.debug("Transfer for download {} is already running", id);
+            return;
+        }
+        workers.submit(task);
+    }
+
+    /**
+     * Stops a running transfer and keeps every completed chunk on disk so it can be resumed.
+     */
+    public void stop(String id) {
+        TransferTask task = activeTransfers.get(id);
+        if (task != null) {
+            task.stop(false);
+        } else {
+            dequeue(id);
+        }
+    }
+
+    /**
+     * Stops a running transfer, if any, and removes whatever it wrote.
+     */
+    public void discard(String id) {
+        TransferTask task = activeTransfers.get(id);
+        if (task != null) {
+            task.stop(true);
+        } else {
+            dequeue(id);
+            deleteFiles(id);
+            startWaiting();
+        }
+    }
+
+    /**
+     * Bulk counterparts of {@link #start}, {@link #stop} and {@link #discard}, so a bulk operation hands the
+     * engine its whole batch in one call.
+     */
+    public void startAll(Collection<Download> downloads) {
+        downloads.forEach(this::start);
+    }
+
+    public void stopAll(Collection<String> ids) {
+        ids.forEach(this::stop);
+    }
+
+    public void discardAll(Collection<String> ids) {
+        ids.forEach(this::discard);
+    }
+
+    /**
+     * Deletes the part files of downloads that will never be resumed, such as cancelled or failed ones leaving
+     * the hot collection, and starts whatever queued transfer fits in the space that frees.
+     */
+    public void discardPartFiles(Collection<String> ids) {
+        for (String id : ids) {
+            if (activeTransfers.containsKey(id)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(partFile(id));
+            } catch (IOException e) {
+                log.warn("Could not delete the part file of download {}: {}", id, e.getMessage());
+            }
+        }
+        startWaiting();
+    }
+
+    public boolean isActive(String id) {
+        return activeTransfers.containsKey(id);
+    }
+
+    /**
+     * Space on the download volume, including what running transfers have reserved but not written yet.
+     */
+    public VolumeSpace diskSpace() throws IOException {
+        Files.createDirectories(downloadDirectory);
+        return diskLedger.report(downloadDirectory);
+    }
+
+    public ProgressWriteStats progressWrites() {
+        return progressWrites.stats();
+    }
+
+    public List<String> queuedForSpace() {
+        synchronized (waitingForSpace) {
+            return new ArrayList<>(waitingForSpace.keySet());
+        }
+    }
+
+    /**
+     * Full pass over the file on disk against its chunk manifest. Chunks that no longer match are
+     * re-fetched individually from the source instead of restarting the download.
+     */
+    public VerificationReport verify(Download download) throws IOException {
+        String id = download.getId().getUuid();
+        ChunkManifest manifest = download.getChunkManifest();
+        Path file = Files.exists(completedFile(id)) ? completedFile(id) : partFile(id);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long started = System.nanoTime();
+            List<Integer> corrupt = IntegrityVerifier.findCorruptChunks(channel, manifest);
+            long elapsed = System.nanoTime() - started;
+
+            long totalBytes = download.getTotalBytes() != null ? download.getTotalBytes() : size;
+            ChunkSource source = sourceFor(download);
+            List<Integer> repaired = new ArrayList<>();
+            for (int index : corrupt) {
+                try {
+                    metrics.retry("chunk_repair");
+                    IntegrityVerifier.repairChunk(channel, manifest, index, totalBytes, source);
+                    repaired.add(index);
+                } catch (IOException e) {
+                    log.warn("Could not repair chunk {} of download {}: {}", index, id, e.getMessage());
+                }
+            }
+            VerificationReport report = new VerificationReport(manifest.getChunkHashes().size(), size, elapsed, corrupt, repaired);
+            log.info("Verified download {}: {} chunks at {} MB/s, {} corrupt, {} repaired",
+                    id, report.getChunksVerified(), String.format("%.1f", report.getMegabytesPerSecond()), corrupt.size(), repaired.size());
+            return report;
+        }
+    }
+
+    /**
+     * Block signature of a completed download, for other nodes to patch their older version against.
+     */
+    public BlockSignature signature(String id) throws IOException {
+        try (FileChannel channel = FileChannel.open(completedFile(id), StandardOpenOption.READ)) {
+            return BlockSignature.of(channel, patchBlockSize);
+        }
+    }
+
+    public Path completedFile(String id) {
+        return downloadDirectory.resolve(id);
+    }
+
+    public Path installDirectory(String id) {
+        return installPipeline.installDirectory(id);
+    }
+
+    /**
+     * Re-runs the install of a completed download, e.g. one that was still INSTALLING when the node went down.
+     */
+    public void install(Download download) throws IOException {
+        installPipeline.installCompleted(download, completedFile(download.getId().getUuid()));
+    }
+
+    public Path partFile(String id) {
+        return downloadDirectory.resolve(id + ".part");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Transfers stopped here are left open in the journal, so they resume on the next start.
+        shuttingDown = true;
+        activeTransfers.values().forEach(task -> task.stop(false));
+        workers.shutdownNow();
+        segmentFetchers.shutdownNow();
+        spaceChecker.shutdownNow();
+    }
+
+    private ChunkSource sourceFor(Download download) {
+        return new HttpRangeSource(httpClient, mirrorRegistry.pick(mirrorsOf(download)), requestTimeout);
+    }
+
+    /**
+     * sourceUrl followed by the download's mirrors, in the order given, without blanks or duplicates.
+     */
+    static List<String> mirrorsOf(Download download) {
+        Set<String> urls = new LinkedHashSet<>();
+        urls.add(download.getSourceUrl());
+        if (download.getMirrorUrls() != null) {
+            download.getMirrorUrls().stream()
+                    .filter(url -> url != null && !url.isBlank())
+                    .forEach(urls::add);
+        }
+        return new ArrayList<>(urls);
+    }
+
+    private int queuedCount() {
+        synchronized (waitingForSpace) {
+            return waitingForSpace.size();
+        }
+    }
+
+    private void waitForSpace(WaitingTransfer waiting) {
+        synchronized (waitingForSpace) {
+            waitingForSpace.put(waiting.download.getId().getUuid(), waiting);
+        }
+    }
+
+    // A queued transfer that is paused or cancelled is simply forgotten; it never held a reservation.
+    private void dequeue(String id) {
+        boolean removed;
+        synchronized (waitingForSpace) {
+            removed = waitingForSpace.remove(id) != null;
+        }
+        if (removed) {
+            journal.transferEnded(id);
+        }
+    }
+
+    /**
+     * Starts, oldest first, every queued transfer that fits now. Space is reserved here rather than in the
+     * worker so two queued downloads cannot both claim the same free bytes. Runs whenever a reservation is
+     * released or files are deleted, and on a timer for space freed by anything else on the volume.
+     */
+    private void startWaiting() {
+        List<Download> ready = new ArrayList<>();
+        synchronized (waitingForSpace) {
+            Iterator<WaitingTransfer> queued = waitingForSpace.values().iterator();
+            while (queued.hasNext() && !shuttingDown) {
+                WaitingTransfer waiting = queued.next();
+                String id = waiting.download.getId().getUuid();
+                try {
+                    if (diskLedger.tryReserve(id, downloadDirectory, waiting.fileBytes, waiting.bytesOnDisk)) {
+                        queued.remove();
+                        metrics.queueWait("disk_space", System.nanoTime() - waiting.queuedNanos);
+                        ready.add(waiting.download);
+                    }
+                } catch (IOException e) {
+                    log.warn("Could not check free space for queued download {}: {}", id, e.getMessage());
+                }
+            }
+        }
+        ready.forEach(this::start);
+    }
+
+    private void deleteFiles(String id) {
+        installPipeline.discard(id);
+        try {
+            Files.deleteIfExists(partFile(id));
+            Files.deleteIfExists(completedFile(id));
+        } catch (IOException e) {
+            log.warn("Could not delete files of download {}: {}", id, e.getMessage());
+        }
+    }
+
+    private class TransferTask implements Runnable {
+
+        private final Download download;
+        private final String id;
+        private volatile boolean stopped;
+        private volatile boolean discard;
+        private boolean queued;
+        private InstallPipeline.InstallJob install;
+        private boolean installing;
+        private final long submittedNanos;
+        // Tells segment fetchers to give up once the transfer has failed; stopped covers pause and cancel.
+        private volatile boolean abandoned;
+
+        TransferTask(Download download) {
+            this.download = download;
+            this.id = download.getId().getUuid();
+            this.submittedNanos = System.nanoTime();
+        }
+
+        void stop(boolean discardFiles) {
+            this.discard = discardFiles;
+            this.stopped = true;
+        }
+
+        @Override
+        public void run() {
+            metrics.queueWait("worker", System.nanoTime() - submittedNanos);
+            try {
+                transfer();
+            } catch (Exception e) {
+                log.warn("Transfer of download {} failed: {}", id, e.getMessage());
+                if (!stopped && downloadRepository.finishTransfer(id, DownloadStatus.FAILED, null)) {
+                    progressRegistry.updateStatus(id, DownloadStatus.FAILED);
+                    metrics.transferFailed();
+                }
+            } finally {
+                // Mongo must have every chunk before the journal stops covering this transfer.
+                progressWrites.flush(id);
+                if (install != null && !installing) {
+                    install.abort(); // stopped or failed; a resumed transfer extracts again from the start
+                }
+                if (!shuttingDown && !queued) {
+                    journal.transferEnded(id);
+                }
+                activeTransfers.remove(id, this);
+                if (discard) {
+                    deleteFiles(id);
+                }
+                if (!queued) {
+                    diskLedger.release(id); // starts queued transfers that now fit
+                }
+            }
+        }
+
+        private void transfer() throws IOException {
+            Files.createDirectories(downloadDirectory);
+            Path part = partFile(id);
+            ChunkManifest previous = download.getChunkManifest();
+            ChunkManifest manifest = previous != null && previous.getChunkSize() == chunkSize ? previous : new ChunkManifest(chunkSize);
+
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long offset = IntegrityVerifier.resumeOffset(channel, manifest);
+                if (offset > 0) {
+                    log.info("Resuming download {} at byte {} ({} verified chunks)", id, offset, manifest.getChunkHashes().size());
+                }
+                if (!reserveSpace(channel, manifest, offset)) {
+                    return;
+                }
+                if (download.isInstall()) {
+                    install = installPipeline.begin(download, part);
+                    install.advance(offset);
+                }
+                if (offset == 0 && download.getBaseDownloadId() != null && download.getPatchStats() == null
+                        && patch(channel, manifest)) {
+                    if (stopped) {
+                        return;
+                    }
+                } else if (download.getTotalBytes() != null && offset == download.getTotalBytes()) {
+                    channel.force(false);
+                } else if (mirrorsOf(download).size() > 1) {
+                    receiveFromMirrors(channel, manifest, offset, mirrorsOf(download));
+                } else {
+                    receive(channel, manifest, offset);
+                }
+                if (stopped) {
+                    return;
+                }
+            }
+
+            Files.move(part, completedFile(id), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            String rootHash = IntegrityVerifier.rootHash(manifest.getChunkHashes());
+            DownloadStatus finished = install != null ? DownloadStatus.INSTALLING : DownloadStatus.COMPLETED;
+            progressWrites.flush(id);
+            if (downloadRepository.finishTransfer(id, finished, rootHash)) {
+                progressRegistry.updateStatus(id, finished);
+                log.info("Completed download {} ({} chunks, root {})", id, manifest.getChunkHashes().size(), rootHash);
+                if (install != null) {
+                    installing = true;
+                    install.transferCompleted(Files.size(completedFile(id)));
+                }
+            }
+        }
+
+        private void receive(FileChannel channel, ChunkManifest manifest, long offset) throws IOException {
+            String source = download.getSourceUrl();
+            long requested = System.nanoTime();
+            try (RangeStream range = sourceFor(download).open(offset, -1)) {
+                metrics.timeToFirstByte(source, System.nanoTime() - requested);
+                if (range.getStart() != offset) {
+                    log.info("Source of download {} ignored the Range request, restarting from byte {}", id, range.getStart());
+                    metrics.retry("range_ignored");
+                    manifest.getChunkHashes().clear();
+                    offset = range.getStart();
+                }
+                Long totalBytes = range.getTotalLength() >= 0 ? range.getTotalLength() : null;
+                progressWrites.discard(id);
+                downloadRepository.resetTransfer(id, manifest, offset, totalBytes);
+                journal.transferStarted(id, manifest, offset, totalBytes);
+                progressRegistry.transferStarted(id, offset, totalBytes);
+
+                List<CommittedChunk> unsynced = new ArrayList<>();
+                ChunkDigestWriter writer = chunkWriter(channel, manifest, offset, unsynced);
+                InputStream body = range.getBody();
+                byte[] buffer = new byte[READ_BUFFER_SIZE];
+                int read;
+                while (!stopped && (read = body.read(buffer)) != -1) {
+                    writer.write(ByteBuffer.wrap(buffer, 0, read));
+                    progressRegistry.addBytes(id, read);
+                    metrics.bytesReceived(download.getUserId(), source, read);
+                    if (unsynced.size() >= syncEveryChunks) {
+                        journalChunks(channel, unsynced);
+                    }
+                }
+                if (stopped) {
+                    journalChunks(channel, unsynced);
+                    log.info("Transfer of download {} stopped at byte {}", id, writer.getPosition());
+                    return;
+                }
+                writer.finish();
+                channel.truncate(writer.getPosition()); // drops pre-allocated space past a shorter-than-announced body
+                channel.force(false);
+                journalChunks(channel, unsynced);
+            }
+        }
+
+        /**
+         * Fetches the file in segments spread over the mirrors, up to max-parallel-segments at once, each from the
+         * best-scoring mirror that has nothing in flight yet. Segments start on chunk boundaries and hash their own
+         * chunks as they write them; chunks reach the manifest, the journal and Mongo in file order, so a resumed
+         * transfer still starts from a contiguous prefix. A segment that fails part-way carries on from the byte it
+         * reached on a different mirror. A mirror that fails {@value #MAX_ATTEMPTS_PER_MIRROR} times in a row is
+         * dropped for the rest of the transfer, which fails once no mirror is left. All mirrors must serve the same
+         * bytes; a mirror reporting a different length counts as failed. A file whose length is not known up front
+         * is fetched in one stream from the best mirror instead.
+         */
+        private void receiveFromMirrors(FileChannel channel, ChunkManifest manifest, long offset, List<String> mirrors) throws IOException {
+            probe(mirrors);
+            Long totalBytes = download.getTotalBytes();
+            if (totalBytes == null) {
+                receive(channel, manifest, offset);
+                return;
+            }
+            progressWrites.discard(id);
+            downloadRepository.resetTransfer(id, manifest, offset, totalBytes);
+            journal.transferStarted(id, manifest, offset, totalBytes);
+            progressRegistry.transferStarted(id, offset, totalBytes);
+
+            Deque<Segment> pending = new ArrayDeque<>();
+            long step = Math.max(1, segmentSize / chunkSize) * chunkSize;
+            for (long start = offset; start < totalBytes; start += step) {
+                pending.add(new Segment(channel, start, Math.min(start + step, totalBytes)));
+            }
+            CompletionService<Segment> completion = new ExecutorCompletionService<>(segmentFetchers);
+            Map<String, Integer> inFlightByMirror = new HashMap<>();
+            Map<String, Integer> failuresByMirror = new HashMap<>();
+            TreeMap<Long, Segment> fetched = new TreeMap<>();
+            List<CommittedChunk> unsynced = new ArrayList<>();
+            long committed = offset;
+            int inFlight = 0;
+            IOException lastError = null;
+            try {
+                while (!stopped && committed < totalBytes) {
+                    while (inFlight < maxParallelSegments && !pending.isEmpty()) {
+                        Segment segment = pending.poll();
+                        String mirror = chooseMirror(mirrors, inFlightByMirror, failuresByMirror, segment.failedOn);
+                        if (mirror == null) {
+                            throw new IOException("Every mirror of download " + id + " failed; last: "
+                                    + (lastError != null ? lastError.getMessage() : "none"), lastError);
+                        }
+                        inFlightByMirror.merge(mirror, 1, Integer::sum);
+                        completion.submit(() -> segment.fetch(mirror, totalBytes));
+                        inFlight++;
+                    }
+
+                    Segment done = nextFetched(completion);
+                    inFlight--;
+                    inFlightByMirror.computeIfPresent(done.mirror, (mirror, count) -> count > 1 ? count - 1 : null);
+                    if (stopped) {
+                        break;
+                    }
+                    if (done.error != null) {
+                        lastError = done.error;
+                        failuresByMirror.merge(done.mirror, 1, Integer::sum);
+                        metrics.retry("mirror_failover");
+                        log.warn("Mirror {} failed for download {} at byte {}: {}; failing over",
+                                done.mirror, id, done.writer.getPosition(), done.error.getMessage());
+                        done.failedOn = done.mirror;
+                        pending.addFirst(done);
+                        continue;
+                    }
+                    failuresByMirror.remove(done.mirror);
+                    fetched.put(done.start, done);
+                    while (!fetched.isEmpty() && fetched.firstKey() == committed) {
+                        Segment next = fetched.pollFirstEntry().getValue();
+                        next.chunks.forEach(chunk -> commitChunk(manifest, unsynced, chunk));
+                        committed = next.end;
+                    }
+                    if (unsynced.size() >= syncEveryChunks) {
+                        journalChunks(channel, unsynced);
+                    }
+                }
+            } finally {
+                // The channel closes when this returns, so every fetch still writing into it has to end first.
+                abandoned = true;
+                try {
+                    for (; inFlight > 0; inFlight--) {
+                        completion.take();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt(); // shutting down; the last fetches fail on the closed channel
+                }
+            }
+
+            if (stopped) {
+                journalChunks(channel, unsynced);
+                log.info("Transfer of download {} stopped at byte {}", id, committed);
+                return;
+            }
+            channel.truncate(totalBytes);
+            channel.force(false);
+            journalChunks(channel, unsynced);
+        }
+
+        /**
+         * The mirror for a segment's next request: among the mirrors not dropped from this transfer, and never the
+         * one that just failed the segment unless it is the last one left, the best-scoring healthy one with no
+         * segment in flight, else the best-scoring of them all. Null once every mirror has been dropped.
+         */
+        private String chooseMirror(List<String> mirrors, Map<String, Integer> inFlightByMirror,
+                                    Map<String, Integer> failuresByMirror, String failedOn) {
+            List<String> usable = mirrors.stream()
+                    .filter(url -> failuresByMirror.getOrDefault(url, 0) < MAX_ATTEMPTS_PER_MIRROR)
+                    .toList();
+            if (usable.isEmpty()) {
+                return null;
+            }
+            List<String> others = usable.stream().filter(url -> !url.equals(failedOn)).toList();
+            List<String> candidates = others.isEmpty() ? usable : others;
+            List<String> idle = candidates.stream()
+                    .filter(url -> !inFlightByMirror.containsKey(url))
+                    .filter(url -> {
+                        MirrorSnapshot snapshot = mirrorRegistry.snapshot(url);
+                        return !snapshot.isProbed() || mirrorRegistry.isHealthy(snapshot);
+                    })
+                    .toList();
+            return mirrorRegistry.pick(idle.isEmpty() ? candidates : idle);
+        }
+
+        private Segment nextFetched(CompletionService<Segment> completion) throws IOException {
+            try {
+                return completion.take().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stop(false);
+                throw new InterruptedIOException("Interrupted while fetching download " + id);
+            } catch (ExecutionException e) {
+                throw new IOException("Segment fetch of download " + id + " failed", e.getCause());
+            }
+        }
+
+        // A small ranged read per mirror nobody on this node has used recently, so the first pick is informed.
+        private void probe(List<String> mirrors) {
+            for (String mirror : mirrorRegistry.unprobed(mirrors)) {
+                long started = System.nanoTime();
+                long received = 0;
+                try (RangeStream range = new HttpRangeSource(httpClient, mirror, requestTimeout).open(0, probeBytes)) {
+                    received = range.getBody().readNBytes(probeBytes).length;
+                    mirrorRegistry.recordSuccess(mirror, received, System.nanoTime() - started);
+                } catch (IOException e) {
+                    log.info("Probe of mirror {} failed: {}", mirror, e.getMessage());
+                    mirrorRegistry.recordFailure(mirror, received, System.nanoTime() - started);
+                }
+            }
+        }
+
+        /**
+         * Reserves room for the rest of the file and pre-allocates it. When the volume cannot take it, the
+         * transfer is queued instead of running into a full disk halfway; it stays open in the journal so a
+         * restart queues it again. Files of unknown size are not reserved.
+         */
+        private boolean reserveSpace(FileChannel channel, ChunkManifest manifest, long offset) throws IOException {
+            Long totalBytes = download.getTotalBytes() != null ? download.getTotalBytes() : announcedLength();
+            if (totalBytes == null || totalBytes <= offset) {
+                return true;
+            }
+            download.setTotalBytes(totalBytes);
+            if (!diskLedger.isReserved(id) && !diskLedger.tryReserve(id, downloadDirectory, totalBytes, offset)) {
+                journal.transferStarted(id, manifest, offset, totalBytes);
+                waitForSpace(new WaitingTransfer(download, totalBytes, offset));
+                queued = true;
+                log.info("Download {} needs {} more bytes than the volume has free; queued", id, totalBytes - offset);
+                return false;
+            }
+            boolean patching = offset == 0 && download.getBaseDownloadId() != null && download.getPatchStats() == null;
+            if (!patching) {
+                preallocate(channel, offset, totalBytes);
+            }
+            return true;
+        }
+
+        private Long announcedLength() {
+            try (RangeStream range = sourceFor(download).open(0, 1)) {
+                return range.getTotalLength() >= 0 ? range.getTotalLength() : null;
+            } catch (IOException e) {
+                return null; // the transfer itself will report the source as unreachable
+            }
+        }
+
+        private void preallocate(FileChannel channel, long offset, long totalBytes) throws IOException {
+            long size = channel.size();
+            if (preallocation == Preallocation.NONE || size >= totalBytes) {
+                return;
+            }
+            if (preallocation == Preallocation.SPARSE) {
+                channel.write(ByteBuffer.allocate(1), totalBytes - 1);
+                return;
+            }
+            ByteBuffer zeros = ByteBuffer.allocateDirect(READ_BUFFER_SIZE * 16);
+            for (long position = Math.max(offset, size); position < totalBytes && !stopped; ) {
+                zeros.clear().limit((int) Math.min(zeros.capacity(), totalBytes - position));
+                position += channel.write(zeros, position);
+            }
+            diskLedger.allocated(id, totalBytes);
+        }
+
+        /**
+         * Builds the target of a patch download from the installed base version plus the blocks it lacks.
+         * Returns false, after recording why, when the transfer should fall back to a full download instead.
+         * A patch that is stopped part-way resumes later as an ordinary ranged download of the target.
+         */
+        private boolean patch(FileChannel channel, ChunkManifest manifest) throws IOException {
+            Path base = completedFile(download.getBaseDownloadId());
+            if (download.getSignatureUrl() == null || !Files.exists(base)) {
+                return fallBack(0, "base version " + download.getBaseDownloadId() + " is not installed on this node");
+            }
+            BlockSignature signature;
+            try (RangeStream body = new HttpRangeSource(httpClient, download.getSignatureUrl(), requestTimeout).open(0, -1)) {
+                signature = BlockSignature.read(body.getBody());
+            } catch (IOException e) {
+                return fallBack(0, "block signature unavailable: " + e.getMessage());
+            }
+
+            try (FileChannel baseChannel = FileChannel.open(base, StandardOpenOption.READ)) {
+                long started = System.nanoTime();
+                DeltaPlan plan = DeltaPatcher.plan(baseChannel, signature);
+                long targetBytes = signature.getLength();
+                if (!plan.isSmallerThan(targetBytes)) {
+                    return fallBack(targetBytes, "delta of " + plan.deltaCost() + " bytes is not smaller than the full download");
+                }
+                log.info("Patching download {} from {}: {} of {} bytes reused, {} bytes in {} ranges to fetch",
+                        id, download.getBaseDownloadId(), plan.getBytesFromBase(), targetBytes, plan.getBytesToFetch(), plan.getFetchRanges());
+
+                manifest.getChunkHashes().clear();
+                channel.truncate(0);
+                progressWrites.discard(id);
+                downloadRepository.resetTransfer(id, manifest, 0, targetBytes);
+                journal.transferStarted(id, manifest, 0, targetBytes);
+                progressRegistry.transferStarted(id, 0, targetBytes);
+
+                List<CommittedChunk> unsynced = new ArrayList<>();
+                ChunkDigestWriter writer = chunkWriter(channel, manifest, 0, unsynced);
+                DeltaPatcher.apply(baseChannel, plan, signature, sourceFor(download), block -> {
+                    int length = block.remaining();
+                    writer.write(block);
+                    progressRegistry.addBytes(id, length);
+                    metrics.bytesReceived(download.getUserId(), download.getSourceUrl(), length);
+                    if (unsynced.size() >= syncEveryChunks) {
+                        journalChunks(channel, unsynced);
+                    }
+                }, () -> stopped);
+                if (stopped) {
+                    journalChunks(channel, unsynced);
+                    log.info("Patch of download {} stopped at byte {}", id, writer.getPosition());
+                    return true;
+                }
+                writer.finish();
+                channel.force(false);
+                journalChunks(channel, unsynced);
+
+                double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+                PatchStats stats = new PatchStats(true, targetBytes, plan.getBytesFromBase(), plan.getBytesToFetch(),
+                        targetBytes - plan.getBytesToFetch(), seconds > 0 ? targetBytes / (1024.0 * 1024.0) / seconds : 0, null);
+                downloadRepository.recordPatch(id, stats);
+                download.setPatchStats(stats);
+                log.info("Patched download {}: {} bytes saved, applied at {} MB/s",
+                        id, stats.getBytesSaved(), String.format("%.1f", stats.getMegabytesPerSecond()));
+                return true;
+            }
+        }
+
+        private boolean fallBack(long targetBytes, String reason) {
+            log.info("Downloading {} in full instead of patching: {}", id, reason);
+            PatchStats stats = PatchStats.fallback(targetBytes, reason);
+            downloadRepository.recordPatch(id, stats);
+            download.setPatchStats(stats);
+            return false;
+        }
+
+        private ChunkDigestWriter chunkWriter(FileChannel channel, ChunkManifest manifest, long offset, List<CommittedChunk> unsynced) {
+            return timedWriter(channel, offset,
+                    (index, hash, end) -> commitChunk(manifest, unsynced, new CommittedChunk(index, hash, end)));
+        }
+
+        // A chunk is timed from the commit of the one before it, or from the writer being opened.
+        private ChunkDigestWriter timedWriter(FileChannel channel, long offset, ChunkListener committed) {
+            ChunkWriteEvent[] event = {beginChunk()};
+            long[] startedNanos = {System.nanoTime()};
+            return new ChunkDigestWriter(channel, chunkSize, offset, (index, hash, end) -> {
+                metrics.chunkCommitted(System.nanoTime() - startedNanos[0]);
+                event[0].end();
+                if (event[0].shouldCommit()) {
+                    event[0].downloadId = id;
+                    event[0].chunkIndex = index;
+                    event[0].bytes = end - (long) index * chunkSize;
+                    event[0].endOffset = end;
+                    event[0].commit();
+                }
+                event[0] = beginChunk();
+                startedNanos[0] = System.nanoTime();
+                committed.onChunkCompleted(index, hash, end);
+            });
+        }
+
+        private ChunkWriteEvent beginChunk() {
+            ChunkWriteEvent event = new ChunkWriteEvent();
+            event.begin();
+            return event;
+        }
+
+        private void commitChunk(ChunkManifest manifest, List<CommittedChunk> unsynced, CommittedChunk chunk) {
+            manifest.getChunkHashes().add(chunk.sha256Hex);
+            progressWrites.chunkCommitted(id, chunk.index, chunk.sha256Hex, chunk.endOffset);
+            diskLedger.allocated(id, chunk.endOffset);
+            unsynced.add(chunk);
+            if (install != null) {
+                install.advance(chunk.endOffset);
+            }
+        }
+
+        /**
+         * Forces the chunks written since the last sync to disk before journaling them, so a journaled offset
+         * never points past bytes that a power loss could take back. One fsync covers several chunks.
+         */
+        private void journalChunks(FileChannel channel, List<CommittedChunk> unsynced) throws IOException {
+            if (unsynced.isEmpty()) {
+                return;
+            }
+            channel.force(false);
+            unsynced.forEach(chunk -> journal.chunkCommitted(id, chunk.index, chunk.sha256Hex, chunk.endOffset));
+            unsynced.clear();
+        }
+
+        /**
+         * One range of a multi-mirror transfer, fetched by one request at a time on a segment fetcher thread. It
+         * keeps its writer across attempts, so a retry on another mirror carries on from the byte the last one
+         * reached, partial chunk digest included. Read by the transfer thread only once its fetch has returned.
+         */
+        private final class Segment {
+            private final FileChannel channel;
+            private final long start;
+            private final long end;
+            private final List<CommittedChunk> chunks = new ArrayList<>();
+            private ChunkDigestWriter writer;
+            private String mirror;
+            private String failedOn;
+            private IOException error;
+
+            private Segment(FileChannel channel, long start, long end) {
+                this.channel = channel;
+                this.start = start;
+                this.end = end;
+            }
+
+            Segment fetch(String mirror, long totalBytes) {
+                this.mirror = mirror;
+                this.error = null;
+                if (writer == null) {
+                    writer = timedWriter(channel, start, (index, hash, chunkEnd) -> chunks.add(new CommittedChunk(index, hash, chunkEnd)));
+                }
+                long position = writer.getPosition();
+                long length = end - position;
+                long received = 0;
+                long requested = System.nanoTime();
+                try (RangeStream range = new HttpRangeSource(httpClient, mirror, requestTimeout).open(position, length)) {
+                    metrics.timeToFirstByte(mirror, System.nanoTime() - requested);
+                    if (range.getStart() != position) {
+                        throw new IOException("mirror ignored the Range request for byte " + position);
+                    }
+                    if (range.getTotalLength() >= 0 && range.getTotalLength() != totalBytes) {
+                        throw new IOException("mirror reports " + range.getTotalLength() + " bytes instead of " + totalBytes);
+                    }
+                    InputStream body = range.getBody();
+                    byte[] buffer = new byte[READ_BUFFER_SIZE];
+                    int read;
+                    while (!stopped && !abandoned && received < length
+                            && (read = body.read(buffer, 0, (int) Math.min(buffer.length, length - received))) != -1) {
+                        writer.write(ByteBuffer.wrap(buffer, 0, read));
+                        progressRegistry.addBytes(id, read);
+                        metrics.bytesReceived(download.getUserId(), mirror, read);
+                        received += read;
+                    }
+                    if (stopped || abandoned) {
+                        return this;
+                    }
+                    if (received < length) {
+                        throw new IOException("segment ended after " + received + " of " + length + " bytes");
+                    }
+                    writer.finish(); // only the last segment can end inside a chunk
+                    mirrorRegistry.recordSuccess(mirror, received, System.nanoTime() - requested);
+                } catch (IOException e) {
+                    error = e;
+                    if (!stopped && !abandoned) {
+                        mirrorRegistry.recordFailure(mirror, received, System.nanoTime() - requested);
+                    }
+                }
+                return this;
+            }
+        }
+    }
+
+    /**
+     * How the part file is sized before a transfer writes into it. SPARSE only sets the length, FULL also
+     * writes the blocks so the filesystem can lay them out contiguously, at the cost of writing the file twice.
+     */
+    public enum Preallocation {
+        NONE,
+        SPARSE,
+        FULL
+    }
+
+    private static final class WaitingTransfer {
+        private final Download download;
+        private final long fileBytes;
+        private final long bytesOnDisk;
+        private final long queuedNanos;
+
+        private WaitingTransfer(Download download, long fileBytes, long bytesOnDisk) {
+            this.download = download;
+            this.fileBytes = fileBytes;
+            this.bytesOnDisk = bytesOnDisk;
+            this.queuedNanos = System.nanoTime();
+        }
+    }
+
+    private static final class CommittedChunk {
+        private final int index;
+        private final String sha256Hex;
+        private final long endOffset;
+
+        private CommittedChunk(int index, String sha256Hex, long endOffset) {
+            this.index = index;
+            this.sha256Hex = sha256Hex;
+            this.endOffset = endOffset;
+        }
+    }
+}
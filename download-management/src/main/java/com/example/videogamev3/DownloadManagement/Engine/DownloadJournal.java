@@ -0,0 +1,360 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.ChunkManifest;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Node-local, append-only journal of transfer progress, replayed at startup so an interrupted download resumes
+ * from its last durable chunk instead of from zero.
+ * <p>
+ * Each record is framed as {@code [length][crc32][payload]}. Appends only fill an in-memory batch; a flusher
+ * thread writes the batch and fsyncs once per interval (group commit), so a record is durable at most one
+ * interval after it was appended. A crash can leave a torn record at the tail, which replay detects by its
+ * length or checksum and cuts off. Once the file grows past the compaction threshold it is rewritten as one
+ * snapshot record per unfinished transfer and atomically swapped in.
+ */
+@Slf4j
+@Component
+public class DownloadJournal implements Closeable {
+
+    static final String FILE_NAME = "transfers.journal";
+
+    private static final byte TRANSFER_STARTED = 1;
+    private static final byte CHUNK_COMMITTED = 2;
+    private static final byte TRANSFER_ENDED = 3;
+    private static final int FRAME_HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 64 * 1024 * 1024;
+
+    private final Path journalFile;
+    private final int maxBatchBytes;
+    private final long compactThresholdBytes;
+    private final Map<String, JournaledTransfer> live = new ConcurrentHashMap<>();
+    private final List<JournaledTransfer> recovered;
+    private final ScheduledExecutorService flusher;
+
+    // Lock order is writeLock, then appendLock. Appenders only ever take appendLock.
+    private final Object appendLock = new Object();
+    private final Object writeLock = new Object();
+    private final ByteArrayOutputStream batch = new ByteArrayOutputStream();
+    private FileChannel channel;
+    private volatile boolean closed;
+
+    public DownloadJournal(@Value("${app.download.journal.directory:./downloads/journal}") String directory,
+                           @Value("${app.download.journal.flush-interval-ms:20}") long flushIntervalMs,
+                           @Value("${app.download.journal.max-batch-bytes:1048576}") int maxBatchBytes,
+                           @Value("${app.download.journal.compact-threshold-bytes:67108864}") long compactThresholdBytes) throws IOException {
+        Path journalDirectory = Paths.get(directory);
+        Files.createDirectories(journalDirectory);
+        this.journalFile = journalDirectory.resolve(FILE_NAME);
+        this.maxBatchBytes = maxBatchBytes;
+        this.compactThresholdBytes = compactThresholdBytes;
+
+        long started = System.nanoTime();
+        long validBytes = replay();
+        this.channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (channel.size() > validBytes) {
+            log.warn("Discarding {} bytes of torn records at the tail of {}", channel.size() - validBytes, journalFile);
+            channel.truncate(validBytes);
+            channel.force(false);
+        }
+        channel.position(validBytes);
+        this.recovered = live.values().stream().map(JournaledTransfer::copy).toList();
+        log.info("Replayed download journal {} ({} bytes) in {} ms: {} unfinished transfers",
+                journalFile.toAbsolutePath(), validBytes, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), recovered.size());
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "download-journal-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Transfers that were unfinished when the journal was opened, as replayed from disk.
+     */
+    public List<JournaledTransfer> recoverable() {
+        return recovered;
+    }
+
+    /**
+     * Records the manifest a transfer (re)starts from. Everything journaled earlier for this download is replaced.
+     */
+    public void transferStarted(String downloadId, ChunkManifest manifest, long offset, Long totalBytes) {
+        append(TRANSFER_STARTED, downloadId, out -> {
+            out.writeInt(manifest.getChunkSize());
+            out.writeLong(totalBytes != null ? totalBytes : -1);
+            out.writeLong(offset);
+            out.writeInt(manifest.getChunkHashes().size());
+            for (String hash : manifest.getChunkHashes()) {
+                out.writeUTF(hash);
+            }
+        });
+    }
+
+    /**
+     * Records a chunk whose bytes the caller has already forced to disk.
+     */
+    public void chunkCommitted(String downloadId, int chunkIndex, String sha256Hex, long chunkEndOffset) {
+        append(CHUNK_COMMITTED, downloadId, out -> {
+            out.writeInt(chunkIndex);
+            out.writeLong(chunkEndOffset);
+            out.writeUTF(sha256Hex);
+        });
+    }
+
+    /**
+     * Records that a transfer completed, failed, was paused or discarded; it will not be resumed at startup.
+     */
+    public void transferEnded(String downloadId) {
+        if (live.containsKey(downloadId)) {
+            append(TRANSFER_ENDED, downloadId, out -> { });
+        }
+    }
+
+    /**
+     * Writes and fsyncs everything appended so far.
+     */
+    public void flush() throws IOException {
+        synchronized (writeLock) {
+            byte[] pending;
+            synchronized (appendLock) {
+                if (batch.size() == 0) {
+                    return;
+                }
+                pending = batch.toByteArray();
+                batch.reset();
+            }
+            writeFully(channel, pending);
+            channel.force(false);
+
+            if (channel.size() > compactThresholdBytes) {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Rewrites the journal as one snapshot record per unfinished transfer and atomically replaces the old file.
+     */
+    public void compact() throws IOException {
+        synchronized (writeLock) {
+            byte[] snapshot;
+            byte[] pending;
+            synchronized (appendLock) {
+                // The snapshot already reflects every buffered record, so the buffer is dropped rather than written.
+                pending = batch.toByteArray();
+                batch.reset();
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                for (JournaledTransfer transfer : live.values()) {
+                    out.writeBytes(frame(TRANSFER_STARTED, transfer.getDownloadId(), payload -> {
+                        payload.writeInt(transfer.getChunkSize());
+                        payload.writeLong(transfer.getTotalBytes() != null ? transfer.getTotalBytes() : -1);
+                        payload.writeLong(transfer.getDurableOffset());
+                        payload.writeInt(transfer.getChunkHashes().size());
+                        for (String hash : transfer.getChunkHashes()) {
+                            payload.writeUTF(hash);
+                        }
+                    }));
+                }
+                snapshot = out.toByteArray();
+            }
+
+            long before = channel.size();
+            Path compacted = journalFile.resolveSibling(FILE_NAME + ".compact");
+            try {
+                try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    writeFully(target, snapshot);
+                    target.force(true);
+                }
+                Files.move(compacted, journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // The old file is untouched; keep appending to it.
+                writeFully(channel, pending);
+                channel.force(false);
+                throw e;
+            }
+            channel.close();
+            channel = FileChannel.open(journalFile, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+            log.info("Compacted download journal from {} to {} bytes ({} unfinished transfers)", before, snapshot.length, live.size());
+        }
+    }
+
+    @PreDestroy
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        flusher.shutdown();
+        synchronized (writeLock) {
+            flush();
+            closed = true;
+            channel.close();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not flush download journal {}: {}", journalFile, e.getMessage());
+        }
+    }
+
+    private void append(byte type, String downloadId, PayloadWriter payloadWriter) {
+        if (closed) {
+            return;
+        }
+        byte[] record = frame(type, downloadId, payloadWriter);
+        boolean full;
+        synchronized (appendLock) {
+            // live is updated under the same lock as the batch, so a compaction snapshot never sees one without the other.
+            apply(record, FRAME_HEADER_BYTES);
+            batch.writeBytes(record);
+            full = batch.size() >= maxBatchBytes;
+        }
+        if (full && !flusher.isShutdown()) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    private long replay() throws IOException {
+        if (!Files.exists(journalFile)) {
+            return 0;
+        }
+        long valid = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(journalFile), 1 << 16))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length <= 0 || length > MAX_RECORD_BYTES) {
+                    break;
+                }
+                int checksum;
+                byte[] payload = new byte[length];
+                try {
+                    checksum = in.readInt();
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    break;
+                }
+                if (crc(payload) != checksum) {
+                    break;
+                }
+                apply(payload, 0);
+                valid += FRAME_HEADER_BYTES + length;
+            }
+        }
+        return valid;
+    }
+
+    private void apply(byte[] record, int offset) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(record, offset, record.length - offset));
+            byte type = in.readByte();
+            String downloadId = in.readUTF();
+            switch (type) {
+                case TRANSFER_STARTED -> {
+                    int chunkSize = in.readInt();
+                    long totalBytes = in.readLong();
+                    long durableOffset = in.readLong();
+                    int count = in.readInt();
+                    List<String> hashes = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        hashes.add(in.readUTF());
+                    }
+                    live.put(downloadId, new JournaledTransfer(downloadId, chunkSize,
+                            totalBytes >= 0 ? totalBytes : null, hashes, durableOffset));
+                }
+                case CHUNK_COMMITTED -> {
+                    int chunkIndex = in.readInt();
+                    long chunkEndOffset = in.readLong();
+                    String hash = in.readUTF();
+                    JournaledTransfer transfer = live.get(downloadId);
+                    if (transfer != null) {
+                        transfer.chunkCommitted(chunkIndex, hash, chunkEndOffset);
+                    }
+                }
+                case TRANSFER_ENDED -> live.remove(downloadId);
+                default -> log.warn("Skipping unknown journal record type {} for download {}", type, downloadId);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] frame(byte type, String downloadId, PayloadWriter payloadWriter) {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeInt(0); // length, patched below
+            out.writeInt(0); // crc32, patched below
+            out.writeByte(type);
+            out.writeUTF(downloadId);
+            payloadWriter.write(out);
+            out.flush();
+
+            byte[] record = buffer.toByteArray();
+            int length = record.length - FRAME_HEADER_BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(record, FRAME_HEADER_BYTES, length);
+            ByteBuffer.wrap(record).putInt(length).putInt((int) crc.getValue());
+            return record;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static void writeFully(FileChannel target, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
+
+    @FunctionalInterface
+    private interface PayloadWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
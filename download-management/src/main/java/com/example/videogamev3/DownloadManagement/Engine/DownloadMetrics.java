@@ -0,0 +1,145 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters of the transfer engine, exported on /actuator/prometheus. Byte counters are monotonic;
+ * bytes per second per node, user or mirror is their rate() on the Prometheus side.
+ * <p>
+ * Sources are tagged by host, which is bounded by the mirrors in use. Users are not, so only the first
+ * max-user-tags users get their own series and the rest are counted under "other".
+ */
+@Component
+public class DownloadMetrics {
+
+    static final String OTHER_USERS = "other";
+
+    private final MeterRegistry registry;
+    private final int maxUserTags;
+    private final Counter bytesReceived;
+    private final Timer chunkLatency;
+    private final Counter transfersFailed;
+    private final Set<String> taggedUsers = ConcurrentHashMap.newKeySet();
+    private final Map<String, Counter> userBytes = new ConcurrentHashMap<>();
+    private final Map<String, Counter> sourceBytes = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timeToFirstByte = new ConcurrentHashMap<>();
+    private final Map<String, Counter> retries = new ConcurrentHashMap<>();
+    private final Map<String, Timer> queueWaits = new ConcurrentHashMap<>();
+
+    public DownloadMetrics(MeterRegistry registry,
+                           DownloadProgressRegistry progressRegistry,
+                           @Value("${app.download.metrics.max-user-tags:1000}") int maxUserTags) {
+        this.registry = registry;
+        this.maxUserTags = maxUserTags;
+        for (DownloadStatus status : DownloadStatus.values()) {
+            Gauge.builder("download.active", progressRegistry, downloads -> downloads.countByStatus(status))
+                    .description("Downloads tracked by this node, by state")
+                    .tag("state", status.name())
+                    .register(registry);
+        }
+        this.bytesReceived = Counter.builder("download.bytes.received")
+                .description("Payload bytes written by this node")
+                .baseUnit("bytes")
+                .register(registry);
+        this.chunkLatency = Timer.builder("download.chunk.latency")
+                .description("Time from a chunk's first byte to its hash being committed")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.transfersFailed = Counter.builder("download.transfers.failed")
+                .description("Transfers that ended FAILED")
+                .register(registry);
+    }
+
+    public void gauge(String name, String description, Supplier<Number> value) {
+        Gauge.builder(name, value).description(description).register(registry);
+    }
+
+    public void bytesReceived(String userId, String sourceUrl, long bytes) {
+        bytesReceived.increment(bytes);
+        userBytes.computeIfAbsent(userTag(userId), user -> Counter.builder("download.user.bytes.received")
+                .description("Payload bytes written by this node, by user")
+                .baseUnit("bytes")
+                .tag("user", user)
+                .register(registry)).increment(bytes);
+        sourceBytes.computeIfAbsent(host(sourceUrl), host -> Counter.builder("download.source.bytes.received")
+                .description("Payload bytes received, by origin or mirror host")
+                .baseUnit("bytes")
+                .tag("source", host)
+                .register(registry)).increment(bytes);
+    }
+
+    public void timeToFirstByte(String sourceUrl, long nanos) {
+        timeToFirstByte.computeIfAbsent(host(sourceUrl), host -> Timer.builder("download.time.to.first.byte")
+                .description("Time from sending a range request to reading its first body byte")
+                .tag("source", host)
+                .publishPercentileHistogram()
+                .register(registry)).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void chunkCommitted(long nanos) {
+        chunkLatency.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * A request or chunk fetched again: mirror_failover, range_ignored or chunk_repair.
+     */
+    public void retry(String reason) {
+        retries.computeIfAbsent(reason, key -> Counter.builder("download.retries")
+                .description("Requests or chunks that had to be fetched again")
+                .tag("reason", key)
+                .register(registry)).increment();
+    }
+
+    public void transferFailed() {
+        transfersFailed.increment();
+    }
+
+    /**
+     * Time a transfer spent waiting before it could run: for a worker thread, or for disk space.
+     */
+    public void queueWait(String queue, long nanos) {
+        queueWaits.computeIfAbsent(queue, key -> Timer.builder("download.queue.wait")
+                .description("Time a transfer waited before running")
+                .tag("queue", key)
+                .publishPercentileHistogram()
+                .register(registry)).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private String userTag(String userId) {
+        if (userId == null) {
+            return OTHER_USERS;
+        }
+        if (taggedUsers.contains(userId)) {
+            return userId;
+        }
+        synchronized (taggedUsers) {
+            if (taggedUsers.size() < maxUserTags) {
+                taggedUsers.add(userId);
+                return userId;
+            }
+        }
+        return OTHER_USERS;
+    }
+
+    static String host(String url) {
+        try {
+            String host = url == null ? null : URI.create(url).getHost();
+            return host != null ? host : "unknown";
+        } catch (IllegalArgumentException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live, in-memory state of one download. Written by the engine on every read from the source and by
+ * the service on state transitions; the version changes on every write so readers can skip unchanged entries.
+ */
+public class DownloadProgress {
+
+    private final String downloadId;
+    private final String userId;
+    private final AtomicLong bytesDownloaded;
+    private final AtomicLong version = new AtomicLong();
+    private volatile DownloadStatus status;
+    private volatile Long totalBytes;
+    private volatile long rateStartNanos;
+    private volatile long rateStartBytes;
+
+    public DownloadProgress(String downloadId, String userId, DownloadStatus status, long bytesDownloaded, Long totalBytes) {
+        this.downloadId = downloadId;
+        this.userId = userId;
+        this.status = status;
+        this.bytesDownloaded = new AtomicLong(bytesDownloaded);
+        this.totalBytes = totalBytes;
+        this.rateStartNanos = System.nanoTime();
+        this.rateStartBytes = bytesDownloaded;
+    }
+
+    void transferStarted(long offset, Long totalBytes) {
+        this.bytesDownloaded.set(offset);
+        this.totalBytes = totalBytes;
+        this.rateStartNanos = System.nanoTime();
+        this.rateStartBytes = offset;
+        version.incrementAndGet();
+    }
+
+    void addBytes(long bytes) {
+        bytesDownloaded.addAndGet(bytes);
+        version.incrementAndGet();
+    }
+
+    void setStatus(DownloadStatus status) {
+        this.status = status;
+        version.incrementAndGet();
+    }
+
+    public String getDownloadId() {
+        return downloadId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public DownloadStatus getStatus() {
+        return status;
+    }
+
+    public long getBytesDownloaded() {
+        return bytesDownloaded.get();
+    }
+
+    public Long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Average rate since the transfer was last started or resumed; 0 when it is not running.
+     */
+    public long getBytesPerSecond() {
+        if (status != DownloadStatus.DOWNLOADING) {
+            return 0;
+        }
+        long elapsedNanos = System.nanoTime() - rateStartNanos;
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return (long) ((getBytesDownloaded() - rateStartBytes) * 1_000_000_000.0 / elapsedNanos);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.Download;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Node-local view of every download this instance has touched, so progress can be read without going to Mongo.
+ * A download that reaches a final state is kept for the finished-retention period, long enough for open progress
+ * streams to send that state, and then dropped; reading it again goes back to Mongo.
+ */
+@Component
+public class DownloadProgressRegistry {
+
+    private static final Set<DownloadStatus> FINISHED = Set.of(DownloadStatus.COMPLETED, DownloadStatus.CANCELLED,
+            DownloadStatus.FAILED, DownloadStatus.INSTALLED);
+
+    private final Map<String, DownloadProgress> progressById = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> idsByUser = new ConcurrentHashMap<>();
+    // In the order they finished, so expired entries are always at the head.
+    private final Queue<Finished> finished = new ConcurrentLinkedQueue<>();
+    private final long finishedRetentionNanos;
+    private final LongSupplier clock;
+
+    @Autowired
+    public DownloadProgressRegistry(@Value("${app.download.progress.finished-retention-seconds:60}") long finishedRetentionSeconds) {
+        this(finishedRetentionSeconds, System::nanoTime);
+    }
+
+    public DownloadProgressRegistry(long finishedRetentionSeconds, LongSupplier clock) {
+        this.finishedRetentionNanos = TimeUnit.SECONDS.toNanos(finishedRetentionSeconds);
+        this.clock = clock;
+    }
+
+    /**
+     * Starts tracking a download loaded from Mongo. An entry that already exists is kept as is,
+     * since the engine's in-memory counters are fresher than the document.
+     */
+    public DownloadProgress track(Download download) {
+        evictFinished();
+        String id = download.getId().getUuid();
+        return progressById.computeIfAbsent(id, key -> {
+            if (download.getUserId() != null) {
+                idsByUser.compute(download.getUserId(), (user, ids) -> {
+                    Set<String> userIds = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                    userIds.add(key);
+                    return userIds;
+                });
+            }
+            DownloadProgress progress = new DownloadProgress(key, download.getUserId(), download.getDownloadStatus(),
+                    download.getBytesDownloaded(), download.getTotalBytes());
+            if (FINISHED.contains(progress.getStatus())) {
+                finished.add(new Finished(progress, progress.getVersion(), clock.getAsLong()));
+            }
+            return progress;
+        });
+    }
+
+    public void updateStatus(Download download) {
+        setStatus(track(download), download.getDownloadStatus());
+    }
+
+    public void updateStatus(String id, DownloadStatus status) {
+        DownloadProgress progress = progressById.get(id);
+        if (progress != null) {
+            setStatus(progress, status);
+        }
+    }
+
+    private void setStatus(DownloadProgress progress, DownloadStatus status) {
+        progress.setStatus(status);
+        if (FINISHED.contains(status)) {
+            finished.add(new Finished(progress, progress.getVersion(), clock.getAsLong()));
+        }
+        evictFinished();
+    }
+
+    public void transferStarted(String id, long offset, Long totalBytes) {
+        DownloadProgress progress = progressById.get(id);
+        if (progress != null) {
+            progress.transferStarted(offset, totalBytes);
+        }
+    }
+
+    public void addBytes(String id, long bytes) {
+        DownloadProgress progress = progressById.get(id);
+        if (progress != null) {
+            progress.addBytes(bytes);
+        }
+    }
+
+    public void remove(String id) {
+        DownloadProgress removed = progressById.remove(id);
+        if (removed != null) {
+            forget(removed);
+        }
+    }
+
+    /**
+     * Drops downloads that finished more than the retention period ago. Entries that changed since they finished,
+     * such as a completed download that went on to install, stay until they finish again.
+     */
+    void evictFinished() {
+        long now = clock.getAsLong();
+        Finished head;
+        while ((head = finished.peek()) != null && now - head.atNanos() >= finishedRetentionNanos) {
+            if (finished.remove(head) && head.progress().getVersion() == head.version()
+                    && progressById.remove(head.progress().getDownloadId(), head.progress())) {
+                forget(head.progress());
+            }
+        }
+    }
+
+    private void forget(DownloadProgress progress) {
+        if (progress.getUserId() != null) {
+            idsByUser.computeIfPresent(progress.getUserId(), (user, ids) -> {
+                ids.remove(progress.getDownloadId());
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    public Optional<DownloadProgress> get(String id) {
+        return Optional.ofNullable(progressById.get(id));
+    }
+
+    public List<DownloadProgress> forUser(String userId) {
+        return idsByUser.getOrDefault(userId, Set.of()).stream()
+                .map(progressById::get)
+                .filter(progress -> progress != null)
+                .toList();
+    }
+
+    public long countByStatus(DownloadStatus status) {
+        evictFinished();
+        return progressById.values().stream().filter(progress -> progress.getStatus() == status).count();
+    }
+
+    private record Finished(DownloadProgress progress, long version, long atNanos) {
+    }
+}
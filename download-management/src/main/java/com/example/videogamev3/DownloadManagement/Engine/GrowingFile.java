@@ -0,0 +1,118 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A file that is still being written, read from the front as it grows. The writer announces how far the bytes
+ * are complete; the reader blocks at that mark until it moves on or the file is complete. Reads go through a
+ * channel opened before the writer renames the file, so they are unaffected by the move into place.
+ */
+public class GrowingFile implements Closeable {
+
+    private final FileChannel channel;
+    private long readable;
+    private boolean complete;
+    private boolean aborted;
+
+    public GrowingFile(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public synchronized void advance(long upTo) {
+        if (upTo > readable) {
+            readable = upTo;
+            notifyAll();
+        }
+    }
+
+    public synchronized void complete(long length) {
+        readable = length;
+        complete = true;
+        notifyAll();
+    }
+
+    public synchronized void abort() {
+        aborted = true;
+        notifyAll();
+    }
+
+    /**
+     * True once the writer has completed or aborted the file, so {@link #awaitComplete} would not block.
+     */
+    public synchronized boolean isSettled() {
+        return complete || aborted;
+    }
+
+    /**
+     * Blocks until the writer completes or aborts the file; true when it completed.
+     */
+    public synchronized boolean awaitComplete() {
+        while (!aborted && !complete) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return !aborted;
+    }
+
+    /**
+     * Blocks until there is something to read at position; returns the readable limit, or -1 at the end.
+     */
+    private synchronized long awaitReadable(long position) throws IOException {
+        while (!aborted && !complete && readable <= position) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for byte " + position);
+            }
+        }
+        if (aborted) {
+            throw new IOException("Transfer stopped before byte " + position + " arrived");
+        }
+        return position < readable ? readable : -1;
+    }
+
+    public InputStream openStream() {
+        return new InputStream() {
+            private long position;
+
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (length == 0) {
+                    return 0;
+                }
+                long limit = awaitReadable(position);
+                if (limit < 0) {
+                    return -1;
+                }
+                int wanted = (int) Math.min(length, limit - position);
+                int read = channel.read(ByteBuffer.wrap(buffer, offset, wanted), position);
+                if (read < 0) {
+                    throw new IOException("File is shorter than the " + limit + " bytes announced");
+                }
+                position += read;
+                return read;
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
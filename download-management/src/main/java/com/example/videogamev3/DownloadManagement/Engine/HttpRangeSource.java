@@ -0,0 +1,80 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Fetches byte ranges of a download's source URL with HTTP Range requests.
+ */
+public class HttpRangeSource implements ChunkSource {
+
+    private final HttpClient httpClient;
+    private final URI uri;
+    private final Duration timeout;
+
+    public HttpRangeSource(HttpClient httpClient, String url, Duration timeout) {
+        this.httpClient = httpClient;
+        this.uri = URI.create(url);
+        this.timeout = timeout;
+    }
+
+    @Override
+    public RangeStream open(long offset, long length) throws IOException {
+        String range = "bytes=" + offset + "-" + (length < 0 ? "" : String.valueOf(offset + length - 1));
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Range", range)
+                .GET()
+                .build();
+        HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while requesting " + range + " of " + uri, e);
+        }
+
+        int status = response.statusCode();
+        if (status == 206) {
+            String contentRange = response.headers().firstValue("Content-Range").orElse("");
+            return new RangeStream(response.body(), parseRangeStart(contentRange, offset), parseTotalLength(contentRange));
+        }
+        if (status == 200) {
+            long contentLength = response.headers().firstValueAsLong("Content-Length").orElse(-1L);
+            return new RangeStream(response.body(), 0, contentLength);
+        }
+        response.body().close();
+        throw new IOException("Unexpected HTTP " + status + " for " + range + " of " + uri);
+    }
+
+    // Content-Range: bytes 200-1023/146515
+    private static long parseRangeStart(String contentRange, long fallback) {
+        int space = contentRange.indexOf(' ');
+        int dash = contentRange.indexOf('-');
+        if (space < 0 || dash < space) {
+            return fallback;
+        }
+        try {
+            return Long.parseLong(contentRange.substring(space + 1, dash).trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static long parseTotalLength(String contentRange) {
+        int slash = contentRange.lastIndexOf('/');
+        if (slash < 0 || contentRange.endsWith("*")) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(contentRange.substring(slash + 1).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.Download;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import com.example.videogamev3.DownloadManagement.DataAccess.InstallStats;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.http.HttpClient;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Unpacks ZIP downloads into the install directory while they are still transferring. The extractor reads the
+ * part file right behind the writer, one committed chunk at a time, so by the time the last byte arrives almost
+ * everything is already in place and the install finishes moments after the transfer.
+ * <p>
+ * Entries are checked against the download's install manifest when it has one (sha256sum format: a hex digest,
+ * whitespace and the entry path per line); the archive's own CRC-32s are always checked by the ZIP reader.
+ * <p>
+ * An extractor that reaches the end of the archive before the transfer ends gives its thread back; the outcome is
+ * settled on the pool once the transfer completes, never on the transfer's own thread.
+ */
+@Component
+@Slf4j
+public class InstallPipeline {
+
+    private static final int COPY_BUFFER_SIZE = 256 * 1024;
+
+    private final DownloadRepository downloadRepository;
+    private final DownloadProgressRegistry progressRegistry;
+    private final Path installDirectory;
+    private final Duration requestTimeout;
+    private final HttpClient httpClient;
+    private final ExecutorService extractors;
+    private final Map<String, InstallJob> jobs = new ConcurrentHashMap<>();
+
+    public InstallPipeline(DownloadRepository downloadRepository,
+                           DownloadProgressRegistry progressRegistry,
+                           @Value("${app.download.install.directory:./installs}") String installDirectory,
+                           @Value("${app.download.install.max-parallel:2}") int maxParallel,
+                           @Value("${app.download.engine.request-timeout-seconds:30}") long requestTimeoutSeconds) {
+        this.downloadRepository = downloadRepository;
+        this.progressRegistry = progressRegistry;
+        this.installDirectory = Paths.get(installDirectory);
+        this.requestTimeout = Duration.ofSeconds(requestTimeoutSeconds);
+        this.httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(requestTimeout)
+                .build();
+        this.extractors = Executors.newFixedThreadPool(maxParallel);
+    }
+
+    /**
+     * Starts extracting a file that is about to be written. The channel is opened here, before the transfer
+     * renames the file, so the extractor keeps reading the same file whenever it gets to run.
+     */
+    public InstallJob begin(Download download, Path file) throws IOException {
+        String id = download.getId().getUuid();
+        InstallJob job = new InstallJob(download, new GrowingFile(FileChannel.open(file, StandardOpenOption.READ)));
+        InstallJob previous = jobs.put(id, job);
+        if (previous != null) {
+            previous.abort();
+        }
+        extractors.submit(job);
+        return job;
+    }
+
+    /**
+     * Installs a file that is already complete, e.g. one whose install was cut short by a restart.
+     */
+    public InstallJob installCompleted(Download download, Path file) throws IOException {
+        InstallJob job = begin(download, file);
+        job.transferCompleted(Files.size(file));
+        return job;
+    }
+
+    /**
+     * Stops any running extraction and removes whatever was installed.
+     */
+    public void discard(String id) {
+        InstallJob job = jobs.remove(id);
+        if (job != null) {
+            job.abort();
+        }
+        deleteInstall(id);
+    }
+
+    public Path installDirectory(String id) {
+        return installDirectory.resolve(id);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.values().forEach(InstallJob::abort);
+        extractors.shutdownNow();
+    }
+
+    private void deleteInstall(String id) {
+        Path target = installDirectory(id);
+        if (!Files.exists(target)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(target)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("Could not delete {}: {}", path, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Could not delete install of download {}: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * The expected SHA-256 of every entry, by path, or null when the download has no install manifest.
+     */
+    private Map<String, String> fetchManifest(Download download) throws IOException {
+        if (download.getInstallManifestUrl() == null) {
+            return null;
+        }
+        Map<String, String> expected = new HashMap<>();
+        try (RangeStream body = new HttpRangeSource(httpClient, download.getInstallManifestUrl(), requestTimeout).open(0, -1);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(body.getBody(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = trimmed.split("\\s+", 2);
+                if (parts.length < 2) {
+                    throw new IOException("Malformed install manifest line: " + line);
+                }
+                String path = parts[1].startsWith("*") ? parts[1].substring(1) : parts[1];
+                expected.put(path, parts[0].toLowerCase());
+            }
+        }
+        return expected;
+    }
+
+    /**
+     * Extraction of one download. Fed by the transfer through {@link #advance} and {@link #transferCompleted};
+     * records the outcome and moves the download from INSTALLING to INSTALLED (or back to COMPLETED) itself.
+     */
+    public class InstallJob implements Runnable {
+
+        private final Download download;
+        private final String id;
+        private final GrowingFile growingFile;
+        private volatile long transferCompletedNanos;
+        private volatile InstallStats extracted;
+        private boolean settled;
+
+        private InstallJob(Download download, GrowingFile growingFile) {
+            this.download = download;
+            this.id = download.getId().getUuid();
+            this.growingFile = growingFile;
+        }
+
+        public void advance(long upTo) {
+            growingFile.advance(upTo);
+        }
+
+        public void transferCompleted(long length) {
+            transferCompletedNanos = System.nanoTime();
+            growingFile.complete(length);
+            settleLater();
+        }
+
+        public void abort() {
+            growingFile.abort();
+            settleLater();
+        }
+
+        @Override
+        public void run() {
+            InstallStats stats;
+            try {
+                stats = extract();
+            } catch (Exception e) {
+                stats = new InstallStats(false, 0, 0, 0, 0, e.getMessage());
+            } finally {
+                closeQuietly();
+            }
+            // The archive can end before the transfer does (the central directory is still on its way); the
+            // download only becomes INSTALLING once its last byte is in, so settle only after that. Until then
+            // the extractor thread goes back to the pool for the next install.
+            extracted = stats;
+            if (growingFile.isSettled()) {
+                settle();
+            }
+        }
+
+        // The transfer's side is over; if the extraction already is too, settle on the pool, not the caller's thread.
+        private void settleLater() {
+            if (extracted == null) {
+                return;
+            }
+            try {
+                extractors.execute(this::settle);
+            } catch (RejectedExecutionException e) {
+                log.debug("Install of download {} not settled; shutting down", id);
+            }
+        }
+
+        private void settle() {
+            synchronized (this) {
+                if (settled) {
+                    return;
+                }
+                settled = true;
+            }
+            InstallStats stats = extracted;
+            boolean transferCompleted = growingFile.awaitComplete(); // already completed or aborted; never waits
+            boolean current = jobs.remove(id, this);
+            if (!transferCompleted || !current) {
+                log.info("Install of download {} stopped", id);
+                return;
+            }
+            if (transferCompletedNanos > 0) {
+                stats.setSecondsAfterTransfer((System.nanoTime() - transferCompletedNanos) / 1_000_000_000.0);
+            }
+            finish(stats);
+        }
+
+        private InstallStats extract() throws IOException {
+            Map<String, String> expected = fetchManifest(download);
+            Path target = installDirectory(id);
+            deleteInstall(id);
+            Files.createDirectories(target);
+
+            int entries = 0;
+            int verified = 0;
+            long bytes = 0;
+            MessageDigest sha256 = sha256();
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            try (InputStream in = growingFile.openStream();
+                 ZipInputStream zip = new ZipInputStream(new BufferedInputStream(in, COPY_BUFFER_SIZE))) {
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    Path out = target.resolve(entry.getName()).normalize();
+                    if (!out.startsWith(target)) {
+                        throw new IOException("Archive entry " + entry.getName() + " points outside the install directory");
+                    }
+                    if (entry.isDirectory()) {
+                        Files.createDirectories(out);
+                        continue;
+                    }
+                    Files.createDirectories(out.getParent());
+                    sha256.reset();
+                    try (OutputStream file = Files.newOutputStream(out)) {
+                        int read;
+                        while ((read = zip.read(buffer)) != -1) {
+                            file.write(buffer, 0, read);
+                            sha256.update(buffer, 0, read);
+                            bytes += read;
+                        }
+                    }
+                    entries++;
+                    if (expected != null) {
+                        String want = expected.remove(entry.getName());
+                        if (want == null) {
+                            throw new IOException("Archive entry " + entry.getName() + " is not in the install manifest");
+                        }
+                        if (!want.equals(HexFormat.of().formatHex(sha256.digest()))) {
+                            throw new IOException("Archive entry " + entry.getName() + " does not match the install manifest");
+                        }
+                        verified++;
+                    }
+                }
+            }
+            if (expected != null && !expected.isEmpty()) {
+                throw new IOException(expected.size() + " install manifest entries are missing from the archive, e.g. "
+                        + expected.keySet().iterator().next());
+            }
+            return new InstallStats(true, entries, bytes, verified, 0, null);
+        }
+
+        private void finish(InstallStats stats) {
+            if (!stats.isInstalled()) {
+                deleteInstall(id); // before the status says so, so nobody starts a half-extracted game
+            }
+            downloadRepository.recordInstall(id, stats);
+            DownloadStatus outcome = stats.isInstalled() ? DownloadStatus.INSTALLED : DownloadStatus.COMPLETED;
+            if (downloadRepository.transitionStatus(id, Set.of(DownloadStatus.INSTALLING), outcome) == null) {
+                return; // cancelled or deleted meanwhile
+            }
+            progressRegistry.updateStatus(id, outcome);
+            if (stats.isInstalled()) {
+                log.info("Installed download {}: {} entries, {} bytes, playable {} s after its last byte",
+                        id, stats.getEntries(), stats.getBytesExtracted(), String.format("%.2f", stats.getSecondsAfterTransfer()));
+            } else {
+                log.warn("Install of download {} failed, leaving it COMPLETED: {}", id, stats.getError());
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                growingFile.close();
+            } catch (IOException e) {
+                log.debug("Could not close the file of download {}: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.ChunkManifest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Chunk-level checks against a {@link ChunkManifest}. Only {@link #findCorruptChunks} reads the whole file;
+ * resuming re-reads a single chunk and completion relies on the hashes produced while writing.
+ */
+public final class IntegrityVerifier {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private IntegrityVerifier() {
+    }
+
+    public static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available on this JVM", e);
+        }
+    }
+
+    public static String toHex(byte[] digest) {
+        return HEX.formatHex(digest);
+    }
+
+    public static String rootHash(List<String> chunkHashes) {
+        MessageDigest root = newSha256();
+        for (String chunkHash : chunkHashes) {
+            root.update(chunkHash.getBytes(StandardCharsets.US_ASCII));
+        }
+        return toHex(root.digest());
+    }
+
+    /**
+     * Works out where an interrupted transfer can safely continue. Hashes for chunks that are not fully on disk
+     * are dropped, then only the chunk right before the boundary is re-read; if it fails it is dropped too and the
+     * previous one is checked. The manifest is trimmed in place and the returned offset is always chunk-aligned.
+     */
+    public static long resumeOffset(FileChannel channel, ChunkManifest manifest) throws IOException {
+        List<String> hashes = manifest.getChunkHashes();
+        long chunkSize = manifest.getChunkSize();
+        long fileSize = channel.size();
+
+        while (!hashes.isEmpty() && hashes.size() * chunkSize > fileSize) {
+            hashes.remove(hashes.size() - 1);
+        }
+        ByteBuffer scratch = ByteBuffer.allocate(manifest.getChunkSize());
+        while (!hashes.isEmpty() && !verifyChunk(channel, manifest, hashes.size() - 1, scratch)) {
+            hashes.remove(hashes.size() - 1);
+        }
+        return hashes.size() * chunkSize;
+    }
+
+    /**
+     * Full pass over the file, returning the indexes of chunks whose content no longer matches the manifest.
+     */
+    public static List<Integer> findCorruptChunks(FileChannel channel, ChunkManifest manifest) throws IOException {
+        List<Integer> corrupt = new ArrayList<>();
+        ByteBuffer scratch = ByteBuffer.allocate(manifest.getChunkSize());
+        for (int i = 0; i < manifest.getChunkHashes().size(); i++) {
+            if (!verifyChunk(channel, manifest, i, scratch)) {
+                corrupt.add(i);
+            }
+        }
+        return corrupt;
+    }
+
+    public static boolean verifyChunk(FileChannel channel, ChunkManifest manifest, int chunkIndex, ByteBuffer scratch) throws IOException {
+        long start = (long) chunkIndex * manifest.getChunkSize();
+        int length = chunkLength(channel.size(), manifest, chunkIndex);
+        if (length <= 0) {
+            return false;
+        }
+        scratch.clear().limit(length);
+        while (scratch.hasRemaining()) {
+            if (channel.read(scratch, start + scratch.position()) < 0) {
+                return false;
+            }
+        }
+        scratch.flip();
+        MessageDigest digest = newSha256();
+        digest.update(scratch);
+        return toHex(digest.digest()).equals(manifest.getChunkHashes().get(chunkIndex));
+    }
+
+    /**
+     * Re-fetches a single chunk from the source and writes it back in place once it matches the manifest.
+     */
+    public static void repairChunk(FileChannel channel, ChunkManifest manifest, int chunkIndex, long totalBytes, ChunkSource source) throws IOException {
+        long start = (long) chunkIndex * manifest.getChunkSize();
+        int length = chunkLength(totalBytes, manifest, chunkIndex);
+        byte[] buffer = new byte[length];
+        try (RangeStream range = source.open(start, length)) {
+            InputStream body = range.getBody();
+            int read = body.readNBytes(buffer, 0, length);
+            if (read != length) {
+                throw new IOException("Source returned " + read + " of " + length + " bytes for chunk " + chunkIndex);
+            }
+        }
+        MessageDigest digest = newSha256();
+        digest.update(buffer);
+        if (!toHex(digest.digest()).equals(manifest.getChunkHashes().get(chunkIndex))) {
+            throw new IOException("Re-fetched chunk " + chunkIndex + " does not match the manifest; the source has changed");
+        }
+        ByteBuffer data = ByteBuffer.wrap(buffer);
+        while (data.hasRemaining()) {
+            channel.write(data, start + data.position());
+        }
+    }
+
+    private static int chunkLength(long fileSize, ChunkManifest manifest, int chunkIndex) {
+        long start = (long) chunkIndex * manifest.getChunkSize();
+        return (int) Math.min(manifest.getChunkSize(), fileSize - start);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.ChunkManifest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What the {@link DownloadJournal} knows about one unfinished transfer: its chunk hashes so far and the
+ * offset up to which they are durable on disk.
+ */
+public class JournaledTransfer {
+
+    private final String downloadId;
+    private final int chunkSize;
+    private final Long totalBytes;
+    private final List<String> chunkHashes;
+    private long durableOffset;
+
+    JournaledTransfer(String downloadId, int chunkSize, Long totalBytes, List<String> chunkHashes, long durableOffset) {
+        this.downloadId = downloadId;
+        this.chunkSize = chunkSize;
+        this.totalBytes = totalBytes;
+        this.chunkHashes = new ArrayList<>(chunkHashes);
+        this.durableOffset = durableOffset;
+    }
+
+    // Replaying the same chunk twice (e.g. a record also captured by a compaction snapshot) must be harmless.
+    void chunkCommitted(int chunkIndex, String sha256Hex, long chunkEndOffset) {
+        if (chunkIndex < chunkHashes.size()) {
+            chunkHashes.set(chunkIndex, sha256Hex);
+        } else if (chunkIndex == chunkHashes.size()) {
+            chunkHashes.add(sha256Hex);
+        } else {
+            return; // a gap means the earlier chunks were never journaled; keep the last contiguous offset
+        }
+        durableOffset = Math.max(durableOffset, chunkEndOffset);
+    }
+
+    JournaledTransfer copy() {
+        return new JournaledTransfer(downloadId, chunkSize, totalBytes, chunkHashes, durableOffset);
+    }
+
+    public ChunkManifest toManifest() {
+        return new ChunkManifest(chunkSize, new ArrayList<>(chunkHashes), null);
+    }
+
+    public String getDownloadId() {
+        return downloadId;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public Long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public List<String> getChunkHashes() {
+        return chunkHashes;
+    }
+
+    public long getDurableOffset() {
+        return durableOffset;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Node-wide throughput and error rate per mirror origin (scheme, host and port), fed by every transfer, so one
+ * download's experience with a mirror steers the others too.
+ */
+@Component
+public class MirrorRegistry {
+
+    private final Map<String, MirrorStats> statsByOrigin = new ConcurrentHashMap<>();
+    private final long windowNanos;
+    private final int maxSamples;
+    private final double maxErrorRate;
+    private final LongSupplier clock;
+
+    @Autowired
+    public MirrorRegistry(@Value("${app.download.mirrors.window-seconds:60}") long windowSeconds,
+                          @Value("${app.download.mirrors.max-samples:32}") int maxSamples,
+                          @Value("${app.download.mirrors.max-error-rate:0.5}") double maxErrorRate) {
+        this(windowSeconds, maxSamples, maxErrorRate, System::nanoTime);
+    }
+
+    public MirrorRegistry(long windowSeconds, int maxSamples, double maxErrorRate, LongSupplier clock) {
+        this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+        this.maxSamples = maxSamples;
+        this.maxErrorRate = maxErrorRate;
+        this.clock = clock;
+    }
+
+    public void recordSuccess(String url, long bytes, long elapsedNanos) {
+        stats(url).record(bytes, elapsedNanos, false, clock.getAsLong());
+    }
+
+    public void recordFailure(String url, long bytes, long elapsedNanos) {
+        stats(url).record(bytes, elapsedNanos, true, clock.getAsLong());
+    }
+
+    public MirrorSnapshot snapshot(String url) {
+        String origin = origin(url);
+        MirrorStats stats = statsByOrigin.get(origin);
+        return stats != null ? stats.snapshot(origin, clock.getAsLong()) : new MirrorSnapshot(origin, 0, 0, 0);
+    }
+
+    public List<MirrorSnapshot> snapshots() {
+        long now = clock.getAsLong();
+        return statsByOrigin.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey(), now))
+                .sorted(Comparator.comparingDouble(MirrorSnapshot::getBytesPerSecond).reversed())
+                .toList();
+    }
+
+    public boolean isHealthy(MirrorSnapshot snapshot) {
+        return snapshot.getErrorRate() <= maxErrorRate;
+    }
+
+    /**
+     * Mirrors with no recent samples, in the caller's order; these are probed before the transfer picks one.
+     */
+    public List<String> unprobed(List<String> mirrors) {
+        return mirrors.stream().filter(url -> !snapshot(url).isProbed()).toList();
+    }
+
+    /**
+     * The mirror to send the next segment to: the healthy one with the best error-weighted throughput. An unprobed
+     * mirror is tried before any measured one, and when every mirror is unhealthy the least failing one is used,
+     * earlier entries winning ties.
+     */
+    public String pick(List<String> mirrors) {
+        String best = null;
+        double bestScore = -1;
+        String leastBad = null;
+        double leastBadErrorRate = Double.MAX_VALUE;
+        for (String url : mirrors) {
+            MirrorSnapshot snapshot = snapshot(url);
+            if (!snapshot.isProbed()) {
+                return url;
+            }
+            if (isHealthy(snapshot)) {
+                double score = snapshot.getBytesPerSecond() * (1 - snapshot.getErrorRate());
+                if (score > bestScore) {
+                    best = url;
+                    bestScore = score;
+                }
+            } else if (snapshot.getErrorRate() < leastBadErrorRate) {
+                leastBad = url;
+                leastBadErrorRate = snapshot.getErrorRate();
+            }
+        }
+        return best != null ? best : leastBad;
+    }
+
+    private MirrorStats stats(String url) {
+        return statsByOrigin.computeIfAbsent(origin(url), key -> new MirrorStats(windowNanos, maxSamples));
+    }
+
+    static String origin(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getScheme() == null || uri.getRawAuthority() == null) {
+                return url;
+            }
+            return uri.getScheme().toLowerCase() + "://" + uri.getRawAuthority().toLowerCase();
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class MirrorSnapshot {
+    private final String origin;
+    private final int samples;
+    private final double bytesPerSecond;
+    private final double errorRate;
+
+    public boolean isProbed() {
+        return samples > 0;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Recent transfer outcomes of one mirror origin, kept as a sliding window bounded both by age and by count.
+ * Old samples fall out, so a mirror that failed a while ago is tried again instead of being shunned forever.
+ */
+public class MirrorStats {
+
+    private final long windowNanos;
+    private final int maxSamples;
+    private final Deque<Sample> samples = new ArrayDeque<>();
+
+    public MirrorStats(long windowNanos, int maxSamples) {
+        this.windowNanos = windowNanos;
+        this.maxSamples = maxSamples;
+    }
+
+    public synchronized void record(long bytes, long elapsedNanos, boolean failed, long nowNanos) {
+        samples.addLast(new Sample(nowNanos, bytes, Math.max(elapsedNanos, 1), failed));
+        while (samples.size() > maxSamples) {
+            samples.removeFirst();
+        }
+    }
+
+    public synchronized MirrorSnapshot snapshot(String origin, long nowNanos) {
+        while (!samples.isEmpty() && nowNanos - samples.peekFirst().atNanos > windowNanos) {
+            samples.removeFirst();
+        }
+        long bytes = 0;
+        long nanos = 0;
+        int failures = 0;
+        for (Sample sample : samples) {
+            bytes += sample.bytes;
+            nanos += sample.elapsedNanos;
+            if (sample.failed) {
+                failures++;
+            }
+        }
+        double bytesPerSecond = nanos > 0 ? bytes / (nanos / 1_000_000_000.0) : 0;
+        double errorRate = samples.isEmpty() ? 0 : (double) failures / samples.size();
+        return new MirrorSnapshot(origin, samples.size(), bytesPerSecond, errorRate);
+    }
+
+    private static final class Sample {
+        private final long atNanos;
+        private final long bytes;
+        private final long elapsedNanos;
+        private final boolean failed;
+
+        private Sample(long atNanos, long bytes, long elapsedNanos, boolean failed) {
+            this.atNanos = atNanos;
+            this.bytes = bytes;
+            this.elapsedNanos = elapsedNanos;
+            this.failed = failed;
+        }
+    }
+}
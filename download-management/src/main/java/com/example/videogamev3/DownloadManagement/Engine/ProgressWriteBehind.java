@@ -0,0 +1,198 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.ProgressUpdate;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffers chunk progress in memory and writes it to Mongo as one unordered bulk of partial updates, once per
+ * interval or as soon as enough chunks are waiting, instead of one update per chunk and download. Between two
+ * flushes the document lags behind the transfer; the {@link DownloadJournal} holds the synced chunks meanwhile,
+ * and recovery trusts it over the document.
+ * <p>
+ * Status changes are not buffered. The engine flushes a download's progress itself before its transfer ends or
+ * changes state, so a document is never COMPLETED, PAUSED or FAILED with chunks still in memory.
+ */
+@Slf4j
+@Component
+public class ProgressWriteBehind implements Closeable {
+
+    private final DownloadRepository downloadRepository;
+    private final int maxPendingChunks;
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+
+    // Lock order is flushLock, then bufferLock. Recording only takes bufferLock; Mongo is written under flushLock
+    // so updates of the same download reach it in the order they were taken from the buffer.
+    private final Object flushLock = new Object();
+    private final Object bufferLock = new Object();
+    private Map<String, ProgressUpdate> pending = new HashMap<>();
+    private int pendingChunks;
+
+    private final AtomicLong chunksRecorded = new AtomicLong();
+    private final AtomicLong documentsWritten = new AtomicLong();
+    private final AtomicLong bulkWrites = new AtomicLong();
+    private final AtomicLong failedBulkWrites = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private volatile long lastFlushNanos;
+    private volatile long maxFlushNanos;
+    private volatile int maxBatchDocuments;
+
+    public ProgressWriteBehind(DownloadRepository downloadRepository,
+                               @Value("${app.download.progress.flush-interval-ms:1000}") long flushIntervalMs,
+                               @Value("${app.download.progress.flush-max-chunks:1000}") int maxPendingChunks) {
+        this.downloadRepository = downloadRepository;
+        this.maxPendingChunks = Math.max(1, maxPendingChunks);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "download-progress-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void chunkCommitted(String downloadId, int chunkIndex, String sha256Hex, long chunkEndOffset) {
+        boolean full;
+        synchronized (bufferLock) {
+            pending.computeIfAbsent(downloadId, ProgressUpdate::new).chunkCommitted(chunkIndex, sha256Hex, chunkEndOffset);
+            full = ++pendingChunks >= maxPendingChunks;
+        }
+        chunksRecorded.incrementAndGet();
+        if (full && flushQueued.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushQueued.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Writes everything buffered. Never throws: a failed batch goes back into the buffer for the next flush.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            Map<String, ProgressUpdate> batch;
+            synchronized (bufferLock) {
+                batch = pending;
+                pending = new HashMap<>();
+                pendingChunks = 0;
+            }
+            write(batch.values());
+        }
+    }
+
+    /**
+     * Writes what is buffered for one download, waiting for a flush of it that is already under way.
+     */
+    public void flush(String downloadId) {
+        synchronized (flushLock) {
+            ProgressUpdate update = take(downloadId);
+            if (update != null) {
+                write(List.of(update));
+            }
+        }
+    }
+
+    /**
+     * Drops what is buffered for a download whose progress is about to be rewritten as a whole.
+     */
+    public void discard(String downloadId) {
+        synchronized (flushLock) {
+            take(downloadId);
+        }
+    }
+
+    public ProgressWriteStats stats() {
+        int pendingDownloads;
+        int chunks;
+        synchronized (bufferLock) {
+            pendingDownloads = pending.size();
+            chunks = pendingChunks;
+        }
+        long recorded = chunksRecorded.get();
+        long documents = documentsWritten.get();
+        long bulks = bulkWrites.get();
+        return new ProgressWriteStats(
+                recorded,
+                documents,
+                bulks,
+                failedBulkWrites.get(),
+                pendingDownloads,
+                chunks,
+                bulks > 0 ? (double) documents / bulks : 0,
+                maxBatchDocuments,
+                lastFlushNanos / 1_000_000.0,
+                bulks > 0 ? totalFlushNanos.get() / 1_000_000.0 / bulks : 0,
+                maxFlushNanos / 1_000_000.0,
+                recorded > 0 ? (double) documents / recorded : 0);
+    }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        flusher.shutdownNow();
+        flush();
+    }
+
+    private ProgressUpdate take(String downloadId) {
+        synchronized (bufferLock) {
+            ProgressUpdate update = pending.remove(downloadId);
+            if (update != null) {
+                pendingChunks -= update.getChunkHashes().size();
+            }
+            return update;
+        }
+    }
+
+    // Caller holds flushLock.
+    private void write(Collection<ProgressUpdate> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            downloadRepository.recordProgress(updates);
+        } catch (RuntimeException e) {
+            failedBulkWrites.incrementAndGet();
+            log.warn("Could not write progress of {} downloads, keeping it for the next flush: {}", updates.size(), e.getMessage());
+            requeue(updates);
+            return;
+        }
+        long elapsed = System.nanoTime() - started;
+        documentsWritten.addAndGet(updates.size());
+        bulkWrites.incrementAndGet();
+        totalFlushNanos.addAndGet(elapsed);
+        lastFlushNanos = elapsed;
+        maxFlushNanos = Math.max(maxFlushNanos, elapsed);
+        maxBatchDocuments = Math.max(maxBatchDocuments, updates.size());
+    }
+
+    // Positional writes are idempotent, so a batch that partly went through can simply be written again.
+    private void requeue(Collection<ProgressUpdate> updates) {
+        synchronized (bufferLock) {
+            for (ProgressUpdate failed : updates) {
+                ProgressUpdate later = pending.get(failed.getDownloadId());
+                if (later != null) {
+                    pendingChunks -= later.getChunkHashes().size();
+                    failed.followedBy(later);
+                }
+                pending.put(failed.getDownloadId(), failed);
+                pendingChunks += failed.getChunkHashes().size();
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Counters of the {@link ProgressWriteBehind} buffer. writeAmplification is Mongo document writes per chunk
+ * committed; writing every chunk through puts it at 1, batching brings it well below.
+ */
+@Getter
+@AllArgsConstructor
+public class ProgressWriteStats {
+    private final long chunksRecorded;
+    private final long documentsWritten;
+    private final long bulkWrites;
+    private final long failedBulkWrites;
+    private final int pendingDownloads;
+    private final int pendingChunks;
+    private final double averageBatchDocuments;
+    private final int maxBatchDocuments;
+    private final double lastFlushMillis;
+    private final double averageFlushMillis;
+    private final double maxFlushMillis;
+    private final double writeAmplification;
+}
@@ -0,0 +1,25 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Body of a ranged fetch. start is the offset the body actually begins at (a server that ignores Range
+ * answers from 0), totalLength is the full size of the resource or -1 when the source did not say.
+ */
+@Getter
+@AllArgsConstructor
+public class RangeStream implements Closeable {
+    private final InputStream body;
+    private final long start;
+    private final long totalLength;
+
+    @Override
+    public void close() throws IOException {
+        body.close();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+/**
+ * rsync's weak block checksum over a fixed-size window: {@code a} is the sum of the bytes and {@code b} the sum
+ * of the running sums, both mod 2^16. Sliding the window by one byte is O(1), which is what makes matching
+ * blocks at every offset of a file affordable.
+ */
+public class RollingChecksum {
+
+    private final int window;
+    private int a;
+    private int b;
+
+    public RollingChecksum(int window) {
+        this.window = window;
+    }
+
+    public static int of(byte[] data, int offset, int length) {
+        RollingChecksum checksum = new RollingChecksum(length);
+        checksum.reset(data, offset);
+        return checksum.value();
+    }
+
+    public void reset(byte[] data, int offset) {
+        a = 0;
+        b = 0;
+        for (int i = 0; i < window; i++) {
+            int x = data[offset + i] & 0xff;
+            a += x;
+            b += (window - i) * x;
+        }
+        a &= 0xffff;
+        b &= 0xffff;
+    }
+
+    /**
+     * Slides the window one byte forward: {@code out} leaves at the front, {@code in} enters at the back.
+     */
+    public void roll(byte out, byte in) {
+        int o = out & 0xff;
+        a = (a - o + (in & 0xff)) & 0xffff;
+        b = (b - window * o + a) & 0xffff;
+    }
+
+    public int value() {
+        return (b << 16) | a;
+    }
+}
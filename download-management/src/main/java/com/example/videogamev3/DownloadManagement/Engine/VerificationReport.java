@@ -0,0 +1,27 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class VerificationReport {
+    private final int chunksVerified;
+    private final long bytesVerified;
+    private final long elapsedNanos;
+    private final List<Integer> corruptChunks;
+    private final List<Integer> repairedChunks;
+
+    public double getMegabytesPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return (bytesVerified / (1024.0 * 1024.0)) / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    public boolean isIntact() {
+        return repairedChunks.size() == corruptChunks.size();
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.videogamev3.DownloadManagement.Engine;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Space on one volume as the {@link DiskReservationLedger} sees it: reservedBytes are promised to running
+ * transfers but not yet written, availableBytes is what a new download may still reserve.
+ */
+@Getter
+@AllArgsConstructor
+public class VolumeSpace {
+    private final String volume;
+    private final long totalBytes;
+    private final long usableBytes;
+    private final long reservedBytes;
+    private final long availableBytes;
+    private final int reservations;
+}
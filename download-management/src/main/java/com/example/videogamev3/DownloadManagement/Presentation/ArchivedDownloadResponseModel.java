@@ -0,0 +1,22 @@
+package com.example.videogamev3.DownloadManagement.Presentation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArchivedDownloadResponseModel {
+    String id;
+    String userId;
+    String sourceUrl;
+    String status;
+    long bytesDownloaded;
+    Long totalBytes;
+    Instant createdAt;
+    Instant updatedAt;
+    Instant archivedAt;
+}
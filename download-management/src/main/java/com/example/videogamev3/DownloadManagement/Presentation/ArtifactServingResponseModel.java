@@ -0,0 +1,18 @@
+package com.example.videogamev3.DownloadManagement.Presentation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArtifactServingResponseModel {
+    int openFiles;
+    int activeReaders;
+    long totalBytesServed;
+    long bytesPerSecond;
+    // Handed to Tomcat's sendfile, which sends them after the request returns; not in totalBytesServed.
+    long sendfileResponses;
+    long sendfileBytes;
+}
@@ -0,0 +1,7 @@
+package com.example.videogamev3.DownloadManagement.Presentation;
+
+public enum BulkDownloadItemOutcome {
+    APPLIED,
+    INVALID_STATE,
+    NOT_FOUND
+}
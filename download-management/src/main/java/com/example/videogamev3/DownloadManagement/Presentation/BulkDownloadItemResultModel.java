@@ -0,0 +1,14 @@
+package com.example.videogamev3.DownloadManagement.Presentation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkDownloadItemResultModel {
+    String id;
+    BulkDownloadItemOutcome outcome;
+    String status;
+}
@@ -0,0 +1,21 @@
+package com.example.videogamev3.DownloadManagement.Presentation;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Selects the downloads a bulk operation applies to: an explicit list of ids, a filter on
+ * userId and/or status (e.g. every DOWNLOADING download, to drain a node for maintenance), or both combined.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkDownloadRequestModel {
+    List<String> ids;
+    String userId;
+    DownloadStatus status;
+}
@@ -0,0 +1,17 @@
+package com.example.videogamev3.DownloadManagement.Presentation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkDownloadResponseModel {
+    String action;
+    int matched;
+    int applied;
+    List<BulkDownloadItemResultModel> results;
+}
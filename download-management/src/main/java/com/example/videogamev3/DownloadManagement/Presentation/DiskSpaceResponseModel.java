@@ -0,0 +1,20 @@
+package com.example.videogamev3.DownloadManagement.Presentation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DiskSpaceResponseModel {
+    String volume;
+    long totalBytes;
+    long usableBytes;
+    long reservedBytes;
+    long availableBytes;
+    int reservations;
+    List<String> queuedDownloadIds;
+}
@@ -1,12 +1,27 @@
 package com.example.videogamev3.DownloadManagement.Presentation;
 
+import com.example.videogamev3.DownloadManagement.BusinessLogic.ArtifactServingService;
+import com.example.videogamev3.DownloadManagement.BusinessLogic.BulkDownloadService;
+import com.example.videogamev3.DownloadManagement.BusinessLogic.DownloadListingService;
+import com.example.videogamev3.DownloadManagement.BusinessLogic.DownloadProgressService;
+import com.example.videogamev3.DownloadManagement.BusinessLogic.DownloadRetentionService;
 import com.example.videogamev3.DownloadManagement.BusinessLogic.DownloadService;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadFilter;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import com.example.videogamev3.DownloadManagement.DataAccess.RollupScope;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -14,6 +29,11 @@ import java.util.List;
 public class DownloadController {
 
     private final DownloadService downloadService;
+    private final DownloadProgressService downloadProgressService;
+    private final BulkDownloadService bulkDownloadService;
+    private final DownloadListingService downloadListingService;
+    private final ArtifactServingService artifactServingService;
+    private final DownloadRetentionService downloadRetentionService;
 
     @PostMapping
     public ResponseEntity<DownloadResponseModel> createDownload(@RequestBody DownloadRequestModel downloadRequestModel) {
@@ -23,12 +43,39 @@ public class DownloadController {
 
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<DownloadPageResponseModel> getDownloadPage(@RequestParam(required = false) String userId,
+                                                                     @RequestParam(required = false) List<DownloadStatus> status,
+                                                                     @RequestParam(required = false) Instant from,
+                                                                     @RequestParam(required = false) Instant to,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) Integer limit) {
+        DownloadFilter filter = new DownloadFilter(userId, status, from, to);
+        return ResponseEntity.ok(downloadListingService.getDownloadPage(filter, cursor, limit));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamDownloads(@RequestParam(required = false) String userId,
+                                                                 @RequestParam(required = false) List<DownloadStatus> status,
+                                                                 @RequestParam(required = false) Instant from,
+                                                                 @RequestParam(required = false) Instant to) {
+        DownloadFilter filter = new DownloadFilter(userId, status, from, to);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(downloadListingService.streamDownloads(filter));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<DownloadResponseModel> getDownload(@PathVariable String id) {
         DownloadResponseModel dto = downloadService.getDownload(id);
         return ResponseEntity.ok(dto);
     }
 
+    @GetMapping(value = "/{id}/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<DownloadProgressModel>> streamDownloadProgress(@PathVariable String id) {
+        return downloadProgressService.streamDownloadProgress(id);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<DownloadResponseModel> updateDownload(@PathVariable String id, @RequestBody DownloadRequestModel downloadRequestModel) {
         DownloadResponseModel dto = downloadService.updateDownload(id, downloadRequestModel);
@@ -65,6 +112,79 @@ public class DownloadController {
         return ResponseEntity.ok(updatedDto); // Return final state
     }
 
+    @PostMapping("/{id}/verify")
+    public ResponseEntity<DownloadVerificationResponseModel> verifyDownload(@PathVariable String id) {
+        return ResponseEntity.ok(downloadService.verifyDownload(id));
+    }
+
+    @PostMapping("/{id}/patch")
+    public ResponseEntity<DownloadResponseModel> createPatchDownload(@PathVariable String id, @RequestBody PatchDownloadRequestModel patchDownloadRequestModel) {
+        DownloadResponseModel newDownload = downloadService.createPatchDownload(id, patchDownloadRequestModel);
+        return ResponseEntity.status(HttpStatus.CREATED).body(newDownload);
+    }
+
+    @GetMapping("/{id}/install")
+    public ResponseEntity<DownloadInstallResponseModel> getInstallReport(@PathVariable String id) {
+        return ResponseEntity.ok(downloadService.getInstallReport(id));
+    }
+
+    @GetMapping("/{id}/patch")
+    public ResponseEntity<DownloadPatchResponseModel> getPatchReport(@PathVariable String id) {
+        return ResponseEntity.ok(downloadService.getPatchReport(id));
+    }
+
+    @GetMapping(value = "/{id}/signature", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<StreamingResponseBody> getBlockSignature(@PathVariable String id) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(downloadService.getBlockSignature(id));
+    }
+
+    @GetMapping(value = "/{id}/content", produces = {MediaType.APPLICATION_OCTET_STREAM_VALUE, "multipart/byteranges"})
+    public void getContent(@PathVariable String id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        artifactServingService.serve(id, request, response);
+    }
+
+    @GetMapping("/serving")
+    public ResponseEntity<ArtifactServingResponseModel> getServingStats() {
+        return ResponseEntity.ok(artifactServingService.getServingStats());
+    }
+
+    @GetMapping("/disk")
+    public ResponseEntity<DiskSpaceResponseModel> getDiskSpace() {
+        return ResponseEntity.ok(downloadService.getDiskSpace());
+    }
+
+    @GetMapping("/progress-writes")
+    public ResponseEntity<ProgressWritesResponseModel> getProgressWrites() {
+        return ResponseEntity.ok(downloadService.getProgressWrites());
+    }
+
+    @GetMapping("/mirrors")
+    public ResponseEntity<List<MirrorStatsResponseModel>> getMirrorStats() {
+        return ResponseEntity.ok(downloadService.getMirrorStats());
+    }
+
+    @PostMapping("/bulk/pause")
+    public ResponseEntity<BulkDownloadResponseModel> pauseDownloads(@RequestBody BulkDownloadRequestModel bulkDownloadRequestModel) {
+        return ResponseEntity.ok(bulkDownloadService.pauseDownloads(bulkDownloadRequestModel));
+    }
+
+    @PostMapping("/bulk/resume")
+    public ResponseEntity<BulkDownloadResponseModel> resumeDownloads(@RequestBody BulkDownloadRequestModel bulkDownloadRequestModel) {
+        return ResponseEntity.ok(bulkDownloadService.resumeDownloads(bulkDownloadRequestModel));
+    }
+
+    @PostMapping("/bulk/cancel")
+    public ResponseEntity<BulkDownloadResponseModel> cancelDownloads(@RequestBody BulkDownloadRequestModel bulkDownloadRequestModel) {
+        return ResponseEntity.ok(bulkDownloadService.cancelDownloads(bulkDownloadRequestModel));
+    }
+
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkDownloadResponseModel> deleteDownloads(@RequestBody BulkDownloadRequestModel bulkDownloadRequestModel) {
+        return ResponseEntity.ok(bulkDownloadService.deleteDownloads(bulkDownloadRequestModel));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteDownload(@PathVariable String id) {
         downloadService.deleteDownload(id);
@@ -76,5 +196,37 @@ public class DownloadController {
         return ResponseEntity.ok(downloadService.getAllDownloadsByUserId(userId));
     }
 
+    @GetMapping("/user/{userId}/archive")
+    public ResponseEntity<List<ArchivedDownloadResponseModel>> getArchivedDownloads(@PathVariable String userId,
+                                                                                    @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(downloadRetentionService.getArchivedDownloads(userId, limit));
+    }
+
+    @GetMapping("/user/{userId}/rollup")
+    public ResponseEntity<DownloadRollupResponseModel> getUserRollup(@PathVariable String userId) {
+        return ResponseEntity.ok(downloadRetentionService.getRollup(RollupScope.USER, userId));
+    }
+
+    @GetMapping("/rollups/source")
+    public ResponseEntity<DownloadRollupResponseModel> getSourceRollup(@RequestParam String url) {
+        return ResponseEntity.ok(downloadRetentionService.getRollup(RollupScope.SOURCE, url));
+    }
+
+    @GetMapping("/retention")
+    public ResponseEntity<RetentionResponseModel> getRetentionReport() {
+        return ResponseEntity.ok(downloadRetentionService.getRetentionReport());
+    }
+
+    @PostMapping("/retention/sweep")
+    public ResponseEntity<RetentionResponseModel> sweepFinishedDownloads() {
+        downloadRetentionService.sweep(Instant.now());
+        return ResponseEntity.ok(downloadRetentionService.getRetentionReport());
+    }
+
+    @GetMapping(value = "/user/{userId}/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<DownloadProgressModel>> streamUserDownloadProgress(@PathVariable String userId) {
+        return downloadProgressService.streamUserDownloadProgress(userId);
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.example.videogamev3.DownloadManagement.Presentation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DownloadInstallResponseModel {
+    String id;
+    String status;
+    String installDirectory;
+    boolean installed;
+    int entries;
+    long bytesExtracted;
+    int verifiedEntries;
+    double secondsAfterTransfer;
+    String error;
+}
@@ -0,0 +1,15 @@
+package com.example.videogamev3.DownloadManagement.Presentation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DownloadPageResponseModel {
+    List<DownloadResponseModel> items;
+    String nextCursor; // null on the last page
+}
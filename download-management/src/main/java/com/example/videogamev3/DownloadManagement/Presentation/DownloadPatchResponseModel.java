@@ -0,0 +1,20 @@
+package com.example.videogamev3.DownloadManagement.Presentation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DownloadPatchResponseModel {
+    String id;
+    String baseDownloadId;
+    boolean applied;
+    long targetBytes;
+    long bytesFromBase;
+    long bytesFetched;
+    long bytesSaved;
+    double megabytesPerSecond;
+    String fallbackReason;
+}
@@ -0,0 +1,18 @@
+package com.example.videogamev3.DownloadManagement.Presentation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DownloadProgressModel {
+    String id;
+    String userId;
+    String status;
+    long bytesDownloaded;
+    Long totalBytes;
+    Double percentComplete;
+    long bytesPerSecond;
+}
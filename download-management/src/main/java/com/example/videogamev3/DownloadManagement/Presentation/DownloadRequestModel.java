@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -11,4 +13,13 @@ import lombok.NoArgsConstructor;
 public class DownloadRequestModel {
     String sourceUrl;
     String userId;
+    List<String> mirrorUrls;
+    // Unpack the archive into the install directory while it downloads, checked against the optional manifest.
+    boolean install;
+    String installManifestUrl;
+
+    public DownloadRequestModel(String sourceUrl, String userId) {
+        this.sourceUrl = sourceUrl;
+        this.userId = userId;
+    }
 }
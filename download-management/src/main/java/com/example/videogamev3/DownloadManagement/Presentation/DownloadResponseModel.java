@@ -5,6 +5,9 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+import java.util.List;
+
 @Data
 @EqualsAndHashCode
 @AllArgsConstructor
@@ -14,4 +17,15 @@ public class DownloadResponseModel {
     String sourceUrl;
     String status;
     String userId;
+    List<String> mirrorUrls;
+    boolean install;
+    Instant createdAt;
+    Instant updatedAt;
+
+    public DownloadResponseModel(String id, String sourceUrl, String status, String userId) {
+        this.id = id;
+        this.sourceUrl = sourceUrl;
+        this.status = status;
+        this.userId = userId;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.example.videogamev3.DownloadManagement.Presentation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DownloadRollupResponseModel {
+    String scope;
+    String key;
+    long downloads;
+    long completed;
+    long installed;
+    long cancelled;
+    long failed;
+    long bytesDownloaded;
+    Instant lastArchivedAt;
+}
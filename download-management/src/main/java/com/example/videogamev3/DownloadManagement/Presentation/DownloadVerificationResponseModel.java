@@ -0,0 +1,20 @@
+package com.example.videogamev3.DownloadManagement.Presentation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DownloadVerificationResponseModel {
+    String id;
+    int chunksVerified;
+    long bytesVerified;
+    List<Integer> corruptChunks;
+    List<Integer> repairedChunks;
+    boolean intact;
+    double megabytesPerSecond;
+}
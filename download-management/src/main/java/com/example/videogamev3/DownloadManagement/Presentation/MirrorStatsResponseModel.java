@@ -0,0 +1,16 @@
+package com.example.videogamev3.DownloadManagement.Presentation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MirrorStatsResponseModel {
+    String origin;
+    int samples;
+    long bytesPerSecond;
+    double errorRate;
+    boolean healthy;
+}
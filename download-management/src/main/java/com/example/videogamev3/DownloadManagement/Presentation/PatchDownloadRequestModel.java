@@ -0,0 +1,16 @@
+package com.example.videogamev3.DownloadManagement.Presentation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Target version of a patch download: where the new payload lives and where its block signature is published.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PatchDownloadRequestModel {
+    String targetUrl;
+    String signatureUrl;
+}
@@ -0,0 +1,23 @@
+package com.example.videogamev3.DownloadManagement.Presentation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProgressWritesResponseModel {
+    long chunksRecorded;
+    long documentsWritten;
+    long bulkWrites;
+    long failedBulkWrites;
+    int pendingDownloads;
+    int pendingChunks;
+    double averageBatchDocuments;
+    int maxBatchDocuments;
+    double lastFlushMillis;
+    double averageFlushMillis;
+    double maxFlushMillis;
+    double writeAmplification;
+}
@@ -0,0 +1,22 @@
+package com.example.videogamev3.DownloadManagement.Presentation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RetentionResponseModel {
+    int retentionDays;
+    Instant lastSweepAt;
+    long lastSweepArchived;
+    long lastSweepMillis;
+    long totalArchived;
+    long hotDocuments;
+    long hotIndexBytes;
+    long archivedDocuments;
+    long archiveIndexBytes;
+}
@@ -3,6 +3,7 @@ package com.example.videogamev3.DownloadManagement.utils;
 import com.example.videogamev3.DownloadManagement.utils.exceptions.DownloadNotFoundException;
 import com.example.videogamev3.DownloadManagement.utils.exceptions.DuplicateDownloadIDException;
 import com.example.videogamev3.DownloadManagement.utils.exceptions.InvalidDownloadDataException;
+import com.example.videogamev3.DownloadManagement.utils.exceptions.InvalidDownloadStateException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -36,6 +37,12 @@ public class GlobalControllerExceptionHandler {
     public HttpErrorInfo handleDuplicateDownloadIDException(HttpServletRequest request, DuplicateDownloadIDException ex) { // Use HttpServletRequest
         return createHttpErrorInfo(CONFLICT, request, ex);
     }
+    @ExceptionHandler(InvalidDownloadStateException.class)
+    @ResponseStatus(CONFLICT)
+    @ResponseBody
+    public HttpErrorInfo handleInvalidDownloadStateException(HttpServletRequest request, InvalidDownloadStateException ex) { // Use HttpServletRequest
+        return createHttpErrorInfo(CONFLICT, request, ex);
+    }
     @ExceptionHandler(Exception.class)
     @ResponseStatus(INTERNAL_SERVER_ERROR)
     @ResponseBody
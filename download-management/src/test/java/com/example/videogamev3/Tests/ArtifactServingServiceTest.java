@@ -0,0 +1,204 @@
+package com.example.videogamev3.Tests;
+
+import com.example.videogamev3.DownloadManagement.BusinessLogic.ArtifactServingService;
+import com.example.videogamev3.DownloadManagement.DataAccess.ChunkManifest;
+import com.example.videogamev3.DownloadManagement.DataAccess.Download;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadId;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import com.example.videogamev3.DownloadManagement.Engine.ArtifactChannels;
+import com.example.videogamev3.DownloadManagement.Engine.ByteRange;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadEngine;
+import com.example.videogamev3.DownloadManagement.utils.exceptions.InvalidDownloadStateException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ArtifactServingServiceTest {
+
+    private static final String ID = "artifact-1";
+    private static final String ROOT_HASH = "ab".repeat(32);
+
+    @Mock
+    private DownloadRepository downloadRepository;
+
+    @Mock
+    private DownloadEngine downloadEngine;
+
+    @TempDir
+    Path tempDir;
+
+    private final ArtifactChannels artifactChannels = new ArtifactChannels();
+    private ArtifactServingService servingService;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        content = new byte[100_000];
+        new Random(7).nextBytes(content);
+        Path file = tempDir.resolve(ID);
+        Files.write(file, content);
+
+        Download download = new Download(new DownloadId(ID), "http://origin.example.com/game.iso", DownloadStatus.COMPLETED, "user-1");
+        download.setChunkManifest(new ChunkManifest(4096, List.of(), ROOT_HASH));
+        lenient().when(downloadRepository.findDownloadById_Uuid(ID)).thenReturn(download);
+        lenient().when(downloadEngine.completedFile(ID)).thenReturn(file);
+        servingService = new ArtifactServingService(downloadRepository, downloadEngine, artifactChannels, true, 49152, 16);
+    }
+
+    private MockHttpServletResponse get(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        servingService.serve(ID, request, response);
+        return response;
+    }
+
+    @Test
+    void whenNoRange_thenServeWholeFileWithValidators() throws Exception {
+        // Act
+        MockHttpServletResponse response = get(new MockHttpServletRequest("GET", "/content"));
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(content, response.getContentAsByteArray());
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertEquals("\"" + ROOT_HASH + "\"", response.getHeader("ETag"));
+        assertEquals(content.length, artifactChannels.totalBytesServed());
+        assertEquals(0, artifactChannels.openFiles()); // the shared channel is closed with its last reader
+    }
+
+    @Test
+    void whenSingleRange_thenServePartialContent() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/content");
+        request.addHeader("Range", "bytes=1000-1999");
+
+        // Act
+        MockHttpServletResponse response = get(request);
+
+        // Assert
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 1000-1999/100000", response.getHeader("Content-Range"));
+        assertArrayEquals(Arrays.copyOfRange(content, 1000, 2000), response.getContentAsByteArray());
+    }
+
+    @Test
+    void whenConnectorSupportsSendfile_thenHandRegionToContainerWithoutWritingBody() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/content");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader("Range", "bytes=-60000");
+
+        // Act
+        MockHttpServletResponse response = get(request);
+
+        // Assert
+        assertEquals(206, response.getStatus());
+        assertEquals(40_000L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(100_000L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+        assertEquals(60_000, response.getContentLengthLong());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(0, artifactChannels.totalBytesServed()); // Tomcat has not sent anything yet
+        assertEquals(1, artifactChannels.sendfileResponses());
+        assertEquals(60_000, artifactChannels.sendfileBytes());
+    }
+
+    @Test
+    void whenSeveralRanges_thenServeMultipartByteranges() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/content");
+        request.addHeader("Range", "bytes=0-9, 99990-");
+
+        // Act
+        MockHttpServletResponse response = get(request);
+
+        // Assert
+        assertEquals(206, response.getStatus());
+        assertTrue(response.getContentType().startsWith("multipart/byteranges; boundary="));
+        String body = response.getContentAsString(StandardCharsets.ISO_8859_1);
+        assertTrue(body.contains("Content-Range: bytes 0-9/100000"));
+        assertTrue(body.contains("Content-Range: bytes 99990-99999/100000"));
+        assertEquals(response.getContentLengthLong(), response.getContentAsByteArray().length);
+        assertEquals(20, artifactChannels.totalBytesServed());
+        assertEquals(0, artifactChannels.sendfileResponses());
+    }
+
+    @Test
+    void whenIfRangeDoesNotMatch_thenIgnoreRangeAndServeWholeFile() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/content");
+        request.addHeader("Range", "bytes=1000-1999");
+        request.addHeader("If-Range", "\"an-older-version\"");
+
+        // Act
+        MockHttpServletResponse response = get(request);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertEquals(content.length, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void whenRangeIsUnsatisfiable_thenRespond416() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/content");
+        request.addHeader("Range", "bytes=200000-");
+
+        // Act
+        MockHttpServletResponse response = get(request);
+
+        // Assert
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */100000", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void whenEtagMatches_thenRespond304() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/content");
+        request.addHeader("If-None-Match", "\"" + ROOT_HASH + "\"");
+
+        // Act & Assert
+        assertEquals(304, get(request).getStatus());
+    }
+
+    @Test
+    void whenDownloadIsNotCompleted_thenRefuse() {
+        // Arrange
+        when(downloadRepository.findDownloadById_Uuid(ID))
+                .thenReturn(new Download(new DownloadId(ID), "http://origin.example.com/game.iso", DownloadStatus.DOWNLOADING, "user-1"));
+
+        // Act & Assert
+        assertThrows(InvalidDownloadStateException.class, () -> get(new MockHttpServletRequest("GET", "/content")));
+    }
+
+    @Test
+    void rangeHeaderParsing() {
+        assertEquals(List.of(new ByteRange(0, 499)), ByteRange.parse("bytes=0-499", 1000, 16));
+        assertEquals(List.of(new ByteRange(500, 999)), ByteRange.parse("bytes=500-", 1000, 16));
+        assertEquals(List.of(new ByteRange(800, 999)), ByteRange.parse("bytes=-200", 1000, 16));
+        assertEquals(List.of(new ByteRange(0, 999)), ByteRange.parse("bytes=-5000", 1000, 16));
+        assertEquals(List.of(new ByteRange(990, 999)), ByteRange.parse("bytes=990-5000", 1000, 16));
+        assertEquals(List.of(), ByteRange.parse("bytes=1000-", 1000, 16));
+        assertNull(ByteRange.parse(null, 1000, 16));
+        assertNull(ByteRange.parse("items=0-1", 1000, 16));
+        assertNull(ByteRange.parse("bytes=5-1", 1000, 16));
+        assertNull(ByteRange.parse("bytes=a-b", 1000, 16));
+        assertNull(ByteRange.parse("bytes=0-1,2-3,4-5", 1000, 2));
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.videogamev3.Tests;
+
+import com.example.videogamev3.DownloadManagement.BusinessLogic.BulkDownloadService;
+import com.example.videogamev3.DownloadManagement.DataAccess.Download;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadId;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadEngine;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadProgressRegistry;
+import com.example.videogamev3.DownloadManagement.Presentation.BulkDownloadItemOutcome;
+import com.example.videogamev3.DownloadManagement.Presentation.BulkDownloadItemResultModel;
+import com.example.videogamev3.DownloadManagement.Presentation.BulkDownloadRequestModel;
+import com.example.videogamev3.DownloadManagement.Presentation.BulkDownloadResponseModel;
+import com.example.videogamev3.DownloadManagement.utils.exceptions.InvalidDownloadDataException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkDownloadServiceTest {
+
+    @Mock
+    private DownloadRepository downloadRepository;
+
+    @Mock
+    private DownloadEngine downloadEngine;
+
+    @Mock
+    private DownloadProgressRegistry progressRegistry;
+
+    @InjectMocks
+    private BulkDownloadService bulkDownloadService;
+
+    private static Download download(String id, DownloadStatus status) {
+        return new Download(new DownloadId(id), "http://example.com/" + id, status, "user-1");
+    }
+
+    private static Map<String, BulkDownloadItemResultModel> byId(BulkDownloadResponseModel response) {
+        return response.getResults().stream().collect(Collectors.toMap(BulkDownloadItemResultModel::getId, result -> result));
+    }
+
+    @Test
+    void whenPauseDownloadsByIds_thenOneUpdateAndPerItemOutcomes() {
+        // Arrange
+        BulkDownloadRequestModel request = new BulkDownloadRequestModel(List.of("a", "b", "missing"), null, null);
+        when(downloadRepository.findBulkTargets(anyCollection(), isNull(), isNull()))
+                .thenReturn(List.of(download("a", DownloadStatus.DOWNLOADING), download("b", DownloadStatus.COMPLETED)));
+        when(downloadRepository.transitionStatusAll(List.of("a"), EnumSet.of(DownloadStatus.DOWNLOADING), DownloadStatus.PAUSED)).thenReturn(1L);
+
+        // Act
+        BulkDownloadResponseModel response = bulkDownloadService.pauseDownloads(request);
+
+        // Assert
+        assertEquals(2, response.getMatched());
+        assertEquals(1, response.getApplied());
+        Map<String, BulkDownloadItemResultModel> results = byId(response);
+        assertEquals(BulkDownloadItemOutcome.APPLIED, results.get("a").getOutcome());
+        assertEquals("PAUSED", results.get("a").getStatus());
+        assertEquals(BulkDownloadItemOutcome.INVALID_STATE, results.get("b").getOutcome());
+        assertEquals("COMPLETED", results.get("b").getStatus());
+        assertEquals(BulkDownloadItemOutcome.NOT_FOUND, results.get("missing").getOutcome());
+        verify(downloadEngine, times(1)).stopAll(List.of("a")); // Single engine notification for the batch
+        verify(downloadRepository, never()).save(any(Download.class));
+    }
+
+    @Test
+    void whenResumeDownloadsByFilter_andConcurrentChange_thenReconcileOutcomes() {
+        // Arrange
+        BulkDownloadRequestModel request = new BulkDownloadRequestModel(null, "user-1", DownloadStatus.PAUSED);
+        when(downloadRepository.findBulkTargets(anyCollection(), eq("user-1"), eq(DownloadStatus.PAUSED)))
+                .thenReturn(List.of(download("a", DownloadStatus.PAUSED), download("b", DownloadStatus.PAUSED)));
+        when(downloadRepository.transitionStatusAll(List.of("a", "b"), EnumSet.of(DownloadStatus.PAUSED), DownloadStatus.DOWNLOADING)).thenReturn(1L);
+        // "b" was cancelled by another request between the read and the update
+        when(downloadRepository.findBulkTargets(List.of("a", "b"), null, null))
+                .thenReturn(List.of(download("a", DownloadStatus.DOWNLOADING), download("b", DownloadStatus.CANCELLED)));
+        Download resumed = download("a", DownloadStatus.DOWNLOADING);
+        when(downloadRepository.findDownloadsById_UuidIn(List.of("a"))).thenReturn(List.of(resumed));
+
+        // Act
+        BulkDownloadResponseModel response = bulkDownloadService.resumeDownloads(request);
+
+        // Assert
+        assertEquals(1, response.getApplied());
+        Map<String, BulkDownloadItemResultModel> results = byId(response);
+        assertEquals(BulkDownloadItemOutcome.APPLIED, results.get("a").getOutcome());
+        assertEquals(BulkDownloadItemOutcome.INVALID_STATE, results.get("b").getOutcome());
+        assertEquals("CANCELLED", results.get("b").getStatus());
+        verify(downloadEngine, times(1)).startAll(List.of(resumed)); // full documents, only of what was resumed
+    }
+
+    @Test
+    void whenDeleteDownloadsByFilter_thenDeleteManyAndDiscardOnce() {
+        // Arrange
+        BulkDownloadRequestModel request = new BulkDownloadRequestModel(null, "user-1", null);
+        when(downloadRepository.findBulkTargets(anyCollection(), eq("user-1"), isNull()))
+                .thenReturn(List.of(download("a", DownloadStatus.PAUSED), download("b", DownloadStatus.COMPLETED)));
+        when(downloadRepository.deleteAllByUuid(List.of("a", "b"))).thenReturn(2L);
+
+        // Act
+        BulkDownloadResponseModel response = bulkDownloadService.deleteDownloads(request);
+
+        // Assert
+        assertEquals(2, response.getApplied());
+        assertTrue(response.getResults().stream().allMatch(result -> result.getOutcome() == BulkDownloadItemOutcome.APPLIED));
+        verify(downloadEngine, times(1)).discardAll(List.of("a", "b"));
+        verify(progressRegistry, times(1)).remove("a");
+        verify(progressRegistry, times(1)).remove("b");
+    }
+
+    @Test
+    void whenBulkRequestHasNoSelector_thenThrowInvalidDownloadDataException() {
+        // Act & Assert
+        assertThrows(InvalidDownloadDataException.class, () ->
+                bulkDownloadService.cancelDownloads(new BulkDownloadRequestModel(List.of(), null, null)));
+        verifyNoInteractions(downloadRepository, downloadEngine);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.videogamev3.Tests;
+
+import com.example.videogamev3.DownloadManagement.Engine.BlockSignature;
+import com.example.videogamev3.DownloadManagement.Engine.ChunkSource;
+import com.example.videogamev3.DownloadManagement.Engine.DeltaPatcher;
+import com.example.videogamev3.DownloadManagement.Engine.DeltaPlan;
+import com.example.videogamev3.DownloadManagement.Engine.RangeStream;
+import com.example.videogamev3.DownloadManagement.Engine.RollingChecksum;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeltaPatcherTest {
+
+    private static final int BLOCK_SIZE = 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private static byte[] randomPayload(int size, long seed) {
+        byte[] payload = new byte[size];
+        new Random(seed).nextBytes(payload);
+        return payload;
+    }
+
+    // A new version: the old one with bytes inserted in the middle and a changed tail.
+    private static byte[] nextVersion(byte[] base, int insertAt, int inserted) {
+        byte[] target = new byte[base.length + inserted];
+        System.arraycopy(base, 0, target, 0, insertAt);
+        System.arraycopy(randomPayload(inserted, 7), 0, target, insertAt, inserted);
+        System.arraycopy(base, insertAt, target, insertAt + inserted, base.length - insertAt);
+        target[target.length - 3] ^= 0x55;
+        return target;
+    }
+
+    private FileChannel open(String name, byte[] content) throws IOException {
+        Path file = tempDir.resolve(name);
+        Files.write(file, content);
+        return FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    private static ChunkSource sourceOf(byte[] payload, List<long[]> requests) {
+        return (offset, length) -> {
+            requests.add(new long[]{offset, length});
+            return new RangeStream(new ByteArrayInputStream(payload, (int) offset, (int) length), offset, payload.length);
+        };
+    }
+
+    private static byte[] applyPatch(FileChannel base, DeltaPlan plan, BlockSignature signature, ChunkSource source) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DeltaPatcher.apply(base, plan, signature, source, block -> out.write(block.array(), block.arrayOffset() + block.position(), block.remaining()), () -> false);
+        return out.toByteArray();
+    }
+
+    @Test
+    void whenRolling_thenChecksumMatchesRecomputedWindow() {
+        byte[] data = randomPayload(4096, 1);
+        RollingChecksum checksum = new RollingChecksum(BLOCK_SIZE);
+        checksum.reset(data, 0);
+        for (int offset = 1; offset + BLOCK_SIZE <= data.length; offset++) {
+            checksum.roll(data[offset - 1], data[offset + BLOCK_SIZE - 1]);
+            assertEquals(RollingChecksum.of(data, offset, BLOCK_SIZE), checksum.value(), "offset " + offset);
+        }
+    }
+
+    @Test
+    void whenTargetSharesMostBlocks_thenOnlyChangedRangesAreFetchedAndFileIsRebuiltExactly() throws Exception {
+        // Arrange
+        byte[] base = randomPayload(BLOCK_SIZE * 40 + 300, 42);
+        byte[] target = nextVersion(base, BLOCK_SIZE * 10 + 17, 500);
+        List<long[]> requests = new ArrayList<>();
+
+        try (FileChannel baseChannel = open("base", base); FileChannel targetChannel = open("target", target)) {
+            BlockSignature signature = BlockSignature.of(targetChannel, BLOCK_SIZE);
+
+            // Act
+            DeltaPlan plan = DeltaPatcher.plan(baseChannel, signature);
+            byte[] rebuilt = applyPatch(baseChannel, plan, signature, sourceOf(target, requests));
+
+            // Assert
+            assertArrayEquals(target, rebuilt);
+            assertTrue(plan.isSmallerThan(target.length));
+            assertTrue(plan.getBytesToFetch() <= BLOCK_SIZE * 3L, "fetched " + plan.getBytesToFetch());
+            assertEquals(target.length, plan.getBytesFromBase() + plan.getBytesToFetch());
+            assertEquals(plan.getFetchRanges(), requests.size());
+        }
+    }
+
+    @Test
+    void whenBaseIsUnrelated_thenDeltaIsNotSmallerThanFullDownload() throws Exception {
+        byte[] base = randomPayload(BLOCK_SIZE * 20, 1);
+        byte[] target = randomPayload(BLOCK_SIZE * 20, 2);
+
+        try (FileChannel baseChannel = open("base", base); FileChannel targetChannel = open("target", target)) {
+            DeltaPlan plan = DeltaPatcher.plan(baseChannel, BlockSignature.of(targetChannel, BLOCK_SIZE));
+
+            assertEquals(0, plan.getBytesFromBase());
+            assertFalse(plan.isSmallerThan(target.length));
+        }
+    }
+
+    @Test
+    void whenFetchedBlockDoesNotMatchSignature_thenApplyFails() throws Exception {
+        // Arrange
+        byte[] base = randomPayload(BLOCK_SIZE * 8, 42);
+        byte[] target = nextVersion(base, BLOCK_SIZE * 4, BLOCK_SIZE);
+        byte[] tampered = Arrays.copyOf(target, target.length);
+        tampered[BLOCK_SIZE * 4 + 1] ^= 1;
+
+        try (FileChannel baseChannel = open("base", base); FileChannel targetChannel = open("target", target)) {
+            BlockSignature signature = BlockSignature.of(targetChannel, BLOCK_SIZE);
+            DeltaPlan plan = DeltaPatcher.plan(baseChannel, signature);
+
+            // Act & Assert
+            assertThrows(IOException.class, () -> applyPatch(baseChannel, plan, signature, sourceOf(tampered, new ArrayList<>())));
+        }
+    }
+
+    @Test
+    void whenSignatureIsWrittenAndRead_thenBlocksRoundTrip() throws Exception {
+        try (FileChannel channel = open("file", randomPayload(BLOCK_SIZE * 3 + 5, 3))) {
+            BlockSignature signature = BlockSignature.of(channel, BLOCK_SIZE);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            signature.writeTo(out);
+
+            BlockSignature read = BlockSignature.read(new ByteArrayInputStream(out.toByteArray()));
+
+            assertEquals(signature.getLength(), read.getLength());
+            assertEquals(4, read.blockCount());
+            for (int i = 0; i < read.blockCount(); i++) {
+                assertEquals(signature.weak(i), read.weak(i));
+                assertEquals(signature.strong(i), read.strong(i));
+            }
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void patchThroughputBenchmark() throws Exception {
+        // Arrange
+        int blockSize = 64 * 1024;
+        byte[] base = randomPayload(64 * 1024 * 1024, 42);
+        byte[] target = nextVersion(base, 20 * 1024 * 1024 + 123, 3 * 1024 * 1024);
+
+        try (FileChannel baseChannel = open("base", base); FileChannel targetChannel = open("target", target)) {
+            BlockSignature signature = BlockSignature.of(targetChannel, blockSize);
+
+            // Act
+            long planStart = System.nanoTime();
+            DeltaPlan plan = DeltaPatcher.plan(baseChannel, signature);
+            long planNanos = System.nanoTime() - planStart;
+            long applyStart = System.nanoTime();
+            long[] written = {0};
+            DeltaPatcher.apply(baseChannel, plan, signature, sourceOf(target, new ArrayList<>()),
+                    (ByteBuffer block) -> written[0] += block.remaining(), () -> false);
+            long applyNanos = System.nanoTime() - applyStart;
+
+            // Assert
+            assertEquals(target.length, written[0]);
+            double megabytes = target.length / (1024.0 * 1024.0);
+            System.out.printf("Delta plan: %.1f MB/s, patch apply: %.1f MB/s, %.1f of %.1f MB reused (%.1f%% saved, %d ranges)%n",
+                    base.length / (1024.0 * 1024.0) / (planNanos / 1e9), megabytes / (applyNanos / 1e9),
+                    plan.getBytesFromBase() / (1024.0 * 1024.0), megabytes,
+                    100.0 * plan.getBytesFromBase() / target.length, plan.getFetchRanges());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.videogamev3.Tests;
+
+import com.example.videogamev3.DownloadManagement.Engine.DiskReservationLedger;
+import com.example.videogamev3.DownloadManagement.Engine.VolumeSpace;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiskReservationLedgerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DiskReservationLedger ledger;
+    private long sixtyPercent;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ledger = new DiskReservationLedger(0);
+        sixtyPercent = Files.getFileStore(tempDir).getUsableSpace() / 10 * 6;
+    }
+
+    @Test
+    void whenVolumeIsAlreadyPromised_thenFurtherReservationIsRefusedUntilReleased() throws Exception {
+        // Arrange
+        assertTrue(ledger.tryReserve("a", tempDir, sixtyPercent, 0));
+
+        // Act & Assert
+        assertFalse(ledger.tryReserve("b", tempDir, sixtyPercent, 0));
+        assertFalse(ledger.isReserved("b"));
+
+        ledger.release("a");
+        assertTrue(ledger.tryReserve("b", tempDir, sixtyPercent, 0));
+    }
+
+    @Test
+    void whenBytesAreAllocated_thenTheyStopCountingAgainstTheReservation() throws Exception {
+        // Arrange
+        ledger.tryReserve("a", tempDir, sixtyPercent, 0);
+
+        // Act
+        ledger.allocated("a", sixtyPercent / 2);
+        VolumeSpace half = ledger.report(tempDir);
+        ledger.allocated("a", sixtyPercent);
+
+        // Assert
+        assertEquals(sixtyPercent - sixtyPercent / 2, half.getReservedBytes());
+        assertEquals(1, half.getReservations());
+        assertEquals(0, ledger.report(tempDir).getReservedBytes());
+        assertTrue(ledger.tryReserve("b", tempDir, sixtyPercent, 0)); // the file is on disk now, free space accounts for it
+    }
+
+    @Test
+    void whenPartOfTheFileIsAlreadyWritten_thenOnlyTheRemainderIsReserved() throws Exception {
+        // Act
+        ledger.tryReserve("a", tempDir, sixtyPercent, sixtyPercent - 1000);
+
+        // Assert
+        assertEquals(1000, ledger.report(tempDir).getReservedBytes());
+        assertTrue(ledger.tryReserve("b", tempDir, sixtyPercent, 0));
+    }
+
+    @Test
+    void whenHeadroomIsConfigured_thenItIsNeverReserved() throws Exception {
+        // Arrange
+        long usable = Files.getFileStore(tempDir).getUsableSpace();
+        DiskReservationLedger strict = new DiskReservationLedger(usable / 2);
+
+        // Act & Assert
+        assertFalse(strict.tryReserve("a", tempDir, sixtyPercent, 0));
+        assertTrue(strict.report(tempDir).getAvailableBytes() <= usable - usable / 2);
+    }
+
+    @Test
+    void whenReservationIsReleased_thenListenersRunAndMayReserveTheFreedSpace() throws Exception {
+        // Arrange
+        ledger.tryReserve("a", tempDir, sixtyPercent, 0);
+        AtomicInteger releases = new AtomicInteger();
+        AtomicBoolean reserved = new AtomicBoolean();
+        ledger.onRelease(() -> {
+            releases.incrementAndGet();
+            try {
+                reserved.set(ledger.tryReserve("b", tempDir, sixtyPercent, 0));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Act
+        ledger.release("a");
+        ledger.release("never-reserved");
+
+        // Assert
+        assertEquals(1, releases.get());
+        assertTrue(reserved.get());
+        assertTrue(ledger.isReserved("b"));
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.videogamev3.Tests;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.ChunkManifest;
+import com.example.videogamev3.DownloadManagement.DataAccess.Download;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadId;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import com.example.videogamev3.DownloadManagement.Engine.DiskReservationLedger;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadEngine;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadJournal;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadMetrics;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadProgressRegistry;
+import com.example.videogamev3.DownloadManagement.Engine.InstallPipeline;
+import com.example.videogamev3.DownloadManagement.Engine.MirrorRegistry;
+import com.example.videogamev3.DownloadManagement.Engine.ProgressWriteBehind;
+import com.example.videogamev3.Fixtures.OriginFaults;
+import com.example.videogamev3.Fixtures.OriginServer;
+import com.example.videogamev3.Fixtures.SyntheticFile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Drives the real engine (journal, disk ledger, mirror selection, write-behind) against a local
+ * {@link OriginServer}, with only Mongo mocked out, and prints throughput, CPU per GB and heap allocated per GB.
+ * Excluded from the test task; run with {@code ./gradlew benchmark}. CPU and allocation are those of the whole
+ * process, origin included, so compare runs on the same machine rather than reading them as absolutes.
+ */
+@Tag("benchmark")
+class DownloadEngineBenchmark {
+
+    private static final long MB = 1024 * 1024;
+    private static final int DOWNLOADS = Integer.getInteger("benchmark.downloads", 8);
+    private static final long FILE_BYTES = Long.getLong("benchmark.file-mb", 64) * MB;
+    private static final int WORKERS = Integer.getInteger("benchmark.workers", 4);
+    private static final int STORM_ROUNDS = Integer.getInteger("benchmark.storm-rounds", 10);
+    private static final long TIMEOUT_MINUTES = Long.getLong("benchmark.timeout-minutes", 10);
+
+    @TempDir
+    Path tempDir;
+
+    private OriginServer origin;
+    private DownloadRepository downloadRepository;
+    private DownloadJournal journal;
+    private ProgressWriteBehind progressWrites;
+    private DownloadEngine engine;
+    private final Map<String, Download> downloads = new ConcurrentHashMap<>();
+    private final Map<String, DownloadStatus> finished = new ConcurrentHashMap<>();
+    private volatile CountDownLatch allFinished;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        origin = OriginServer.start();
+        downloadRepository = mock(DownloadRepository.class);
+        // The engine resumes from the manifest it was handed, which the service would reload from Mongo.
+        doAnswer(invocation -> {
+            downloads.get(invocation.<String>getArgument(0)).setChunkManifest(invocation.getArgument(1));
+            return null;
+        }).when(downloadRepository).resetTransfer(anyString(), any(ChunkManifest.class), anyLong(), any());
+        when(downloadRepository.recordProgress(anyCollection())).thenAnswer(invocation -> invocation.<Collection<?>>getArgument(0).size());
+        when(downloadRepository.finishTransfer(anyString(), any(), any())).thenAnswer(invocation -> {
+            if (finished.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null) {
+                allFinished.countDown();
+            }
+            return true;
+        });
+
+        DownloadProgressRegistry progressRegistry = new DownloadProgressRegistry(60);
+        journal = new DownloadJournal(tempDir.resolve("journal").toString(), 20, 1024 * 1024, 64 * MB);
+        progressWrites = new ProgressWriteBehind(downloadRepository, 1000, 1000);
+        engine = new DownloadEngine(downloadRepository, progressRegistry, journal,
+                new MirrorRegistry(60, 32, 0.5), new DiskReservationLedger(0),
+                new InstallPipeline(downloadRepository, progressRegistry, tempDir.resolve("installs").toString(), 1, 30),
+                progressWrites, new DownloadMetrics(new SimpleMeterRegistry(), progressRegistry, 100),
+                tempDir.resolve("downloads").toString(), 4 * 1024 * 1024, WORKERS, 30, 4, 65536, 8 * MB, 65536, 3,
+                DownloadEngine.Preallocation.SPARSE, 30);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        engine.stopAll(downloads.keySet());
+        progressWrites.close();
+        journal.close();
+        origin.close();
+    }
+
+    private List<Download> createDownloads(OriginFaults faults, int mirrors) {
+        allFinished = new CountDownLatch(DOWNLOADS);
+        List<Download> created = new ArrayList<>();
+        for (int i = 0; i < DOWNLOADS; i++) {
+            SyntheticFile file = new SyntheticFile(i, FILE_BYTES);
+            Download download = new Download(new DownloadId(), origin.serve("/game-" + i + ".bin", file, faults),
+                    DownloadStatus.DOWNLOADING, "bench-user-" + (i % 4));
+            List<String> mirrorUrls = new ArrayList<>();
+            for (int m = 0; m < mirrors; m++) {
+                mirrorUrls.add(origin.serve("/mirror-" + m + "/game-" + i + ".bin", file));
+            }
+            download.setMirrorUrls(mirrorUrls);
+            downloads.put(download.getId().getUuid(), download);
+            created.add(download);
+        }
+        return created;
+    }
+
+    private void assertCompletedIntact(List<Download> started) throws Exception {
+        for (int i = 0; i < started.size(); i++) {
+            String id = started.get(i).getId().getUuid();
+            assertEquals(DownloadStatus.COMPLETED, finished.get(id));
+            assertEquals(new SyntheticFile(i, FILE_BYTES).sha256Hex(), sha256Hex(engine.completedFile(id)), "content of " + id);
+        }
+    }
+
+    @Test
+    void concurrentDownloadsFromOneOrigin() throws Exception {
+        // Arrange
+        List<Download> started = createDownloads(OriginFaults.none(), 0);
+        Measurement measurement = Measurement.start();
+
+        // Act
+        engine.startAll(started);
+        assertTrue(allFinished.await(TIMEOUT_MINUTES, TimeUnit.MINUTES), "downloads did not finish in time");
+
+        // Assert
+        measurement.report("concurrent", (long) DOWNLOADS * FILE_BYTES);
+        assertCompletedIntact(started);
+    }
+
+    @Test
+    void pauseResumeStorm() throws Exception {
+        // Arrange: throttled, so every round catches the transfers part-way
+        long perDownloadRate = Math.max(MB, FILE_BYTES / (STORM_ROUNDS + 2) * 5);
+        List<Download> started = createDownloads(OriginFaults.none().throttle(perDownloadRate), 0);
+        Measurement measurement = Measurement.start();
+
+        // Act
+        engine.startAll(started);
+        for (int round = 0; round < STORM_ROUNDS && finished.size() < DOWNLOADS; round++) {
+            Thread.sleep(200);
+            List<String> ids = started.stream().map(download -> download.getId().getUuid()).toList();
+            engine.stopAll(ids);
+            while (ids.stream().anyMatch(engine::isActive)) {
+                Thread.sleep(5);
+            }
+            engine.startAll(started.stream().filter(download -> !finished.containsKey(download.getId().getUuid())).toList());
+        }
+        assertTrue(allFinished.await(TIMEOUT_MINUTES, TimeUnit.MINUTES), "downloads did not finish in time");
+
+        // Assert
+        measurement.report("pause/resume storm (" + STORM_ROUNDS + " rounds)", (long) DOWNLOADS * FILE_BYTES);
+        System.out.printf("  origin served %d MB for %d MB of files%n", origin.bytesServed() / MB, DOWNLOADS * FILE_BYTES / MB);
+        assertCompletedIntact(started);
+    }
+
+    @Test
+    void failingMirrors() throws Exception {
+        // Arrange: origin is healthy, mirror 0 is down, mirror 1 drops the connection every 3 MB
+        List<Download> started = createDownloads(OriginFaults.none().latency(Duration.ofMillis(20)), 2);
+        for (int i = 0; i < DOWNLOADS; i++) {
+            origin.faults("/mirror-0/game-" + i + ".bin").unavailable(true);
+            origin.faults("/mirror-1/game-" + i + ".bin").resetAfter(3 * MB, Integer.MAX_VALUE);
+        }
+        Measurement measurement = Measurement.start();
+
+        // Act
+        engine.startAll(started);
+        assertTrue(allFinished.await(TIMEOUT_MINUTES, TimeUnit.MINUTES), "downloads did not finish in time");
+
+        // Assert
+        measurement.report("failing mirrors", (long) DOWNLOADS * FILE_BYTES);
+        System.out.printf("  %d connections reset by the flaky mirror%n", origin.resets());
+        assertCompletedIntact(started);
+    }
+
+    private static String sha256Hex(Path file) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Wall time, process CPU time, bytes allocated by all threads and GC count between start and report.
+     */
+    private static final class Measurement {
+        private final long wallNanos;
+        private final long cpuNanos;
+        private final long allocatedBytes;
+        private final long collections;
+
+        private Measurement() {
+            this.wallNanos = System.nanoTime();
+            this.cpuNanos = cpuNanos();
+            this.allocatedBytes = allocatedBytes();
+            this.collections = collections();
+        }
+
+        static Measurement start() {
+            return new Measurement();
+        }
+
+        void report(String scenario, long bytes) {
+            double seconds = (System.nanoTime() - wallNanos) / 1e9;
+            double gigabytes = bytes / (1024.0 * MB);
+            double cpuSeconds = (cpuNanos() - cpuNanos) / 1e9;
+            double allocatedMb = (allocatedBytes() - allocatedBytes) / (double) MB;
+            System.out.printf("%s: %d downloads x %d MB in %.2f s = %.1f MB/s, %.2f CPU s/GB, %.1f MB allocated/GB, %d GCs%n",
+                    scenario, DOWNLOADS, FILE_BYTES / MB, seconds, bytes / (double) MB / seconds,
+                    cpuSeconds / gigabytes, allocatedMb / gigabytes, collections() - collections);
+        }
+
+        private static long cpuNanos() {
+            return ManagementFactory.getPlatformMXBean(com.sun.management.OperatingSystemMXBean.class).getProcessCpuTime();
+        }
+
+        private static long allocatedBytes() {
+            return ManagementFactory.getPlatformMXBean(com.sun.management.ThreadMXBean.class).getTotalThreadAllocatedBytes();
+        }
+
+        private static long collections() {
+            return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                    .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                    .filter(count -> count > 0)
+                    .sum();
+        }
+    }
+}
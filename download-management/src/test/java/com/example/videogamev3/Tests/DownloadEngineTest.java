@@ -0,0 +1,181 @@
+package com.example.videogamev3.Tests;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.Download;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadId;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import com.example.videogamev3.DownloadManagement.Engine.DiskReservationLedger;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadEngine;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadJournal;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadMetrics;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadProgressRegistry;
+import com.example.videogamev3.DownloadManagement.Engine.InstallPipeline;
+import com.example.videogamev3.DownloadManagement.Engine.MirrorRegistry;
+import com.example.videogamev3.DownloadManagement.Engine.ProgressWriteBehind;
+import com.example.videogamev3.Fixtures.OriginFaults;
+import com.example.videogamev3.Fixtures.OriginServer;
+import com.example.videogamev3.Fixtures.SyntheticFile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * The real engine against local origins, with Mongo mocked out. Each mirror is served by its own
+ * {@link OriginServer}, since mirrors are told apart by scheme, host and port.
+ */
+class DownloadEngineTest {
+
+    private static final int CHUNK_SIZE = 256 * 1024;
+    private static final long FILE_BYTES = 8L * CHUNK_SIZE;
+
+    @TempDir
+    Path tempDir;
+
+    private OriginServer first;
+    private OriginServer second;
+    private DownloadRepository downloadRepository;
+    private DiskReservationLedger diskLedger;
+    private DownloadJournal journal;
+    private ProgressWriteBehind progressWrites;
+    private DownloadEngine engine;
+    private final List<String> started = new ArrayList<>();
+    private final Map<String, DownloadStatus> finished = new ConcurrentHashMap<>();
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        first = OriginServer.start();
+        second = OriginServer.start();
+        downloadRepository = mock(DownloadRepository.class);
+        when(downloadRepository.recordProgress(anyCollection())).thenAnswer(invocation -> invocation.<Collection<?>>getArgument(0).size());
+        when(downloadRepository.finishTransfer(anyString(), any(), any())).thenAnswer(invocation -> {
+            if (finished.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null) {
+                done.countDown();
+            }
+            return true;
+        });
+
+        DownloadProgressRegistry progressRegistry = new DownloadProgressRegistry(60);
+        diskLedger = new DiskReservationLedger(0);
+        journal = new DownloadJournal(tempDir.resolve("journal").toString(), 20, 1024 * 1024, 64L * 1024 * 1024);
+        progressWrites = new ProgressWriteBehind(downloadRepository, 1000, 1000);
+        engine = new DownloadEngine(downloadRepository, progressRegistry, journal,
+                new MirrorRegistry(60, 32, 0.5), diskLedger,
+                new InstallPipeline(downloadRepository, progressRegistry, tempDir.resolve("installs").toString(), 1, 30),
+                progressWrites, new DownloadMetrics(new SimpleMeterRegistry(), progressRegistry, 100),
+                tempDir.resolve("downloads").toString(), CHUNK_SIZE, 2, 30, 4, 65536, CHUNK_SIZE, 64 * 1024, 2,
+                DownloadEngine.Preallocation.SPARSE, 3600); // no timed re-check during a test
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        engine.stopAll(started);
+        progressWrites.close();
+        journal.close();
+        first.close();
+        second.close();
+    }
+
+    private void start(Download download) {
+        started.add(download.getId().getUuid());
+        engine.start(download);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, message);
+            Thread.sleep(10);
+        }
+    }
+
+    private static String sha256Hex(Path file) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file)));
+    }
+
+    @Test
+    void whenOneMirrorKeepsFailing_thenFailOverToTheGoodOneAndStopUsingTheBadOne() throws Exception {
+        // Arrange: the bad mirror answers the probe but drops every segment part-way
+        SyntheticFile file = new SyntheticFile(7, FILE_BYTES);
+        String bad = first.serve("/game.bin", file, OriginFaults.none().resetAfter(100 * 1024, Integer.MAX_VALUE));
+        String good = second.serve("/game.bin", file);
+        Download download = new Download(new DownloadId(), bad, DownloadStatus.DOWNLOADING, "user-1");
+        download.setMirrorUrls(List.of(good));
+
+        // Act
+        start(download);
+
+        // Assert
+        assertTrue(done.await(30, TimeUnit.SECONDS), "download did not finish in time");
+        String id = download.getId().getUuid();
+        assertEquals(DownloadStatus.COMPLETED, finished.get(id));
+        assertEquals(file.sha256Hex(), sha256Hex(engine.completedFile(id)));
+        // length lookup and probe, then at most three failed segments before it is dropped for this transfer
+        assertTrue(first.requests("/game.bin") <= 5, "requests to the failing mirror: " + first.requests("/game.bin"));
+    }
+
+    @Test
+    void whenSeveralMirrorsAreHealthy_thenFetchSegmentsFromThemAtOnce() throws Exception {
+        // Arrange
+        SyntheticFile file = new SyntheticFile(11, FILE_BYTES);
+        Download download = new Download(new DownloadId(), first.serve("/game.bin", file), DownloadStatus.DOWNLOADING, "user-1");
+        download.setMirrorUrls(List.of(second.serve("/game.bin", file)));
+
+        // Act
+        start(download);
+
+        // Assert
+        assertTrue(done.await(30, TimeUnit.SECONDS), "download did not finish in time");
+        String id = download.getId().getUuid();
+        assertEquals(DownloadStatus.COMPLETED, finished.get(id));
+        assertEquals(file.sha256Hex(), sha256Hex(engine.completedFile(id)));
+        assertTrue(first.bytesServed() >= CHUNK_SIZE, "first mirror served " + first.bytesServed());
+        assertTrue(second.bytesServed() >= CHUNK_SIZE, "second mirror served " + second.bytesServed());
+    }
+
+    @Test
+    void whenSpaceIsFreedWithNoTransferRunning_thenStartTheQueuedDownload() throws Exception {
+        // Arrange: something else holds all but a quarter of the file's size
+        SyntheticFile file = new SyntheticFile(13, FILE_BYTES);
+        Path downloads = tempDir.resolve("downloads");
+        Files.createDirectories(downloads);
+        long usable = Files.getFileStore(downloads).getUsableSpace();
+        assertTrue(diskLedger.tryReserve("elsewhere", downloads, usable - FILE_BYTES / 4, 0));
+        Download download = new Download(new DownloadId(), first.serve("/game.bin", file), DownloadStatus.DOWNLOADING, "user-1");
+        String id = download.getId().getUuid();
+        start(download);
+        awaitTrue(() -> engine.queuedForSpace().contains(id), "download was not queued for space");
+        awaitTrue(() -> !engine.isActive(id), "queued download still holds a worker");
+
+        // Act
+        diskLedger.release("elsewhere");
+
+        // Assert
+        assertTrue(done.await(30, TimeUnit.SECONDS), "queued download did not start once space was freed");
+        assertEquals(DownloadStatus.COMPLETED, finished.get(id));
+        assertEquals(file.sha256Hex(), sha256Hex(engine.completedFile(id)));
+        assertTrue(engine.queuedForSpace().isEmpty());
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.videogamev3.Tests;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.ChunkManifest;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadJournal;
+import com.example.videogamev3.DownloadManagement.Engine.JournaledTransfer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DownloadJournalTest {
+
+    private static final int CHUNK_SIZE = 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private DownloadJournal open() throws Exception {
+        return open(Long.MAX_VALUE);
+    }
+
+    private DownloadJournal open(long compactThresholdBytes) throws Exception {
+        return new DownloadJournal(tempDir.toString(), 10, 1 << 20, compactThresholdBytes);
+    }
+
+    private static String hash(int i) {
+        return String.format("%064x", i);
+    }
+
+    private static Map<String, JournaledTransfer> byId(DownloadJournal journal) {
+        return journal.recoverable().stream().collect(Collectors.toMap(JournaledTransfer::getDownloadId, t -> t));
+    }
+
+    @Test
+    void whenReopened_thenUnfinishedTransfersAreReplayedWithTheirDurableOffset() throws Exception {
+        // Arrange
+        try (DownloadJournal journal = open()) {
+            journal.transferStarted("a", new ChunkManifest(CHUNK_SIZE), 0, 4096L);
+            journal.chunkCommitted("a", 0, hash(0), 1024);
+            journal.chunkCommitted("a", 1, hash(1), 2048);
+            journal.transferStarted("b", new ChunkManifest(CHUNK_SIZE), 0, null);
+            journal.chunkCommitted("b", 0, hash(7), 1024);
+            journal.transferEnded("b");
+        }
+
+        // Act
+        try (DownloadJournal reopened = open()) {
+            // Assert
+            Map<String, JournaledTransfer> recovered = byId(reopened);
+            assertEquals(1, recovered.size());
+            JournaledTransfer a = recovered.get("a");
+            assertEquals(2048, a.getDurableOffset());
+            assertEquals(4096L, a.getTotalBytes());
+            assertEquals(List.of(hash(0), hash(1)), a.toManifest().getChunkHashes());
+        }
+    }
+
+    @Test
+    void whenTailRecordIsTorn_thenReplayStopsBeforeItAndTruncates() throws Exception {
+        // Arrange
+        try (DownloadJournal journal = open()) {
+            journal.transferStarted("a", new ChunkManifest(CHUNK_SIZE), 0, null);
+            journal.chunkCommitted("a", 0, hash(0), 1024);
+            journal.chunkCommitted("a", 1, hash(1), 2048);
+        }
+        Path file = tempDir.resolve("transfers.journal");
+        long intact = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(intact - 5); // crash halfway through the last append
+        }
+
+        // Act
+        try (DownloadJournal reopened = open()) {
+            // Assert
+            JournaledTransfer a = byId(reopened).get("a");
+            assertEquals(1024, a.getDurableOffset());
+            assertEquals(1, a.getChunkHashes().size());
+            reopened.chunkCommitted("a", 1, hash(1), 2048);
+        }
+        try (DownloadJournal again = open()) {
+            assertEquals(2048, byId(again).get("a").getDurableOffset()); // appends after the cut replay cleanly
+        }
+    }
+
+    @Test
+    void whenCompacted_thenOnlyUnfinishedTransfersSurviveAndFileShrinks() throws Exception {
+        // Arrange
+        try (DownloadJournal journal = open()) {
+            for (int d = 0; d < 50; d++) {
+                String id = "download-" + d;
+                journal.transferStarted(id, new ChunkManifest(CHUNK_SIZE), 0, null);
+                for (int c = 0; c < 20; c++) {
+                    journal.chunkCommitted(id, c, hash(c), (c + 1L) * CHUNK_SIZE);
+                }
+                if (d % 10 != 0) {
+                    journal.transferEnded(id);
+                }
+            }
+            journal.flush();
+            long before = Files.size(tempDir.resolve("transfers.journal"));
+
+            // Act
+            journal.compact();
+            journal.chunkCommitted("download-0", 20, hash(20), 21L * CHUNK_SIZE);
+
+            // Assert
+            assertTrue(Files.size(tempDir.resolve("transfers.journal")) < before / 5);
+        }
+        try (DownloadJournal reopened = open()) {
+            Map<String, JournaledTransfer> recovered = byId(reopened);
+            assertEquals(5, recovered.size());
+            assertEquals(21L * CHUNK_SIZE, recovered.get("download-0").getDurableOffset());
+            assertEquals(20L * CHUNK_SIZE, recovered.get("download-10").getDurableOffset());
+        }
+    }
+
+    @Test
+    void whenThresholdExceeded_thenFlushCompactsAutomatically() throws Exception {
+        try (DownloadJournal journal = open(8 * 1024)) {
+            journal.transferStarted("a", new ChunkManifest(CHUNK_SIZE), 0, null);
+            for (int c = 0; c < 500; c++) {
+                journal.chunkCommitted("a", c % 3, hash(c), (c % 3 + 1L) * CHUNK_SIZE);
+                journal.flush();
+            }
+            assertTrue(Files.size(tempDir.resolve("transfers.journal")) < 8 * 1024);
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void recoveryTimeBenchmark() throws Exception {
+        int downloads = 5_000;
+        int chunksEach = 16;
+        long appendStarted = System.nanoTime();
+        try (DownloadJournal journal = open()) {
+            for (int d = 0; d < downloads; d++) {
+                String id = "download-" + d;
+                journal.transferStarted(id, new ChunkManifest(CHUNK_SIZE), 0, (long) chunksEach * CHUNK_SIZE);
+                for (int c = 0; c < chunksEach; c++) {
+                    journal.chunkCommitted(id, c, hash(d * chunksEach + c), (c + 1L) * CHUNK_SIZE);
+                }
+            }
+        }
+        long appendNanos = System.nanoTime() - appendStarted;
+        long journalBytes = Files.size(tempDir.resolve("transfers.journal"));
+
+        long replayStarted = System.nanoTime();
+        try (DownloadJournal reopened = open()) {
+            long replayNanos = System.nanoTime() - replayStarted;
+            assertEquals(downloads, reopened.recoverable().size());
+            assertTrue(reopened.recoverable().stream().allMatch(t -> t.getDurableOffset() == (long) chunksEach * CHUNK_SIZE));
+            System.out.printf("Journal: %d records appended in %d ms, %d active downloads (%.1f MB) replayed in %d ms%n",
+                    downloads * (chunksEach + 1), appendNanos / 1_000_000, downloads, journalBytes / 1e6, replayNanos / 1_000_000);
+        }
+    }
+}
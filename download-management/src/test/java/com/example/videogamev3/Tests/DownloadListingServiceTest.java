@@ -0,0 +1,144 @@
+package com.example.videogamev3.Tests;
+
+import com.example.videogamev3.DownloadManagement.BusinessLogic.DownloadListingService;
+import com.example.videogamev3.DownloadManagement.DataAccess.Download;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadCursor;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadFilter;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadId;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import com.example.videogamev3.DownloadManagement.DataMapper.DownloadResponseMapper;
+import com.example.videogamev3.DownloadManagement.Presentation.DownloadPageResponseModel;
+import com.example.videogamev3.DownloadManagement.Presentation.DownloadResponseModel;
+import com.example.videogamev3.DownloadManagement.utils.exceptions.InvalidDownloadDataException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DownloadListingServiceTest {
+
+    @Mock
+    private DownloadRepository downloadRepository;
+
+    @Mock
+    private DownloadResponseMapper downloadResponseMapper;
+
+    private DownloadListingService downloadListingService;
+
+    private final Instant now = Instant.parse("2025-01-01T12:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        downloadListingService = new DownloadListingService(downloadRepository, downloadResponseMapper, new ObjectMapper().findAndRegisterModules(), 2, 10, 2);
+    }
+
+    private Download download(String id, int minutesAgo) {
+        Download download = new Download(new DownloadId(id), "http://example.com/" + id, DownloadStatus.PAUSED, "user-1");
+        download.setUpdatedAt(now.minusSeconds(60L * minutesAgo));
+        return download;
+    }
+
+    @Test
+    void whenMoreDocumentsThanPageSize_thenReturnPageWithCursorAtLastItem() {
+        // Arrange
+        DownloadFilter filter = new DownloadFilter("user-1", List.of(DownloadStatus.PAUSED), null, null);
+        List<Download> fetched = List.of(download("c", 1), download("b", 2), download("a", 3));
+        when(downloadRepository.findPage(filter, null, 3)).thenReturn(fetched); // page size + 1
+        when(downloadResponseMapper.downloadEntityToDownloadResponseModel(anyList()))
+                .thenAnswer(invocation -> ((List<Download>) invocation.getArgument(0)).stream()
+                        .map(d -> new DownloadResponseModel(d.getId().getUuid(), d.getSourceUrl(), d.getDownloadStatus().toString(), d.getUserId()))
+                        .toList());
+
+        // Act
+        DownloadPageResponseModel page = downloadListingService.getDownloadPage(filter, null, null);
+
+        // Assert
+        assertEquals(2, page.getItems().size());
+        assertNotNull(page.getNextCursor());
+        DownloadCursor cursor = DownloadCursor.decode(page.getNextCursor());
+        assertEquals("b", cursor.getUuid());
+        assertEquals(now.minusSeconds(120), cursor.getUpdatedAt());
+    }
+
+    @Test
+    void whenCursorGiven_thenPassDecodedPositionAndOmitCursorOnLastPage() {
+        // Arrange
+        DownloadFilter filter = new DownloadFilter("user-1", null, null, null);
+        String token = new DownloadCursor(now, "b").encode();
+        when(downloadRepository.findPage(eq(filter), eq(new DownloadCursor(now, "b")), eq(3))).thenReturn(List.of(download("a", 3)));
+        when(downloadResponseMapper.downloadEntityToDownloadResponseModel(anyList())).thenReturn(List.of(new DownloadResponseModel()));
+
+        // Act
+        DownloadPageResponseModel page = downloadListingService.getDownloadPage(filter, token, null);
+
+        // Assert
+        assertNull(page.getNextCursor());
+        assertEquals(1, page.getItems().size());
+    }
+
+    @Test
+    void whenCursorIsMalformed_thenThrowInvalidDownloadDataException() {
+        assertThrows(InvalidDownloadDataException.class, () ->
+                downloadListingService.getDownloadPage(new DownloadFilter(), "not-a-cursor", null));
+        verifyNoInteractions(downloadRepository);
+    }
+
+    @Test
+    void whenLimitAboveMaximum_thenThrowInvalidDownloadDataException() {
+        assertThrows(InvalidDownloadDataException.class, () ->
+                downloadListingService.getDownloadPage(new DownloadFilter(), null, 11));
+        verifyNoInteractions(downloadRepository);
+    }
+
+    @Test
+    void whenTimeRangeIsInverted_thenStreamIsRejectedBeforeOpeningCursor() {
+        DownloadFilter filter = new DownloadFilter(null, null, now, now.minusSeconds(1));
+
+        assertThrows(InvalidDownloadDataException.class, () -> downloadListingService.streamDownloads(filter));
+        verifyNoInteractions(downloadRepository);
+    }
+
+    @Test
+    void whenStreamingDownloads_thenWriteOneJsonObjectPerLineAndCloseCursor() throws Exception {
+        // Arrange
+        DownloadFilter filter = new DownloadFilter("user-1", null, null, null);
+        boolean[] closed = {false};
+        Stream<Download> cursor = Stream.of(download("c", 1), download("b", 2), download("a", 3)).onClose(() -> closed[0] = true);
+        when(downloadRepository.streamAll(filter, 2)).thenReturn(cursor);
+        when(downloadResponseMapper.downloadEntityToDownloadResponseModel(any(Download.class)))
+                .thenAnswer(invocation -> {
+                    Download d = invocation.getArgument(0);
+                    return new DownloadResponseModel(d.getId().getUuid(), d.getSourceUrl(), d.getDownloadStatus().toString(), d.getUserId());
+                });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        downloadListingService.streamDownloads(filter).writeTo(out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("\"id\":\"c\""));
+        assertTrue(lines[2].contains("\"id\":\"a\""));
+        assertTrue(closed[0]);
+        verify(downloadRepository, never()).findPage(any(), isNull(), anyInt());
+    }
+}
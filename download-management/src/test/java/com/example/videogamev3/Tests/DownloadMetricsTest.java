@@ -0,0 +1,96 @@
+package com.example.videogamev3.Tests;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.Download;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadId;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadMetrics;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadProgressRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DownloadMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private DownloadProgressRegistry progressRegistry;
+    private DownloadMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        progressRegistry = new DownloadProgressRegistry(60);
+        metrics = new DownloadMetrics(registry, progressRegistry, 2);
+    }
+
+    private double counter(String name, String tag, String value) {
+        return registry.get(name).tag(tag, value).counter().count();
+    }
+
+    @Test
+    void whenBytesAreReceived_thenCountThemPerNodeUserAndSourceHost() {
+        // Act
+        metrics.bytesReceived("user-1", "http://cdn-a.example.com/game.zip", 100);
+        metrics.bytesReceived("user-1", "http://cdn-b.example.com/game.zip", 50);
+        metrics.bytesReceived("user-2", "http://cdn-a.example.com/other.zip", 25);
+
+        // Assert
+        assertEquals(175, registry.get("download.bytes.received").counter().count());
+        assertEquals(150, counter("download.user.bytes.received", "user", "user-1"));
+        assertEquals(125, counter("download.source.bytes.received", "source", "cdn-a.example.com"));
+        assertEquals(50, counter("download.source.bytes.received", "source", "cdn-b.example.com"));
+    }
+
+    @Test
+    void whenMoreUsersThanTheTagLimit_thenCountTheRestAsOther() {
+        // Act
+        metrics.bytesReceived("user-1", "http://x.example.com/a", 1);
+        metrics.bytesReceived("user-2", "http://x.example.com/a", 1);
+        metrics.bytesReceived("user-3", "http://x.example.com/a", 1);
+        metrics.bytesReceived("user-4", "http://x.example.com/a", 1);
+        metrics.bytesReceived("user-1", "http://x.example.com/a", 1);
+
+        // Assert
+        assertEquals(3, registry.find("download.user.bytes.received").counters().size());
+        assertEquals(2, counter("download.user.bytes.received", "user", "user-1"));
+        assertEquals(2, counter("download.user.bytes.received", "user", "other"));
+    }
+
+    @Test
+    void whenDownloadsAreTracked_thenActiveGaugeFollowsTheirState() {
+        // Arrange
+        progressRegistry.track(new Download(new DownloadId(), "http://x.example.com/a", DownloadStatus.DOWNLOADING, "user-1"));
+        progressRegistry.track(new Download(new DownloadId(), "http://x.example.com/b", DownloadStatus.DOWNLOADING, "user-1"));
+        Download paused = new Download(new DownloadId(), "http://x.example.com/c", DownloadStatus.DOWNLOADING, "user-2");
+        progressRegistry.track(paused);
+
+        // Act
+        progressRegistry.updateStatus(paused.getId().getUuid(), DownloadStatus.PAUSED);
+
+        // Assert
+        assertEquals(2, registry.get("download.active").tag("state", "DOWNLOADING").gauge().value());
+        assertEquals(1, registry.get("download.active").tag("state", "PAUSED").gauge().value());
+        assertEquals(0, registry.get("download.active").tag("state", "FAILED").gauge().value());
+    }
+
+    @Test
+    void whenLatenciesAndRetriesAreRecorded_thenExposeThemAsTimersAndCounters() {
+        // Act
+        metrics.chunkCommitted(TimeUnit.MILLISECONDS.toNanos(40));
+        metrics.chunkCommitted(TimeUnit.MILLISECONDS.toNanos(60));
+        metrics.timeToFirstByte("not a url", TimeUnit.MILLISECONDS.toNanos(5));
+        metrics.queueWait("disk_space", TimeUnit.SECONDS.toNanos(3));
+        metrics.retry("mirror_failover");
+        metrics.retry("mirror_failover");
+
+        // Assert
+        assertEquals(2, registry.get("download.chunk.latency").timer().count());
+        assertEquals(100, registry.get("download.chunk.latency").timer().totalTime(TimeUnit.MILLISECONDS), 1e-6);
+        assertEquals(1, registry.get("download.time.to.first.byte").tag("source", "unknown").timer().count());
+        assertEquals(3, registry.get("download.queue.wait").tag("queue", "disk_space").timer().totalTime(TimeUnit.SECONDS), 1e-6);
+        assertEquals(2, counter("download.retries", "reason", "mirror_failover"));
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.videogamev3.Tests;
+
+import com.example.videogamev3.DownloadManagement.BusinessLogic.DownloadProgressService;
+import com.example.videogamev3.DownloadManagement.DataAccess.Download;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadId;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadProgressRegistry;
+import com.example.videogamev3.DownloadManagement.Presentation.DownloadProgressModel;
+import com.example.videogamev3.DownloadManagement.utils.exceptions.DownloadNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.codec.ServerSentEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DownloadProgressServiceTest {
+
+    @Mock
+    private DownloadRepository downloadRepository;
+
+    private DownloadProgressRegistry progressRegistry;
+    private DownloadProgressService progressService;
+    private Download download;
+    private String userId;
+
+    @BeforeEach
+    void setUp() {
+        progressRegistry = new DownloadProgressRegistry(60);
+        progressService = new DownloadProgressService(downloadRepository, progressRegistry, 10);
+        userId = "user-" + UUID.randomUUID();
+        download = new Download(new DownloadId(), "http://example.com/file.zip", DownloadStatus.DOWNLOADING, userId);
+        download.setTotalBytes(1000L);
+    }
+
+    @Test
+    void whenStreamingUnknownDownload_thenThrowDownloadNotFoundException() {
+        // Arrange
+        when(downloadRepository.findDownloadById_Uuid("missing")).thenReturn(null);
+
+        // Act & Assert
+        assertThrows(DownloadNotFoundException.class, () -> progressService.streamDownloadProgress("missing"));
+    }
+
+    @Test
+    void whenStreamingTrackedDownload_thenSkipMongoAndCompleteOnTerminalStatus() {
+        // Arrange
+        String id = download.getId().getUuid();
+        progressRegistry.track(download);
+        progressRegistry.addBytes(id, 250);
+
+        // Act
+        List<ServerSentEvent<DownloadProgressModel>> first = progressService.streamDownloadProgress(id)
+                .take(1).collectList().block(Duration.ofSeconds(5));
+        download.setDownloadStatus(DownloadStatus.COMPLETED);
+        progressRegistry.updateStatus(download);
+        List<ServerSentEvent<DownloadProgressModel>> untilDone = progressService.streamDownloadProgress(id)
+                .collectList().block(Duration.ofSeconds(5));
+
+        // Assert
+        assertEquals(1, first.size());
+        assertEquals(250, first.get(0).data().getBytesDownloaded());
+        assertEquals(25.0, first.get(0).data().getPercentComplete());
+        assertEquals(1, untilDone.size()); // unchanged ticks are coalesced away and the stream ends on COMPLETED
+        assertEquals(DownloadStatus.COMPLETED.toString(), untilDone.get(0).data().getStatus());
+        verify(downloadRepository, never()).findDownloadById_Uuid(id); // already tracked in memory
+    }
+
+    @Test
+    void whenStreamingUserDownloads_thenEmitOnlyChangedEntries() {
+        // Arrange
+        Download other = new Download(new DownloadId(), "http://example.com/other.zip", DownloadStatus.PAUSED, userId);
+        when(downloadRepository.getDownloadsByUserId(userId)).thenReturn(List.of(download, other));
+
+        // Act
+        List<ServerSentEvent<DownloadProgressModel>> events = progressService.streamUserDownloadProgress(userId)
+                .doOnNext(event -> {
+                    if (event.data().getId().equals(download.getId().getUuid()) && event.data().getBytesDownloaded() == 0) {
+                        progressRegistry.addBytes(download.getId().getUuid(), 500);
+                    }
+                })
+                .take(3).collectList().block(Duration.ofSeconds(5));
+
+        // Assert
+        assertEquals(3, events.size());
+        assertEquals(download.getId().getUuid(), events.get(2).data().getId());
+        assertEquals(500, events.get(2).data().getBytesDownloaded());
+        verify(downloadRepository, times(1)).getDownloadsByUserId(userId);
+    }
+
+    @Test
+    void whenDownloadsFinish_thenDropThemFromTheRegistryAfterTheRetentionPeriod() {
+        // Arrange
+        long[] now = {0};
+        DownloadProgressRegistry registry = new DownloadProgressRegistry(60, () -> now[0]);
+        Download running = new Download(new DownloadId(), "http://example.com/running.zip", DownloadStatus.DOWNLOADING, userId);
+        Download installing = new Download(new DownloadId(), "http://example.com/install.zip", DownloadStatus.DOWNLOADING, userId);
+        registry.track(running);
+        registry.track(download);
+        registry.track(installing);
+
+        // Act
+        download.setDownloadStatus(DownloadStatus.COMPLETED);
+        registry.updateStatus(download);
+        registry.updateStatus(installing.getId().getUuid(), DownloadStatus.COMPLETED);
+        now[0] = TimeUnit.SECONDS.toNanos(30);
+        registry.updateStatus(installing.getId().getUuid(), DownloadStatus.INSTALLING);
+        boolean keptWithinRetention = registry.get(download.getId().getUuid()).isPresent();
+        now[0] = TimeUnit.SECONDS.toNanos(61);
+        long completed = registry.countByStatus(DownloadStatus.COMPLETED);
+
+        // Assert
+        assertTrue(keptWithinRetention);
+        assertEquals(0, completed);
+        assertTrue(registry.get(download.getId().getUuid()).isEmpty());
+        assertEquals(DownloadStatus.INSTALLING, registry.get(installing.getId().getUuid()).orElseThrow().getStatus());
+        assertEquals(List.of(running.getId().getUuid(), installing.getId().getUuid()).stream().sorted().toList(),
+                registry.forUser(userId).stream().map(progress -> progress.getDownloadId()).sorted().toList());
+    }
+}
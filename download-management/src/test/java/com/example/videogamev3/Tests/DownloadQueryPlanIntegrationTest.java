@@ -0,0 +1,168 @@
+package com.example.videogamev3.Tests;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.Download;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadCursor;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadFilter;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadId;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepositoryCustomImpl;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the winning plans of the listing and lookup queries, so an index change that silently
+ * reintroduces a collection scan or an in-memory sort fails the build.
+ */
+@DataMongoTest
+class DownloadQueryPlanIntegrationTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private DownloadRepository downloadRepository;
+
+    private final String userId = "user-" + UUID.randomUUID();
+    private final Instant baseTime = Instant.parse("2025-01-01T00:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        downloadRepository.deleteAll();
+        IndexOperations indexOps = mongoTemplate.indexOps(Download.class);
+        new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(Download.class).forEach(indexOps::ensureIndex);
+
+        // Enough other users' rows that a scan would be clearly worse than the index.
+        List<Download> downloads = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String owner = i % 10 == 0 ? userId : "other-" + (i % 7);
+            DownloadStatus status = DownloadStatus.values()[i % DownloadStatus.values().length];
+            Download download = new Download(new DownloadId(), "http://example.com/" + i, status, owner);
+            download.setCreatedAt(baseTime.plusSeconds(i));
+            download.setUpdatedAt(baseTime.plusSeconds(i));
+            downloads.add(download);
+        }
+        downloadRepository.saveAll(downloads);
+    }
+
+    @AfterEach
+    void tearDown() {
+        downloadRepository.deleteAll();
+    }
+
+    @Test
+    void whenListingByUserAndStatus_thenUseCompoundIndexWithoutSortStage() {
+        // Arrange
+        DownloadFilter filter = new DownloadFilter(userId, List.of(DownloadStatus.PAUSED), null, null);
+
+        // Act
+        Document plan = winningPlan(DownloadRepositoryCustomImpl.listingQuery(filter, null), 51);
+
+        // Assert
+        List<String> stages = collect(plan, "stage");
+        assertTrue(stages.contains("IXSCAN"), "expected an index scan: " + plan.toJson());
+        assertFalse(stages.contains("COLLSCAN"), plan.toJson());
+        assertFalse(stages.contains("SORT"), "sort should come from the index: " + plan.toJson());
+        assertTrue(collect(plan, "indexName").contains("user_status_updated"), plan.toJson());
+    }
+
+    @Test
+    void whenListingNextPageWithTimeRange_thenStillUseCompoundIndex() {
+        // Arrange
+        DownloadFilter filter = new DownloadFilter(userId, List.of(DownloadStatus.PAUSED, DownloadStatus.DOWNLOADING),
+                baseTime, baseTime.plusSeconds(250));
+        DownloadCursor after = new DownloadCursor(baseTime.plusSeconds(200), "ffffffff");
+
+        // Act
+        Document plan = winningPlan(DownloadRepositoryCustomImpl.listingQuery(filter, after), 51);
+
+        // Assert
+        List<String> stages = collect(plan, "stage");
+        assertFalse(stages.contains("COLLSCAN"), plan.toJson());
+        assertTrue(collect(plan, "indexName").contains("user_status_updated"), plan.toJson());
+    }
+
+    @Test
+    void whenLookingUpByUuid_thenUseUniqueUuidIndex() {
+        // Arrange
+        Download any = downloadRepository.findAll().get(0);
+        Query query = new Query(Criteria.where("id.uuid").is(any.getId().getUuid()));
+
+        // Act
+        Document plan = winningPlan(query, 0);
+
+        // Assert
+        assertFalse(collect(plan, "stage").contains("COLLSCAN"), plan.toJson());
+        assertTrue(collect(plan, "indexName").contains("download_uuid_unique"), plan.toJson());
+    }
+
+    @Test
+    void whenPagingThroughUserDownloads_thenEveryDocumentIsReturnedOnce() {
+        // Arrange
+        DownloadFilter filter = new DownloadFilter(userId, null, null, null);
+        List<String> seen = new ArrayList<>();
+        DownloadCursor after = null;
+
+        // Act
+        List<Download> page;
+        do {
+            page = downloadRepository.findPage(filter, after, 7);
+            page.forEach(download -> seen.add(download.getId().getUuid()));
+            after = page.isEmpty() ? null : DownloadCursor.after(page.get(page.size() - 1));
+        } while (page.size() == 7);
+
+        // Assert
+        assertEquals(30, seen.size());
+        assertEquals(30, seen.stream().distinct().count());
+    }
+
+    private Document winningPlan(Query query, int limit) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getPersistentEntity(Download.class);
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        Document filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+        Document sort = queryMapper.getMappedSort(query.with(DownloadRepositoryCustomImpl.LISTING_SORT).getSortObject(), entity);
+
+        Document explain = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Download.class))
+                .find(filter)
+                .sort(limit > 0 ? sort : null)
+                .limit(limit)
+                .explain();
+        return explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+    }
+
+    // Plan shapes differ between server versions (inputStage, inputStages, queryPlan), so walk the whole tree.
+    private static List<String> collect(Object node, String key) {
+        List<String> values = new ArrayList<>();
+        if (node instanceof Document document) {
+            document.forEach((k, v) -> {
+                if (k.equals(key) && v instanceof String s) {
+                    values.add(s);
+                } else {
+                    values.addAll(collect(v, key));
+                }
+            });
+        } else if (node instanceof List<?> list) {
+            list.forEach(item -> values.addAll(collect(item, key)));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.videogamev3.Tests;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.ChunkManifest;
+import com.example.videogamev3.DownloadManagement.DataAccess.Download;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadId;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadJournal;
+import com.example.videogamev3.Fixtures.OriginServer;
+import com.example.videogamev3.Fixtures.SyntheticFile;
+import com.example.videogamev3.VideoGameV3Application;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Restarts the whole application over a journal and a partial file left by a transfer that was cut short, and
+ * checks that startup resumes it where the journal says it got to.
+ */
+class DownloadRecoveryIntegrationTest {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final long FILE_BYTES = 4L * CHUNK_SIZE;
+
+    @TempDir
+    Path tempDir;
+
+    private OriginServer origin;
+    private ConfigurableApplicationContext context;
+    private String downloadId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        origin = OriginServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (context != null) {
+            if (downloadId != null) {
+                context.getBean(DownloadRepository.class).deleteDownloadById_Uuid(downloadId);
+            }
+            context.close();
+        }
+        origin.close();
+    }
+
+    private ConfigurableApplicationContext startApplication() {
+        return new SpringApplicationBuilder(VideoGameV3Application.class)
+                .properties(
+                        "server.port=0",
+                        "app.download.engine.directory=" + tempDir.resolve("downloads"),
+                        "app.download.engine.chunk-size=" + CHUNK_SIZE,
+                        "app.download.journal.directory=" + tempDir.resolve("journal"),
+                        "app.download.install.directory=" + tempDir.resolve("installs"),
+                        "app.download.disk.min-free-bytes=0")
+                .run();
+    }
+
+    @Test
+    void whenRestartedWithAJournaledTransfer_thenTheDownloadResumesFromTheJournaledOffset() throws Exception {
+        // Arrange: a first run stores the download as DOWNLOADING, then goes down with two chunks synced
+        SyntheticFile file = new SyntheticFile(17, FILE_BYTES);
+        Download download = new Download(new DownloadId(), origin.serve("/game.bin", file), DownloadStatus.DOWNLOADING, "user-1");
+        downloadId = download.getId().getUuid();
+        context = startApplication();
+        context.getBean(DownloadRepository.class).save(download);
+        context.close();
+        context = null;
+
+        Path downloads = Files.createDirectories(tempDir.resolve("downloads"));
+        byte[] synced = new byte[2 * CHUNK_SIZE];
+        file.read(0, synced, 0, synced.length);
+        try (FileChannel part = FileChannel.open(downloads.resolve(downloadId + ".part"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            part.write(ByteBuffer.wrap(synced));
+        }
+        try (DownloadJournal journal = new DownloadJournal(tempDir.resolve("journal").toString(), 10, 1 << 20, Long.MAX_VALUE)) {
+            journal.transferStarted(downloadId, new ChunkManifest(CHUNK_SIZE), 0, FILE_BYTES);
+            journal.chunkCommitted(downloadId, 0, file.sha256Hex(0, CHUNK_SIZE), CHUNK_SIZE);
+            journal.chunkCommitted(downloadId, 1, file.sha256Hex(CHUNK_SIZE, CHUNK_SIZE), 2L * CHUNK_SIZE);
+        }
+
+        // Act
+        context = startApplication();
+
+        // Assert
+        DownloadRepository downloadRepository = context.getBean(DownloadRepository.class);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (downloadRepository.findDownloadById_Uuid(downloadId).getDownloadStatus() != DownloadStatus.COMPLETED) {
+            assertTrue(System.nanoTime() < deadline, "resumed download did not complete in time");
+            Thread.sleep(50);
+        }
+        Download completed = downloadRepository.findDownloadById_Uuid(downloadId);
+        assertEquals(4, completed.getChunkManifest().getChunkHashes().size());
+        assertEquals(FILE_BYTES - 2L * CHUNK_SIZE, origin.bytesServed()); // only the chunks after the journaled offset
+        assertEquals(FILE_BYTES, Files.size(downloads.resolve(downloadId)));
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.videogamev3.Tests;
+
+import com.example.videogamev3.DownloadManagement.BusinessLogic.DownloadRecoveryService;
+import com.example.videogamev3.DownloadManagement.DataAccess.ChunkManifest;
+import com.example.videogamev3.DownloadManagement.DataAccess.Download;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadId;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadEngine;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadJournal;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadProgressRegistry;
+import com.example.videogamev3.DownloadManagement.Engine.JournaledTransfer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DownloadRecoveryServiceTest {
+
+    @Mock
+    private DownloadRepository downloadRepository;
+
+    @Mock
+    private DownloadEngine downloadEngine;
+
+    @Mock
+    private DownloadProgressRegistry progressRegistry;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void whenJournalHasUnfinishedTransfers_thenResumeOnlyThoseStillDownloadingFromJournaledManifest() throws Exception {
+        // Arrange
+        try (DownloadJournal journal = new DownloadJournal(tempDir.toString(), 10, 1 << 20, Long.MAX_VALUE)) {
+            journal.transferStarted("a", new ChunkManifest(1024), 0, 4096L);
+            journal.chunkCommitted("a", 0, "00", 1024);
+            journal.chunkCommitted("a", 1, "11", 2048);
+            journal.transferStarted("paused-meanwhile", new ChunkManifest(1024), 0, null);
+        }
+        try (DownloadJournal journal = new DownloadJournal(tempDir.toString(), 10, 1 << 20, Long.MAX_VALUE)) {
+            Download stale = new Download(new DownloadId("a"), "http://example.com/a", DownloadStatus.DOWNLOADING, "user-1");
+            stale.setChunkManifest(new ChunkManifest(1024, List.of("00", "11", "22"), null)); // ahead of what was synced
+            when(downloadRepository.findDownloadsById_UuidInAndDownloadStatus(anyCollection(), eq(DownloadStatus.DOWNLOADING))).thenReturn(List.of(stale));
+            DownloadRecoveryService recoveryService = new DownloadRecoveryService(downloadRepository, downloadEngine, journal, progressRegistry);
+
+            // Act
+            int resumed = recoveryService.recover(journal.recoverable());
+
+            // Assert
+            assertEquals(1, resumed);
+            ArgumentCaptor<Collection<Download>> started = ArgumentCaptor.forClass(Collection.class);
+            verify(downloadEngine).startAll(started.capture());
+            Download download = started.getValue().iterator().next();
+            assertEquals(List.of("00", "11"), download.getChunkManifest().getChunkHashes());
+            assertEquals(2048, download.getBytesDownloaded());
+            verify(progressRegistry).track(download);
+        }
+        try (DownloadJournal journal = new DownloadJournal(tempDir.toString(), 10, 1 << 20, Long.MAX_VALUE)) {
+            // The transfer that is no longer DOWNLOADING was closed in the journal and is not retried next time.
+            assertEquals(Set.of("a"), Set.copyOf(journal.recoverable().stream().map(JournaledTransfer::getDownloadId).toList()));
+        }
+    }
+
+    @Test
+    void whenJournalIsEmpty_thenDoNotQueryMongo() {
+        // Act
+        int resumed = new DownloadRecoveryService(downloadRepository, downloadEngine, mock(DownloadJournal.class), progressRegistry)
+                .recover(List.of());
+
+        // Assert
+        assertEquals(0, resumed);
+        verifyNoInteractions(downloadRepository, downloadEngine);
+    }
+
+    @Test
+    void whenInstallsWereCutShort_thenRestartEachWhoseFileIsOnThisNode() throws Exception {
+        // Arrange
+        Download a = new Download(new DownloadId("a"), "http://example.com/a.zip", DownloadStatus.INSTALLING, "user-1");
+        Download broken = new Download(new DownloadId("broken"), "http://example.com/broken.zip", DownloadStatus.INSTALLING, "user-1");
+        Download elsewhere = new Download(new DownloadId("elsewhere"), "http://example.com/elsewhere.zip", DownloadStatus.INSTALLING, "user-2");
+        for (String id : List.of("a", "broken")) {
+            Files.createFile(tempDir.resolve(id));
+        }
+        when(downloadEngine.completedFile(anyString())).thenAnswer(invocation -> tempDir.resolve(invocation.<String>getArgument(0)));
+        doThrow(new IOException("unreadable")).when(downloadEngine).install(broken);
+        DownloadRecoveryService recoveryService = new DownloadRecoveryService(downloadRepository, downloadEngine, mock(DownloadJournal.class), progressRegistry);
+
+        // Act
+        int restarted = recoveryService.reinstall(List.of(a, broken, elsewhere));
+
+        // Assert
+        assertEquals(1, restarted);
+        verify(downloadEngine).install(a);
+        verify(downloadEngine).install(broken);
+        verify(downloadEngine, never()).install(elsewhere); // another node downloaded it and is installing it
+    }
+}
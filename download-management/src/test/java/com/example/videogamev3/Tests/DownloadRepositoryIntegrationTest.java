@@ -1,15 +1,20 @@
 package com.example.videogamev3.Tests;
 
+import com.example.videogamev3.DownloadManagement.DataAccess.ChunkManifest;
 import com.example.videogamev3.DownloadManagement.DataAccess.Download;
 import com.example.videogamev3.DownloadManagement.DataAccess.DownloadId;
 import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
 import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import com.example.videogamev3.DownloadManagement.DataAccess.ProgressUpdate;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest; // For MongoDB
+import org.springframework.dao.DuplicateKeyException;
 
+import java.time.Instant;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.UUID;
 
@@ -100,6 +105,109 @@ class DownloadRepositoryIntegrationTest {
         assertFalse(downloadRepository.existsDownloadById_Uuid(idToDelete));
     }
     
+    @Test
+    void whenTransitionStatus_andSourceStateMatches_thenReturnPostImage() {
+        // Act
+        Download updated = downloadRepository.transitionStatus(download1.getId().getUuid(),
+                EnumSet.of(DownloadStatus.PENDING, DownloadStatus.PAUSED), DownloadStatus.DOWNLOADING);
+
+        // Assert
+        assertNotNull(updated);
+        assertEquals(DownloadStatus.DOWNLOADING, updated.getDownloadStatus());
+        assertEquals(download1.getSourceUrl(), updated.getSourceUrl());
+        assertEquals(DownloadStatus.DOWNLOADING, downloadRepository.findDownloadById_Uuid(download1.getId().getUuid()).getDownloadStatus());
+    }
+
+    @Test
+    void whenTransitionStatus_andSourceStateDoesNotMatch_thenReturnNullAndLeaveDocument() {
+        // Act
+        Download updated = downloadRepository.transitionStatus(downloadUser1_1.getId().getUuid(),
+                EnumSet.of(DownloadStatus.DOWNLOADING), DownloadStatus.PAUSED);
+
+        // Assert
+        assertNull(updated);
+        assertEquals(DownloadStatus.COMPLETED, downloadRepository.findDownloadById_Uuid(downloadUser1_1.getId().getUuid()).getDownloadStatus());
+    }
+
+    @Test
+    void whenRecordProgress_andBatchIsWrittenTwice_thenDocumentHoldsEachChunkOnce() {
+        // Arrange
+        download2.setChunkManifest(new ChunkManifest(1024));
+        downloadRepository.save(download2);
+        ProgressUpdate first = new ProgressUpdate(download2.getId().getUuid());
+        first.chunkCommitted(0, "h0", 1024);
+        first.chunkCommitted(1, "h1", 2048);
+        ProgressUpdate unknown = new ProgressUpdate(UUID.randomUUID().toString());
+        unknown.chunkCommitted(0, "x0", 1024);
+
+        // Act
+        int matched = downloadRepository.recordProgress(List.of(first, unknown));
+        downloadRepository.recordProgress(List.of(first)); // a retried batch
+        ProgressUpdate second = new ProgressUpdate(download2.getId().getUuid());
+        second.chunkCommitted(2, "h2", 3072);
+        downloadRepository.recordProgress(List.of(second));
+
+        // Assert
+        assertEquals(1, matched);
+        Download found = downloadRepository.findDownloadById_Uuid(download2.getId().getUuid());
+        assertEquals(List.of("h0", "h1", "h2"), found.getChunkManifest().getChunkHashes());
+        assertEquals(3072, found.getBytesDownloaded());
+    }
+
+    @Test
+    void whenFindBulkTargets_thenReadOnlyIdsStatusesAndProgressCounters() {
+        // Arrange
+        downloadUser1_2.setChunkManifest(new ChunkManifest(1024, List.of("h0", "h1"), null));
+        downloadUser1_2.setBytesDownloaded(2048);
+        downloadRepository.save(downloadUser1_2);
+
+        // Act
+        List<Download> targets = downloadRepository.findBulkTargets(null, userId1, DownloadStatus.PAUSED);
+
+        // Assert
+        assertEquals(1, targets.size());
+        Download target = targets.get(0);
+        assertEquals(downloadUser1_2.getId().getUuid(), target.getId().getUuid());
+        assertEquals(userId1, target.getUserId());
+        assertEquals(2048, target.getBytesDownloaded());
+        assertNull(target.getChunkManifest());
+        assertNull(target.getSourceUrl());
+        Download full = downloadRepository.findDownloadsById_UuidIn(List.of(target.getId().getUuid())).get(0);
+        assertEquals(List.of("h0", "h1"), full.getChunkManifest().getChunkHashes());
+    }
+
+    @Test
+    void whenArchivingFinishedDownloads_thenSelectOldestAndDeleteOnlyThoseStillFinishedAndOld() {
+        // Arrange
+        Instant cutoff = Instant.parse("2025-01-01T00:00:00Z");
+        downloadUser1_1.setUpdatedAt(cutoff.minusSeconds(7200)); // COMPLETED
+        downloadUser2_1.setUpdatedAt(cutoff.minusSeconds(3600)); // CANCELLED
+        downloadUser1_2.setUpdatedAt(cutoff.minusSeconds(9000)); // PAUSED, not finished
+        downloadRepository.saveAll(List.of(downloadUser1_1, downloadUser2_1, downloadUser1_2));
+        EnumSet<DownloadStatus> finished = EnumSet.of(DownloadStatus.COMPLETED, DownloadStatus.CANCELLED, DownloadStatus.FAILED);
+
+        // Act
+        List<Download> archivable = downloadRepository.findArchivable(finished, cutoff, 10);
+        downloadRepository.transitionStatus(downloadUser2_1.getId().getUuid(), EnumSet.of(DownloadStatus.CANCELLED), DownloadStatus.PENDING);
+        long deleted = downloadRepository.deleteArchived(archivable.stream().map(download -> download.getId().getUuid()).toList(), finished, cutoff);
+
+        // Assert
+        assertEquals(List.of(downloadUser1_1.getId().getUuid(), downloadUser2_1.getId().getUuid()),
+                archivable.stream().map(download -> download.getId().getUuid()).toList());
+        assertEquals(1, deleted);
+        assertFalse(downloadRepository.existsDownloadById_Uuid(downloadUser1_1.getId().getUuid()));
+        assertTrue(downloadRepository.existsDownloadById_Uuid(downloadUser2_1.getId().getUuid()));
+    }
+
+    @Test
+    void whenInsert_andUuidAlreadyExists_thenThrowDuplicateKeyException() {
+        // Arrange
+        Download duplicate = new Download(new DownloadId(download1.getId().getUuid()), "http://example.com/other.zip", DownloadStatus.PENDING, userId2);
+
+        // Act & Assert
+        assertThrows(DuplicateKeyException.class, () -> downloadRepository.insert(duplicate));
+    }
+
     @Test
     void whenGetDownloadsByUserId_andUserHasDownloads_thenReturnList() {
         // Act
@@ -0,0 +1,176 @@
+package com.example.videogamev3.Tests;
+
+import com.example.videogamev3.DownloadManagement.BusinessLogic.DownloadRetentionService;
+import com.example.videogamev3.DownloadManagement.DataAccess.ArchivedDownload;
+import com.example.videogamev3.DownloadManagement.DataAccess.ArchivedDownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.Download;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadId;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRollup;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRollupRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import com.example.videogamev3.DownloadManagement.DataAccess.RollupScope;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadEngine;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadProgressRegistry;
+import com.example.videogamev3.DownloadManagement.Presentation.DownloadRollupResponseModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DownloadRetentionServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T00:00:00Z");
+    private static final Instant CUTOFF = NOW.minus(Duration.ofDays(30));
+
+    @Mock
+    private DownloadRepository downloadRepository;
+
+    @Mock
+    private ArchivedDownloadRepository archivedDownloadRepository;
+
+    @Mock
+    private DownloadRollupRepository rollupRepository;
+
+    @Mock
+    private DownloadProgressRegistry progressRegistry;
+
+    @Mock
+    private DownloadEngine downloadEngine;
+
+    private DownloadRetentionService retentionService;
+
+    @BeforeEach
+    void setUp() {
+        retentionService = new DownloadRetentionService(downloadRepository, archivedDownloadRepository, rollupRepository,
+                progressRegistry, downloadEngine, 30, 60, 3, 5, 500);
+    }
+
+    private static Download finished(String id, String userId, String sourceUrl, DownloadStatus status, long bytes) {
+        Download download = new Download(new DownloadId(id), sourceUrl, status, userId);
+        download.setBytesDownloaded(bytes);
+        download.setUpdatedAt(CUTOFF.minus(Duration.ofDays(1)));
+        return download;
+    }
+
+    @Test
+    void whenFinishedDownloadsAreOld_thenArchiveDeleteAndRollThemUp() {
+        // Arrange
+        List<Download> batch = List.of(
+                finished("a", "user-1", "http://games.example.com/one.zip", DownloadStatus.COMPLETED, 100),
+                finished("b", "user-1", "http://games.example.com/two.zip", DownloadStatus.CANCELLED, 10),
+                finished("c", "user-2", "http://games.example.com/one.zip", DownloadStatus.INSTALLED, 100));
+        when(downloadRepository.findArchivable(anyCollection(), eq(CUTOFF), eq(3))).thenReturn(batch, List.of());
+        when(downloadRepository.deleteArchived(List.of("a", "b", "c"), Set.of(DownloadStatus.COMPLETED, DownloadStatus.INSTALLED,
+                DownloadStatus.CANCELLED, DownloadStatus.FAILED), CUTOFF)).thenReturn(3L);
+
+        // Act
+        int archived = retentionService.sweep(NOW);
+
+        // Assert
+        assertEquals(3, archived);
+        ArgumentCaptor<Collection<ArchivedDownload>> records = ArgumentCaptor.forClass(Collection.class);
+        verify(archivedDownloadRepository).insertMissing(records.capture());
+        assertEquals(List.of("a", "b", "c"), records.getValue().stream().map(ArchivedDownload::getId).toList());
+        assertTrue(records.getValue().stream().allMatch(record -> NOW.equals(record.getArchivedAt())));
+
+        ArgumentCaptor<Collection<DownloadRollup>> deltas = ArgumentCaptor.forClass(Collection.class);
+        verify(archivedDownloadRepository).incrementRollups(deltas.capture());
+        Map<String, DownloadRollup> byId = deltas.getValue().stream().collect(Collectors.toMap(DownloadRollup::getId, Function.identity()));
+        assertEquals(4, byId.size());
+        DownloadRollup user1 = byId.get(DownloadRollup.idOf(RollupScope.USER, "user-1"));
+        assertEquals(2, user1.getDownloads());
+        assertEquals(1, user1.getCompleted());
+        assertEquals(1, user1.getCancelled());
+        assertEquals(110, user1.getBytesDownloaded());
+        DownloadRollup gameOne = byId.get(DownloadRollup.idOf(RollupScope.SOURCE, "http://games.example.com/one.zip"));
+        assertEquals(2, gameOne.getDownloads());
+        assertEquals(1, gameOne.getInstalled());
+        verify(progressRegistry).remove("a");
+        verify(downloadEngine).discardPartFiles(List.of("b")); // the cancelled one; completed files stay
+        verify(downloadRepository, never()).findBulkTargets(anyCollection(), any(), any());
+    }
+
+    @Test
+    void whenDownloadIsResumedDuringSweep_thenKeepItHotAndDropItsArchiveCopy() {
+        // Arrange
+        Download retried = finished("retried", "user-1", "http://games.example.com/one.zip", DownloadStatus.FAILED, 5);
+        Download old = finished("old", "user-1", "http://games.example.com/one.zip", DownloadStatus.COMPLETED, 100);
+        when(downloadRepository.findArchivable(anyCollection(), eq(CUTOFF), anyInt())).thenReturn(List.of(retried, old));
+        when(downloadRepository.deleteArchived(anyCollection(), anyCollection(), eq(CUTOFF))).thenReturn(1L);
+        when(downloadRepository.findBulkTargets(List.of("retried", "old"), null, null)).thenReturn(List.of(retried));
+
+        // Act
+        int archived = retentionService.sweep(NOW);
+
+        // Assert
+        assertEquals(1, archived);
+        verify(archivedDownloadRepository).deleteAllById(Set.of("retried"));
+        ArgumentCaptor<Collection<DownloadRollup>> deltas = ArgumentCaptor.forClass(Collection.class);
+        verify(archivedDownloadRepository).incrementRollups(deltas.capture());
+        assertTrue(deltas.getValue().stream().allMatch(rollup -> rollup.getDownloads() == 1 && rollup.getFailed() == 0));
+        verify(progressRegistry, never()).remove("retried");
+        verify(downloadEngine, never()).discardPartFiles(any()); // the retried one still needs its part file
+    }
+
+    @Test
+    void whenBacklogExceedsOneSweep_thenStopAfterMaxBatches() {
+        // Arrange
+        List<Download> fullBatch = List.of(
+                finished("a", "user-1", "http://x", DownloadStatus.COMPLETED, 1),
+                finished("b", "user-1", "http://x", DownloadStatus.COMPLETED, 1),
+                finished("c", "user-1", "http://x", DownloadStatus.COMPLETED, 1));
+        when(downloadRepository.findArchivable(anyCollection(), eq(CUTOFF), eq(3))).thenReturn(fullBatch);
+        when(downloadRepository.deleteArchived(anyCollection(), anyCollection(), eq(CUTOFF))).thenReturn(3L);
+
+        // Act
+        int archived = retentionService.sweep(NOW);
+
+        // Assert
+        assertEquals(15, archived);
+        verify(downloadRepository, times(5)).findArchivable(anyCollection(), eq(CUTOFF), eq(3));
+    }
+
+    @Test
+    void whenRetentionIsDisabled_thenSweepTouchesNothing() {
+        // Arrange
+        DownloadRetentionService disabled = new DownloadRetentionService(downloadRepository, archivedDownloadRepository,
+                rollupRepository, progressRegistry, downloadEngine, 0, 60, 3, 5, 500);
+
+        // Act & Assert
+        assertEquals(0, disabled.sweep(NOW));
+        verifyNoInteractions(downloadRepository, archivedDownloadRepository);
+    }
+
+    @Test
+    void whenNothingOfAUserWasArchived_thenRollupIsAllZero() {
+        // Arrange
+        when(rollupRepository.findById("USER:user-9")).thenReturn(Optional.empty());
+
+        // Act
+        DownloadRollupResponseModel rollup = retentionService.getRollup(RollupScope.USER, "user-9");
+
+        // Assert
+        assertEquals(new DownloadRollupResponseModel("USER", "user-9", 0, 0, 0, 0, 0, 0, null), rollup);
+    }
+}
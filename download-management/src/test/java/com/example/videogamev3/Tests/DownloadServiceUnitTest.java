@@ -1,30 +1,59 @@
 package com.example.videogamev3.Tests;
 
 import com.example.videogamev3.DownloadManagement.BusinessLogic.DownloadService;
+import com.example.videogamev3.DownloadManagement.DataAccess.ArchivedDownload;
+import com.example.videogamev3.DownloadManagement.DataAccess.ArchivedDownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.ChunkManifest;
 import com.example.videogamev3.DownloadManagement.DataAccess.Download;
 import com.example.videogamev3.DownloadManagement.DataAccess.DownloadId;
 import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
 import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import com.example.videogamev3.DownloadManagement.DataAccess.InstallStats;
+import com.example.videogamev3.DownloadManagement.DataAccess.PatchStats;
 import com.example.videogamev3.DownloadManagement.DataMapper.DownloadRequestMapper;
 import com.example.videogamev3.DownloadManagement.DataMapper.DownloadResponseMapper;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadEngine;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadProgressRegistry;
+import com.example.videogamev3.DownloadManagement.Engine.MirrorRegistry;
+import com.example.videogamev3.DownloadManagement.Engine.MirrorSnapshot;
+import com.example.videogamev3.DownloadManagement.Engine.ProgressWriteStats;
+import com.example.videogamev3.DownloadManagement.Engine.VerificationReport;
+import com.example.videogamev3.DownloadManagement.Engine.VolumeSpace;
+import com.example.videogamev3.DownloadManagement.Presentation.DiskSpaceResponseModel;
+import com.example.videogamev3.DownloadManagement.Presentation.DownloadInstallResponseModel;
+import com.example.videogamev3.DownloadManagement.Presentation.DownloadPatchResponseModel;
 import com.example.videogamev3.DownloadManagement.Presentation.DownloadRequestModel;
 import com.example.videogamev3.DownloadManagement.Presentation.DownloadResponseModel;
+import com.example.videogamev3.DownloadManagement.Presentation.MirrorStatsResponseModel;
+import com.example.videogamev3.DownloadManagement.Presentation.DownloadVerificationResponseModel;
+import com.example.videogamev3.DownloadManagement.Presentation.PatchDownloadRequestModel;
+import com.example.videogamev3.DownloadManagement.Presentation.ProgressWritesResponseModel;
 import com.example.videogamev3.DownloadManagement.utils.exceptions.DownloadNotFoundException;
 import com.example.videogamev3.DownloadManagement.utils.exceptions.DuplicateDownloadIDException;
+import com.example.videogamev3.DownloadManagement.utils.exceptions.InvalidDownloadDataException;
+import com.example.videogamev3.DownloadManagement.utils.exceptions.InvalidDownloadStateException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class) // Replaces @SpringBootTest for pure unit tests with Mockito
@@ -39,6 +68,18 @@ class DownloadServiceUnitTest {
     @Mock
     private DownloadRequestMapper downloadRequestMapper;
 
+    @Mock
+    private DownloadEngine downloadEngine;
+
+    @Mock
+    private DownloadProgressRegistry progressRegistry;
+
+    @Mock
+    private MirrorRegistry mirrorRegistry;
+
+    @Mock
+    private ArchivedDownloadRepository archivedDownloadRepository;
+
     @InjectMocks // Automatically injects mocked dependencies into DownloadService
     private DownloadService downloadService;
 
@@ -62,12 +103,10 @@ class DownloadServiceUnitTest {
 
     // --- createDownload ---
     @Test
-    void whenCreateDownload_thenSaveAndReturnResponse() {
+    void whenCreateDownload_thenInsertAndReturnResponse() {
         // Arrange
         when(downloadRequestMapper.downloadRequestModelToDownload(any(DownloadRequestModel.class))).thenReturn(downloadEntity);
-        // Ensure existsDownloadById_Uuid returns false for the new ID to avoid DuplicateDownloadIDException
-        when(downloadRepository.existsDownloadById_Uuid(anyString())).thenReturn(false);
-        when(downloadRepository.save(any(Download.class))).thenReturn(downloadEntity); // Mock save behavior
+        when(downloadRepository.insert(any(Download.class))).thenReturn(downloadEntity); // Single insert, no existence pre-check
         when(downloadResponseMapper.downloadEntityToDownloadResponseModel(any(Download.class))).thenReturn(responseModel);
 
         // Act
@@ -80,8 +119,9 @@ class DownloadServiceUnitTest {
         assertEquals(DownloadStatus.PENDING.toString(), created.getStatus()); // Initial status should be PENDING
 
         verify(downloadRequestMapper, times(1)).downloadRequestModelToDownload(requestModel);
-        verify(downloadRepository, times(1)).existsDownloadById_Uuid(anyString()); // Should check before saving
-        verify(downloadRepository, times(1)).save(any(Download.class)); // Check that save was called
+        verify(downloadRepository, never()).existsDownloadById_Uuid(anyString()); // Uniqueness is left to the index
+        verify(downloadRepository, times(1)).insert(any(Download.class));
+        verify(downloadRepository, never()).save(any(Download.class));
         verify(downloadResponseMapper, times(1)).downloadEntityToDownloadResponseModel(downloadEntity);
     }
 
@@ -89,15 +129,14 @@ class DownloadServiceUnitTest {
     void whenCreateDownload_andIdCollision_thenThrowDuplicateDownloadIDException() {
         // Arrange
         when(downloadRequestMapper.downloadRequestModelToDownload(any(DownloadRequestModel.class))).thenReturn(downloadEntity);
-        when(downloadRepository.existsDownloadById_Uuid(anyString())).thenReturn(true); // Simulate ID collision
+        when(downloadRepository.insert(any(Download.class))).thenThrow(new DuplicateKeyException("E11000 duplicate key")); // Simulate ID collision
 
         // Act & Assert
         assertThrows(DuplicateDownloadIDException.class, () -> {
             downloadService.createDownload(requestModel);
         });
 
-        verify(downloadRepository, times(1)).existsDownloadById_Uuid(anyString());
-        verify(downloadRepository, never()).save(any(Download.class)); // Save should not be called
+        verify(progressRegistry, never()).track(any(Download.class));
     }
 
 
@@ -135,62 +174,54 @@ class DownloadServiceUnitTest {
     @Test
     void whenStartDownload_andIsPending_thenSetStatusToDownloading() {
         // Arrange
-        downloadEntity.setDownloadStatus(DownloadStatus.PENDING);
-        when(downloadRepository.findDownloadById_Uuid(testDownloadId)).thenReturn(downloadEntity);
-        when(downloadRepository.save(any(Download.class))).thenReturn(downloadEntity); // mock save
-        when(downloadResponseMapper.downloadEntityToDownloadResponseModel(downloadEntity))
-            .thenAnswer(invocation -> { // Simulate status change in response
+        Download transitioned = new Download(new DownloadId(testDownloadId), "http://example.com/file.zip", DownloadStatus.DOWNLOADING, testUserId);
+        when(downloadRepository.transitionStatus(testDownloadId, EnumSet.of(DownloadStatus.PENDING, DownloadStatus.PAUSED), DownloadStatus.DOWNLOADING)).thenReturn(transitioned);
+        when(downloadResponseMapper.downloadEntityToDownloadResponseModel(transitioned))
+            .thenAnswer(invocation -> { // Response is built from the post-image
                 Download saved = invocation.getArgument(0);
                 return new DownloadResponseModel(saved.getId().getUuid(), saved.getSourceUrl(), saved.getDownloadStatus().toString(), saved.getUserId());
             });
 
-
         // Act
         DownloadResponseModel updated = downloadService.startDownload(testDownloadId);
 
         // Assert
         assertNotNull(updated);
         assertEquals(DownloadStatus.DOWNLOADING.toString(), updated.getStatus());
-        verify(downloadRepository, times(1)).save(downloadEntity);
-        assertEquals(DownloadStatus.DOWNLOADING, downloadEntity.getDownloadStatus()); // Check entity state
+        verify(downloadRepository, never()).findDownloadById_Uuid(anyString()); // No read before the write
+        verify(downloadRepository, never()).save(any(Download.class)); // No whole-document overwrite
+        verify(progressRegistry, times(1)).updateStatus(transitioned);
+        verify(downloadEngine, times(1)).start(transitioned); // Transfer handed to the engine
     }
 
     @Test
-    void whenStartDownload_andIsPaused_thenSetStatusToDownloading() {
+    void whenStartDownload_andIsAlreadyDownloading_thenThrowInvalidDownloadStateException() {
         // Arrange
-        downloadEntity.setDownloadStatus(DownloadStatus.PAUSED);
+        downloadEntity.setDownloadStatus(DownloadStatus.DOWNLOADING);
+        when(downloadRepository.transitionStatus(eq(testDownloadId), anyCollection(), eq(DownloadStatus.DOWNLOADING))).thenReturn(null);
         when(downloadRepository.findDownloadById_Uuid(testDownloadId)).thenReturn(downloadEntity);
-        when(downloadRepository.save(any(Download.class))).thenReturn(downloadEntity);
-        when(downloadResponseMapper.downloadEntityToDownloadResponseModel(downloadEntity))
-            .thenAnswer(invocation -> {
-                Download saved = invocation.getArgument(0);
-                return new DownloadResponseModel(saved.getId().getUuid(), saved.getSourceUrl(), saved.getDownloadStatus().toString(), saved.getUserId());
-            });
 
+        // Act & Assert
+        InvalidDownloadStateException ex = assertThrows(InvalidDownloadStateException.class, () -> {
+            downloadService.startDownload(testDownloadId);
+        });
 
-        // Act
-        DownloadResponseModel updated = downloadService.startDownload(testDownloadId);
-
-        // Assert
-        assertEquals(DownloadStatus.DOWNLOADING.toString(), updated.getStatus());
-        verify(downloadRepository, times(1)).save(downloadEntity);
+        assertTrue(ex.getMessage().contains(DownloadStatus.DOWNLOADING.toString()));
+        verify(downloadRepository, never()).save(any(Download.class));
+        verify(downloadEngine, never()).start(any(Download.class));
     }
-    
+
     @Test
-    void whenStartDownload_andIsAlreadyDownloading_thenDoNotChangeStatus() {
+    void whenStartDownload_andNotExists_thenThrowDownloadNotFoundException() {
         // Arrange
-        downloadEntity.setDownloadStatus(DownloadStatus.DOWNLOADING);
-        when(downloadRepository.findDownloadById_Uuid(testDownloadId)).thenReturn(downloadEntity);
-        // NO save mock needed, as it shouldn't be called
-        when(downloadResponseMapper.downloadEntityToDownloadResponseModel(downloadEntity))
-            .thenReturn(new DownloadResponseModel(downloadEntity.getId().getUuid(), downloadEntity.getSourceUrl(), downloadEntity.getDownloadStatus().toString(), downloadEntity.getUserId()));
-
-        // Act
-        DownloadResponseModel updated = downloadService.startDownload(testDownloadId);
+        when(downloadRepository.transitionStatus(eq(testDownloadId), anyCollection(), eq(DownloadStatus.DOWNLOADING))).thenReturn(null);
+        when(downloadRepository.findDownloadById_Uuid(testDownloadId)).thenReturn(null);
 
-        // Assert
-        assertEquals(DownloadStatus.DOWNLOADING.toString(), updated.getStatus()); // Status remains DOWNLOADING
-        verify(downloadRepository, never()).save(any(Download.class)); // Save should not be called
+        // Act & Assert
+        assertThrows(DownloadNotFoundException.class, () -> {
+            downloadService.startDownload(testDownloadId);
+        });
+        verify(downloadEngine, never()).start(any(Download.class));
     }
 
 
@@ -198,11 +229,10 @@ class DownloadServiceUnitTest {
     @Test
     void whenPauseDownload_andIsDownloading_thenSetStatusToPaused() {
         // Arrange
-        downloadEntity.setDownloadStatus(DownloadStatus.DOWNLOADING);
-        when(downloadRepository.findDownloadById_Uuid(testDownloadId)).thenReturn(downloadEntity);
-        when(downloadRepository.save(any(Download.class))).thenReturn(downloadEntity);
-        when(downloadResponseMapper.downloadEntityToDownloadResponseModel(downloadEntity))
-            .thenAnswer(invocation -> {
+        Download transitioned = new Download(new DownloadId(testDownloadId), "http://example.com/file.zip", DownloadStatus.PAUSED, testUserId);
+        when(downloadRepository.transitionStatus(testDownloadId, EnumSet.of(DownloadStatus.DOWNLOADING), DownloadStatus.PAUSED)).thenReturn(transitioned);
+        when(downloadResponseMapper.downloadEntityToDownloadResponseModel(transitioned))
+            .thenAnswer(invocation -> { // Response is built from the post-image
                 Download saved = invocation.getArgument(0);
                 return new DownloadResponseModel(saved.getId().getUuid(), saved.getSourceUrl(), saved.getDownloadStatus().toString(), saved.getUserId());
             });
@@ -211,24 +241,29 @@ class DownloadServiceUnitTest {
         DownloadResponseModel updated = downloadService.pauseDownload(testDownloadId);
 
         // Assert
+        assertNotNull(updated);
         assertEquals(DownloadStatus.PAUSED.toString(), updated.getStatus());
-        verify(downloadRepository, times(1)).save(downloadEntity);
+        verify(downloadRepository, never()).findDownloadById_Uuid(anyString()); // No read before the write
+        verify(downloadRepository, never()).save(any(Download.class)); // No whole-document overwrite
+        verify(progressRegistry, times(1)).updateStatus(transitioned);
+        verify(downloadEngine, times(1)).stop(testDownloadId);
     }
-    
+
     @Test
-    void whenPauseDownload_andIsNotDownloading_thenDoNotChangeStatus() {
+    void whenPauseDownload_andIsNotDownloading_thenThrowInvalidDownloadStateException() {
         // Arrange
-        downloadEntity.setDownloadStatus(DownloadStatus.PENDING); // e.g., PENDING
+        downloadEntity.setDownloadStatus(DownloadStatus.PENDING);
+        when(downloadRepository.transitionStatus(eq(testDownloadId), anyCollection(), eq(DownloadStatus.PAUSED))).thenReturn(null);
         when(downloadRepository.findDownloadById_Uuid(testDownloadId)).thenReturn(downloadEntity);
-        when(downloadResponseMapper.downloadEntityToDownloadResponseModel(downloadEntity))
-             .thenReturn(new DownloadResponseModel(downloadEntity.getId().getUuid(), downloadEntity.getSourceUrl(), downloadEntity.getDownloadStatus().toString(), downloadEntity.getUserId()));
 
-        // Act
-        DownloadResponseModel updated = downloadService.pauseDownload(testDownloadId);
+        // Act & Assert
+        InvalidDownloadStateException ex = assertThrows(InvalidDownloadStateException.class, () -> {
+            downloadService.pauseDownload(testDownloadId);
+        });
 
-        // Assert
-        assertEquals(DownloadStatus.PENDING.toString(), updated.getStatus());
+        assertTrue(ex.getMessage().contains(DownloadStatus.PENDING.toString()));
         verify(downloadRepository, never()).save(any(Download.class));
+        verify(downloadEngine, never()).stop(anyString());
     }
 
 
@@ -236,11 +271,10 @@ class DownloadServiceUnitTest {
     @Test
     void whenResumeDownload_andIsPaused_thenSetStatusToDownloading() {
         // Arrange
-        downloadEntity.setDownloadStatus(DownloadStatus.PAUSED);
-        when(downloadRepository.findDownloadById_Uuid(testDownloadId)).thenReturn(downloadEntity);
-        when(downloadRepository.save(any(Download.class))).thenReturn(downloadEntity);
-        when(downloadResponseMapper.downloadEntityToDownloadResponseModel(downloadEntity))
-            .thenAnswer(invocation -> {
+        Download transitioned = new Download(new DownloadId(testDownloadId), "http://example.com/file.zip", DownloadStatus.DOWNLOADING, testUserId);
+        when(downloadRepository.transitionStatus(testDownloadId, EnumSet.of(DownloadStatus.PAUSED), DownloadStatus.DOWNLOADING)).thenReturn(transitioned);
+        when(downloadResponseMapper.downloadEntityToDownloadResponseModel(transitioned))
+            .thenAnswer(invocation -> { // Response is built from the post-image
                 Download saved = invocation.getArgument(0);
                 return new DownloadResponseModel(saved.getId().getUuid(), saved.getSourceUrl(), saved.getDownloadStatus().toString(), saved.getUserId());
             });
@@ -249,35 +283,40 @@ class DownloadServiceUnitTest {
         DownloadResponseModel updated = downloadService.resumeDownload(testDownloadId);
 
         // Assert
+        assertNotNull(updated);
         assertEquals(DownloadStatus.DOWNLOADING.toString(), updated.getStatus());
-        verify(downloadRepository, times(1)).save(downloadEntity);
+        verify(downloadRepository, never()).findDownloadById_Uuid(anyString()); // No read before the write
+        verify(downloadRepository, never()).save(any(Download.class)); // No whole-document overwrite
+        verify(progressRegistry, times(1)).updateStatus(transitioned);
+        verify(downloadEngine, times(1)).start(transitioned);
     }
-    
+
     @Test
-    void whenResumeDownload_andIsNotPaused_thenDoNotChangeStatus() {
+    void whenResumeDownload_andIsNotPaused_thenThrowInvalidDownloadStateException() {
         // Arrange
-        downloadEntity.setDownloadStatus(DownloadStatus.DOWNLOADING); // e.g., already DOWNLOADING
+        downloadEntity.setDownloadStatus(DownloadStatus.DOWNLOADING);
+        when(downloadRepository.transitionStatus(eq(testDownloadId), anyCollection(), eq(DownloadStatus.DOWNLOADING))).thenReturn(null);
         when(downloadRepository.findDownloadById_Uuid(testDownloadId)).thenReturn(downloadEntity);
-        when(downloadResponseMapper.downloadEntityToDownloadResponseModel(downloadEntity))
-             .thenReturn(new DownloadResponseModel(downloadEntity.getId().getUuid(), downloadEntity.getSourceUrl(), downloadEntity.getDownloadStatus().toString(), downloadEntity.getUserId()));
 
-        // Act
-        DownloadResponseModel updated = downloadService.resumeDownload(testDownloadId);
+        // Act & Assert
+        InvalidDownloadStateException ex = assertThrows(InvalidDownloadStateException.class, () -> {
+            downloadService.resumeDownload(testDownloadId);
+        });
 
-        // Assert
-        assertEquals(DownloadStatus.DOWNLOADING.toString(), updated.getStatus());
+        assertTrue(ex.getMessage().contains(DownloadStatus.DOWNLOADING.toString()));
         verify(downloadRepository, never()).save(any(Download.class));
+        verify(downloadEngine, never()).start(any(Download.class));
     }
 
+
     // --- cancelDownload ---
     @Test
     void whenCancelDownload_andIsDownloading_thenSetStatusToCancelled() {
         // Arrange
-        downloadEntity.setDownloadStatus(DownloadStatus.DOWNLOADING);
-        when(downloadRepository.findDownloadById_Uuid(testDownloadId)).thenReturn(downloadEntity);
-        when(downloadRepository.save(any(Download.class))).thenReturn(downloadEntity);
-        when(downloadResponseMapper.downloadEntityToDownloadResponseModel(downloadEntity))
-            .thenAnswer(invocation -> {
+        Download transitioned = new Download(new DownloadId(testDownloadId), "http://example.com/file.zip", DownloadStatus.CANCELLED, testUserId);
+        when(downloadRepository.transitionStatus(testDownloadId, EnumSet.of(DownloadStatus.PENDING, DownloadStatus.DOWNLOADING, DownloadStatus.PAUSED, DownloadStatus.FAILED, DownloadStatus.INSTALLING), DownloadStatus.CANCELLED)).thenReturn(transitioned);
+        when(downloadResponseMapper.downloadEntityToDownloadResponseModel(transitioned))
+            .thenAnswer(invocation -> { // Response is built from the post-image
                 Download saved = invocation.getArgument(0);
                 return new DownloadResponseModel(saved.getId().getUuid(), saved.getSourceUrl(), saved.getDownloadStatus().toString(), saved.getUserId());
             });
@@ -286,26 +325,32 @@ class DownloadServiceUnitTest {
         DownloadResponseModel updated = downloadService.cancelDownload(testDownloadId);
 
         // Assert
+        assertNotNull(updated);
         assertEquals(DownloadStatus.CANCELLED.toString(), updated.getStatus());
-        verify(downloadRepository, times(1)).save(downloadEntity);
+        verify(downloadRepository, never()).findDownloadById_Uuid(anyString()); // No read before the write
+        verify(downloadRepository, never()).save(any(Download.class)); // No whole-document overwrite
+        verify(progressRegistry, times(1)).updateStatus(transitioned);
+        verify(downloadEngine, times(1)).discard(testDownloadId);
     }
-    
+
     @Test
-    void whenCancelDownload_andIsAlreadyCompleted_thenDoNotChangeStatus() {
+    void whenCancelDownload_andIsAlreadyCompleted_thenThrowInvalidDownloadStateException() {
         // Arrange
         downloadEntity.setDownloadStatus(DownloadStatus.COMPLETED);
+        when(downloadRepository.transitionStatus(eq(testDownloadId), anyCollection(), eq(DownloadStatus.CANCELLED))).thenReturn(null);
         when(downloadRepository.findDownloadById_Uuid(testDownloadId)).thenReturn(downloadEntity);
-        when(downloadResponseMapper.downloadEntityToDownloadResponseModel(downloadEntity))
-             .thenReturn(new DownloadResponseModel(downloadEntity.getId().getUuid(), downloadEntity.getSourceUrl(), downloadEntity.getDownloadStatus().toString(), downloadEntity.getUserId()));
 
-        // Act
-        DownloadResponseModel updated = downloadService.cancelDownload(testDownloadId);
+        // Act & Assert
+        InvalidDownloadStateException ex = assertThrows(InvalidDownloadStateException.class, () -> {
+            downloadService.cancelDownload(testDownloadId);
+        });
 
-        // Assert
-        assertEquals(DownloadStatus.COMPLETED.toString(), updated.getStatus());
+        assertTrue(ex.getMessage().contains(DownloadStatus.COMPLETED.toString()));
         verify(downloadRepository, never()).save(any(Download.class));
+        verify(downloadEngine, never()).discard(anyString());
     }
 
+
     // --- getAllDownloads ---
     @Test
     void whenGetAllDownloads_andDownloadsExist_thenReturnList() {
@@ -355,6 +400,7 @@ class DownloadServiceUnitTest {
         // Assert
         verify(downloadRepository, times(1)).findDownloadById_Uuid(testDownloadId);
         verify(downloadRepository, times(1)).delete(downloadEntity);
+        verify(downloadEngine, times(1)).discard(testDownloadId);
     }
 
     @Test
@@ -370,6 +416,106 @@ class DownloadServiceUnitTest {
         verify(downloadRepository, never()).delete(any());
     }
 
+    // --- verifyDownload ---
+    @Test
+    void whenVerifyDownload_andChunksWritten_thenReturnEngineReport() throws Exception {
+        // Arrange
+        downloadEntity.setDownloadStatus(DownloadStatus.COMPLETED);
+        downloadEntity.setChunkManifest(new ChunkManifest(4, new ArrayList<>(List.of("a", "b")), "root"));
+        when(downloadRepository.findDownloadById_Uuid(testDownloadId)).thenReturn(downloadEntity);
+        when(downloadEngine.verify(downloadEntity))
+                .thenReturn(new VerificationReport(2, 8, 1_000_000, List.of(1), List.of(1)));
+
+        // Act
+        DownloadVerificationResponseModel result = downloadService.verifyDownload(testDownloadId);
+
+        // Assert
+        assertEquals(testDownloadId, result.getId());
+        assertEquals(2, result.getChunksVerified());
+        assertEquals(List.of(1), result.getCorruptChunks());
+        assertEquals(List.of(1), result.getRepairedChunks());
+        assertTrue(result.isIntact());
+    }
+
+    @Test
+    void whenVerifyDownload_andNoManifest_thenThrowInvalidDownloadDataException() throws Exception {
+        // Arrange
+        when(downloadRepository.findDownloadById_Uuid(testDownloadId)).thenReturn(downloadEntity);
+
+        // Act & Assert
+        assertThrows(InvalidDownloadDataException.class, () -> downloadService.verifyDownload(testDownloadId));
+        verify(downloadEngine, never()).verify(any(Download.class));
+    }
+
+    // --- createPatchDownload ---
+    @Test
+    void whenCreatePatchDownload_fromCompletedBase_thenInsertPendingDownloadLinkedToBase() {
+        // Arrange
+        downloadEntity.setDownloadStatus(DownloadStatus.COMPLETED);
+        when(downloadRepository.findDownloadById_Uuid(testDownloadId)).thenReturn(downloadEntity);
+        when(downloadRepository.insert(any(Download.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(downloadResponseMapper.downloadEntityToDownloadResponseModel(any(Download.class))).thenReturn(responseModel);
+
+        // Act
+        downloadService.createPatchDownload(testDownloadId,
+                new PatchDownloadRequestModel("http://example.com/file-v2.zip", "http://example.com/file-v2.sig"));
+
+        // Assert
+        verify(downloadRepository).insert(argThat((Download download) ->
+                download.getDownloadStatus() == DownloadStatus.PENDING
+                        && testDownloadId.equals(download.getBaseDownloadId())
+                        && "http://example.com/file-v2.sig".equals(download.getSignatureUrl())
+                        && testUserId.equals(download.getUserId())
+                        && !testDownloadId.equals(download.getId().getUuid())));
+    }
+
+    @Test
+    void whenCreatePatchDownload_andBaseWasArchived_thenPatchFromArchivedRecord() {
+        // Arrange
+        Instant longAgo = Instant.parse("2024-01-01T00:00:00Z");
+        when(downloadRepository.findDownloadById_Uuid(testDownloadId)).thenReturn(null);
+        when(archivedDownloadRepository.findById(testDownloadId)).thenReturn(Optional.of(new ArchivedDownload(testDownloadId, testUserId,
+                "http://example.com/file.zip", DownloadStatus.INSTALLED, 1000, 1000L, "ab", longAgo, longAgo, longAgo)));
+        when(downloadRepository.insert(any(Download.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(downloadResponseMapper.downloadEntityToDownloadResponseModel(any(Download.class))).thenReturn(responseModel);
+
+        // Act
+        downloadService.createPatchDownload(testDownloadId,
+                new PatchDownloadRequestModel("http://example.com/file-v2.zip", "http://example.com/file-v2.sig"));
+
+        // Assert
+        verify(downloadRepository).insert(argThat((Download download) ->
+                testDownloadId.equals(download.getBaseDownloadId()) && testUserId.equals(download.getUserId())));
+    }
+
+    @Test
+    void whenCreatePatchDownload_andBaseNotCompleted_thenThrowInvalidDownloadStateException() {
+        // Arrange
+        downloadEntity.setDownloadStatus(DownloadStatus.PAUSED);
+        when(downloadRepository.findDownloadById_Uuid(testDownloadId)).thenReturn(downloadEntity);
+
+        // Act & Assert
+        assertThrows(InvalidDownloadStateException.class, () -> downloadService.createPatchDownload(testDownloadId,
+                new PatchDownloadRequestModel("http://example.com/file-v2.zip", "http://example.com/file-v2.sig")));
+        verify(downloadRepository, never()).insert(any(Download.class));
+    }
+
+    @Test
+    void whenGetPatchReport_afterPatching_thenReturnBytesSaved() {
+        // Arrange
+        downloadEntity.setBaseDownloadId("base");
+        downloadEntity.setPatchStats(new PatchStats(true, 1000, 900, 100, 900, 12.5, null));
+        when(downloadRepository.findDownloadById_Uuid(testDownloadId)).thenReturn(downloadEntity);
+
+        // Act
+        DownloadPatchResponseModel report = downloadService.getPatchReport(testDownloadId);
+
+        // Assert
+        assertTrue(report.isApplied());
+        assertEquals("base", report.getBaseDownloadId());
+        assertEquals(900, report.getBytesSaved());
+    }
+
     // --- getAllDownloadsByUserId ---
     @Test
     void whenGetAllDownloadsByUserId_andDownloadsExist_thenReturnList() {
@@ -391,15 +537,15 @@ class DownloadServiceUnitTest {
 
     // --- updateDownload ---
     @Test
-    void whenUpdateDownload_andExists_thenUpdateAndSave() {
+    void whenUpdateDownload_andExists_thenSetOnlyTheSourcesInPlace() {
         // Arrange
         DownloadRequestModel updateRequest = new DownloadRequestModel("http://newurl.com/file.dat", testUserId);
-        Download updatedEntity = new Download(new DownloadId(testDownloadId), "http://newurl.com/file.dat", downloadEntity.getDownloadStatus(), testUserId);
+        updateRequest.setMirrorUrls(List.of("http://mirror.com/file.dat"));
         DownloadResponseModel updatedResponse = new DownloadResponseModel(testDownloadId, "http://newurl.com/file.dat", downloadEntity.getDownloadStatus().toString(), testUserId);
 
         when(downloadRepository.findDownloadById_Uuid(testDownloadId)).thenReturn(downloadEntity);
-        when(downloadRepository.save(any(Download.class))).thenReturn(updatedEntity); // Simulate save returning updated entity
-        when(downloadResponseMapper.downloadEntityToDownloadResponseModel(updatedEntity)).thenReturn(updatedResponse);
+        when(downloadRepository.updateSources(testDownloadId, "http://newurl.com/file.dat", List.of("http://mirror.com/file.dat"))).thenReturn(true);
+        when(downloadResponseMapper.downloadEntityToDownloadResponseModel(downloadEntity)).thenReturn(updatedResponse);
 
         // Act
         DownloadResponseModel result = downloadService.updateDownload(testDownloadId, updateRequest);
@@ -408,12 +554,21 @@ class DownloadServiceUnitTest {
         assertNotNull(result);
         assertEquals("http://newurl.com/file.dat", result.getSourceUrl());
         assertEquals(downloadEntity.getDownloadStatus().toString(), result.getStatus()); // Status shouldn't change with this update
-        verify(downloadRepository, times(1)).findDownloadById_Uuid(testDownloadId);
-        verify(downloadRepository, times(1)).save(argThat(savedDownload ->
-                savedDownload.getId().getUuid().equals(testDownloadId) &&
-                savedDownload.getSourceUrl().equals("http://newurl.com/file.dat")
-        ));
-        verify(downloadResponseMapper, times(1)).downloadEntityToDownloadResponseModel(updatedEntity);
+        assertEquals("http://newurl.com/file.dat", downloadEntity.getSourceUrl());
+        assertEquals(List.of("http://mirror.com/file.dat"), downloadEntity.getMirrorUrls());
+        verify(downloadRepository, never()).save(any());
+    }
+
+    @Test
+    void whenUpdateDownload_andDeletedMeanwhile_thenThrowDownloadNotFoundException() {
+        // Arrange
+        when(downloadRepository.findDownloadById_Uuid(testDownloadId)).thenReturn(downloadEntity);
+        when(downloadRepository.updateSources(testDownloadId, "http://newurl.com/file.dat", null)).thenReturn(false);
+        DownloadRequestModel updateRequest = new DownloadRequestModel("http://newurl.com/file.dat", testUserId);
+
+        // Act & Assert
+        assertThrows(DownloadNotFoundException.class, () -> downloadService.updateDownload(testDownloadId, updateRequest));
+        verifyNoInteractions(downloadResponseMapper);
     }
 
     @Test
@@ -427,6 +582,80 @@ class DownloadServiceUnitTest {
             downloadService.updateDownload(testDownloadId, updateRequest);
         });
         verify(downloadRepository, times(1)).findDownloadById_Uuid(testDownloadId);
-        verify(downloadRepository, never()).save(any());
+        verify(downloadRepository, never()).updateSources(any(), any(), any());
+    }
+
+    @Test
+    void whenGetMirrorStats_thenReturnRegistrySnapshotsWithHealth() {
+        // Arrange
+        MirrorSnapshot fast = new MirrorSnapshot("http://fast.example.com", 4, 2_000_000.4, 0);
+        MirrorSnapshot flaky = new MirrorSnapshot("http://flaky.example.com", 4, 500_000, 0.75);
+        when(mirrorRegistry.snapshots()).thenReturn(List.of(fast, flaky));
+        when(mirrorRegistry.isHealthy(fast)).thenReturn(true);
+        when(mirrorRegistry.isHealthy(flaky)).thenReturn(false);
+
+        // Act
+        List<MirrorStatsResponseModel> stats = downloadService.getMirrorStats();
+
+        // Assert
+        assertEquals(List.of(
+                new MirrorStatsResponseModel("http://fast.example.com", 4, 2_000_000, 0, true),
+                new MirrorStatsResponseModel("http://flaky.example.com", 4, 500_000, 0.75, false)), stats);
+    }
+
+    @Test
+    void whenGetDiskSpace_thenReportVolumeReservationsAndQueuedDownloads() throws Exception {
+        // Arrange
+        when(downloadEngine.diskSpace()).thenReturn(new VolumeSpace("/data (ext4)", 1000, 600, 250, 350, 2));
+        when(downloadEngine.queuedForSpace()).thenReturn(List.of(testDownloadId));
+
+        // Act
+        DiskSpaceResponseModel space = downloadService.getDiskSpace();
+
+        // Assert
+        assertEquals(new DiskSpaceResponseModel("/data (ext4)", 1000, 600, 250, 350, 2, List.of(testDownloadId)), space);
+    }
+
+    @Test
+    void whenGetProgressWrites_thenReturnWriteBehindCounters() {
+        // Arrange
+        when(downloadEngine.progressWrites()).thenReturn(new ProgressWriteStats(1000, 40, 10, 1, 3, 12, 4, 9, 2.5, 3.1, 12.0, 0.04));
+
+        // Act
+        ProgressWritesResponseModel writes = downloadService.getProgressWrites();
+
+        // Assert
+        assertEquals(new ProgressWritesResponseModel(1000, 40, 10, 1, 3, 12, 4, 9, 2.5, 3.1, 12.0, 0.04), writes);
+    }
+
+    // --- getInstallReport ---
+    @Test
+    void whenGetInstallReport_andInstalled_thenReturnStatsAndDirectory() {
+        // Arrange
+        downloadEntity.setInstall(true);
+        downloadEntity.setDownloadStatus(DownloadStatus.INSTALLED);
+        downloadEntity.setInstallStats(new InstallStats(true, 12, 4096, 12, 0.25, null));
+        when(downloadRepository.findDownloadById_Uuid(testDownloadId)).thenReturn(downloadEntity);
+        when(downloadEngine.installDirectory(testDownloadId)).thenReturn(Path.of("installs", testDownloadId));
+
+        // Act
+        DownloadInstallResponseModel report = downloadService.getInstallReport(testDownloadId);
+
+        // Assert
+        assertEquals("INSTALLED", report.getStatus());
+        assertTrue(report.isInstalled());
+        assertEquals(12, report.getEntries());
+        assertEquals(12, report.getVerifiedEntries());
+        assertEquals(0.25, report.getSecondsAfterTransfer());
+        assertEquals(Path.of("installs", testDownloadId).toAbsolutePath().toString(), report.getInstallDirectory());
+    }
+
+    @Test
+    void whenGetInstallReport_andNotAnInstallDownload_thenThrowInvalidDownloadDataException() {
+        // Arrange
+        when(downloadRepository.findDownloadById_Uuid(testDownloadId)).thenReturn(downloadEntity);
+
+        // Act & Assert
+        assertThrows(InvalidDownloadDataException.class, () -> downloadService.getInstallReport(testDownloadId));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,161 @@
+package com.example.videogamev3.Tests;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.Download;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadId;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadStatus;
+import com.example.videogamev3.DownloadManagement.DataAccess.InstallStats;
+import com.example.videogamev3.DownloadManagement.Engine.DownloadProgressRegistry;
+import com.example.videogamev3.DownloadManagement.Engine.InstallPipeline;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InstallPipelineTest {
+
+    private static final String ID = "install-1";
+
+    @Mock
+    private DownloadRepository downloadRepository;
+
+    @Mock
+    private DownloadProgressRegistry progressRegistry;
+
+    @TempDir
+    Path tempDir;
+
+    private InstallPipeline installPipeline;
+    private Download download;
+
+    @BeforeEach
+    void setUp() {
+        installPipeline = new InstallPipeline(downloadRepository, progressRegistry, tempDir.resolve("installs").toString(), 1, 5);
+        download = new Download(new DownloadId(ID), "http://example.com/game.zip", DownloadStatus.INSTALLING, "user-1");
+        download.setInstall(true);
+        lenient().when(downloadRepository.transitionStatus(eq(ID), eq(Set.of(DownloadStatus.INSTALLING)), any())).thenReturn(download);
+    }
+
+    private static byte[] zip(String... namesAndContents) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(namesAndContents[i]));
+                zip.write(namesAndContents[i + 1].getBytes(StandardCharsets.ISO_8859_1));
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    void whenArchiveArrivesInChunks_thenExtractBehindTheWriterAndMarkInstalled() throws Exception {
+        // Arrange
+        byte[] filler = new byte[300_000];
+        new Random(3).nextBytes(filler);
+        byte[] archive = zip("bin/game.exe", new String(filler, StandardCharsets.ISO_8859_1), "data/level1.pak", "level one");
+        Path part = tempDir.resolve(ID + ".part");
+        Files.createFile(part);
+
+        // Act
+        InstallPipeline.InstallJob job = installPipeline.begin(download, part);
+        try (OutputStream out = Files.newOutputStream(part, StandardOpenOption.APPEND)) {
+            for (int offset = 0; offset < archive.length; offset += 64 * 1024) {
+                int end = Math.min(archive.length, offset + 64 * 1024);
+                out.write(archive, offset, end - offset);
+                out.flush();
+                job.advance(end);
+            }
+        }
+        job.transferCompleted(archive.length);
+
+        // Assert
+        verify(downloadRepository, timeout(5000)).transitionStatus(ID, Set.of(DownloadStatus.INSTALLING), DownloadStatus.INSTALLED);
+        ArgumentCaptor<InstallStats> stats = ArgumentCaptor.forClass(InstallStats.class);
+        verify(downloadRepository).recordInstall(eq(ID), stats.capture());
+        assertTrue(stats.getValue().isInstalled());
+        assertEquals(2, stats.getValue().getEntries());
+        assertEquals(filler.length + "level one".length(), stats.getValue().getBytesExtracted());
+        Path installed = installPipeline.installDirectory(ID);
+        assertEquals("level one", Files.readString(installed.resolve("data/level1.pak")));
+        assertEquals(filler.length, Files.size(installed.resolve("bin/game.exe")));
+        verify(progressRegistry, timeout(5000)).updateStatus(ID, DownloadStatus.INSTALLED);
+    }
+
+    @Test
+    void whenEntryEscapesInstallDirectory_thenFallBackToCompletedAndRemoveInstall() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve(ID);
+        Files.write(file, zip("readme.txt", "hello", "../../evil.sh", "rm -rf /"));
+
+        // Act
+        installPipeline.installCompleted(download, file);
+
+        // Assert
+        verify(downloadRepository, timeout(5000)).transitionStatus(ID, Set.of(DownloadStatus.INSTALLING), DownloadStatus.COMPLETED);
+        ArgumentCaptor<InstallStats> stats = ArgumentCaptor.forClass(InstallStats.class);
+        verify(downloadRepository).recordInstall(eq(ID), stats.capture());
+        assertFalse(stats.getValue().isInstalled());
+        assertTrue(stats.getValue().getError().contains("outside the install directory"));
+        assertFalse(Files.exists(installPipeline.installDirectory(ID)));
+        assertFalse(Files.exists(tempDir.resolve("evil.sh")));
+    }
+
+    @Test
+    void whenTransferIsDiscarded_thenStopWithoutSettlingTheStatus() throws Exception {
+        // Arrange
+        Path part = tempDir.resolve(ID + ".part");
+        Files.write(part, new byte[]{'P', 'K'});
+        installPipeline.begin(download, part).advance(2);
+
+        // Act
+        installPipeline.discard(ID);
+
+        // Assert
+        verify(downloadRepository, after(500).never()).recordInstall(eq(ID), any());
+        verify(downloadRepository, never()).transitionStatus(eq(ID), any(), any());
+    }
+
+    @Test
+    void whenArchiveEndsBeforeItsTransfer_thenFreeTheExtractorForTheNextInstall() throws Exception {
+        // Arrange: a single extractor, and a transfer that has every archive byte but is not done yet
+        Path part = tempDir.resolve(ID + ".part");
+        byte[] archive = zip("game.exe", "still transferring");
+        Files.write(part, archive);
+        InstallPipeline.InstallJob slow = installPipeline.begin(download, part);
+        slow.advance(archive.length);
+        Download next = new Download(new DownloadId("next"), "http://example.com/next.zip", DownloadStatus.INSTALLING, "user-1");
+        next.setInstall(true);
+        when(downloadRepository.transitionStatus(eq("next"), eq(Set.of(DownloadStatus.INSTALLING)), any())).thenReturn(next);
+        Path nextFile = tempDir.resolve("next");
+        Files.write(nextFile, zip("next.exe", "done"));
+
+        // Act
+        installPipeline.installCompleted(next, nextFile);
+
+        // Assert
+        verify(downloadRepository, timeout(5000)).transitionStatus("next", Set.of(DownloadStatus.INSTALLING), DownloadStatus.INSTALLED);
+        verify(downloadRepository, never()).recordInstall(eq(ID), any());
+        slow.transferCompleted(archive.length);
+        verify(downloadRepository, timeout(5000)).transitionStatus(ID, Set.of(DownloadStatus.INSTALLING), DownloadStatus.INSTALLED);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.videogamev3.Tests;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.ChunkManifest;
+import com.example.videogamev3.DownloadManagement.Engine.ChunkDigestWriter;
+import com.example.videogamev3.DownloadManagement.Engine.ChunkSource;
+import com.example.videogamev3.DownloadManagement.Engine.IntegrityVerifier;
+import com.example.videogamev3.DownloadManagement.Engine.RangeStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntegrityVerifierTest {
+
+    private static final int CHUNK_SIZE = 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private byte[] randomPayload(int size) {
+        byte[] payload = new byte[size];
+        new Random(42).nextBytes(payload);
+        return payload;
+    }
+
+    private ChunkManifest writeWithManifest(FileChannel channel, byte[] payload, int chunkSize) throws IOException {
+        ChunkManifest manifest = new ChunkManifest(chunkSize);
+        ChunkDigestWriter writer = new ChunkDigestWriter(channel, chunkSize, 0,
+                (index, hash, end) -> manifest.getChunkHashes().add(hash));
+        // Feed the writer with buffers that do not line up with chunk boundaries
+        for (int offset = 0; offset < payload.length; offset += 700) {
+            writer.write(ByteBuffer.wrap(payload, offset, Math.min(700, payload.length - offset)));
+        }
+        writer.finish();
+        return manifest;
+    }
+
+    private String sha256(byte[] data, int from, int to) throws Exception {
+        return IntegrityVerifier.toHex(MessageDigest.getInstance("SHA-256").digest(Arrays.copyOfRange(data, from, to)));
+    }
+
+    @Test
+    void whenWritingThroughChunkDigestWriter_thenManifestMatchesIndependentHashes() throws Exception {
+        // Arrange
+        byte[] payload = randomPayload(CHUNK_SIZE * 5 + 300);
+
+        try (FileChannel channel = FileChannel.open(tempDir.resolve("file"), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Act
+            ChunkManifest manifest = writeWithManifest(channel, payload, CHUNK_SIZE);
+
+            // Assert
+            assertEquals(6, manifest.getChunkHashes().size());
+            assertEquals(payload.length, channel.size());
+            for (int i = 0; i < 6; i++) {
+                assertEquals(sha256(payload, i * CHUNK_SIZE, Math.min((i + 1) * CHUNK_SIZE, payload.length)), manifest.getChunkHashes().get(i));
+            }
+            assertTrue(IntegrityVerifier.findCorruptChunks(channel, manifest).isEmpty());
+        }
+    }
+
+    @Test
+    void whenBoundaryChunkIsCorrupt_thenResumeOffsetRollsBackOnlyThatChunk() throws Exception {
+        // Arrange
+        byte[] payload = randomPayload(CHUNK_SIZE * 4);
+
+        try (FileChannel channel = FileChannel.open(tempDir.resolve("file"), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ChunkManifest manifest = writeWithManifest(channel, payload, CHUNK_SIZE);
+            channel.write(ByteBuffer.wrap(new byte[]{0x00, 0x01}), CHUNK_SIZE * 3 + 10); // torn write in the last chunk
+
+            // Act
+            long offset = IntegrityVerifier.resumeOffset(channel, manifest);
+
+            // Assert
+            assertEquals(CHUNK_SIZE * 3L, offset);
+            assertEquals(3, manifest.getChunkHashes().size());
+        }
+    }
+
+    @Test
+    void whenManifestIsAheadOfFile_thenResumeOffsetDropsMissingChunks() throws Exception {
+        // Arrange
+        byte[] payload = randomPayload(CHUNK_SIZE * 4);
+
+        try (FileChannel channel = FileChannel.open(tempDir.resolve("file"), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ChunkManifest manifest = writeWithManifest(channel, payload, CHUNK_SIZE);
+            channel.truncate(CHUNK_SIZE * 2L + 100); // the last chunks never reached the disk
+
+            // Act
+            long offset = IntegrityVerifier.resumeOffset(channel, manifest);
+
+            // Assert
+            assertEquals(CHUNK_SIZE * 2L, offset);
+            assertEquals(2, manifest.getChunkHashes().size());
+        }
+    }
+
+    @Test
+    void whenChunkIsCorrupt_thenOnlyThatChunkIsRefetched() throws Exception {
+        // Arrange
+        byte[] payload = randomPayload(CHUNK_SIZE * 6 + 17);
+        long[] requested = new long[2];
+        ChunkSource origin = (offset, length) -> {
+            requested[0] = offset;
+            requested[1] = length;
+            return new RangeStream(new ByteArrayInputStream(payload, (int) offset, (int) length), offset, payload.length);
+        };
+
+        try (FileChannel channel = FileChannel.open(tempDir.resolve("file"), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ChunkManifest manifest = writeWithManifest(channel, payload, CHUNK_SIZE);
+            channel.write(ByteBuffer.wrap(new byte[]{0x7f}), CHUNK_SIZE * 2L + 5);
+
+            // Act
+            List<Integer> corrupt = IntegrityVerifier.findCorruptChunks(channel, manifest);
+            IntegrityVerifier.repairChunk(channel, manifest, corrupt.get(0), payload.length, origin);
+
+            // Assert
+            assertEquals(List.of(2), corrupt);
+            assertEquals(CHUNK_SIZE * 2L, requested[0]);
+            assertEquals(CHUNK_SIZE, requested[1]);
+            assertTrue(IntegrityVerifier.findCorruptChunks(channel, manifest).isEmpty());
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void verificationThroughputBenchmark() throws Exception {
+        // Arrange
+        int chunkSize = 4 * 1024 * 1024;
+        byte[] payload = randomPayload(64 * 1024 * 1024);
+
+        try (FileChannel channel = FileChannel.open(tempDir.resolve("large"), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long writeStart = System.nanoTime();
+            ChunkManifest manifest = writeWithManifest(channel, payload, chunkSize);
+            long writeNanos = System.nanoTime() - writeStart;
+
+            // Act
+            long verifyStart = System.nanoTime();
+            List<Integer> corrupt = IntegrityVerifier.findCorruptChunks(channel, manifest);
+            long verifyNanos = System.nanoTime() - verifyStart;
+
+            // Assert
+            assertTrue(corrupt.isEmpty());
+            double megabytes = payload.length / (1024.0 * 1024.0);
+            System.out.printf("Hash-while-writing: %.1f MB/s, full verification pass: %.1f MB/s (%d chunks)%n",
+                    megabytes / (writeNanos / 1e9), megabytes / (verifyNanos / 1e9), manifest.getChunkHashes().size());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.videogamev3.Tests;
+
+import com.example.videogamev3.DownloadManagement.Engine.MirrorRegistry;
+import com.example.videogamev3.DownloadManagement.Engine.MirrorSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MirrorRegistryTest {
+
+    private static final String PRIMARY = "http://primary.example.com/game.iso";
+    private static final String FAST = "http://fast.example.com/files/game.iso";
+    private static final String SLOW = "https://slow.example.com:8443/game.iso";
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+    private MirrorRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new MirrorRegistry(60, 32, 0.5, clock::get);
+    }
+
+    @Test
+    void whenSomeMirrorsAreUnprobed_thenTheyArePickedFirstInOrder() {
+        // Arrange
+        registry.recordSuccess(PRIMARY, 10_000_000, ONE_SECOND);
+
+        // Act & Assert
+        assertEquals(List.of(FAST, SLOW), registry.unprobed(List.of(PRIMARY, FAST, SLOW)));
+        assertEquals(FAST, registry.pick(List.of(PRIMARY, FAST, SLOW)));
+    }
+
+    @Test
+    void whenAllMirrorsAreMeasured_thenTheFastestHealthyOneIsPicked() {
+        // Arrange
+        registry.recordSuccess(PRIMARY, 2_000_000, ONE_SECOND);
+        registry.recordSuccess(FAST, 8_000_000, ONE_SECOND);
+        registry.recordSuccess(SLOW, 500_000, ONE_SECOND);
+
+        // Act
+        String picked = registry.pick(List.of(PRIMARY, FAST, SLOW));
+
+        // Assert
+        assertEquals(FAST, picked);
+        assertEquals(8_000_000, registry.snapshot("http://FAST.example.com/other.iso").getBytesPerSecond(), 1); // keyed by origin
+    }
+
+    @Test
+    void whenFastMirrorKeepsFailing_thenTrafficMovesAwayUntilTheFailuresAgeOut() {
+        // Arrange
+        registry.recordSuccess(PRIMARY, 2_000_000, ONE_SECOND);
+        registry.recordSuccess(FAST, 8_000_000, ONE_SECOND);
+        registry.recordFailure(FAST, 0, ONE_SECOND);
+        registry.recordFailure(FAST, 0, ONE_SECOND);
+
+        // Act & Assert
+        MirrorSnapshot fast = registry.snapshot(FAST);
+        assertEquals(2.0 / 3, fast.getErrorRate(), 1e-9);
+        assertFalse(registry.isHealthy(fast));
+        assertEquals(PRIMARY, registry.pick(List.of(FAST, PRIMARY)));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        assertEquals(List.of(FAST, PRIMARY), registry.unprobed(List.of(FAST, PRIMARY)));
+        assertEquals(FAST, registry.pick(List.of(FAST, PRIMARY))); // forgotten, so it is probed again
+    }
+
+    @Test
+    void whenEveryMirrorIsUnhealthy_thenTheLeastFailingOneIsPicked() {
+        // Arrange
+        registry.recordFailure(PRIMARY, 0, ONE_SECOND);
+        registry.recordFailure(SLOW, 0, ONE_SECOND);
+        registry.recordFailure(SLOW, 0, ONE_SECOND);
+        registry.recordSuccess(SLOW, 1_000, ONE_SECOND);
+
+        // Act & Assert
+        assertEquals(SLOW, registry.pick(List.of(PRIMARY, SLOW)));
+        assertEquals(List.of("https://slow.example.com:8443", "http://primary.example.com"),
+                registry.snapshots().stream().map(MirrorSnapshot::getOrigin).toList());
+    }
+}
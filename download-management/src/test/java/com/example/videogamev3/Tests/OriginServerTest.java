@@ -0,0 +1,127 @@
+package com.example.videogamev3.Tests;
+
+import com.example.videogamev3.DownloadManagement.Engine.HttpRangeSource;
+import com.example.videogamev3.DownloadManagement.Engine.RangeStream;
+import com.example.videogamev3.Fixtures.OriginFaults;
+import com.example.videogamev3.Fixtures.OriginServer;
+import com.example.videogamev3.Fixtures.SyntheticFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OriginServerTest {
+
+    private static final SyntheticFile FILE = new SyntheticFile(42, 1_000_003);
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private OriginServer origin;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        origin = OriginServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        origin.close();
+    }
+
+    private static byte[] expected(long position, int count) {
+        byte[] bytes = new byte[count];
+        FILE.read(position, bytes, 0, count);
+        return bytes;
+    }
+
+    private HttpRangeSource source(String url) {
+        return new HttpRangeSource(httpClient, url, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void whenRangeIsRequested_thenServeExactlyThoseBytesWithTheTotalLength() throws Exception {
+        // Arrange
+        String url = origin.serve("/game.bin", FILE);
+
+        // Act
+        try (RangeStream range = source(url).open(999_000, 1000)) {
+            byte[] body = range.getBody().readAllBytes();
+
+            // Assert
+            assertEquals(999_000, range.getStart());
+            assertEquals(FILE.length(), range.getTotalLength());
+            assertArrayEquals(expected(999_000, 1000), body);
+        }
+    }
+
+    @Test
+    void whenIfRangeDoesNotMatchTheETag_thenServeTheWholeFile() throws Exception {
+        // Arrange
+        String url = origin.serve("/game.bin", FILE);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Range", "bytes=10-19")
+                .header("If-Range", "\"some-older-version\"")
+                .build();
+
+        // Act
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        // Assert
+        assertEquals(200, response.statusCode());
+        assertEquals(FILE.etag(), response.headers().firstValue("ETag").orElse(null));
+        assertEquals(FILE.length(), response.body().length);
+    }
+
+    @Test
+    void whenResetIsInjected_thenDropTheConnectionOnceAndServeNormallyAfter() throws Exception {
+        // Arrange
+        String url = origin.serve("/game.bin", FILE, OriginFaults.none().resetAfter(100_000, 1));
+
+        // Act & Assert
+        try (RangeStream range = source(url).open(0, -1)) {
+            assertThrows(IOException.class, () -> range.getBody().readAllBytes());
+        }
+        try (RangeStream range = source(url).open(0, -1)) {
+            assertEquals(FILE.length(), range.getBody().readAllBytes().length);
+        }
+        assertEquals(1, origin.resets());
+        assertEquals(2, origin.requests("/game.bin"));
+    }
+
+    @Test
+    void whenBytesAreCorrupted_thenFlipOnlyThoseOffsets() throws Exception {
+        // Arrange
+        String url = origin.serve("/game.bin", FILE, OriginFaults.none().corrupt(5, 7));
+
+        // Act
+        byte[] body;
+        try (RangeStream range = source(url).open(0, 10)) {
+            body = range.getBody().readAllBytes();
+        }
+
+        // Assert
+        byte[] wanted = expected(0, 10);
+        wanted[5] ^= (byte) 0xFF;
+        wanted[7] ^= (byte) 0xFF;
+        assertArrayEquals(wanted, body);
+        assertFalse(Arrays.equals(expected(0, 10), body));
+    }
+
+    @Test
+    void whenMirrorIsUnavailable_thenRangeSourceFails() {
+        // Arrange
+        String url = origin.serve("/mirror/game.bin", FILE, OriginFaults.none().unavailable(true));
+
+        // Act & Assert
+        IOException error = assertThrows(IOException.class, () -> source(url).open(0, 10));
+        assertTrue(error.getMessage().contains("503"));
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.videogamev3.Tests;
+
+import com.example.videogamev3.DownloadManagement.DataAccess.DownloadRepository;
+import com.example.videogamev3.DownloadManagement.DataAccess.ProgressUpdate;
+import com.example.videogamev3.DownloadManagement.Engine.ProgressWriteBehind;
+import com.example.videogamev3.DownloadManagement.Engine.ProgressWriteStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProgressWriteBehindTest {
+
+    @Mock
+    private DownloadRepository downloadRepository;
+
+    private ProgressWriteBehind progressWrites;
+
+    @AfterEach
+    void tearDown() {
+        if (progressWrites != null) {
+            progressWrites.close();
+        }
+    }
+
+    // Long interval so only the test decides when a flush happens.
+    private ProgressWriteBehind buffer(int maxPendingChunks) {
+        progressWrites = new ProgressWriteBehind(downloadRepository, 3_600_000, maxPendingChunks);
+        return progressWrites;
+    }
+
+    // Mockito keeps a reference to the argument, so copy each batch as it is written.
+    private List<List<ProgressUpdate>> captureBatches() {
+        List<List<ProgressUpdate>> batches = new ArrayList<>();
+        when(downloadRepository.recordProgress(anyCollection())).thenAnswer(invocation -> {
+            Collection<ProgressUpdate> updates = invocation.getArgument(0);
+            batches.add(List.copyOf(updates));
+            return updates.size();
+        });
+        return batches;
+    }
+
+    @Test
+    void whenManyChunksAreCommitted_thenWriteOneBulkWithOneUpdatePerDownload() {
+        // Arrange
+        List<List<ProgressUpdate>> batches = captureBatches();
+        ProgressWriteBehind buffer = buffer(1000);
+        for (int chunk = 0; chunk < 4; chunk++) {
+            buffer.chunkCommitted("a", chunk, "a" + chunk, (chunk + 1) * 1024L);
+        }
+        buffer.chunkCommitted("b", 0, "b0", 1024);
+        buffer.chunkCommitted("b", 1, "b1", 2048);
+        verifyNoInteractions(downloadRepository); // nothing is written per chunk
+
+        // Act
+        buffer.flush();
+
+        // Assert
+        assertEquals(1, batches.size());
+        Map<String, ProgressUpdate> byId = new HashMap<>();
+        batches.get(0).forEach(update -> byId.put(update.getDownloadId(), update));
+        assertEquals(List.of("a0", "a1", "a2", "a3"), List.copyOf(byId.get("a").getChunkHashes().values()));
+        assertEquals(4096, byId.get("a").getBytesDownloaded());
+        assertEquals(2048, byId.get("b").getBytesDownloaded());
+
+        ProgressWriteStats stats = buffer.stats();
+        assertEquals(6, stats.getChunksRecorded());
+        assertEquals(2, stats.getDocumentsWritten());
+        assertEquals(1, stats.getBulkWrites());
+        assertEquals(2.0 / 6, stats.getWriteAmplification(), 1e-9);
+        assertEquals(0, stats.getPendingChunks());
+    }
+
+    @Test
+    void whenBulkWriteFails_thenKeepProgressAndWriteItWithLaterChunksNextTime() {
+        // Arrange
+        ProgressWriteBehind buffer = buffer(1000);
+        when(downloadRepository.recordProgress(anyCollection()))
+                .thenThrow(new DataAccessResourceFailureException("Mongo is down"))
+                .thenReturn(1);
+        buffer.chunkCommitted("a", 0, "a0", 1024);
+        buffer.flush();
+        buffer.chunkCommitted("a", 1, "a1", 2048);
+
+        // Act
+        buffer.flush();
+
+        // Assert
+        ArgumentCaptor<Collection<ProgressUpdate>> written = ArgumentCaptor.forClass(Collection.class);
+        verify(downloadRepository, times(2)).recordProgress(written.capture());
+        ProgressUpdate retried = written.getAllValues().get(1).iterator().next();
+        assertEquals(Map.of(0, "a0", 1, "a1"), retried.getChunkHashes());
+        assertEquals(2048, retried.getBytesDownloaded());
+        assertEquals(1, buffer.stats().getFailedBulkWrites());
+        assertEquals(0, buffer.stats().getPendingDownloads());
+    }
+
+    @Test
+    void whenBufferFills_thenFlushWithoutWaitingForTheInterval() {
+        // Arrange
+        ProgressWriteBehind buffer = buffer(3);
+
+        // Act
+        buffer.chunkCommitted("a", 0, "a0", 1024);
+        buffer.chunkCommitted("a", 1, "a1", 2048);
+        buffer.chunkCommitted("b", 0, "b0", 1024);
+
+        // Assert
+        verify(downloadRepository, timeout(5000)).recordProgress(anyCollection());
+    }
+
+    @Test
+    void whenFlushingOrDiscardingOneDownload_thenLeaveTheOthersBuffered() {
+        // Arrange
+        List<List<ProgressUpdate>> batches = captureBatches();
+        ProgressWriteBehind buffer = buffer(1000);
+        buffer.chunkCommitted("a", 0, "a0", 1024);
+        buffer.chunkCommitted("b", 0, "b0", 1024);
+        buffer.chunkCommitted("c", 0, "c0", 1024);
+
+        // Act
+        buffer.flush("a");
+        buffer.discard("b");
+
+        // Assert
+        assertEquals(1, batches.size());
+        assertEquals("a", batches.get(0).get(0).getDownloadId());
+        assertEquals(1, buffer.stats().getPendingDownloads());
+        buffer.flush();
+        assertEquals("c", batches.get(1).get(0).getDownloadId());
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.videogamev3.Fixtures;
+
+import java.time.Duration;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Misbehaviour of one file on an {@link OriginServer}. Every setting can be changed while requests are in
+ * flight; each response reads them once, when it starts.
+ */
+public class OriginFaults {
+
+    private volatile long latencyMillis;
+    private volatile long bytesPerSecond;
+    private volatile long resetAfterBytes = -1;
+    private final AtomicInteger resetsLeft = new AtomicInteger();
+    private final NavigableSet<Long> corruptOffsets = new ConcurrentSkipListSet<>();
+    private volatile boolean ignoreRange;
+    private volatile boolean unavailable;
+
+    public static OriginFaults none() {
+        return new OriginFaults();
+    }
+
+    /**
+     * Waits this long before sending the response headers, like a distant or overloaded origin.
+     */
+    public OriginFaults latency(Duration latency) {
+        this.latencyMillis = latency.toMillis();
+        return this;
+    }
+
+    /**
+     * Caps each response at this rate; 0 sends as fast as the socket takes it.
+     */
+    public OriginFaults throttle(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        return this;
+    }
+
+    /**
+     * Drops the connection after this many body bytes, for the next count responses.
+     */
+    public OriginFaults resetAfter(long bytes, int count) {
+        this.resetAfterBytes = bytes;
+        this.resetsLeft.set(count);
+        return this;
+    }
+
+    /**
+     * Serves these file offsets with their bits flipped, on every response that covers them.
+     */
+    public OriginFaults corrupt(long... offsets) {
+        for (long offset : offsets) {
+            corruptOffsets.add(offset);
+        }
+        return this;
+    }
+
+    public OriginFaults clearCorruption() {
+        corruptOffsets.clear();
+        return this;
+    }
+
+    /**
+     * Answers every request with the whole file and 200, like a server without Range support.
+     */
+    public OriginFaults ignoreRange(boolean ignoreRange) {
+        this.ignoreRange = ignoreRange;
+        return this;
+    }
+
+    /**
+     * Answers every request with 503, like a mirror that is down.
+     */
+    public OriginFaults unavailable(boolean unavailable) {
+        this.unavailable = unavailable;
+        return this;
+    }
+
+    long latencyMillis() {
+        return latencyMillis;
+    }
+
+    long bytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    boolean ignoresRange() {
+        return ignoreRange;
+    }
+
+    boolean isUnavailable() {
+        return unavailable;
+    }
+
+    NavigableSet<Long> corruptOffsets() {
+        return corruptOffsets;
+    }
+
+    /**
+     * Where the response starting now is cut off, or -1 if it is sent whole; each cut uses up one reset.
+     */
+    long claimReset() {
+        long after = resetAfterBytes;
+        if (after < 0) {
+            return -1;
+        }
+        return resetsLeft.getAndUpdate(left -> left > 0 ? left - 1 : 0) > 0 ? after : -1;
+    }
+}
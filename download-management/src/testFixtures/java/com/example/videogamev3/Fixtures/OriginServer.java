@@ -0,0 +1,240 @@
+package com.example.videogamev3.Fixtures;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An HTTP origin on the loopback interface serving {@link SyntheticFile}s, for driving the download engine
+ * without a network. Understands single Range requests, ETag and If-Range, and can be made slow, flaky or
+ * wrong per file through {@link OriginFaults}.
+ */
+public class OriginServer implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong bytesServed = new AtomicLong();
+    private final AtomicLong resets = new AtomicLong();
+
+    private OriginServer(HttpServer server, ExecutorService handlers) {
+        this.server = server;
+        this.handlers = handlers;
+    }
+
+    public static OriginServer start() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        ExecutorService handlers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "origin-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        OriginServer origin = new OriginServer(server, handlers);
+        server.createContext("/", origin::handle);
+        server.setExecutor(handlers);
+        server.start();
+        return origin;
+    }
+
+    /**
+     * Serves file at path and returns its URL; the faults can still be changed afterwards.
+     */
+    public String serve(String path, SyntheticFile file, OriginFaults faults) {
+        entries.put(path, new Entry(file, faults));
+        return url(path);
+    }
+
+    public String serve(String path, SyntheticFile file) {
+        return serve(path, file, OriginFaults.none());
+    }
+
+    public String url(String path) {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + path;
+    }
+
+    public OriginFaults faults(String path) {
+        return entry(path).faults;
+    }
+
+    public long requests(String path) {
+        return entry(path).requests.get();
+    }
+
+    public long bytesServed() {
+        return bytesServed.get();
+    }
+
+    public long resets() {
+        return resets.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+    private Entry entry(String path) {
+        Entry entry = entries.get(path);
+        if (entry == null) {
+            throw new IllegalArgumentException("Nothing is served at " + path);
+        }
+        return entry;
+    }
+
+    private void handle(HttpExchange exchange) {
+        try {
+            respond(exchange);
+        } catch (IOException ignored) {
+            // the client hung up; that only ends this response
+        } finally {
+            exchange.close(); // after a reset: fewer bytes than Content-Length, so the connection is dropped
+        }
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        Entry entry = entries.get(exchange.getRequestURI().getPath());
+        if (entry == null) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+        entry.requests.incrementAndGet();
+        OriginFaults faults = entry.faults;
+        if (faults.latencyMillis() > 0) {
+            pause(faults.latencyMillis());
+        }
+        if (faults.isUnavailable()) {
+            exchange.sendResponseHeaders(503, -1);
+            return;
+        }
+
+        SyntheticFile file = entry.file;
+        long length = file.length();
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Accept-Ranges", "bytes");
+        headers.set("ETag", file.etag());
+        headers.set("Content-Type", "application/octet-stream");
+
+        Headers request = exchange.getRequestHeaders();
+        String ifRange = request.getFirst("If-Range");
+        long[] range = faults.ignoresRange() || (ifRange != null && !ifRange.equals(file.etag()))
+                ? null : parseRange(request.getFirst("Range"), length);
+        long start = 0;
+        long end = length - 1;
+        int status = 200;
+        if (range != null && range.length == 0) {
+            headers.set("Content-Range", "bytes */" + length);
+            exchange.sendResponseHeaders(416, -1);
+            return;
+        }
+        if (range != null) {
+            start = range[0];
+            end = range[1];
+            status = 206;
+            headers.set("Content-Range", "bytes " + start + "-" + end + "/" + length);
+        }
+        long count = end - start + 1;
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            headers.set("Content-Length", String.valueOf(count));
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, count == 0 ? -1 : count);
+        send(exchange.getResponseBody(), file, faults, start, count);
+    }
+
+    private void send(OutputStream body, SyntheticFile file, OriginFaults faults, long start, long count) throws IOException {
+        long cutAfter = faults.claimReset();
+        long rate = faults.bytesPerSecond();
+        long began = System.nanoTime();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long sent = 0;
+        while (sent < count) {
+            int n = (int) Math.min(buffer.length, count - sent);
+            if (cutAfter >= 0) {
+                n = (int) Math.min(n, cutAfter - sent);
+                if (n <= 0) {
+                    resets.incrementAndGet();
+                    return;
+                }
+            }
+            long position = start + sent;
+            file.read(position, buffer, 0, n);
+            for (long offset : faults.corruptOffsets().subSet(position, position + n)) {
+                buffer[(int) (offset - position)] ^= (byte) 0xFF;
+            }
+            body.write(buffer, 0, n);
+            sent += n;
+            bytesServed.addAndGet(n);
+            if (rate > 0) {
+                long due = began + TimeUnit.SECONDS.toNanos(1) * sent / rate;
+                long ahead = due - System.nanoTime();
+                if (ahead > 0) {
+                    pause(TimeUnit.NANOSECONDS.toMillis(ahead));
+                }
+            }
+        }
+    }
+
+    /**
+     * A single range of a file of the given length: {start, end}, an empty array when it cannot be satisfied,
+     * or null when the whole file should be sent (no header, several ranges, or one that does not parse).
+     */
+    static long[] parseRange(String header, long length) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                return suffix == 0 || length == 0 ? new long[0] : new long[]{Math.max(0, length - suffix), length - 1};
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            return start >= length || end < start ? new long[0] : new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void pause(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Origin server stopped");
+        }
+    }
+
+    private static final class Entry {
+        private final SyntheticFile file;
+        private final OriginFaults faults;
+        private final AtomicLong requests = new AtomicLong();
+
+        private Entry(SyntheticFile file, OriginFaults faults) {
+            this.file = file;
+            this.faults = faults;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.videogamev3.Fixtures;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * A file of any size whose bytes are computed from a seed instead of stored, so a test can serve gigabytes
+ * without holding or writing them. The same seed and length always give the same bytes.
+ */
+public class SyntheticFile {
+
+    private final long seed;
+    private final long length;
+
+    public SyntheticFile(long seed, long length) {
+        this.seed = seed;
+        this.length = length;
+    }
+
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Strong validator of this content; two files share it only when their bytes are identical.
+     */
+    public String etag() {
+        return "\"" + Long.toHexString(seed) + "-" + Long.toHexString(length) + "\"";
+    }
+
+    public byte byteAt(long position) {
+        return (byte) (word(position >>> 3) >>> ((position & 7) << 3));
+    }
+
+    /**
+     * Fills buffer[offset, offset + count) with the bytes starting at position; the range must lie in the file.
+     */
+    public void read(long position, byte[] buffer, int offset, int count) {
+        if (position < 0 || position + count > length) {
+            throw new IndexOutOfBoundsException("bytes " + position + "-" + (position + count - 1) + " of " + length);
+        }
+        int i = 0;
+        while (i < count && ((position + i) & 7) != 0) {
+            buffer[offset + i] = byteAt(position + i);
+            i++;
+        }
+        for (; i + 8 <= count; i += 8) {
+            long word = word((position + i) >>> 3);
+            for (int b = 0; b < 8; b++) {
+                buffer[offset + i + b] = (byte) (word >>> (b << 3));
+            }
+        }
+        for (; i < count; i++) {
+            buffer[offset + i] = byteAt(position + i);
+        }
+    }
+
+    public String sha256Hex() {
+        return sha256Hex(0, length);
+    }
+
+    public String sha256Hex(long position, long count) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        for (long done = 0; done < count; ) {
+            int n = (int) Math.min(buffer.length, count - done);
+            read(position + done, buffer, 0, n);
+            digest.update(buffer, 0, n);
+            done += n;
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // SplitMix64 of the word index: cheap, and no two nearby words look alike to a delta or a compressor.
+    private long word(long index) {
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -5,35 +5,79 @@ import com.champsoft.gamemanagement.DataAccess.*;
 import com.champsoft.gamemanagement.DataMapper.GameRequestMapper;
 import com.champsoft.gamemanagement.DataMapper.GameResponseMapper;
 import com.champsoft.gamemanagement.DataMapper.ReviewMapper;
+import com.champsoft.gamemanagement.Presentation.DTOS.GameBrowseResponseModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.GameCatalogPageResponseModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.GameFilterRequestModel;
 import com.champsoft.gamemanagement.Presentation.DTOS.GameRequestModel;
 import com.champsoft.gamemanagement.Presentation.DTOS.GameResponseModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.ReviewAddedResponseModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.ReviewPageResponseModel;
 import com.champsoft.gamemanagement.Presentation.DTOS.ReviewRequestModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.ReviewResponseModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.SuggestIndexStatsResponseModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.SuggestionResponseModel;
+import com.champsoft.gamemanagement.Search.GameFacetIndex;
+import com.champsoft.gamemanagement.Search.GameSearchIndex;
+import com.champsoft.gamemanagement.Search.SearchHit;
+import com.champsoft.gamemanagement.Search.TitleSuggestIndex;
 
+import com.champsoft.gamemanagement.utils.exceptions.InvalidInputException;
 import com.champsoft.gamemanagement.utils.exceptions.NotFoundException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
+@Transactional // a single game is mapped with its lazy reviews, which needs the session still open
 public class GameService {
+    static final int DEFAULT_CATALOG_PAGE_SIZE = 24;
+    static final int MAX_CATALOG_PAGE_SIZE = 100;
+    static final int DEFAULT_REVIEW_PAGE_SIZE = 20;
+    static final int MAX_REVIEW_PAGE_SIZE = 100;
+    static final int DEFAULT_SEARCH_LIMIT = 20;
+    static final int MAX_SEARCH_LIMIT = 100;
+    static final int DEFAULT_BROWSE_PAGE_SIZE = 20;
+    static final int MAX_BROWSE_PAGE_SIZE = 100;
+    static final int DEFAULT_SUGGEST_LIMIT = 10;
+    static final int MAX_SUGGEST_LIMIT = 50;
+    // Whole stars, optionally written out of five ("4" or "4/5").
+    private static final Pattern RATING = Pattern.compile("\\s*([1-5])\\s*(?:/\\s*5\\s*)?");
+
     private final ReviewRepository reviewRepository;
     private GameResponseMapper gameResponseMapper;
     private GameRepository gameRepository;
     private GameRequestMapper gameRequestMapper;
     private ReviewMapper reviewMapper;
+    private final GameSearchIndex searchIndex;
+    private final GameFacetIndex facetIndex;
+    private final TitleSuggestIndex suggestIndex;
 
 
-    public GameService(GameResponseMapper gameResponseMapper, GameRepository gameRepository, GameRequestMapper gameRequestMapper, ReviewMapper reviewMapper, ReviewRepository reviewRepository) {
+    public GameService(GameResponseMapper gameResponseMapper, GameRepository gameRepository, GameRequestMapper gameRequestMapper, ReviewMapper reviewMapper, ReviewRepository reviewRepository, GameSearchIndex searchIndex, GameFacetIndex facetIndex, TitleSuggestIndex suggestIndex) {
         this.gameRepository =  gameRepository;
         this.gameRequestMapper = gameRequestMapper;
         this.gameResponseMapper = gameResponseMapper;
         this.reviewMapper = reviewMapper;
         this.reviewRepository = reviewRepository;
+        this.searchIndex = searchIndex;
+        this.facetIndex = facetIndex;
+        this.suggestIndex = suggestIndex;
     }
 
+    @Transactional(readOnly = true)
     public GameResponseModel getGameById(String uuid){
         Game game = gameRepository.findGameByGameId(new GameId(uuid));
         if (game == null) {
@@ -43,16 +87,168 @@ public class GameService {
         return responseModel;
     }
 
-    public List<GameResponseModel> getAllGames(){
-        List<Game> games = gameRepository.findAll();
-        return gameResponseMapper.gameToGameResponseModel(games);
+    /**
+     * One keyset page of the catalog, by title unless another sort is asked for. Pass the previous page's
+     * nextCursor to continue; it carries the sort, so the sort may be left out then.
+     */
+    @Transactional(readOnly = true)
+    public GameCatalogPageResponseModel getGames(String sort, String direction, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_CATALOG_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_CATALOG_PAGE_SIZE) {
+            throw new InvalidInputException("limit must be between 1 and " + MAX_CATALOG_PAGE_SIZE);
+        }
+        CatalogCursor after;
+        try {
+            after = cursor == null || cursor.isBlank() ? null : CatalogCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("Invalid cursor: " + cursor);
+        }
+        CatalogSort catalogSort = sort == null ? (after == null ? CatalogSort.TITLE : after.getSort())
+                : CatalogSort.fromParameter(sort).orElseThrow(() -> new InvalidInputException(
+                        "sort must be one of title, price, releaseDate, rating"));
+        boolean descending;
+        if (direction == null) {
+            descending = after == null ? catalogSort.isDescendingByDefault() : after.isDescending();
+        } else if (direction.equalsIgnoreCase("asc") || direction.equalsIgnoreCase("desc")) {
+            descending = direction.equalsIgnoreCase("desc");
+        } else {
+            throw new InvalidInputException("direction must be asc or desc");
+        }
+        if (after != null && (after.getSort() != catalogSort || after.isDescending() != descending)) {
+            throw new InvalidInputException("cursor belongs to a different sort");
+        }
+
+        // One extra row tells us whether there is a next page without a count query.
+        List<GameSummary> games = gameRepository.findCatalogPage(catalogSort, descending, after, pageSize + 1);
+        String nextCursor = null;
+        if (games.size() > pageSize) {
+            games = games.subList(0, pageSize);
+            nextCursor = CatalogCursor.after(catalogSort, descending, games.get(pageSize - 1)).encode();
+        }
+        return new GameCatalogPageResponseModel(gameResponseMapper.gameSummaryToResponseModel(games), nextCursor);
+    }
+
+    /**
+     * Games matching a free-text query over title, description, publisher and developer, most relevant first.
+     * Ranking is done by the in-memory {@link GameSearchIndex}; only the hits are loaded from the database.
+     */
+    @Transactional(readOnly = true)
+    public List<GameResponseModel> searchGames(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidInputException("q must not be blank");
+        }
+        int maxHits = limit == null ? DEFAULT_SEARCH_LIMIT : limit;
+        if (maxHits < 1 || maxHits > MAX_SEARCH_LIMIT) {
+            throw new InvalidInputException("limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        List<SearchHit> hits = searchIndex.search(query, maxHits);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Game> games = gameRepository.findAllById(hits.stream().map(hit -> new GameId(hit.id())).toList())
+                .stream()
+                .collect(Collectors.toMap(game -> game.getGameId().getUuid(), Function.identity()));
+        // findAllById does not keep the order of the ids; a hit deleted since it was ranked is skipped.
+        List<Game> ranked = hits.stream().map(hit -> games.get(hit.id())).filter(Objects::nonNull).toList();
+        return gameResponseMapper.gameToGameResponseModel(ranked);
+    }
+
+    /**
+     * One page of the catalog narrowed by storefront filters, with facet counts. Served from the in-memory
+     * {@link GameFacetIndex}, so it never queries the database.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // no transaction, so no pooled connection is taken either
+    public GameBrowseResponseModel browseGames(GameFilterRequestModel filter) {
+        int offset = filter.getOffset() == null ? 0 : filter.getOffset();
+        int pageSize = filter.getLimit() == null ? DEFAULT_BROWSE_PAGE_SIZE : filter.getLimit();
+        if (offset < 0) {
+            throw new InvalidInputException("offset must not be negative");
+        }
+        if (pageSize < 1 || pageSize > MAX_BROWSE_PAGE_SIZE) {
+            throw new InvalidInputException("limit must be between 1 and " + MAX_BROWSE_PAGE_SIZE);
+        }
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null && filter.getMinPrice() > filter.getMaxPrice()) {
+            throw new InvalidInputException("minPrice must not be above maxPrice");
+        }
+        if (filter.getMinYear() != null && filter.getMaxYear() != null && filter.getMinYear() > filter.getMaxYear()) {
+            throw new InvalidInputException("minYear must not be after maxYear");
+        }
+        if (filter.getGenre() != null) {
+            List<String> genres = new ArrayList<>();
+            for (String genre : filter.getGenre()) {
+                try {
+                    genres.add(Genre.valueOf(genre.trim().toUpperCase(Locale.ROOT)).name());
+                } catch (IllegalArgumentException e) {
+                    throw new InvalidInputException("Unknown genre: " + genre);
+                }
+            }
+            filter.setGenre(genres);
+        }
+        return facetIndex.browse(filter, offset, pageSize);
+    }
+
+    /**
+     * Titles a typed prefix completes, most reviewed games first. Served from the in-memory
+     * {@link TitleSuggestIndex}, so it never queries the database.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<SuggestionResponseModel> suggestTitles(String prefix, Integer limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new InvalidInputException("prefix must not be blank");
+        }
+        int maxSuggestions = limit == null ? DEFAULT_SUGGEST_LIMIT : limit;
+        if (maxSuggestions < 1 || maxSuggestions > MAX_SUGGEST_LIMIT) {
+            throw new InvalidInputException("limit must be between 1 and " + MAX_SUGGEST_LIMIT);
+        }
+        return suggestIndex.suggest(prefix, maxSuggestions);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SuggestIndexStatsResponseModel getSuggestIndexStats() {
+        return suggestIndex.stats();
+    }
+
+    /**
+     * One keyset page of a game's reviews, newest first. Pass the previous page's nextCursor to continue.
+     */
+    @Transactional(readOnly = true)
+    public ReviewPageResponseModel getReviews(String uuid, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_REVIEW_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_REVIEW_PAGE_SIZE) {
+            throw new InvalidInputException("limit must be between 1 and " + MAX_REVIEW_PAGE_SIZE);
+        }
+        ReviewCursor after;
+        try {
+            after = cursor == null || cursor.isBlank() ? null : ReviewCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("Invalid cursor: " + cursor);
+        }
+        if (!gameRepository.existsById(new GameId(uuid))) {
+            throw new NotFoundException("Game with UUID: " + uuid);
+        }
+
+        // One extra row tells us whether there is a next page without a count query.
+        Limit fetch = Limit.of(pageSize + 1);
+        List<Review> reviews = after == null
+                ? reviewRepository.findNewestByGame(uuid, fetch)
+                : reviewRepository.findByGameAfter(uuid, after.getTimestamp(), after.getReviewId(), fetch);
+        String nextCursor = null;
+        if (reviews.size() > pageSize) {
+            reviews = reviews.subList(0, pageSize);
+            nextCursor = ReviewCursor.after(reviews.get(pageSize - 1)).encode();
+        }
+        return new ReviewPageResponseModel(reviewMapper.reviewToReviewResponseModel(reviews), nextCursor);
     }
 
     public GameResponseModel createGame(GameRequestModel gameRequestModel){
         if (gameRequestModel.getPrice()<0){
             return null;
         }
-        return gameResponseMapper.gameToGameResponseModel(gameRepository.save(gameRequestMapper.requestModelToEntity(gameRequestModel)));
+        Game saved = gameRepository.save(gameRequestMapper.requestModelToEntity(gameRequestModel));
+        searchIndex.index(saved);
+        facetIndex.index(saved);
+        suggestIndex.catalogChanged();
+        return gameResponseMapper.gameToGameResponseModel(saved);
     }
 
 
@@ -62,7 +258,11 @@ public class GameService {
         if (game == null) {
             throw new NotFoundException(gameRequestModel.getUserId());
         }
-        return gameResponseMapper.gameToGameResponseModel(gameRepository.save(gameRequestMapper.requestModelToEntity(gameRequestModel)));
+        Game saved = gameRepository.save(gameRequestMapper.requestModelToEntity(gameRequestModel));
+        searchIndex.index(saved);
+        facetIndex.index(saved);
+        suggestIndex.catalogChanged();
+        return gameResponseMapper.gameToGameResponseModel(saved);
     }
 
     public GameResponseModel deleteGame(String uuid){
@@ -71,29 +271,73 @@ public class GameService {
             throw new NotFoundException("Game with UUID: " + uuid);
         }
         gameRepository.delete(game);
+        searchIndex.remove(uuid);
+        facetIndex.remove(uuid);
+        suggestIndex.catalogChanged();
         return gameResponseMapper.gameToGameResponseModel(game);
     }
 
-    public GameResponseModel addReview(ReviewRequestModel reviewRequestModel, String gameId){
-        Game game = gameRepository.findGameByGameId(new GameId(gameId));
+    /**
+     * Adds a review without loading the game's other reviews: the game is read with its row locked, which also
+     * proves it exists and serializes concurrent reviews of it, then one INSERT adds the review.
+     */
+    public ReviewAddedResponseModel addReview(ReviewRequestModel reviewRequestModel, String gameId){
+        int stars = parseStars(reviewRequestModel.getRating());
+        Game game = gameRepository.findGameForUpdate(new GameId(gameId));
+        if (game == null) {
+            throw new NotFoundException("Game with UUID: " + gameId);
+        }
+        RatingSummary delta = RatingSummary.change(null, stars);
+        game.addToRatings(delta);
+        facetIndex.addToRatings(gameId, delta);
         Review review = reviewMapper.reviewRequestModelToReview(reviewRequestModel);
 
         review.setReviewId(new ReviewId(UUID.randomUUID().toString()));
         review.setTimestamp(LocalDateTime.now());
+        review.setRating(stars);
+        review.setGame(game);
+        reviewRepository.insert(review);
 
-        List<Review> reviews = game.getReviews();
-        if (reviews == null) {
-            reviews = new ArrayList<>();
-        }
+        return new ReviewAddedResponseModel(gameId, reviewMapper.reviewToReviewResponseModel(review),
+                gameResponseMapper.ratingSummaryToResponseModel(game.getRatings()));
+    }
 
-        reviews.add(review);
-        review.setGame(game);
+    public ReviewResponseModel updateReview(String gameId, String reviewId, ReviewRequestModel reviewRequestModel) {
+        int stars = parseStars(reviewRequestModel.getRating());
+        Review review = findReview(gameId, reviewId);
+        Integer previous = review.getRating();
+        review.setComment(reviewRequestModel.getComment());
+        review.setRating(stars);
+        addToRatings(gameId, RatingSummary.change(previous, stars));
+        return reviewMapper.reviewToReviewResponseModel(review);
+    }
 
-        System.out.println(reviews);
-        game.setReviews(reviews);
-        reviewRepository.save(review);
-        gameRepository.save(game);
-        return gameResponseMapper.gameToGameResponseModel(game);
+    public void deleteReview(String gameId, String reviewId) {
+        Review review = findReview(gameId, reviewId);
+        reviewRepository.delete(review);
+        addToRatings(gameId, RatingSummary.change(review.getRating(), null));
+    }
+
+    // The review was found under this game, so the game exists.
+    private void addToRatings(String gameId, RatingSummary delta) {
+        gameRepository.findGameForUpdate(new GameId(gameId)).addToRatings(delta);
+        facetIndex.addToRatings(gameId, delta);
+    }
+
+    private Review findReview(String gameId, String reviewId) {
+        Review review = reviewRepository.findReviewByReviewIdAndGame_GameId(new ReviewId(reviewId), new GameId(gameId));
+        if (review == null) {
+            throw new NotFoundException("Review with UUID: " + reviewId + " of game " + gameId);
+        }
+        return review;
+    }
+
+    private static int parseStars(String rating) {
+        Matcher matcher = rating == null ? null : RATING.matcher(rating);
+        if (matcher == null || !matcher.matches()) {
+            throw new InvalidInputException("rating must be whole stars from 1 to 5, such as \"4\" or \"4/5\": " + rating);
+        }
+        return Integer.parseInt(matcher.group(1));
     }
 
     public void addGameToUser(String uuid, String gameId){
@@ -0,0 +1,62 @@
+package com.champsoft.gamemanagement.DataAccess;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Micrometer meters of the Hibernate second-level and query caches, exported on /actuator/prometheus. Hits and
+ * misses are counters, per region, so a hit ratio over any window is their rate() on the Prometheus side; the
+ * ratio gauges are since startup, for a quick look at /actuator/metrics.
+ */
+@Component
+public class CacheMetrics {
+
+    private final Statistics statistics;
+
+    public CacheMetrics(MeterRegistry registry, EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : new String[]{CacheRegions.GAMES, CacheRegions.GAME_REVIEWS, CacheRegions.REVIEWS}) {
+            register(registry, "game.cache", region,
+                    stats -> regionCount(region, CacheRegionStatistics::getHitCount),
+                    stats -> regionCount(region, CacheRegionStatistics::getMissCount));
+        }
+        register(registry, "game.query.cache", CacheRegions.QUERY_RESULTS,
+                Statistics::getQueryCacheHitCount, Statistics::getQueryCacheMissCount);
+    }
+
+    private void register(MeterRegistry registry, String name, String region,
+                          ToLongFunction<Statistics> hits, ToLongFunction<Statistics> misses) {
+        FunctionCounter.builder(name + ".requests", statistics, hits::applyAsLong)
+                .description("Cache lookups that found the entry")
+                .tag("region", region)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder(name + ".requests", statistics, misses::applyAsLong)
+                .description("Cache lookups that went to the database")
+                .tag("region", region)
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder(name + ".hit.ratio", statistics, stats -> ratio(hits.applyAsLong(stats), misses.applyAsLong(stats)))
+                .description("Share of cache lookups that found the entry, since startup")
+                .tag("region", region)
+                .register(registry);
+    }
+
+    // 0 when statistics are off or the region is not in use.
+    private long regionCount(String region, ToLongFunction<CacheRegionStatistics> count) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        return regionStatistics == null ? 0 : count.applyAsLong(regionStatistics);
+    }
+
+    private static double ratio(long hits, long misses) {
+        return hits + misses == 0 ? Double.NaN : (double) hits / (hits + misses);
+    }
+}
@@ -0,0 +1,16 @@
+package com.champsoft.gamemanagement.DataAccess;
+
+/**
+ * Names of the Hibernate second-level cache regions, as configured in ehcache.xml. Entities and collections are
+ * cached read-write, so a write through the persistence context replaces or evicts its entry when it commits.
+ */
+public final class CacheRegions {
+    public static final String GAMES = "games";
+    public static final String GAME_REVIEWS = "game-reviews";
+    public static final String REVIEWS = "reviews";
+    // Hibernate's own region for cached query results, invalidated by any write to a table the query reads.
+    public static final String QUERY_RESULTS = "default-query-results-region";
+
+    private CacheRegions() {
+    }
+}
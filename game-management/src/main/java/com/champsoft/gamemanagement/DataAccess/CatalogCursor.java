@@ -0,0 +1,60 @@
+package com.champsoft.gamemanagement.DataAccess;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in the catalog: the sort it was taken in and the sort key and id of the last game listed. Sent
+ * to clients as an opaque URL-safe token, like {@link ReviewCursor}.
+ */
+@Data
+@AllArgsConstructor
+public class CatalogCursor {
+    private static final String NO_KEY = "-";
+    private static final String KEY = "=";
+
+    private CatalogSort sort;
+    private boolean descending;
+    private Object key; // null when the last game had no value for the sort key
+    private String gameId;
+
+    public static CatalogCursor after(CatalogSort sort, boolean descending, GameSummary game) {
+        return new CatalogCursor(sort, descending, sort.keyOf(game), game.getId());
+    }
+
+    public String encode() {
+        // The key goes last since it is the one part that may contain the separator.
+        String raw = sort.name() + "|" + (descending ? "desc" : "asc") + "|" + gameId + "|"
+                + (key == null ? NO_KEY : KEY + key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the token was not produced by {@link #encode()}
+     */
+    public static CatalogCursor decode(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        String[] parts = raw.split("\\|", 4);
+        if (parts.length != 4 || parts[2].isEmpty() || !(parts[1].equals("asc") || parts[1].equals("desc"))) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        CatalogSort sort = CatalogSort.valueOf(parts[0]);
+        Object key;
+        if (parts[3].equals(NO_KEY)) {
+            key = null;
+        } else if (parts[3].startsWith(KEY)) {
+            try {
+                key = sort.parseKey(parts[3].substring(KEY.length()));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Malformed cursor", e);
+            }
+        } else {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return new CatalogCursor(sort, parts[1].equals("desc"), key, parts[2]);
+    }
+}
@@ -0,0 +1,69 @@
+package com.champsoft.gamemanagement.DataAccess;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Orders the catalog can be listed in. Each is a single indexed column, with the game id breaking ties.
+ */
+public enum CatalogSort {
+    TITLE("title", "title", false, true, GameSummary::getTitle),
+    PRICE("price", "price", false, false, GameSummary::getPrice),
+    RELEASE_DATE("releaseDate", "releaseDate", true, true, GameSummary::getReleaseDate),
+    RATING("rating", "ratingAverage", true, false, GameSummary::getRatingAverage);
+
+    private final String parameter;
+    private final String path;
+    private final boolean descendingByDefault;
+    private final boolean nullable;
+    private final Function<GameSummary, Object> key;
+
+    CatalogSort(String parameter, String path, boolean descendingByDefault, boolean nullable,
+                Function<GameSummary, Object> key) {
+        this.parameter = parameter;
+        this.path = path;
+        this.descendingByDefault = descendingByDefault;
+        this.nullable = nullable;
+        this.key = key;
+    }
+
+    public static Optional<CatalogSort> fromParameter(String parameter) {
+        return Arrays.stream(values()).filter(sort -> sort.parameter.equals(parameter)).findFirst();
+    }
+
+    public String getParameter() {
+        return parameter;
+    }
+
+    /**
+     * The sorted attribute of {@link Game}, for JPQL.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public boolean isDescendingByDefault() {
+        return descendingByDefault;
+    }
+
+    /**
+     * Whether games can lack this key; they are listed after all the others.
+     */
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    public Object keyOf(GameSummary game) {
+        return key.apply(game);
+    }
+
+    Object parseKey(String text) {
+        return switch (this) {
+            case TITLE -> text;
+            case PRICE, RATING -> Double.valueOf(text);
+            case RELEASE_DATE -> LocalDateTime.parse(text);
+        };
+    }
+}
@@ -3,6 +3,9 @@ package com.champsoft.gamemanagement.DataAccess;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -11,6 +14,10 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.GAMES)
+// Updates set only the columns that changed, so editing a game never writes back rating totals it read earlier.
+@DynamicUpdate
 @Setter
 @Getter
 @Table(name = "games")
@@ -24,12 +31,30 @@ public class Game {
     private String description;
     private String publisher;
     private String developer;
-    @OneToMany(mappedBy = "game", fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    // Lazy: a popular game has far too many reviews to load with it; page them through ReviewRepository instead.
+    @OneToMany(mappedBy = "game", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.GAME_REVIEWS)
     private List<Review> reviews;
+    @Embedded
+    private RatingSummary ratings = new RatingSummary();
+    // Average stars, 0 until the first rating. Stored so the catalog can be listed by rating off an index; only
+    // addToRatings changes it, together with the totals.
+    @Column(name = "rating_average", nullable = false)
+    private double ratingAverage;
     @Enumerated(EnumType.STRING)
     private Genre genre;
     private String game_user_id;
 
+    /**
+     * Applies a {@link RatingSummary#change} to the totals and recomputes the average. Only call it on a game
+     * loaded with {@link GameRepository#findGameForUpdate}.
+     */
+    public void addToRatings(RatingSummary delta) {
+        ratings.add(delta);
+        Double average = ratings.average();
+        ratingAverage = average == null ? 0 : average;
+    }
+
 
 
     //    @ManyToOne
@@ -1,10 +1,46 @@
 package com.champsoft.gamemanagement.DataAccess;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface GameRepository extends JpaRepository<Game, GameId> {
-    Game findGameByGameId(GameId gameId);
+public interface GameRepository extends JpaRepository<Game, GameId>, GameRepositoryCustom {
+
+    /**
+     * The game with this id, or null. Looked up by primary key, which the second-level cache answers without going
+     * to the database once the game is cached; a derived query would always run SQL.
+     */
+    default Game findGameByGameId(GameId gameId) {
+        return findById(gameId).orElse(null);
+    }
+
+    /**
+     * The game with this id, or null, read from the database with its row locked until the transaction ends. A
+     * review changes the rating totals on the game loaded this way ({@link Game#addToRatings}), so concurrent
+     * reviews of the same game apply their changes one after another instead of losing increments, and only that
+     * game's cache entry is replaced when they commit.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select g from Game g where g.gameId = :gameId")
+    Game findGameForUpdate(@Param("gameId") GameId gameId);
+
+    /**
+     * The games with these ids, locked like {@link #findGameForUpdate} and in id order, so two writers locking
+     * overlapping sets cannot deadlock. An edit made on games read this way cannot put rating totals older than a
+     * concurrent review's into the cache when it commits.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select g from Game g where g.gameId in :gameIds order by g.gameId.uuid")
+    List<Game> findAllForUpdate(@Param("gameIds") Collection<GameId> gameIds);
 
+    // Popularity is the number of ratings, the one measure of interest this service has.
+    @Query("select g.gameId.uuid as id, g.title as title, g.ratings.ratingCount as popularity from Game g")
+    List<GameTitle> findAllTitles();
 }
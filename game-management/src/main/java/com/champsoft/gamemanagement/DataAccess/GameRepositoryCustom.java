@@ -0,0 +1,26 @@
+package com.champsoft.gamemanagement.DataAccess;
+
+import java.util.List;
+
+public interface GameRepositoryCustom {
+
+    /**
+     * Up to {@code limit} games of the catalog in the given order, starting after a cursor (or from the start when
+     * it is null), then by id. Games without a value for the sort key come after all the others. Each page seeks on
+     * the sort column's index instead of skipping rows, so deep pages cost the same as the first. Pages are kept in
+     * the query cache until the next write to the games table.
+     */
+    List<GameSummary> findCatalogPage(CatalogSort sort, boolean descending, CatalogCursor after, int limit);
+
+    /**
+     * Persists a new game. Unlike save, which merges an entity with an assigned id and so selects it first, this
+     * only queues an INSERT, which the next flush sends in a JDBC batch with the others.
+     */
+    void insert(Game game);
+
+    /**
+     * Detaches every entity loaded so far, so a long-running bulk write does not keep each row it wrote in the
+     * persistence context. Flush first: pending changes are dropped, not written.
+     */
+    void detachAll();
+}
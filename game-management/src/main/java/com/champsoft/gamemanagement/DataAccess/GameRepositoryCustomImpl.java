@@ -0,0 +1,67 @@
+package com.champsoft.gamemanagement.DataAccess;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class GameRepositoryCustomImpl implements GameRepositoryCustom {
+
+    private static final String SELECT_SUMMARY = "select new com.champsoft.gamemanagement.DataAccess.GameSummary("
+            + "g.gameId.uuid, g.title, g.price, g.releaseDate, g.publisher, g.developer, g.genre,"
+            + " g.ratings.ratingCount, g.ratingAverage) from Game g";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<GameSummary> findCatalogPage(CatalogSort sort, boolean descending, CatalogCursor after, int limit) {
+        String key = "g." + sort.getPath();
+        String direction = descending ? " desc" : " asc";
+        String beyond = descending ? " < " : " > ";
+        String from = descending ? " <= " : " >= ";
+        List<GameSummary> page = new ArrayList<>(limit);
+
+        // Games with a key. The index seeks on the first condition; the second only drops ties already listed.
+        if (after == null || after.getKey() != null) {
+            String where = "";
+            if (after != null) {
+                where = " where " + key + from + ":key and (" + key + beyond + ":key or g.gameId.uuid" + beyond + ":id)";
+            } else if (sort.isNullable()) {
+                where = " where " + key + " is not null";
+            }
+            TypedQuery<GameSummary> query = entityManager.createQuery(
+                    SELECT_SUMMARY + where + " order by " + key + direction + ", g.gameId.uuid" + direction, GameSummary.class);
+            if (after != null) {
+                query.setParameter("key", after.getKey()).setParameter("id", after.getGameId());
+            }
+            page.addAll(query.setHint(HibernateHints.HINT_CACHEABLE, true).setMaxResults(limit).getResultList());
+        }
+
+        // Then the games without one, once the others have all been listed.
+        if (page.size() < limit && sort.isNullable()) {
+            boolean resume = after != null && after.getKey() == null;
+            String where = " where " + key + " is null" + (resume ? " and g.gameId.uuid" + beyond + ":id" : "");
+            TypedQuery<GameSummary> query = entityManager.createQuery(
+                    SELECT_SUMMARY + where + " order by g.gameId.uuid" + direction, GameSummary.class);
+            if (resume) {
+                query.setParameter("id", after.getGameId());
+            }
+            page.addAll(query.setHint(HibernateHints.HINT_CACHEABLE, true).setMaxResults(limit - page.size()).getResultList());
+        }
+        return page;
+    }
+
+    @Override
+    public void insert(Game game) {
+        entityManager.persist(game);
+    }
+
+    @Override
+    public void detachAll() {
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,23 @@
+package com.champsoft.gamemanagement.DataAccess;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns a catalog listing shows, selected straight into this class so no {@link Game} is loaded.
+ */
+@Data
+@AllArgsConstructor
+public class GameSummary {
+    private String id;
+    private String title;
+    private double price;
+    private LocalDateTime releaseDate;
+    private String publisher;
+    private String developer;
+    private Genre genre;
+    private long ratingCount;
+    private double ratingAverage; // 0 until the first rating
+}
@@ -0,0 +1,12 @@
+package com.champsoft.gamemanagement.DataAccess;
+
+/**
+ * Just what title suggestions need of a game, so building them does not load whole entities.
+ */
+public interface GameTitle {
+    String getId();
+
+    String getTitle();
+
+    long getPopularity();
+}
@@ -0,0 +1,88 @@
+package com.champsoft.gamemanagement.DataAccess;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Running rating totals of a game, kept on its row so a summary costs one read however many reviews it has.
+ * Only {@link Game#addToRatings} changes them, on a game locked with {@link GameRepository#findGameForUpdate};
+ * since a game's UPDATE sets only the columns that changed, an edit that leaves them alone never writes them.
+ */
+@Embeddable
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RatingSummary {
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+    @Column(name = "rating_1", nullable = false)
+    private long oneStar;
+    @Column(name = "rating_2", nullable = false)
+    private long twoStars;
+    @Column(name = "rating_3", nullable = false)
+    private long threeStars;
+    @Column(name = "rating_4", nullable = false)
+    private long fourStars;
+    @Column(name = "rating_5", nullable = false)
+    private long fiveStars;
+
+    /**
+     * The change to apply when a review's rating goes from {@code removed} to {@code added}; either may be null,
+     * for a review being created or deleted.
+     */
+    public static RatingSummary change(Integer removed, Integer added) {
+        RatingSummary delta = new RatingSummary();
+        if (removed != null) {
+            delta.count(removed, -1);
+        }
+        if (added != null) {
+            delta.count(added, 1);
+        }
+        return delta;
+    }
+
+    public void add(RatingSummary delta) {
+        ratingCount += delta.ratingCount;
+        ratingSum += delta.ratingSum;
+        oneStar += delta.oneStar;
+        twoStars += delta.twoStars;
+        threeStars += delta.threeStars;
+        fourStars += delta.fourStars;
+        fiveStars += delta.fiveStars;
+    }
+
+    public Double average() {
+        return ratingCount == 0 ? null : (double) ratingSum / ratingCount;
+    }
+
+    public Map<Integer, Long> histogram() {
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        histogram.put(1, oneStar);
+        histogram.put(2, twoStars);
+        histogram.put(3, threeStars);
+        histogram.put(4, fourStars);
+        histogram.put(5, fiveStars);
+        return histogram;
+    }
+
+    private void count(int stars, int sign) {
+        ratingCount += sign;
+        ratingSum += (long) sign * stars;
+        switch (stars) {
+            case 1 -> oneStar += sign;
+            case 2 -> twoStars += sign;
+            case 3 -> threeStars += sign;
+            case 4 -> fourStars += sign;
+            case 5 -> fiveStars += sign;
+            default -> throw new IllegalArgumentException("Not a star rating: " + stars);
+        }
+    }
+}
@@ -7,6 +7,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
@@ -14,22 +16,27 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "reviews")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.REVIEWS)
+@Table(name = "reviews", indexes = {
+        // Serves the keyset pages of a game's reviews, newest first, without a sort.
+        @Index(name = "idx_reviews_game_timestamp", columnList = "game_id, timestamp DESC, review_id DESC")
+})
 @ToString(exclude = "game")
 public class Review {
     @EmbeddedId
     private ReviewId reviewId;
     private String comment;
-    private String rating;
+    private Integer rating; // stars, 1 to 5; null only for legacy ratings the backfill could not read
     private LocalDateTime timestamp;
     @JsonBackReference
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="game_id", nullable = true)
     private Game game;
 
     public Review(String s, int i) {
         reviewId = new ReviewId(s);
-        rating = String.valueOf(i);
+        rating = i;
     }
 
 }
\ No newline at end of file
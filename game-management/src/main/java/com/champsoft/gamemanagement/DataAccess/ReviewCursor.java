@@ -0,0 +1,45 @@
+package com.champsoft.gamemanagement.DataAccess;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in a game's reviews, sorted by timestamp then review id, both descending. Sent to clients as
+ * an opaque URL-safe token so the format can change without breaking them.
+ */
+@Data
+@AllArgsConstructor
+public class ReviewCursor {
+    private LocalDateTime timestamp;
+    private String reviewId;
+
+    public static ReviewCursor after(Review review) {
+        return new ReviewCursor(review.getTimestamp(), review.getReviewId().getUuid());
+    }
+
+    public String encode() {
+        String raw = timestamp + "|" + reviewId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the token was not produced by {@link #encode()}
+     */
+    public static ReviewCursor decode(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separator = raw.indexOf('|');
+        if (separator <= 0 || separator == raw.length() - 1) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        try {
+            return new ReviewCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
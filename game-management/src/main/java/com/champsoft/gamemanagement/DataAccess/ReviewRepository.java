@@ -1,8 +1,48 @@
 package com.champsoft.gamemanagement.DataAccess;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface ReviewRepository extends JpaRepository<Review, ReviewId> {
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ReviewRepository extends JpaRepository<Review, ReviewId>, ReviewRepositoryCustom {
 
     Review findReviewByReviewId(ReviewId ReviewId);
+
+    /**
+     * The review, locked until the transaction ends. Changing or deleting a review applies the difference from its
+     * old rating to the game's totals, so two writers of one review must not both start from the same old rating.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Review findReviewByReviewIdAndGame_GameId(ReviewId reviewId, GameId gameId);
+
+    /**
+     * First page of a game's reviews, newest first; ties on timestamp are broken by review id. The result is kept in
+     * the query cache until a review is written, and the reviews themselves come from the entity cache.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select r from Review r where r.game.gameId.uuid = :gameId"
+            + " order by r.timestamp desc, r.reviewId.uuid desc")
+    List<Review> findNewestByGame(@Param("gameId") String gameId, Limit limit);
+
+    /**
+     * The page after a cursor, in the same order as {@link #findNewestByGame}. Seeks on the index instead of
+     * skipping rows, so deep pages cost the same as the first.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select r from Review r where r.game.gameId.uuid = :gameId"
+            + " and (r.timestamp < :timestamp or (r.timestamp = :timestamp and r.reviewId.uuid < :reviewId))"
+            + " order by r.timestamp desc, r.reviewId.uuid desc")
+    List<Review> findByGameAfter(@Param("gameId") String gameId,
+                                 @Param("timestamp") LocalDateTime timestamp,
+                                 @Param("reviewId") String reviewId,
+                                 Limit limit);
 }
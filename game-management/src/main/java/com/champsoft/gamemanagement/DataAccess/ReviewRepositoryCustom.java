@@ -0,0 +1,10 @@
+package com.champsoft.gamemanagement.DataAccess;
+
+public interface ReviewRepositoryCustom {
+
+    /**
+     * Persists a review whose id was just generated. Unlike save, which merges an entity with an assigned id and
+     * so selects it first, this is a single INSERT.
+     */
+    void insert(Review review);
+}
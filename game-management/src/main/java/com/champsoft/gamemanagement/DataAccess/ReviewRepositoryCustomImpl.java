@@ -0,0 +1,15 @@
+package com.champsoft.gamemanagement.DataAccess;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+class ReviewRepositoryCustomImpl implements ReviewRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insert(Review review) {
+        entityManager.persist(review);
+    }
+}
@@ -2,11 +2,17 @@ package com.champsoft.gamemanagement.DataMapper;
 
 import com.champsoft.gamemanagement.DataAccess.Game;
 import com.champsoft.gamemanagement.DataAccess.GameId;
+import com.champsoft.gamemanagement.DataAccess.GameSummary;
 import com.champsoft.gamemanagement.DataAccess.Genre;
+import com.champsoft.gamemanagement.DataAccess.RatingSummary;
 import com.champsoft.gamemanagement.Presentation.DTOS.GameRequestModel;
 import com.champsoft.gamemanagement.Presentation.DTOS.GameResponseModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.GameSummaryResponseModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.RatingSummaryResponseModel;
+import org.mapstruct.IterableMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.Named;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,5 +26,27 @@ public interface GameResponseMapper {
     @Mapping(expression = "java(game.getReleaseDate().toString())",target = "releaseDate")
     @Mapping(expression = "java(game.getGenre().toString())",target = "genre")
     GameResponseModel gameToGameResponseModel(Game game);
+
+    // Listings leave the reviews out so the lazy collection is never loaded; they are paged per game instead.
+    @Named("summary")
+    @Mapping(expression = "java(game.getGameId().getUuid())", target = "id")
+    @Mapping(expression = "java(game.getReleaseDate().toString())",target = "releaseDate")
+    @Mapping(expression = "java(game.getGenre().toString())",target = "genre")
+    @Mapping(target = "reviews", ignore = true)
+    GameResponseModel gameToGameSummary(Game game);
+
+    @IterableMapping(qualifiedByName = "summary")
     List<GameResponseModel> gameToGameResponseModel(List<Game> game);
+
+    @Mapping(expression = "java(summary.getReleaseDate() == null ? null : summary.getReleaseDate().toString())", target = "releaseDate")
+    @Mapping(expression = "java(summary.getRatingCount() == 0 ? null : summary.getRatingAverage())", target = "ratingAverage")
+    GameSummaryResponseModel gameSummaryToResponseModel(GameSummary summary);
+    List<GameSummaryResponseModel> gameSummaryToResponseModel(List<GameSummary> summaries);
+
+    default RatingSummaryResponseModel ratingSummaryToResponseModel(RatingSummary ratings) {
+        if (ratings == null) {
+            return null;
+        }
+        return new RatingSummaryResponseModel(ratings.getRatingCount(), ratings.getRatingSum(), ratings.average(), ratings.histogram());
+    }
 }
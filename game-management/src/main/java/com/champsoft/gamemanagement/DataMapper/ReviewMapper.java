@@ -3,15 +3,22 @@ package com.champsoft.gamemanagement.DataMapper;
 import com.champsoft.gamemanagement.DataAccess.Review;
 import com.champsoft.gamemanagement.DataAccess.ReviewId;
 import com.champsoft.gamemanagement.Presentation.DTOS.ReviewRequestModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.ReviewResponseModel;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Mapper(componentModel = "spring", imports = {LocalDateTime.class, Review.class, UUID.class, ReviewId.class})
 public interface ReviewMapper {
     @Mapping(target = "reviewId", ignore = true)
     @Mapping(target = "timestamp", ignore = true)
+    @Mapping(target = "rating", ignore = true) // parsed and validated by GameService
     Review reviewRequestModelToReview(ReviewRequestModel reviewRequestModel);
+
+    @Mapping(expression = "java(review.getReviewId().getUuid())", target = "id")
+    ReviewResponseModel reviewToReviewResponseModel(Review review);
+    List<ReviewResponseModel> reviewToReviewResponseModel(List<Review> reviews);
 }
@@ -0,0 +1,120 @@
+package com.champsoft.gamemanagement.Import;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads RFC 4180 CSV: the first record names the columns, fields may be quoted, and quoted fields may hold commas,
+ * doubled quotes and line breaks. Empty fields are treated as absent and blank lines are skipped.
+ */
+class CsvRowReader implements ImportRowReader {
+
+    private final BufferedReader reader;
+    private List<String> header;
+    private int lineNumber = 1;
+    private boolean ended;
+
+    CsvRowReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        if (header == null) {
+            List<String> names = readRecord();
+            if (names == null) {
+                return null;
+            }
+            header = new ArrayList<>();
+            for (String name : names) {
+                header.add(name.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        int line;
+        List<String> values;
+        do {
+            line = lineNumber;
+            values = readRecord();
+            if (values == null) {
+                return null;
+            }
+        } while (values.size() == 1 && values.get(0).isEmpty());
+
+        if (values.size() != header.size()) {
+            return ImportRow.unreadable(line, "expected " + header.size() + " columns but found " + values.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            if (!values.get(i).isEmpty()) {
+                fields.put(header.get(i), values.get(i));
+            }
+        }
+        return ImportRow.of(line, fields);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // The fields of the next record, or null at the end of the input.
+    private List<String> readRecord() throws IOException {
+        if (ended) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        while (true) {
+            int c = reader.read();
+            if (c == -1) {
+                ended = true;
+                if (!any) {
+                    return null;
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                lineNumber++;
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+}
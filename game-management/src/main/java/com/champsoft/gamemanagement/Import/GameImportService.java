@@ -0,0 +1,296 @@
+package com.champsoft.gamemanagement.Import;
+
+import com.champsoft.gamemanagement.DataAccess.Game;
+import com.champsoft.gamemanagement.DataAccess.GameId;
+import com.champsoft.gamemanagement.DataAccess.GameRepository;
+import com.champsoft.gamemanagement.DataAccess.Genre;
+import com.champsoft.gamemanagement.Presentation.DTOS.GameImportResponseModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.ImportRowErrorResponseModel;
+import com.champsoft.gamemanagement.Search.GameFacetIndex;
+import com.champsoft.gamemanagement.Search.GameSearchIndex;
+import com.champsoft.gamemanagement.Search.TitleSuggestIndex;
+import com.champsoft.gamemanagement.utils.exceptions.InvalidInputException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Loads a publisher's catalog in one upload instead of a POST per game. Records are streamed, validated one by one
+ * and written in chunks, each in its own transaction: games with a known id are updated, the others inserted, and
+ * Hibernate sends each chunk's statements in JDBC batches. A record that fails validation, or a chunk that fails to
+ * save, is reported and skipped without stopping the rest. The search, facet and suggestion indexes are refreshed
+ * once, with everything that was saved, when the upload is done.
+ */
+@Slf4j
+@Service
+public class GameImportService {
+    static final int MAX_REPORTED_ERRORS = 100;
+    static final int MAX_TEXT_LENGTH = 255;
+    static final int MAX_DESCRIPTION_LENGTH = 2000;
+
+    private final GameRepository gameRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final GameSearchIndex searchIndex;
+    private final GameFacetIndex facetIndex;
+    private final TitleSuggestIndex suggestIndex;
+    private final int chunkSize;
+
+    public GameImportService(GameRepository gameRepository, PlatformTransactionManager transactionManager,
+                             GameSearchIndex searchIndex, GameFacetIndex facetIndex, TitleSuggestIndex suggestIndex,
+                             @Value("${app.import.chunk-size:500}") int chunkSize) {
+        this.gameRepository = gameRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.searchIndex = searchIndex;
+        this.facetIndex = facetIndex;
+        this.suggestIndex = suggestIndex;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports CSV with a header row or newline-delimited JSON objects. Either way the fields are those of a game
+     * request (title, price, genre, description, publisher, developer) plus an optional id, which updates the game
+     * with that id when there is one, and an optional ISO releaseDate.
+     */
+    public GameImportResponseModel importGames(String contentType, InputStream body) throws IOException {
+        ImportRowReader reader;
+        try {
+            reader = ImportRowReader.open(MediaType.parseMediaType(contentType), body);
+        } catch (InvalidMediaTypeException | IllegalArgumentException e) {
+            throw new InvalidInputException("Unsupported import format: " + contentType);
+        }
+        try (reader) {
+            return importGames(reader);
+        }
+    }
+
+    GameImportResponseModel importGames(ImportRowReader reader) throws IOException {
+        long started = System.nanoTime();
+        Tally tally = new Tally();
+        List<Game> saved = new ArrayList<>();
+        List<ValidRow> chunk = new ArrayList<>(chunkSize);
+        ImportRow row;
+        while ((row = reader.next()) != null) {
+            tally.received++;
+            if (row.error() != null) {
+                tally.reject(row.line(), row.error());
+                continue;
+            }
+            try {
+                chunk.add(ValidRow.of(row));
+            } catch (IllegalArgumentException e) {
+                tally.reject(row.line(), e.getMessage());
+                continue;
+            }
+            if (chunk.size() == chunkSize) {
+                write(chunk, tally, saved);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            write(chunk, tally, saved);
+        }
+
+        if (!saved.isEmpty()) {
+            searchIndex.indexAll(saved);
+            facetIndex.indexAll(saved);
+            suggestIndex.catalogChanged();
+        }
+        long nanos = System.nanoTime() - started;
+        double rowsPerSecond = nanos == 0 ? 0 : tally.received * 1e9 / nanos;
+        log.info("Imported {} games ({} inserted, {} updated, {} rejected) in {} ms, {} rows/s", tally.received,
+                tally.inserted, tally.updated, tally.rejected, nanos / 1_000_000, Math.round(rowsPerSecond));
+        return new GameImportResponseModel(tally.received, tally.inserted, tally.updated, tally.rejected,
+                nanos / 1_000_000, rowsPerSecond, tally.errors, tally.rejected > tally.errors.size());
+    }
+
+    // Saves a chunk in one transaction. If it fails, its rows are retried one at a time, so a single bad row
+    // costs only itself.
+    private void write(List<ValidRow> chunk, Tally tally, List<Game> saved) {
+        Chunk written;
+        try {
+            written = transactionTemplate.execute(status -> upsert(chunk));
+        } catch (DataAccessException | TransactionException e) {
+            gameRepository.detachAll();
+            if (chunk.size() == 1) {
+                tally.reject(chunk.get(0).line(), "could not be saved: " + e.getMostSpecificCause().getMessage());
+                return;
+            }
+            log.warn("Import chunk of {} rows failed, retrying them one by one: {}", chunk.size(), e.getMessage());
+            for (ValidRow row : chunk) {
+                write(List.of(row), tally, saved);
+            }
+            return;
+        }
+        tally.inserted += written.inserted();
+        tally.updated += written.updated();
+        saved.addAll(written.games());
+    }
+
+    private Chunk upsert(List<ValidRow> rows) {
+        Map<GameId, Game> games = new LinkedHashMap<>();
+        List<GameId> ids = rows.stream().map(ValidRow::id).filter(Objects::nonNull).map(GameId::new).distinct().toList();
+        if (!ids.isEmpty()) {
+            // Locked, as a review would lock it, so the edits cannot cache totals older than a concurrent review's.
+            gameRepository.findAllForUpdate(ids).forEach(game -> games.put(game.getGameId(), game));
+        }
+        int inserted = 0;
+        int updated = 0;
+        for (ValidRow row : rows) {
+            GameId id = new GameId(row.id() != null ? row.id() : UUID.randomUUID().toString());
+            Game game = games.get(id);
+            if (game == null) {
+                game = new Game();
+                game.setGameId(id);
+                game.setReleaseDate(LocalDateTime.now());
+                row.applyTo(game);
+                gameRepository.insert(game);
+                games.put(id, game);
+                inserted++;
+            } else {
+                row.applyTo(game); // written by dirty checking at flush
+                updated++;
+            }
+        }
+        gameRepository.flush();
+        // Keeps the persistence context, which outlives the transaction when it is bound to the request, from
+        // holding every game of the upload.
+        gameRepository.detachAll();
+        return new Chunk(List.copyOf(games.values()), inserted, updated);
+    }
+
+    private record Chunk(List<Game> games, int inserted, int updated) {
+    }
+
+    private static class Tally {
+        private int received;
+        private int inserted;
+        private int updated;
+        private int rejected;
+        private final List<ImportRowErrorResponseModel> errors = new ArrayList<>();
+
+        private void reject(int line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportRowErrorResponseModel(line, message));
+            }
+        }
+    }
+
+    /**
+     * A record that passed validation. Values left out of the record are null and leave the game's as they are.
+     */
+    record ValidRow(int line, String id, String title, double price, Genre genre, LocalDateTime releaseDate,
+                    String description, String publisher, String developer) {
+
+        /**
+         * @throws IllegalArgumentException saying what is wrong with the record
+         */
+        static ValidRow of(ImportRow row) {
+            Map<String, String> fields = row.fields();
+            String id = fields.get("id");
+            if (id != null) {
+                try {
+                    id = UUID.fromString(id.trim()).toString();
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("id must be a UUID: " + id);
+                }
+            }
+            String title = text(fields, "title", MAX_TEXT_LENGTH);
+            if (title == null) {
+                throw new IllegalArgumentException("title is required");
+            }
+            return new ValidRow(row.line(), id, title, price(fields.get("price")), genre(fields.get("genre")),
+                    releaseDate(fields.get("releasedate")), text(fields, "description", MAX_DESCRIPTION_LENGTH),
+                    text(fields, "publisher", MAX_TEXT_LENGTH), text(fields, "developer", MAX_TEXT_LENGTH));
+        }
+
+        void applyTo(Game game) {
+            game.setTitle(title);
+            game.setPrice(price);
+            game.setGenre(genre);
+            if (releaseDate != null) {
+                game.setReleaseDate(releaseDate);
+            }
+            if (description != null) {
+                game.setDescription(description);
+            }
+            if (publisher != null) {
+                game.setPublisher(publisher);
+            }
+            if (developer != null) {
+                game.setDeveloper(developer);
+            }
+        }
+
+        private static String text(Map<String, String> fields, String name, int maxLength) {
+            String value = fields.get(name);
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            value = value.trim();
+            if (value.length() > maxLength) {
+                throw new IllegalArgumentException(name + " must be at most " + maxLength + " characters");
+            }
+            return value;
+        }
+
+        private static double price(String value) {
+            if (value == null || value.isBlank()) {
+                throw new IllegalArgumentException("price is required");
+            }
+            double price;
+            try {
+                price = Double.parseDouble(value.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("price must be a number: " + value);
+            }
+            if (!(price >= 0) || Double.isInfinite(price)) {
+                throw new IllegalArgumentException("price must be a finite amount of zero or more: " + value);
+            }
+            return price;
+        }
+
+        private static Genre genre(String value) {
+            if (value == null || value.isBlank()) {
+                throw new IllegalArgumentException("genre is required");
+            }
+            try {
+                return Genre.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown genre: " + value);
+            }
+        }
+
+        private static LocalDateTime releaseDate(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            try {
+                return value.trim().length() == 10
+                        ? LocalDate.parse(value.trim()).atStartOfDay()
+                        : LocalDateTime.parse(value.trim());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("releaseDate must be an ISO date such as 2024-03-01: " + value);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.champsoft.gamemanagement.Import;
+
+import java.util.Map;
+
+/**
+ * One record of an import as read, before validation: its field values by lower-cased name, or why it could not
+ * be read at all. The line is where the record starts in the input, for error reports.
+ */
+public record ImportRow(int line, Map<String, String> fields, String error) {
+
+    static ImportRow of(int line, Map<String, String> fields) {
+        return new ImportRow(line, fields, null);
+    }
+
+    static ImportRow unreadable(int line, String error) {
+        return new ImportRow(line, Map.of(), error);
+    }
+}
@@ -0,0 +1,40 @@
+package com.champsoft.gamemanagement.Import;
+
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams the records of an import one at a time, so an upload of any size is never held in memory whole.
+ */
+public interface ImportRowReader extends Closeable {
+
+    MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    /**
+     * The next record, or null once the input is exhausted. A record that cannot be read comes back with an
+     * {@link ImportRow#error()} and reading carries on with the next one.
+     */
+    ImportRow next() throws IOException;
+
+    /**
+     * A reader for CSV with a header row, or for newline-delimited JSON objects.
+     *
+     * @throws IllegalArgumentException for any other content type
+     */
+    static ImportRowReader open(MediaType contentType, InputStream input) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        if (MediaType.parseMediaType("text/csv").isCompatibleWith(contentType)) {
+            return new CsvRowReader(reader);
+        }
+        if (NDJSON.isCompatibleWith(contentType)) {
+            return new NdjsonRowReader(reader);
+        }
+        throw new IllegalArgumentException("Unsupported import format: " + contentType);
+    }
+}
@@ -0,0 +1,63 @@
+package com.champsoft.gamemanagement.Import;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads one JSON object per line. Values are kept as text, so a wrong type is reported by validation like any
+ * other bad value; blank lines are skipped.
+ */
+class NdjsonRowReader implements ImportRowReader {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final BufferedReader reader;
+    private int lineNumber;
+
+    NdjsonRowReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        JsonNode node;
+        try {
+            node = MAPPER.readTree(line);
+        } catch (JsonProcessingException e) {
+            return ImportRow.unreadable(lineNumber, "not valid JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            return ImportRow.unreadable(lineNumber, "expected a JSON object");
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            if (!field.getValue().isNull()) {
+                fields.put(field.getKey().toLowerCase(Locale.ROOT), field.getValue().asText());
+            }
+        }
+        return ImportRow.of(lineNumber, fields);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,17 @@
+package com.champsoft.gamemanagement.Presentation.DTOS;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GameBrowseResponseModel {
+    private List<GameResponseModel> games; // one page, ordered by title
+    private int total; // games matching every filter
+    private Map<String, Map<String, Integer>> facets; // facet -> value -> matching games, ignoring that facet's own filter
+}
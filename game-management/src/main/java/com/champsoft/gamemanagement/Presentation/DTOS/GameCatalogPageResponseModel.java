@@ -0,0 +1,15 @@
+package com.champsoft.gamemanagement.Presentation.DTOS;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GameCatalogPageResponseModel {
+    private List<GameSummaryResponseModel> games;
+    private String nextCursor; // null on the last page
+}
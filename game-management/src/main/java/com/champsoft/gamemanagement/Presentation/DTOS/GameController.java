@@ -2,28 +2,26 @@ package com.champsoft.gamemanagement.Presentation.DTOS;
 
 
 import com.champsoft.gamemanagement.BusinessLogic.GameService;
-import org.springframework.stereotype.Controller;
-import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
-import java.util.Map;
-
-
+import com.champsoft.gamemanagement.Import.GameImportService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
-import java.util.Map;
 
 @RestController
 @RequestMapping("api/v1/game")
 public class GameController {
 
     private GameService gameService;
+    private final GameImportService gameImportService;
 
-    public GameController(GameService gameService) {
+    public GameController(GameService gameService, GameImportService gameImportService) {
         this.gameService = gameService;
+        this.gameImportService = gameImportService;
     }
 
     @GetMapping("{uuid}")
@@ -36,10 +34,41 @@ public class GameController {
         }
     }
 
+    @GetMapping("{uuid}/reviews")
+    public ResponseEntity<ReviewPageResponseModel> getReviews(@PathVariable String uuid,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer limit) {
+        return new ResponseEntity<>(gameService.getReviews(uuid, cursor, limit), HttpStatus.OK);
+    }
+
     @GetMapping()
-    public ResponseEntity<List<GameResponseModel>> getAllGames() {
-        List<GameResponseModel> games = gameService.getAllGames();
-        return new ResponseEntity<>(games, HttpStatus.OK);
+    public ResponseEntity<GameCatalogPageResponseModel> getGames(@RequestParam(required = false) String sort,
+                                                                 @RequestParam(required = false) String direction,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Integer limit) {
+        return new ResponseEntity<>(gameService.getGames(sort, direction, cursor, limit), HttpStatus.OK);
+    }
+
+    @GetMapping("search")
+    public ResponseEntity<List<GameResponseModel>> searchGames(@RequestParam String q,
+                                                               @RequestParam(required = false) Integer limit) {
+        return new ResponseEntity<>(gameService.searchGames(q, limit), HttpStatus.OK);
+    }
+
+    @GetMapping("browse")
+    public ResponseEntity<GameBrowseResponseModel> browseGames(GameFilterRequestModel filter) {
+        return new ResponseEntity<>(gameService.browseGames(filter), HttpStatus.OK);
+    }
+
+    @GetMapping("suggest")
+    public ResponseEntity<List<SuggestionResponseModel>> suggestTitles(@RequestParam String prefix,
+                                                                       @RequestParam(required = false) Integer limit) {
+        return new ResponseEntity<>(gameService.suggestTitles(prefix, limit), HttpStatus.OK);
+    }
+
+    @GetMapping("suggest/stats")
+    public ResponseEntity<SuggestIndexStatsResponseModel> getSuggestIndexStats() {
+        return new ResponseEntity<>(gameService.getSuggestIndexStats(), HttpStatus.OK);
     }
 
     @PostMapping
@@ -51,6 +80,12 @@ public class GameController {
         return new ResponseEntity<>(addedGame, HttpStatus.CREATED);
     }
 
+    // The body is read as a stream, so an upload of any size is imported without being buffered first.
+    @PostMapping(value = "import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<GameImportResponseModel> importGames(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                               InputStream body) throws IOException {
+        return new ResponseEntity<>(gameImportService.importGames(contentType, body), HttpStatus.OK);
+    }
 
     @PutMapping("{uuid}")
     public ResponseEntity<GameResponseModel> updateGame(@RequestBody GameRequestModel gameRequestModel, @PathVariable String uuid) {
@@ -73,8 +108,8 @@ public class GameController {
     }
 
     @PostMapping("review/{uuid}")
-    public ResponseEntity<GameResponseModel> reviewGame(@PathVariable String uuid, @RequestBody ReviewRequestModel reviewRequestModel) {
-        GameResponseModel reviewedGame = gameService.addReview(reviewRequestModel, uuid);
+    public ResponseEntity<ReviewAddedResponseModel> reviewGame(@PathVariable String uuid, @RequestBody ReviewRequestModel reviewRequestModel) {
+        ReviewAddedResponseModel reviewedGame = gameService.addReview(reviewRequestModel, uuid);
         if(reviewedGame != null){
             return new ResponseEntity<>(reviewedGame, HttpStatus.OK);
         } else {
@@ -82,6 +117,18 @@ public class GameController {
         }
     }
 
+    @PutMapping("{uuid}/reviews/{reviewId}")
+    public ResponseEntity<ReviewResponseModel> updateReview(@PathVariable String uuid, @PathVariable String reviewId,
+                                                            @RequestBody ReviewRequestModel reviewRequestModel) {
+        return new ResponseEntity<>(gameService.updateReview(uuid, reviewId, reviewRequestModel), HttpStatus.OK);
+    }
+
+    @DeleteMapping("{uuid}/reviews/{reviewId}")
+    public ResponseEntity<Void> deleteReview(@PathVariable String uuid, @PathVariable String reviewId) {
+        gameService.deleteReview(uuid, reviewId);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
 //    @PostMapping("/addToLibrary")
 //    public ResponseEntity<Void> addToLibrary(@RequestBody Map<String, String> requestBody) {
 //        String userUuid = requestBody.get("userUuid");
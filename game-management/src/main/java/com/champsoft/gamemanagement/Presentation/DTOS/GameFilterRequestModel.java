@@ -0,0 +1,26 @@
+package com.champsoft.gamemanagement.Presentation.DTOS;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Storefront filters, bound from query parameters. Several values of one filter match any of them; different
+ * filters must all match.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GameFilterRequestModel {
+    private List<String> genre;
+    private List<String> publisher;
+    private List<String> developer;
+    private Double minPrice;
+    private Double maxPrice;
+    private Integer minYear;
+    private Integer maxYear;
+    private Integer offset;
+    private Integer limit;
+}
@@ -0,0 +1,21 @@
+package com.champsoft.gamemanagement.Presentation.DTOS;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GameImportResponseModel {
+    private int received; // records read, blank lines aside
+    private int inserted;
+    private int updated;
+    private int rejected;
+    private long durationMillis;
+    private double rowsPerSecond;
+    private List<ImportRowErrorResponseModel> errors; // the first rejects only, see errorsTruncated
+    private boolean errorsTruncated;
+}
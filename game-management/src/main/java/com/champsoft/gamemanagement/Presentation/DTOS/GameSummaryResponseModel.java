@@ -0,0 +1,20 @@
+package com.champsoft.gamemanagement.Presentation.DTOS;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GameSummaryResponseModel {
+    private String id;
+    private String title;
+    private double price;
+    private String releaseDate;
+    private String publisher;
+    private String developer;
+    private String genre;
+    private long ratingCount;
+    private Double ratingAverage; // null until the game has a rating
+}
@@ -0,0 +1,13 @@
+package com.champsoft.gamemanagement.Presentation.DTOS;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportRowErrorResponseModel {
+    private int line; // where the record starts in the upload, from 1
+    private String message;
+}
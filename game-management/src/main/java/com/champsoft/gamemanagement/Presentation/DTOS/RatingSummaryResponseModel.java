@@ -0,0 +1,17 @@
+package com.champsoft.gamemanagement.Presentation.DTOS;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RatingSummaryResponseModel {
+    private long count;
+    private long sum;
+    private Double average; // null until the game has a rating
+    private Map<Integer, Long> histogram; // stars -> number of reviews
+}
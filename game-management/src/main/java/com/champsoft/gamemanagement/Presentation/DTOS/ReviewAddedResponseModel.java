@@ -0,0 +1,14 @@
+package com.champsoft.gamemanagement.Presentation.DTOS;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReviewAddedResponseModel {
+    private String gameId;
+    private ReviewResponseModel review;
+    private RatingSummaryResponseModel ratings; // the game's totals including this review
+}
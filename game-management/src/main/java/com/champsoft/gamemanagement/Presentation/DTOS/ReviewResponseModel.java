@@ -0,0 +1,17 @@
+package com.champsoft.gamemanagement.Presentation.DTOS;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReviewResponseModel {
+    private String id;
+    private String comment;
+    private Integer rating;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,18 @@
+package com.champsoft.gamemanagement.Presentation.DTOS;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SuggestIndexStatsResponseModel {
+    private int titles; // games that can be suggested
+    private int keys; // indexed title suffixes, one per word a title can be typed from
+    private long memoryBytes; // estimated heap held by the index
+    private Instant builtAt;
+    private long buildMillis;
+}
@@ -0,0 +1,30 @@
+package com.champsoft.gamemanagement.Replication;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Reads the client's {@link ReadConsistency#TOKEN_HEADER} and returns a new one on responses to requests that
+ * wrote. Writes commit inside the service call, before the body is written, so the header can still be set.
+ */
+@Component
+public class ConsistencyTokenFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReadConsistency.begin(request.getHeader(ReadConsistency.TOKEN_HEADER),
+                token -> response.setHeader(ReadConsistency.TOKEN_HEADER, token));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadConsistency.end();
+        }
+    }
+}
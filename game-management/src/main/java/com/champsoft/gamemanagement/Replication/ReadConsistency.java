@@ -0,0 +1,79 @@
+package com.champsoft.gamemanagement.Replication;
+
+import java.util.function.Consumer;
+
+/**
+ * Read-your-writes for the current request. A client that wrote gets a consistency token back and sends it with
+ * its next requests; reads made for it then go only to a replica known to have caught up with that write, or to
+ * the primary. The token is the primary's write-ahead log position just after the write committed, in bytes; a
+ * replica has the write once it has replayed the log up to there.
+ */
+public final class ReadConsistency {
+
+    public static final String TOKEN_HEADER = "X-Consistency-Token";
+    static final long NONE = Long.MIN_VALUE;
+    // A write whose position could not be read: only the primary is known to have it.
+    static final long UNKNOWN = Long.MAX_VALUE;
+
+    private static final ThreadLocal<Context> CONTEXT = new ThreadLocal<>();
+
+    private ReadConsistency() {
+    }
+
+    /**
+     * Starts tracking a request. A token that cannot be read is taken to require the primary.
+     *
+     * @param token     the client's token, or null
+     * @param tokenSink receives the new token after each write the request commits
+     */
+    static void begin(String token, Consumer<String> tokenSink) {
+        long required = NONE;
+        if (token != null && !token.isBlank()) {
+            try {
+                required = Long.parseLong(token.trim());
+            } catch (NumberFormatException e) {
+                required = UNKNOWN;
+            }
+        }
+        CONTEXT.set(new Context(required, tokenSink));
+    }
+
+    static void end() {
+        CONTEXT.remove();
+    }
+
+    /**
+     * The point a replica must have caught up to before it may serve this request's reads, or {@link #NONE}.
+     */
+    static long requiredPosition() {
+        Context context = CONTEXT.get();
+        return context == null ? NONE : context.required;
+    }
+
+    /**
+     * Records a committed write at this log position: later reads of the request must see it, and so must those of
+     * the client's next requests once it sends the token back. {@link #NONE} is a write no replica can miss, and
+     * {@link #UNKNOWN} one only the primary is known to have, which issues no token.
+     */
+    static void wrote(long position) {
+        Context context = CONTEXT.get();
+        if (context == null || position == NONE) {
+            return;
+        }
+        context.required = Math.max(context.required, position);
+        if (position != UNKNOWN) {
+            // The log only grows, so this position also covers the client's earlier writes.
+            context.tokenSink.accept(Long.toString(position));
+        }
+    }
+
+    private static final class Context {
+        private long required;
+        private final Consumer<String> tokenSink;
+
+        private Context(long required, Consumer<String> tokenSink) {
+            this.required = required;
+            this.tokenSink = tokenSink;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.champsoft.gamemanagement.Replication;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * One read replica and what was last measured of it. Probing runs on one thread; routing reads the results from
+ * request threads.
+ */
+@Slf4j
+class Replica {
+
+    // How far the primary's write-ahead log has been replayed, as a byte position comparable with the tokens of
+    // ReplicaRoutingDataSource.POSTGRES_WRITE_POSITION, or null before anything has been. Then milliseconds behind
+    // the primary: 0 once everything received has been replayed, otherwise the age of the last transaction
+    // replayed, negative when it cannot tell yet. A server that is not a standby at all, such as a stand-in pointed
+    // at the primary, is at its own current position and never behind.
+    static final String POSTGRES_REPLAY = "select"
+            + " (case when pg_is_in_recovery() then pg_last_wal_replay_lsn() else pg_current_wal_lsn() end"
+            + " - '0/0'::pg_lsn)::bigint,"
+            + " case"
+            + " when not pg_is_in_recovery() then 0"
+            + " when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0"
+            + " else coalesce(extract(epoch from clock_timestamp() - pg_last_xact_replay_timestamp()) * 1000, -1)"
+            + " end";
+
+    private final String name;
+    private final DataSource dataSource;
+    private volatile boolean healthy;
+    private volatile long lagMillis = -1;
+    private volatile long probedAt;
+    // Every write whose token is at or before this position had been replayed when last probed.
+    private volatile long replayedTo = ReadConsistency.NONE;
+
+    Replica(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    String name() {
+        return name;
+    }
+
+    DataSource dataSource() {
+        return dataSource;
+    }
+
+    long lagMillis() {
+        return lagMillis;
+    }
+
+    void probe() {
+        long started = System.currentTimeMillis();
+        try (Connection connection = dataSource.getConnection()) {
+            long lag = 0;
+            // Other databases are local stand-ins sharing the primary's data, so they never lag.
+            long replayed = Long.MAX_VALUE;
+            if ("PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                try (Statement statement = connection.createStatement();
+                     ResultSet result = statement.executeQuery(POSTGRES_REPLAY)) {
+                    result.next();
+                    replayed = result.getLong(1);
+                    if (result.wasNull()) {
+                        replayed = ReadConsistency.NONE;
+                    }
+                    lag = Math.round(result.getDouble(2));
+                }
+            }
+            if (!healthy) {
+                log.info("Replica {} is reachable, {} ms behind", name, lag);
+            }
+            lagMillis = lag;
+            replayedTo = replayed;
+            probedAt = started;
+            healthy = true;
+        } catch (SQLException e) {
+            failed(e);
+        }
+    }
+
+    void failed(SQLException e) {
+        if (healthy) {
+            log.warn("Replica {} is unavailable, reading from the primary until it is back: {}", name, e.getMessage());
+        }
+        healthy = false;
+    }
+
+    /**
+     * Whether this replica may serve a read: reachable when last probed, probed recently enough for that to still
+     * hold, within the allowed lag, and caught up with the reader's own writes.
+     */
+    boolean canServe(long now, long maxLagMillis, long probeExpiryMillis, long requiredPosition) {
+        return healthy
+                && now - probedAt <= probeExpiryMillis
+                && lagMillis >= 0 && lagMillis <= maxLagMillis
+                && replayedTo >= requiredPosition;
+    }
+}
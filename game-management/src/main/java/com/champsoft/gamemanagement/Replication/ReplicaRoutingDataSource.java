@@ -0,0 +1,218 @@
+package com.champsoft.gamemanagement.Replication;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends the connections of read-only transactions to a read replica and everything else to the primary.
+ * <p>
+ * Replicas take turns, skipping any that is down, more than max-lag behind, or not yet caught up with a write the
+ * reader made ({@link ReadConsistency}); when none qualifies the primary serves the read. Lag is measured on a
+ * background thread, so routing never waits on it. A replica whose probe is overdue is not trusted. A transaction
+ * is routed when it begins if {@link ReplicaTransactionManager} starts it, otherwise when it asks for a connection.
+ * <p>
+ * It must sit behind a LazyConnectionDataSourceProxy: the transaction manager asks for a connection before it
+ * marks the transaction read-only, and the proxy defers that until the first statement.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    // The primary's current write-ahead log position, in bytes. Read just after a commit, it is at or past the end
+    // of that commit's record, so a replica that has replayed up to it has the write.
+    static final String POSTGRES_WRITE_POSITION = "select (pg_current_wal_lsn() - '0/0'::pg_lsn)::bigint";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+    // Key of the route of the current read-only transaction among the transaction's resources.
+    private final Object routeKey = new Object();
+    private long probeExpiryMillis = Long.MAX_VALUE;
+    private ScheduledExecutorService prober;
+
+    ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, long maxLagMillis, MeterRegistry registry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxLagMillis = maxLagMillis;
+        this.primaryReads = Counter.builder("game.datasource.reads")
+                .description("Read-only transactions, by the database that served them")
+                .tag("target", "primary")
+                .register(registry);
+        this.replicaReads = Counter.builder("game.datasource.reads")
+                .description("Read-only transactions, by the database that served them")
+                .tag("target", "replica")
+                .register(registry);
+        for (Replica replica : this.replicas) {
+            Gauge.builder("game.datasource.replica.lag", replica, Replica::lagMillis)
+                    .description("How far the replica was behind the primary when last probed; -1 if unknown")
+                    .baseUnit("milliseconds")
+                    .tag("replica", replica.name())
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Probes every replica now and then every interval. A replica that misses three probes in a row serves no
+     * reads until it answers again.
+     */
+    void start(long probeIntervalMillis) {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        probeExpiryMillis = 3 * probeIntervalMillis;
+        prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        prober.scheduleWithFixedDelay(this::probeReplicas, 0, probeIntervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Routing read-only transactions across {} replicas", replicas.size());
+    }
+
+    void probeReplicas() {
+        replicas.forEach(Replica::probe);
+    }
+
+    /**
+     * Picks the database of the read-only transaction that is beginning, so it is known before its first statement:
+     * a replica that can serve it now, or the primary. Its connection then comes from there. Needs transaction
+     * synchronization to be active; the route is dropped when the transaction completes.
+     *
+     * @return whether the transaction reads from a replica
+     */
+    boolean routeReadOnlyTransaction() {
+        if (replicas.isEmpty()) {
+            return false;
+        }
+        Route route = new Route(choose(ReadConsistency.requiredPosition()));
+        TransactionSynchronizationManager.bindResource(routeKey, route);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(routeKey);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(routeKey, route);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(routeKey);
+            }
+        });
+        return route.replica() != null;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            Connection connection = primary.getConnection();
+            recordWriteOnCommit(connection);
+            return connection;
+        }
+        Route route = (Route) TransactionSynchronizationManager.getResource(routeKey);
+        Replica replica = route != null ? route.replica() : choose(ReadConsistency.requiredPosition());
+        if (replica != null) {
+            try {
+                Connection connection = replica.dataSource().getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                replica.failed(e);
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    @Override
+    public void close() {
+        if (prober != null) {
+            prober.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource() instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Could not close the pool of replica {}", replica.name(), e);
+                }
+            }
+        }
+    }
+
+    private Replica choose(long requiredPosition) {
+        long now = System.currentTimeMillis();
+        int start = nextReplica.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (replica.canServe(now, maxLagMillis, probeExpiryMillis, requiredPosition)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    // A read-write transaction may write, so once it commits the request's later reads, and the client's next
+    // ones through the token, must see it. The position is read on the transaction's own connection, which is still
+    // open after the commit, so a write never holds a second connection from the pool.
+    private static void recordWriteOnCommit(Connection connection) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ReadConsistency.wrote(writePosition(connection));
+                }
+            });
+        }
+    }
+
+    // Other databases are local stand-ins whose replicas share the primary's data, so no read can miss a write.
+    private static long writePosition(Connection connection) {
+        try {
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                return ReadConsistency.NONE;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet result = statement.executeQuery(POSTGRES_WRITE_POSITION)) {
+                result.next();
+                return result.getLong(1);
+            }
+        } catch (SQLException e) {
+            log.warn("Could not read the primary's log position after a commit, so the request reads from the primary: {}",
+                    e.getMessage());
+            return ReadConsistency.UNKNOWN;
+        }
+    }
+
+    // The replica a read-only transaction was given when it began, or null for the primary.
+    private record Route(Replica replica) {
+    }
+}
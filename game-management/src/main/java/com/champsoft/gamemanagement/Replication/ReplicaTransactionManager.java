@@ -0,0 +1,37 @@
+package com.champsoft.gamemanagement.Replication;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes each read-only transaction as it begins rather than at its first statement, so that a session reading
+ * from a replica can be kept out of the shared caches before it runs any query. A replica may be behind the
+ * primary, and what it returns would otherwise go into the second-level and query caches, to be served to readers
+ * of the primary, including a client waiting to read its own write. Such a session still reads what is cached.
+ */
+class ReplicaTransactionManager extends JpaTransactionManager {
+
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    ReplicaTransactionManager(EntityManagerFactory entityManagerFactory, ReplicaRoutingDataSource routingDataSource) {
+        super(entityManagerFactory);
+        this.routingDataSource = routingDataSource;
+    }
+
+    @Override
+    protected void prepareSynchronization(DefaultTransactionStatus status, TransactionDefinition definition) {
+        super.prepareSynchronization(status, definition);
+        if (status.isNewTransaction() && status.isNewSynchronization() && definition.isReadOnly()
+                && routingDataSource.routeReadOnlyTransaction()) {
+            EntityManagerHolder holder =
+                    (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+            holder.getEntityManager().unwrap(Session.class).setCacheMode(CacheMode.GET);
+        }
+    }
+}
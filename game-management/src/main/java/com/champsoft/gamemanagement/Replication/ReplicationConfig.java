@@ -0,0 +1,74 @@
+package com.champsoft.gamemanagement.Replication;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured DataSource with one that routes read-only transactions to the replicas in
+ * {@link ReplicationProperties}, and the transaction manager with one that routes them as they begin. The primary
+ * pool is built from spring.datasource as before.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicationProperties.class)
+public class ReplicationConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                      ReplicationProperties properties,
+                                                      ObjectProvider<MeterRegistry> meterRegistry) {
+        List<Replica> replicas = new ArrayList<>();
+        for (ReplicationProperties.Endpoint endpoint : properties.getReplicas()) {
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(endpoint.getUrl())
+                    .username(endpoint.getUsername())
+                    .password(endpoint.getPassword())
+                    .build();
+            String name = "replica-" + (replicas.size() + 1);
+            pool.setPoolName(name);
+            pool.setReadOnly(true);
+            pool.setConnectionTimeout(properties.getConnectionTimeoutMs());
+            // Start even when the replica is down; it is routed around until it answers.
+            pool.setInitializationFailTimeout(-1);
+            replicas.add(new Replica(name, pool));
+        }
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                properties.getMaxLagMs(), meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+        routing.start(properties.getProbeIntervalMs());
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                    ReplicaRoutingDataSource routingDataSource) {
+        return new ReplicaTransactionManager(entityManagerFactory, routingDataSource);
+    }
+}
@@ -0,0 +1,27 @@
+package com.champsoft.gamemanagement.Replication;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas of the game database (app.replication). The primary is the spring.datasource connection; with no
+ * replicas everything goes to it, as before.
+ */
+@Data
+@ConfigurationProperties("app.replication")
+public class ReplicationProperties {
+    private List<Endpoint> replicas = new ArrayList<>();
+    private long maxLagMs = 1000; // a replica further behind than this serves no reads
+    private long probeIntervalMs = 500; // how often each replica's lag is measured
+    private long connectionTimeoutMs = 2000; // short, so a dead replica falls back to the primary quickly
+
+    @Data
+    public static class Endpoint {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,88 @@
+package com.champsoft.gamemanagement.Search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns text into index terms: accents folded (so "Pok\u00e9mon" matches "pokemon"), lowercased, split on anything that is
+ * not a letter or digit, English stop words dropped and words stemmed. Queries and documents go through the same
+ * analysis so that they meet on the same terms.
+ */
+public final class Analyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "if", "in", "into", "is", "it",
+            "its", "of", "on", "or", "so", "such", "that", "the", "their", "then", "there", "these", "they", "this",
+            "to", "was", "were", "will", "with");
+
+    // A catalog's vocabulary is small next to its word count, so most stems are looked up rather than computed.
+    // Bounded, since query text is user input.
+    private static final int MAX_CACHED_STEMS = 200_000;
+    private static final Map<String, String> STEMS = new ConcurrentHashMap<>();
+
+    private Analyzer() {
+    }
+
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addTerm(terms, folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static void addTerm(List<String> terms, String word) {
+        if (STOP_WORDS.contains(word)) {
+            return;
+        }
+        terms.add(isAsciiLetters(word) ? stem(word) : word);
+    }
+
+    private static String stem(String word) {
+        String stem = STEMS.get(word);
+        if (stem == null) {
+            stem = PorterStemmer.stem(word);
+            if (STEMS.size() < MAX_CACHED_STEMS) {
+                STEMS.put(word, stem);
+            }
+        }
+        return stem;
+    }
+
+    static String fold(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            if (lower.charAt(i) > 127) {
+                // Decompose, then drop the combining marks, leaving the base letters.
+                return Normalizer.normalize(lower, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+            }
+        }
+        return lower;
+    }
+
+    private static boolean isAsciiLetters(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c < 'a' || c > 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
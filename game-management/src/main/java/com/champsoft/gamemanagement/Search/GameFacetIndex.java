@@ -0,0 +1,446 @@
+package com.champsoft.gamemanagement.Search;
+
+import com.champsoft.gamemanagement.DataAccess.Game;
+import com.champsoft.gamemanagement.DataAccess.GameRepository;
+import com.champsoft.gamemanagement.DataAccess.RatingSummary;
+import com.champsoft.gamemanagement.DataMapper.GameResponseMapper;
+import com.champsoft.gamemanagement.Presentation.DTOS.GameBrowseResponseModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.GameFilterRequestModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.GameResponseModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.RatingSummaryResponseModel;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The whole catalog held in memory for storefront browsing: a summary of every game, and a compressed bitmap of
+ * games per genre, publisher, developer, release year and price bucket. A filter is an OR of the bitmaps of its
+ * values, filters are ANDed together, and each facet count is the cardinality of a value's bitmap ANDed with the
+ * other filters, so browsing never reaches the database.
+ * <p>
+ * Built from {@link GameRepository} at startup and kept current by
+ * {@link com.champsoft.gamemanagement.BusinessLogic.GameService}, with changes applied once their transaction
+ * commits. Thread-safe: browsing shares a read lock and writes take the write lock.
+ */
+@Slf4j
+@Component
+public class GameFacetIndex implements SmartInitializingSingleton {
+
+    public static final String GENRE = "genre";
+    public static final String PUBLISHER = "publisher";
+    public static final String DEVELOPER = "developer";
+    public static final String RELEASE_YEAR = "releaseYear";
+    public static final String PRICE = "price";
+
+    // Bucket i holds prices from PRICE_FLOORS[i] up to, not including, the next floor; the first only free games.
+    private static final double[] PRICE_FLOORS = {0, Math.nextUp(0.0), 10, 20, 40, 60};
+    private static final String[] PRICE_LABELS = {"free", "0-10", "10-20", "20-40", "40-60", "60+"};
+    private static final int MAX_FACET_VALUES = 20;
+    // Below this many matches, sorting them beats walking the whole catalog in title order.
+    private static final int SORT_MATCHES_BELOW = 4096;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final GameRepository gameRepository;
+    private final GameResponseMapper gameResponseMapper;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> docNumbers = new HashMap<>();
+    private final Deque<Integer> freeDocNumbers = new ArrayDeque<>();
+    private Entry[] entries = new Entry[INITIAL_CAPACITY];
+    private int nextDocNumber;
+    private final RoaringBitmap live = new RoaringBitmap();
+    private final Map<String, RoaringBitmap> genres = new HashMap<>();
+    private final Map<String, RoaringBitmap> publishers = new HashMap<>();
+    private final Map<String, RoaringBitmap> developers = new HashMap<>();
+    private final NavigableMap<Integer, RoaringBitmap> years = new TreeMap<>();
+    private final RoaringBitmap[] priceBuckets = new RoaringBitmap[PRICE_FLOORS.length];
+    // Catalogs use few distinct prices, so a bitmap per price (in cents) answers any range exactly with ORs alone.
+    private final NavigableMap<Long, RoaringBitmap> pricePoints = new TreeMap<>();
+    private final NavigableSet<Integer> byTitle = new TreeSet<>(
+            Comparator.comparing((Integer doc) -> entries[doc].sortKey()).thenComparing(doc -> entries[doc].id()));
+
+    public GameFacetIndex(GameRepository gameRepository, GameResponseMapper gameResponseMapper) {
+        this.gameRepository = gameRepository;
+        this.gameResponseMapper = gameResponseMapper;
+        Arrays.setAll(priceBuckets, bucket -> new RoaringBitmap());
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long started = System.nanoTime();
+        Page<Game> page;
+        int pageNumber = 0;
+        do {
+            page = gameRepository.findAll(PageRequest.of(pageNumber++, REBUILD_PAGE_SIZE, Sort.by("gameId.uuid")));
+            for (Game game : page) {
+                put(entry(game, copy(game.getRatings())));
+            }
+        } while (page.hasNext());
+        optimize();
+        log.info("Indexed {} games for browsing in {} ms", live.getCardinality(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Indexes a saved game, replacing whatever was indexed under its id. The ratings of a game already indexed are
+     * kept, since they only change through {@link #addToRatings}, never by saving the game.
+     */
+    public void index(Game game) {
+        Entry entry = entry(game, null);
+        AfterCommit.run(() -> put(entry));
+    }
+
+    /**
+     * Indexes games written by a bulk import once it is done, under a single hold of the write lock, keeping the
+     * ratings of those already indexed like {@link #index}. The change is applied at once, so call this only after
+     * the games are committed.
+     */
+    public void indexAll(Collection<Game> games) {
+        List<Entry> batch = games.stream().map(game -> entry(game, null)).toList();
+        lock.writeLock().lock();
+        try {
+            batch.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        optimize();
+    }
+
+    public void remove(String gameId) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                Integer doc = docNumbers.remove(gameId);
+                if (doc != null) {
+                    unindex(doc);
+                    freeDocNumbers.push(doc);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Mirrors {@link Game#addToRatings} on the indexed summary.
+     */
+    public void addToRatings(String gameId, RatingSummary delta) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                Integer doc = docNumbers.get(gameId);
+                if (doc != null) {
+                    Entry entry = entries[doc];
+                    RatingSummary ratings = copy(entry.ratings());
+                    ratings.add(delta);
+                    entries[doc] = entry.withRatings(ratings, gameResponseMapper.ratingSummaryToResponseModel(ratings));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * One page of the games matching every filter, in title order, with the total and the facet counts. Genre
+     * names are expected in upper case and prices and years as valid ranges.
+     */
+    public GameBrowseResponseModel browse(GameFilterRequestModel filter, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            Map<String, RoaringBitmap> filters = new LinkedHashMap<>();
+            if (filter.getGenre() != null && !filter.getGenre().isEmpty()) {
+                filters.put(GENRE, anyOf(genres, filter.getGenre()));
+            }
+            if (filter.getPublisher() != null && !filter.getPublisher().isEmpty()) {
+                filters.put(PUBLISHER, anyOf(publishers, filter.getPublisher()));
+            }
+            if (filter.getDeveloper() != null && !filter.getDeveloper().isEmpty()) {
+                filters.put(DEVELOPER, anyOf(developers, filter.getDeveloper()));
+            }
+            if (filter.getMinYear() != null || filter.getMaxYear() != null) {
+                filters.put(RELEASE_YEAR, yearsBetween(filter.getMinYear(), filter.getMaxYear()));
+            }
+            if (filter.getMinPrice() != null || filter.getMaxPrice() != null) {
+                filters.put(PRICE, pricesBetween(filter.getMinPrice(), filter.getMaxPrice()));
+            }
+
+            RoaringBitmap matches = allBut(filters, null);
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put(GENRE, topCounts(genres, allBut(filters, GENRE)));
+            facets.put(PUBLISHER, topCounts(publishers, allBut(filters, PUBLISHER)));
+            facets.put(DEVELOPER, topCounts(developers, allBut(filters, DEVELOPER)));
+            facets.put(RELEASE_YEAR, yearCounts(allBut(filters, RELEASE_YEAR)));
+            facets.put(PRICE, priceCounts(allBut(filters, PRICE)));
+            return new GameBrowseResponseModel(page(matches, offset, limit), matches.getCardinality(), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(Entry entry) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = docNumbers.get(entry.id());
+            int doc;
+            if (existing != null) {
+                doc = existing;
+                if (entry.ratings() == null) {
+                    Entry previous = entries[doc];
+                    entry = entry.withRatings(previous.ratings(), previous.summary().getRatings());
+                }
+                unindex(doc);
+            } else {
+                doc = freeDocNumbers.isEmpty() ? nextDocNumber++ : freeDocNumbers.pop();
+                if (doc == entries.length) {
+                    entries = Arrays.copyOf(entries, entries.length * 2);
+                }
+                docNumbers.put(entry.id(), doc);
+                if (entry.ratings() == null) {
+                    RatingSummary none = new RatingSummary();
+                    entry = entry.withRatings(none, gameResponseMapper.ratingSummaryToResponseModel(none));
+                }
+            }
+            entries[doc] = entry;
+            live.add(doc);
+            add(genres, entry.genre(), doc);
+            add(publishers, entry.publisher(), doc);
+            add(developers, entry.developer(), doc);
+            if (entry.year() != null) {
+                years.computeIfAbsent(entry.year(), year -> new RoaringBitmap()).add(doc);
+            }
+            priceBuckets[priceBucket(entry.price())].add(doc);
+            add(pricePoints, cents(entry.price()), doc);
+            byTitle.add(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Called with the write lock held. Clears every trace of the document except its number.
+    private void unindex(int doc) {
+        Entry entry = entries[doc];
+        byTitle.remove(doc);
+        live.remove(doc);
+        remove(genres, entry.genre(), doc);
+        remove(publishers, entry.publisher(), doc);
+        remove(developers, entry.developer(), doc);
+        if (entry.year() != null) {
+            remove(years, entry.year(), doc);
+        }
+        priceBuckets[priceBucket(entry.price())].remove(doc);
+        remove(pricePoints, cents(entry.price()), doc);
+        entries[doc] = null;
+    }
+
+    private void optimize() {
+        lock.writeLock().lock();
+        try {
+            live.runOptimize();
+            genres.values().forEach(RoaringBitmap::runOptimize);
+            publishers.values().forEach(RoaringBitmap::runOptimize);
+            developers.values().forEach(RoaringBitmap::runOptimize);
+            years.values().forEach(RoaringBitmap::runOptimize);
+            Arrays.stream(priceBuckets).forEach(RoaringBitmap::runOptimize);
+            pricePoints.values().forEach(RoaringBitmap::runOptimize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static <K> void add(Map<K, RoaringBitmap> bitmaps, K key, int doc) {
+        if (key != null) {
+            bitmaps.computeIfAbsent(key, k -> new RoaringBitmap()).add(doc);
+        }
+    }
+
+    private static <K> void remove(Map<K, RoaringBitmap> bitmaps, K key, int doc) {
+        RoaringBitmap bitmap = key == null ? null : bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.remove(doc);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    private static RoaringBitmap anyOf(Map<String, RoaringBitmap> bitmaps, List<String> values) {
+        return RoaringBitmap.or(values.stream()
+                .map(bitmaps::get)
+                .filter(Objects::nonNull)
+                .iterator());
+    }
+
+    private RoaringBitmap yearsBetween(Integer min, Integer max) {
+        int from = min == null ? Integer.MIN_VALUE : min;
+        int to = max == null ? Integer.MAX_VALUE : max;
+        if (from > to) {
+            return new RoaringBitmap();
+        }
+        return RoaringBitmap.or(years.subMap(from, true, to, true).values().iterator());
+    }
+
+    private RoaringBitmap pricesBetween(Double min, Double max) {
+        long from = min == null ? Long.MIN_VALUE : (long) Math.ceil(min * 100 - 1e-6);
+        long to = max == null ? Long.MAX_VALUE : (long) Math.floor(max * 100 + 1e-6);
+        if (from > to) {
+            return new RoaringBitmap();
+        }
+        return RoaringBitmap.or(pricePoints.subMap(from, true, to, true).values().iterator());
+    }
+
+    // The games matching every filter but the one named, which is how a facet's own counts are taken.
+    private RoaringBitmap allBut(Map<String, RoaringBitmap> filters, String skipped) {
+        RoaringBitmap matches = live;
+        for (Map.Entry<String, RoaringBitmap> filter : filters.entrySet()) {
+            if (!filter.getKey().equals(skipped)) {
+                matches = RoaringBitmap.and(matches, filter.getValue());
+            }
+        }
+        return matches;
+    }
+
+    private static Map<String, Integer> topCounts(Map<String, RoaringBitmap> bitmaps, RoaringBitmap matches) {
+        List<Map.Entry<String, Integer>> counts = new ArrayList<>();
+        for (Map.Entry<String, RoaringBitmap> value : bitmaps.entrySet()) {
+            int count = RoaringBitmap.andCardinality(value.getValue(), matches);
+            if (count > 0) {
+                counts.add(Map.entry(value.getKey(), count));
+            }
+        }
+        counts.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Integer> top = new LinkedHashMap<>();
+        counts.stream().limit(MAX_FACET_VALUES).forEach(count -> top.put(count.getKey(), count.getValue()));
+        return top;
+    }
+
+    private Map<String, Integer> yearCounts(RoaringBitmap matches) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Map.Entry<Integer, RoaringBitmap> year : years.descendingMap().entrySet()) {
+            int count = RoaringBitmap.andCardinality(year.getValue(), matches);
+            if (count > 0) {
+                counts.put(String.valueOf(year.getKey()), count);
+            }
+        }
+        return counts;
+    }
+
+    private Map<String, Integer> priceCounts(RoaringBitmap matches) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int bucket = 0; bucket < priceBuckets.length; bucket++) {
+            int count = RoaringBitmap.andCardinality(priceBuckets[bucket], matches);
+            if (count > 0) {
+                counts.put(PRICE_LABELS[bucket], count);
+            }
+        }
+        return counts;
+    }
+
+    private List<GameResponseModel> page(RoaringBitmap matches, int offset, int limit) {
+        int total = matches.getCardinality();
+        List<GameResponseModel> page = new ArrayList<>(Math.min(limit, Math.max(0, total - offset)));
+        if (offset >= total) {
+            return page;
+        }
+        if (total < SORT_MATCHES_BELOW) {
+            Arrays.stream(matches.toArray()).boxed()
+                    .sorted(byTitle.comparator())
+                    .skip(offset)
+                    .limit(limit)
+                    .forEach(doc -> page.add(entries[doc].summary()));
+            return page;
+        }
+        int skipped = 0;
+        for (int doc : byTitle) {
+            if (!matches.contains(doc)) {
+                continue;
+            }
+            if (skipped++ < offset) {
+                continue;
+            }
+            page.add(entries[doc].summary());
+            if (page.size() == limit) {
+                break;
+            }
+        }
+        return page;
+    }
+
+    private static long cents(double price) {
+        return Math.round(price * 100);
+    }
+
+    static int priceBucket(double price) {
+        int bucket = 0;
+        while (bucket + 1 < PRICE_FLOORS.length && price >= PRICE_FLOORS[bucket + 1]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private Entry entry(Game game, RatingSummary ratings) {
+        GameResponseModel summary = gameResponseMapper.gameToGameSummary(game);
+        if (ratings != null) {
+            summary.setRatings(gameResponseMapper.ratingSummaryToResponseModel(ratings));
+        }
+        return new Entry(game.getGameId().getUuid(), summary, ratings,
+                game.getTitle() == null ? "" : game.getTitle().toLowerCase(Locale.ROOT),
+                game.getGenre() == null ? null : game.getGenre().name(),
+                game.getPublisher(), game.getDeveloper(),
+                game.getReleaseDate() == null ? null : game.getReleaseDate().getYear(),
+                game.getPrice());
+    }
+
+    private static RatingSummary copy(RatingSummary ratings) {
+        if (ratings == null) {
+            return new RatingSummary();
+        }
+        return new RatingSummary(ratings.getRatingCount(), ratings.getRatingSum(), ratings.getOneStar(),
+                ratings.getTwoStars(), ratings.getThreeStars(), ratings.getFourStars(), ratings.getFiveStars());
+    }
+
+    /**
+     * What is indexed of one game. The summary is handed out as it is, so it is replaced rather than changed.
+     */
+    private record Entry(String id, GameResponseModel summary, RatingSummary ratings, String sortKey, String genre,
+                         String publisher, String developer, Integer year, double price) {
+
+        Entry withRatings(RatingSummary ratings, RatingSummaryResponseModel response) {
+            GameResponseModel rated = new GameResponseModel(summary.getId(), summary.getTitle(), summary.getPrice(),
+                    summary.getReleaseDate(), summary.getDescription(), summary.getPublisher(), summary.getDeveloper(),
+                    summary.getGenre(), null, response);
+            return new Entry(id, rated, ratings, sortKey, genre, publisher, developer, year, price);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.champsoft.gamemanagement.Search;
+
+import com.champsoft.gamemanagement.DataAccess.Game;
+import com.champsoft.gamemanagement.DataAccess.GameRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Full-text index of the game catalog over title, publisher, developer and description. It is built from
+ * {@link GameRepository} once all singletons exist, which is before the web server starts taking requests, and
+ * {@link com.champsoft.gamemanagement.BusinessLogic.GameService} keeps it current as games are written. Changes made
+ * inside a transaction are applied only once it commits, so a rolled back write never shows up in search.
+ */
+@Slf4j
+@Component
+public class GameSearchIndex implements SmartInitializingSingleton {
+
+    static final float TITLE_WEIGHT = 3f;
+    static final float PUBLISHER_WEIGHT = 1.5f;
+    static final float DEVELOPER_WEIGHT = 1.5f;
+    static final float DESCRIPTION_WEIGHT = 1f;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final GameRepository gameRepository;
+    private final InvertedIndex index = new InvertedIndex(1.2, 0.75);
+
+    public GameSearchIndex(GameRepository gameRepository) {
+        this.gameRepository = gameRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long started = System.nanoTime();
+        Page<Game> page;
+        int pageNumber = 0;
+        do {
+            page = gameRepository.findAll(PageRequest.of(pageNumber++, REBUILD_PAGE_SIZE, Sort.by("gameId.uuid")));
+            for (Game game : page) {
+                index.put(game.getGameId().getUuid(), document(game));
+            }
+        } while (page.hasNext());
+        log.info("Indexed {} games for search in {} ms", index.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Indexes a saved game, replacing whatever was indexed under its id.
+     */
+    public void index(Game game) {
+        String id = game.getGameId().getUuid();
+        SearchDocument document = document(game);
+        AfterCommit.run(() -> index.put(id, document));
+    }
+
+    /**
+     * Indexes games written by a bulk import once it is done, replacing whatever was indexed under their ids. The
+     * change is applied at once, so call this only after the games are committed.
+     */
+    public void indexAll(Collection<Game> games) {
+        for (Game game : games) {
+            index.put(game.getGameId().getUuid(), document(game));
+        }
+    }
+
+    public void remove(String gameId) {
+        AfterCommit.run(() -> index.remove(gameId));
+    }
+
+    /**
+     * Ids of the best matching games, most relevant first.
+     */
+    public List<SearchHit> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    static SearchDocument document(Game game) {
+        return new SearchDocument()
+                .field(game.getTitle(), TITLE_WEIGHT)
+                .field(game.getPublisher(), PUBLISHER_WEIGHT)
+                .field(game.getDeveloper(), DEVELOPER_WEIGHT)
+                .field(game.getDescription(), DESCRIPTION_WEIGHT);
+    }
+}
@@ -0,0 +1,233 @@
+package com.champsoft.gamemanagement.Search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory inverted index ranked with Okapi BM25. Documents are numbered densely and each term keeps its
+ * postings as parallel arrays sorted by that number, so a query is a scan of a few primitive arrays into a score
+ * array and a bounded heap for the top hits, with no per-posting allocation. Numbers of removed documents are
+ * reused, which keeps the arrays as long as the live catalog rather than its history.
+ * <p>
+ * Thread-safe: queries share a read lock, and writes (rare next to reads) take the write lock.
+ */
+public final class InvertedIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final double k1;
+    private final double b;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<String, Integer> docNumbers = new HashMap<>();
+    private final Deque<Integer> freeDocNumbers = new ArrayDeque<>();
+    private String[] ids = new String[INITIAL_CAPACITY];
+    private String[][] docTerms = new String[INITIAL_CAPACITY][];
+    private float[] lengths = new float[INITIAL_CAPACITY];
+    private int nextDocNumber;
+    private double totalLength;
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    public InvertedIndex(double k1, double b) {
+        this.k1 = k1;
+        this.b = b;
+    }
+
+    /**
+     * Adds a document, or replaces the one already indexed under this id.
+     */
+    public void put(String id, SearchDocument document) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = docNumbers.get(id);
+            int doc;
+            if (existing != null) {
+                doc = existing;
+                unindex(doc);
+            } else {
+                doc = freeDocNumbers.isEmpty() ? nextDocNumber++ : freeDocNumbers.pop();
+                ensureCapacity(doc + 1);
+                docNumbers.put(id, doc);
+            }
+            String[] terms = new String[document.frequencies().size()];
+            int t = 0;
+            for (Map.Entry<String, Float> entry : document.frequencies().entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), key -> new Postings()).add(doc, entry.getValue());
+                terms[t++] = entry.getKey();
+            }
+            ids[doc] = id;
+            docTerms[doc] = terms;
+            lengths[doc] = document.length();
+            totalLength += document.length();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docNumbers.remove(id);
+            if (doc != null) {
+                unindex(doc);
+                ids[doc] = null;
+                docTerms[doc] = null;
+                freeDocNumbers.push(doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docNumbers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The best {@code limit} documents for the query, highest score first. Documents match on any query term and
+     * rank higher the more (and the rarer) terms they contain.
+     */
+    public List<SearchHit> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(Analyzer.terms(query)));
+        lock.readLock().lock();
+        try {
+            int documents = docNumbers.size();
+            if (terms.isEmpty() || documents == 0 || limit <= 0) {
+                return List.of();
+            }
+            Scratch work = scratch.get();
+            work.ensureCapacity(nextDocNumber);
+            float[] scores = work.scores;
+            int[] touched = work.touched;
+            int touchedCount = 0;
+            double averageLength = totalLength / documents;
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documents - list.size + 0.5) / (list.size + 0.5));
+                for (int p = 0; p < list.size; p++) {
+                    int doc = list.docs[p];
+                    double frequency = list.frequencies[p];
+                    double norm = k1 * (1 - b + b * lengths[doc] / averageLength);
+                    if (scores[doc] == 0) {
+                        touched[touchedCount++] = doc;
+                    }
+                    scores[doc] += (float) (idf * frequency * (k1 + 1) / (frequency + norm));
+                }
+            }
+            return topHits(scores, touched, touchedCount, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<SearchHit> topHits(float[] scores, int[] touched, int touchedCount, int limit) {
+        // Min-heap of the best so far; ties go to the lower document number so results are stable.
+        PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(limit, touchedCount) + 1,
+                (x, y) -> scores[x] != scores[y] ? Float.compare(scores[x], scores[y]) : Integer.compare(y, x));
+        for (int i = 0; i < touchedCount; i++) {
+            int doc = touched[i];
+            if (best.size() < limit) {
+                best.add(doc);
+            } else {
+                int worst = best.peek();
+                if (scores[doc] > scores[worst] || scores[doc] == scores[worst] && doc < worst) {
+                    best.poll();
+                    best.add(doc);
+                }
+            }
+        }
+        SearchHit[] hits = new SearchHit[best.size()];
+        for (int i = hits.length - 1; i >= 0; i--) {
+            int doc = best.poll();
+            hits[i] = new SearchHit(ids[doc], scores[doc]);
+        }
+        for (int i = 0; i < touchedCount; i++) {
+            scores[touched[i]] = 0;
+        }
+        return Arrays.asList(hits);
+    }
+
+    private void unindex(int doc) {
+        for (String term : docTerms[doc]) {
+            Postings list = postings.get(term);
+            list.remove(doc);
+            if (list.size == 0) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= lengths[doc];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            int grown = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, grown);
+            docTerms = Arrays.copyOf(docTerms, grown);
+            lengths = Arrays.copyOf(lengths, grown);
+        }
+    }
+
+    /** One term's documents, sorted by number, with the term's weighted frequency in each. */
+    private static final class Postings {
+        int[] docs = new int[4];
+        float[] frequencies = new float[4];
+        int size;
+
+        void add(int doc, float frequency) {
+            int at = size == 0 || docs[size - 1] < doc ? size : Arrays.binarySearch(docs, 0, size, doc);
+            if (at >= 0 && at < size) {
+                frequencies[at] = frequency;
+                return;
+            }
+            int insertAt = at >= 0 ? at : -at - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            System.arraycopy(docs, insertAt, docs, insertAt + 1, size - insertAt);
+            System.arraycopy(frequencies, insertAt, frequencies, insertAt + 1, size - insertAt);
+            docs[insertAt] = doc;
+            frequencies[insertAt] = frequency;
+            size++;
+        }
+
+        void remove(int doc) {
+            int at = Arrays.binarySearch(docs, 0, size, doc);
+            if (at >= 0) {
+                System.arraycopy(docs, at + 1, docs, at, size - at - 1);
+                System.arraycopy(frequencies, at + 1, frequencies, at, size - at - 1);
+                size--;
+            }
+        }
+    }
+
+    /** Per-thread score accumulators, reused across queries and left zeroed after each. */
+    private static final class Scratch {
+        float[] scores = new float[0];
+        int[] touched = new int[0];
+
+        void ensureCapacity(int capacity) {
+            if (scores.length < capacity) {
+                scores = new float[Math.max(capacity, scores.length * 2)];
+                touched = new int[scores.length];
+            }
+        }
+    }
+}
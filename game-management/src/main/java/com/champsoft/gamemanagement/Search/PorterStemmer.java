@@ -0,0 +1,289 @@
+package com.champsoft.gamemanagement.Search;
+
+/**
+ * The Porter (1980) suffix-stripping stemmer for lowercase English words, so that "racing", "races" and "raced"
+ * all index as "race". Not thread-confined: each call works on its own buffer.
+ */
+public final class PorterStemmer {
+
+    private final char[] b;
+    private int k; // end of the current stem
+    private int j; // end of the stem before the suffix last matched by ends()
+
+    private PorterStemmer(String word) {
+        this.b = word.toCharArray();
+        this.k = b.length - 1;
+    }
+
+    /**
+     * Stems a lowercase word of letters a-z; anything shorter than three letters is returned as is.
+     */
+    public static String stem(String word) {
+        if (word.length() < 3) {
+            return word;
+        }
+        PorterStemmer stemmer = new PorterStemmer(word);
+        stemmer.step1();
+        stemmer.step2();
+        stemmer.step3();
+        stemmer.step4();
+        stemmer.step5();
+        stemmer.step6();
+        return new String(stemmer.b, 0, stemmer.k + 1);
+    }
+
+    private boolean consonant(int i) {
+        switch (b[i]) {
+            case 'a', 'e', 'i', 'o', 'u':
+                return false;
+            case 'y':
+                return i == 0 || !consonant(i - 1);
+            default:
+                return true;
+        }
+    }
+
+    /** The number of vowel-consonant sequences in b[0..j]. */
+    private int measure() {
+        int n = 0;
+        int i = 0;
+        while (true) {
+            if (i > j) {
+                return n;
+            }
+            if (!consonant(i)) {
+                break;
+            }
+            i++;
+        }
+        i++;
+        while (true) {
+            while (true) {
+                if (i > j) {
+                    return n;
+                }
+                if (consonant(i)) {
+                    break;
+                }
+                i++;
+            }
+            i++;
+            n++;
+            while (true) {
+                if (i > j) {
+                    return n;
+                }
+                if (!consonant(i)) {
+                    break;
+                }
+                i++;
+            }
+            i++;
+        }
+    }
+
+    private boolean vowelInStem() {
+        for (int i = 0; i <= j; i++) {
+            if (!consonant(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean doubleConsonant(int i) {
+        return i >= 1 && b[i] == b[i - 1] && consonant(i);
+    }
+
+    /** Consonant-vowel-consonant ending at i, where the last consonant is not w, x or y ("hop", not "snow"). */
+    private boolean cvc(int i) {
+        if (i < 2 || !consonant(i) || consonant(i - 1) || !consonant(i - 2)) {
+            return false;
+        }
+        return b[i] != 'w' && b[i] != 'x' && b[i] != 'y';
+    }
+
+    private boolean ends(String suffix) {
+        int length = suffix.length();
+        int offset = k - length + 1;
+        if (offset < 0) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (b[offset + i] != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        j = k - length;
+        return true;
+    }
+
+    /** Replaces b[j+1..k] with the given suffix. Replacements are never longer than what they replace. */
+    private void setTo(String suffix) {
+        int length = suffix.length();
+        for (int i = 0; i < length; i++) {
+            b[j + 1 + i] = suffix.charAt(i);
+        }
+        k = j + length;
+    }
+
+    private void replace(String suffix) {
+        if (measure() > 0) {
+            setTo(suffix);
+        }
+    }
+
+    /** Plurals and -ed or -ing: caresses to caress, ponies to poni, agreed to agree, hopping to hop. */
+    private void step1() {
+        if (b[k] == 's') {
+            if (ends("sses")) {
+                k -= 2;
+            } else if (ends("ies")) {
+                setTo("i");
+            } else if (b[k - 1] != 's') {
+                k--;
+            }
+        }
+        if (ends("eed")) {
+            if (measure() > 0) {
+                k--;
+            }
+        } else if ((ends("ed") || ends("ing")) && vowelInStem()) {
+            k = j;
+            if (ends("at")) {
+                setTo("ate");
+            } else if (ends("bl")) {
+                setTo("ble");
+            } else if (ends("iz")) {
+                setTo("ize");
+            } else if (doubleConsonant(k)) {
+                k--;
+                if (b[k] == 'l' || b[k] == 's' || b[k] == 'z') {
+                    k++;
+                }
+            } else {
+                j = k;
+                if (measure() == 1 && cvc(k)) {
+                    setTo("e");
+                }
+            }
+        }
+    }
+
+    /** Terminal y to i when there is another vowel in the stem. */
+    private void step2() {
+        if (ends("y") && vowelInStem()) {
+            b[k] = 'i';
+        }
+    }
+
+    /** Double suffixes to single ones: -ization to -ize, -fulness to -ful. */
+    private void step3() {
+        if (k == 0) {
+            return;
+        }
+        switch (b[k - 1]) {
+            case 'a' -> {
+                if (ends("ational")) replace("ate");
+                else if (ends("tional")) replace("tion");
+            }
+            case 'c' -> {
+                if (ends("enci")) replace("ence");
+                else if (ends("anci")) replace("ance");
+            }
+            case 'e' -> {
+                if (ends("izer")) replace("ize");
+            }
+            case 'l' -> {
+                if (ends("bli")) replace("ble");
+                else if (ends("alli")) replace("al");
+                else if (ends("entli")) replace("ent");
+                else if (ends("eli")) replace("e");
+                else if (ends("ousli")) replace("ous");
+            }
+            case 'o' -> {
+                if (ends("ization")) replace("ize");
+                else if (ends("ation")) replace("ate");
+                else if (ends("ator")) replace("ate");
+            }
+            case 's' -> {
+                if (ends("alism")) replace("al");
+                else if (ends("iveness")) replace("ive");
+                else if (ends("fulness")) replace("ful");
+                else if (ends("ousness")) replace("ous");
+            }
+            case 't' -> {
+                if (ends("aliti")) replace("al");
+                else if (ends("iviti")) replace("ive");
+                else if (ends("biliti")) replace("ble");
+            }
+            case 'g' -> {
+                if (ends("logi")) replace("log");
+            }
+            default -> {
+            }
+        }
+    }
+
+    /** -ic-, -full, -ness and the like. */
+    private void step4() {
+        switch (b[k]) {
+            case 'e' -> {
+                if (ends("icate")) replace("ic");
+                else if (ends("ative")) replace("");
+                else if (ends("alize")) replace("al");
+            }
+            case 'i' -> {
+                if (ends("iciti")) replace("ic");
+            }
+            case 'l' -> {
+                if (ends("ical")) replace("ic");
+                else if (ends("ful")) replace("");
+            }
+            case 's' -> {
+                if (ends("ness")) replace("");
+            }
+            default -> {
+            }
+        }
+    }
+
+    /** Takes off -ant, -ence and the like when the stem is long enough (m > 1). */
+    private void step5() {
+        if (k == 0) {
+            return;
+        }
+        boolean matched = switch (b[k - 1]) {
+            case 'a' -> ends("al");
+            case 'c' -> ends("ance") || ends("ence");
+            case 'e' -> ends("er");
+            case 'i' -> ends("ic");
+            case 'l' -> ends("able") || ends("ible");
+            case 'n' -> ends("ant") || ends("ement") || ends("ment") || ends("ent");
+            case 'o' -> (ends("ion") && j >= 0 && (b[j] == 's' || b[j] == 't')) || ends("ou");
+            case 's' -> ends("ism");
+            case 't' -> ends("ate") || ends("iti");
+            case 'u' -> ends("ous");
+            case 'v' -> ends("ive");
+            case 'z' -> ends("ize");
+            default -> false;
+        };
+        if (matched && measure() > 1) {
+            k = j;
+        }
+    }
+
+    /** A final -e when m > 1 (or m = 1 without cvc), and -ll to -l when m > 1. */
+    private void step6() {
+        j = k;
+        if (b[k] == 'e') {
+            int m = measure();
+            if (m > 1 || m == 1 && !cvc(k - 1)) {
+                k--;
+            }
+        }
+        if (b[k] == 'l' && doubleConsonant(k) && measure() > 1) {
+            k--;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.champsoft.gamemanagement.Search;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The analyzed form of one document: each term with its field-weighted frequency, and the weighted length. A term
+ * in a field of weight 3 counts as three occurrences, which is the simple form of BM25F.
+ */
+public final class SearchDocument {
+
+    private final Map<String, Float> frequencies = new HashMap<>();
+    private float length;
+
+    public SearchDocument field(String text, float weight) {
+        for (String term : Analyzer.terms(text)) {
+            frequencies.merge(term, weight, Float::sum);
+            length += weight;
+        }
+        return this;
+    }
+
+    Map<String, Float> frequencies() {
+        return frequencies;
+    }
+
+    float length() {
+        return length;
+    }
+}
@@ -0,0 +1,4 @@
+package com.champsoft.gamemanagement.Search;
+
+public record SearchHit(String id, double score) {
+}
@@ -0,0 +1,108 @@
+package com.champsoft.gamemanagement.Search;
+
+import com.champsoft.gamemanagement.DataAccess.GameRepository;
+import com.champsoft.gamemanagement.Presentation.DTOS.SuggestIndexStatsResponseModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.SuggestionResponseModel;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Typeahead over game titles, ranked by popularity. Lookups read a {@link TitleSuggestions} that is never modified;
+ * a catalog change instead schedules a rebuild from {@link GameRepository} on a background thread, and the new
+ * structure replaces the old one in a single volatile write. Changes arriving while a rebuild is pending share it,
+ * and popularity, which moves with every review, is picked up by a periodic rebuild rather than per review.
+ */
+@Slf4j
+@Component
+public class TitleSuggestIndex implements SmartInitializingSingleton {
+
+    private final GameRepository gameRepository;
+    private final long rebuildDelayMs;
+    private final long refreshIntervalMs;
+    private final ScheduledExecutorService builder;
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private volatile Snapshot current = new Snapshot(TitleSuggestions.EMPTY, Instant.EPOCH, 0);
+
+    public TitleSuggestIndex(GameRepository gameRepository,
+                             @Value("${app.suggest.rebuild-delay-ms:500}") long rebuildDelayMs,
+                             @Value("${app.suggest.refresh-interval-ms:600000}") long refreshIntervalMs) {
+        this.gameRepository = gameRepository;
+        this.rebuildDelayMs = rebuildDelayMs;
+        this.refreshIntervalMs = refreshIntervalMs;
+        this.builder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "title-suggest-builder");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+        builder.scheduleWithFixedDelay(this::rebuildQuietly, refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedules a rebuild once the current transaction commits. Suggestions lag the catalog by about the rebuild
+     * delay plus the time the rebuild takes.
+     */
+    public void catalogChanged() {
+        AfterCommit.run(() -> {
+            if (rebuildQueued.compareAndSet(false, true)) {
+                builder.schedule(() -> {
+                    rebuildQueued.set(false);
+                    rebuildQuietly();
+                }, rebuildDelayMs, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    public List<SuggestionResponseModel> suggest(String prefix, int limit) {
+        return current.suggestions().suggest(prefix, limit);
+    }
+
+    public SuggestIndexStatsResponseModel stats() {
+        Snapshot snapshot = current;
+        TitleSuggestions suggestions = snapshot.suggestions();
+        return new SuggestIndexStatsResponseModel(suggestions.titleCount(), suggestions.keyCount(),
+                suggestions.memoryBytes(), snapshot.builtAt(), snapshot.buildMillis());
+    }
+
+    /**
+     * Builds the index from the database and swaps it in. Lookups keep using the previous index until then.
+     */
+    public void rebuild() {
+        long started = System.nanoTime();
+        TitleSuggestions suggestions = TitleSuggestions.build(gameRepository.findAllTitles());
+        long buildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        current = new Snapshot(suggestions, Instant.now(), buildMillis);
+        log.info("Built title suggestions for {} games ({} keys, ~{} KiB) in {} ms",
+                suggestions.titleCount(), suggestions.keyCount(), suggestions.memoryBytes() / 1024, buildMillis);
+    }
+
+    @PreDestroy
+    public void close() {
+        builder.shutdownNow();
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Could not rebuild title suggestions, still serving the previous ones: {}", e.getMessage());
+        }
+    }
+
+    private record Snapshot(TitleSuggestions suggestions, Instant builtAt, long buildMillis) {
+    }
+}
@@ -0,0 +1,221 @@
+package com.champsoft.gamemanagement.Search;
+
+import com.champsoft.gamemanagement.DataAccess.GameTitle;
+import com.champsoft.gamemanagement.Presentation.DTOS.SuggestionResponseModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * An immutable prefix index of game titles. Every title is indexed from its first word and from each later word
+ * (so "zel" and "breath" both find "The Legend of Zelda: Breath of the Wild"), after the same accent folding and
+ * lowercasing as search, with punctuation reduced to single spaces.
+ * <p>
+ * The keys are sorted and packed into one char array, which makes every node of the trie they would form a
+ * contiguous range of keys: a prefix is two binary searches away from the range of titles it completes. A
+ * range-minimum tree over the keys' popularity ranks then yields the K most popular games in that range in
+ * O(K log n), however many titles share the prefix. Never modified once built, so readers need no locking.
+ */
+final class TitleSuggestions {
+
+    static final TitleSuggestions EMPTY = build(List.of());
+
+    // Bounds how many keys one long title can contribute.
+    static final int MAX_KEYS_PER_TITLE = 8;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int STRING_BYTES = 56; // String and its array headers, before the characters
+
+    private final String[] ids; // by rank, most popular first
+    private final String[] titles;
+    private final char[] keyChars;
+    private final int[] keyOffsets; // key i is keyChars[keyOffsets[i], keyOffsets[i + 1])
+    private final int[] keyRanks;
+    private final int[] minTree; // minTree[leaves + i] = i, inner nodes hold the key position of the lowest rank below
+    private final int leaves;
+
+    private TitleSuggestions(String[] ids, String[] titles, char[] keyChars, int[] keyOffsets, int[] keyRanks) {
+        this.ids = ids;
+        this.titles = titles;
+        this.keyChars = keyChars;
+        this.keyOffsets = keyOffsets;
+        this.keyRanks = keyRanks;
+        this.leaves = Math.max(1, keyRanks.length);
+        this.minTree = new int[2 * leaves];
+        for (int i = 0; i < leaves; i++) {
+            minTree[leaves + i] = i;
+        }
+        for (int node = leaves - 1; node > 0; node--) {
+            minTree[node] = lower(minTree[2 * node], minTree[2 * node + 1]);
+        }
+    }
+
+    static TitleSuggestions build(List<? extends GameTitle> games) {
+        GameTitle[] ranked = games.stream()
+                .filter(game -> game.getTitle() != null && !normalize(game.getTitle()).isEmpty())
+                .sorted(Comparator.comparingLong(GameTitle::getPopularity).reversed()
+                        .thenComparing(GameTitle::getTitle)
+                        .thenComparing(GameTitle::getId))
+                .toArray(GameTitle[]::new);
+        String[] ids = new String[ranked.length];
+        String[] titles = new String[ranked.length];
+        List<Key> keys = new ArrayList<>();
+        for (int rank = 0; rank < ranked.length; rank++) {
+            ids[rank] = ranked[rank].getId();
+            titles[rank] = ranked[rank].getTitle();
+            String normalized = normalize(titles[rank]);
+            int added = 0;
+            for (int start = 0; start < normalized.length() && added < MAX_KEYS_PER_TITLE; start++) {
+                if (start == 0 || normalized.charAt(start - 1) == ' ') {
+                    keys.add(new Key(normalized.substring(start), rank));
+                    added++;
+                }
+            }
+        }
+        keys.sort(Comparator.comparing(Key::text).thenComparingInt(Key::rank));
+
+        int[] keyOffsets = new int[keys.size() + 1];
+        int[] keyRanks = new int[keys.size()];
+        int length = 0;
+        for (Key key : keys) {
+            length += key.text().length();
+        }
+        char[] keyChars = new char[length];
+        int position = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            String text = keys.get(i).text();
+            text.getChars(0, text.length(), keyChars, position);
+            keyOffsets[i] = position;
+            keyRanks[i] = keys.get(i).rank();
+            position += text.length();
+        }
+        keyOffsets[keys.size()] = position;
+        return new TitleSuggestions(ids, titles, keyChars, keyOffsets, keyRanks);
+    }
+
+    /**
+     * The most popular games with a title word starting with the prefix, most popular first and each game once.
+     */
+    List<SuggestionResponseModel> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || keyRanks.length == 0) {
+            return List.of();
+        }
+        int from = firstKeyNotBefore(normalized);
+        int to = firstKeyNotBefore(normalized + Character.MAX_VALUE);
+        List<SuggestionResponseModel> suggestions = new ArrayList<>(Math.min(limit, to - from));
+        BitSet suggested = new BitSet();
+        // Ranges of keys ordered by the best rank they hold; the best one always yields the next suggestion.
+        PriorityQueue<int[]> ranges = new PriorityQueue<>(Comparator.comparingInt(range -> keyRanks[range[2]]));
+        offer(ranges, from, to);
+        while (suggestions.size() < limit && !ranges.isEmpty()) {
+            int[] range = ranges.poll();
+            int rank = keyRanks[range[2]];
+            if (!suggested.get(rank)) {
+                suggested.set(rank);
+                suggestions.add(new SuggestionResponseModel(ids[rank], titles[rank]));
+            }
+            offer(ranges, range[0], range[2]);
+            offer(ranges, range[2] + 1, range[1]);
+        }
+        return suggestions;
+    }
+
+    int titleCount() {
+        return ids.length;
+    }
+
+    int keyCount() {
+        return keyRanks.length;
+    }
+
+    /**
+     * Estimated heap held by this index, the titles and ids it returns included.
+     */
+    long memoryBytes() {
+        long bytes = 2L * keyChars.length + 4L * (keyOffsets.length + keyRanks.length + minTree.length)
+                + 4L * ARRAY_HEADER_BYTES + 2L * (ARRAY_HEADER_BYTES + 4L * ids.length);
+        for (int rank = 0; rank < ids.length; rank++) {
+            bytes += 2L * STRING_BYTES + ids[rank].length() + titles[rank].length();
+        }
+        return bytes;
+    }
+
+    static String normalize(String text) {
+        String folded = Analyzer.fold(text);
+        StringBuilder normalized = new StringBuilder(folded.length());
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(c);
+            } else if (!normalized.isEmpty() && normalized.charAt(normalized.length() - 1) != ' ') {
+                normalized.append(' ');
+            }
+        }
+        int end = normalized.length();
+        return end > 0 && normalized.charAt(end - 1) == ' ' ? normalized.substring(0, end - 1) : normalized.toString();
+    }
+
+    private void offer(PriorityQueue<int[]> ranges, int from, int to) {
+        if (from < to) {
+            ranges.add(new int[]{from, to, lowestRank(from, to)});
+        }
+    }
+
+    // Position of the lowest rank among keys [from, to).
+    private int lowestRank(int from, int to) {
+        int best = from;
+        for (int lo = from + leaves, hi = to + leaves; lo < hi; lo >>= 1, hi >>= 1) {
+            if ((lo & 1) == 1) {
+                best = lower(best, minTree[lo++]);
+            }
+            if ((hi & 1) == 1) {
+                best = lower(best, minTree[--hi]);
+            }
+        }
+        return best;
+    }
+
+    private int lower(int position, int other) {
+        if (other >= keyRanks.length) {
+            return position;
+        }
+        if (position >= keyRanks.length) {
+            return other;
+        }
+        return keyRanks[other] < keyRanks[position] ? other : position;
+    }
+
+    private int firstKeyNotBefore(String text) {
+        int lo = 0;
+        int hi = keyRanks.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareKey(mid, text) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int compareKey(int key, String text) {
+        int start = keyOffsets[key];
+        int length = keyOffsets[key + 1] - start;
+        int common = Math.min(length, text.length());
+        for (int i = 0; i < common; i++) {
+            int difference = keyChars[start + i] - text.charAt(i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - text.length();
+    }
+
+    private record Key(String text, int rank) {
+    }
+}
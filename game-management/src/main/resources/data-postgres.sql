@@ -16,13 +16,23 @@ INSERT INTO games (game_id, title, price, release_date, description, publisher,
 
 -- Insert Reviews (Using specific UUID literals and linking to the games)
 INSERT INTO reviews (review_id, comment, rating, timestamp, game_id) VALUES
-                                                                         ('r1a1b2c3-d4e5-4f6a-7b8c-d9e0f1234567', 'Great game, but had some bugs at launch.', '4/5', '2021-01-15 12:00:00', '3f4d5e6c-7b8a-49d0-91e2-f3a4b5c6d7e8'), -- Review for Cyberpunk 2077 (Game 1)
-                                                                         ('r2b2c3d4-e5f6-4a7b-8c9d-e0f123456789', 'Best RPG I have ever played!', '5/5', '2016-06-20 15:30:00', '5a6b7c8d-9e0f-41a2-b3c4-d5e6f7a8b9c0'), -- Review for The Witcher 3 (Game 2)
-                                                                         ('r3c3d4e5-f6a7-4b8c-9d0e-f12345678901', 'Amazing story and graphics.', '5/5', '2019-11-05 10:00:00', '1c2d3e4f-5a6b-47c8-9d0e-1f2a3b4c5d6e'), -- Review for Red Dead Redemption 2 (Game 3)
-                                                                         ('r4d4e5f6-a7b8-4c9d-0e1f-234567890123', 'Very challenging, but rewarding.', '4/5', '2022-03-10 18:00:00', '7e8f9a0b-1c2d-43e4-5f6a-7b8c9d0e1f20'), -- Review for Elden Ring (Game 4)
-                                                                         ('r5e5f6a7-b8c9-4d0e-1f2a-345678901234', 'Endless creativity!', '5/5', '2023-01-01 00:00:00', '9a0b1c2d-3e4f-45a6-7b8c-9d0e1f2a3b40'), -- Review for Minecraft (Game 5)
-                                                                         ('r6f6a7b8-c9d0-4e1f-2a3b-456789012345', 'The atmosphere is incredible.', '4/5', '2021-01-20 12:00:00', '3f4d5e6c-7b8a-49d0-91e2-f3a4b5c6d7e8'), -- Review for Cyberpunk 2077 (Game 1)
-                                                                         ('r7a7b8c9-d0e1-4f2a-3b4c-567890123456', 'Geralt is a fantastic character.', '5/5', '2016-07-01 15:30:00', '5a6b7c8d-9e0f-41a2-b3c4-d5e6f7a8b9c0'), -- Review for The Witcher 3 (Game 2)
-                                                                         ('r8b8c9d0-e1f2-4a3b-4c5d-678901234567', 'Arthur Morgan is a legend.', '5/5', '2019-11-10 10:00:00', '1c2d3e4f-5a6b-47c8-9d0e-1f2a3b4c5d6e'), -- Review for Red Dead Redemption 2 (Game 3)
-                                                                         ('r9c9d0e1-f2a3-4b4c-5d6e-789012345678', 'Prepare to die... a lot.', '4/5', '2022-03-15 18:00:00', '7e8f9a0b-1c2d-43e4-5f6a-7b8c9d0e1f20'), -- Review for Elden Ring (Game 4)
-                                                                         ('r0d0e1f2-a3b4-4c5d-6e7f-890123456789', 'Build anything you can imagine.', '5/5', '2023-01-05 00:00:00', '9a0b1c2d-3e4f-45a6-7b8c-9d0e1f2a3b40'); -- Review for Minecraft (Game 5)
\ No newline at end of file
+                                                                         ('r1a1b2c3-d4e5-4f6a-7b8c-d9e0f1234567', 'Great game, but had some bugs at launch.', 4, '2021-01-15 12:00:00', '3f4d5e6c-7b8a-49d0-91e2-f3a4b5c6d7e8'), -- Review for Cyberpunk 2077 (Game 1)
+                                                                         ('r2b2c3d4-e5f6-4a7b-8c9d-e0f123456789', 'Best RPG I have ever played!', 5, '2016-06-20 15:30:00', '5a6b7c8d-9e0f-41a2-b3c4-d5e6f7a8b9c0'), -- Review for The Witcher 3 (Game 2)
+                                                                         ('r3c3d4e5-f6a7-4b8c-9d0e-f12345678901', 'Amazing story and graphics.', 5, '2019-11-05 10:00:00', '1c2d3e4f-5a6b-47c8-9d0e-1f2a3b4c5d6e'), -- Review for Red Dead Redemption 2 (Game 3)
+                                                                         ('r4d4e5f6-a7b8-4c9d-0e1f-234567890123', 'Very challenging, but rewarding.', 4, '2022-03-10 18:00:00', '7e8f9a0b-1c2d-43e4-5f6a-7b8c9d0e1f20'), -- Review for Elden Ring (Game 4)
+                                                                         ('r5e5f6a7-b8c9-4d0e-1f2a-345678901234', 'Endless creativity!', 5, '2023-01-01 00:00:00', '9a0b1c2d-3e4f-45a6-7b8c-9d0e1f2a3b40'), -- Review for Minecraft (Game 5)
+                                                                         ('r6f6a7b8-c9d0-4e1f-2a3b-456789012345', 'The atmosphere is incredible.', 4, '2021-01-20 12:00:00', '3f4d5e6c-7b8a-49d0-91e2-f3a4b5c6d7e8'), -- Review for Cyberpunk 2077 (Game 1)
+                                                                         ('r7a7b8c9-d0e1-4f2a-3b4c-567890123456', 'Geralt is a fantastic character.', 5, '2016-07-01 15:30:00', '5a6b7c8d-9e0f-41a2-b3c4-d5e6f7a8b9c0'), -- Review for The Witcher 3 (Game 2)
+                                                                         ('r8b8c9d0-e1f2-4a3b-4c5d-678901234567', 'Arthur Morgan is a legend.', 5, '2019-11-10 10:00:00', '1c2d3e4f-5a6b-47c8-9d0e-1f2a3b4c5d6e'), -- Review for Red Dead Redemption 2 (Game 3)
+                                                                         ('r9c9d0e1-f2a3-4b4c-5d6e-789012345678', 'Prepare to die... a lot.', 4, '2022-03-15 18:00:00', '7e8f9a0b-1c2d-43e4-5f6a-7b8c9d0e1f20'), -- Review for Elden Ring (Game 4)
+                                                                         ('r0d0e1f2-a3b4-4c5d-6e7f-890123456789', 'Build anything you can imagine.', 5, '2023-01-05 00:00:00', '9a0b1c2d-3e4f-45a6-7b8c-9d0e1f2a3b40'); -- Review for Minecraft (Game 5)
+
+-- Seed reviews are inserted directly, so derive the rating totals from them once
+UPDATE games g SET rating_count = r.rating_count, rating_sum = r.rating_sum,
+                   rating_1 = r.rating_1, rating_2 = r.rating_2, rating_3 = r.rating_3, rating_4 = r.rating_4, rating_5 = r.rating_5
+FROM (SELECT game_id, COUNT(rating) AS rating_count, COALESCE(SUM(rating), 0) AS rating_sum,
+             COUNT(*) FILTER (WHERE rating = 1) AS rating_1, COUNT(*) FILTER (WHERE rating = 2) AS rating_2,
+             COUNT(*) FILTER (WHERE rating = 3) AS rating_3, COUNT(*) FILTER (WHERE rating = 4) AS rating_4,
+             COUNT(*) FILTER (WHERE rating = 5) AS rating_5
+      FROM reviews GROUP BY game_id) r
+WHERE g.game_id = r.game_id;
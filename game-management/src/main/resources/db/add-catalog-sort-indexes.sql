@@ -0,0 +1,16 @@
+-- One-off migration for an existing game-db, run once before starting a build with the paged, sortable catalog:
+--   psql -d game-db -f add-catalog-sort-indexes.sql
+-- Adds the stored rating average the catalog sorts on, fills it from the rating totals, and indexes every sort.
+
+BEGIN;
+
+ALTER TABLE games ADD COLUMN IF NOT EXISTS rating_average DOUBLE PRECISION NOT NULL DEFAULT 0;
+
+UPDATE games SET rating_average = rating_sum::double precision / rating_count WHERE rating_count > 0;
+
+CREATE INDEX IF NOT EXISTS idx_games_title ON games (title, game_id);
+CREATE INDEX IF NOT EXISTS idx_games_price ON games (price, game_id);
+CREATE INDEX IF NOT EXISTS idx_games_release_date ON games (release_date, game_id);
+CREATE INDEX IF NOT EXISTS idx_games_rating_average ON games (rating_average, game_id);
+
+COMMIT;
@@ -0,0 +1,37 @@
+-- One-off backfill for an existing game-db, run once before starting a build that stores ratings as stars:
+--   psql -d game-db -f backfill-review-ratings.sql
+-- Converts the free-form reviews.rating strings ('4/5', '4', '8/10', '4.5') to whole stars from 1 to 5 and fills
+-- the per-game rating totals. Strings that are not a number (or a number over a number) become NULL and are left
+-- out of the totals.
+
+BEGIN;
+
+ALTER TABLE reviews ALTER COLUMN rating TYPE SMALLINT USING (
+    CASE
+        WHEN trim(rating) ~ '^[0-9]+(\.[0-9]+)?(\s*/\s*[0-9]*[1-9][0-9]*(\.[0-9]+)?)?$' THEN
+            LEAST(5, GREATEST(1, ROUND(
+                split_part(trim(rating), '/', 1)::numeric * 5
+                    / COALESCE(NULLIF(trim(split_part(trim(rating), '/', 2)), '')::numeric, 5))))
+    END
+);
+ALTER TABLE reviews ADD CONSTRAINT reviews_rating_stars CHECK (rating BETWEEN 1 AND 5);
+
+ALTER TABLE games
+    ADD COLUMN IF NOT EXISTS rating_count BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_sum BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_1 BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_2 BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_3 BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_4 BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_5 BIGINT NOT NULL DEFAULT 0;
+
+UPDATE games g SET rating_count = r.rating_count, rating_sum = r.rating_sum,
+                   rating_1 = r.rating_1, rating_2 = r.rating_2, rating_3 = r.rating_3, rating_4 = r.rating_4, rating_5 = r.rating_5
+FROM (SELECT game_id, COUNT(rating) AS rating_count, COALESCE(SUM(rating), 0) AS rating_sum,
+             COUNT(*) FILTER (WHERE rating = 1) AS rating_1, COUNT(*) FILTER (WHERE rating = 2) AS rating_2,
+             COUNT(*) FILTER (WHERE rating = 3) AS rating_3, COUNT(*) FILTER (WHERE rating = 4) AS rating_4,
+             COUNT(*) FILTER (WHERE rating = 5) AS rating_5
+      FROM reviews GROUP BY game_id) r
+WHERE g.game_id = r.game_id;
+
+COMMIT;
@@ -21,15 +21,32 @@ CREATE TABLE IF NOT EXISTS games (
     publisher VARCHAR(255),
     developer VARCHAR(255),
     genre VARCHAR(255),
-    game_user_id VARCHAR(255)
+    game_user_id VARCHAR(255),
+    -- Rating totals, changed with each review write on the locked game (Game#addToRatings after GameRepository.findGameForUpdate)
+    rating_count BIGINT NOT NULL DEFAULT 0,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    rating_1 BIGINT NOT NULL DEFAULT 0,
+    rating_2 BIGINT NOT NULL DEFAULT 0,
+    rating_3 BIGINT NOT NULL DEFAULT 0,
+    rating_4 BIGINT NOT NULL DEFAULT 0,
+    rating_5 BIGINT NOT NULL DEFAULT 0,
+    rating_average DOUBLE PRECISION NOT NULL DEFAULT 0 -- rating_sum / rating_count, 0 while unrated
     );
 
 CREATE TABLE IF NOT EXISTS reviews (
                                        review_id VARCHAR(255) PRIMARY KEY, -- Using UUID for ReviewId
     comment VARCHAR(2000), -- Adjusted size
-    rating VARCHAR(255),
+    rating SMALLINT CHECK (rating BETWEEN 1 AND 5), -- stars
     timestamp TIMESTAMP,
     game_id VARCHAR(255),
     FOREIGN KEY (game_id) REFERENCES games(game_id)
     );
 
+-- Keyset pages of a game's reviews, newest first (GET /api/v1/game/{uuid}/reviews)
+CREATE INDEX IF NOT EXISTS idx_reviews_game_timestamp ON reviews (game_id, timestamp DESC, review_id DESC);
+
+-- Keyset pages of the catalog in each of its sorts (GET /api/v1/game?sort=), read backwards for descending sorts
+CREATE INDEX IF NOT EXISTS idx_games_title ON games (title, game_id);
+CREATE INDEX IF NOT EXISTS idx_games_price ON games (price, game_id);
+CREATE INDEX IF NOT EXISTS idx_games_release_date ON games (release_date, game_id);
+CREATE INDEX IF NOT EXISTS idx_games_rating_average ON games (rating_average, game_id);
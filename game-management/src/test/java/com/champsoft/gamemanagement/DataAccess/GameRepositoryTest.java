@@ -1,13 +1,24 @@
 package com.champsoft.gamemanagement.DataAccess;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -22,6 +33,15 @@ public class GameRepositoryTest {
     @Autowired
     private GameRepository gameRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     private Game game1;
     private Game game2;
     private GameId gameId1;
@@ -171,4 +191,136 @@ public class GameRepositoryTest {
 
         assertEquals(expectedCount, actualCount);
     }
-}
\ No newline at end of file
+
+    private void addToRatings(GameId gameId, RatingSummary delta) {
+        gameRepository.findGameForUpdate(gameId).addToRatings(delta);
+    }
+
+    @Test
+    @DisplayName("Find Game For Update - Totals And Average Follow Each Change")
+    void whenRatingsAreAddedToTheLockedGame_thenTotalsAndAverageAreSaved() {
+        gameRepository.saveAndFlush(game1);
+        entityManager.clear();
+
+        addToRatings(gameId1, RatingSummary.change(null, 4));
+        addToRatings(gameId1, RatingSummary.change(null, 5));
+        addToRatings(gameId1, RatingSummary.change(4, 2));
+        entityManager.flush();
+        entityManager.clear();
+
+        Game reloaded = gameRepository.findGameByGameId(gameId1);
+        assertEquals(2, reloaded.getRatings().getRatingCount());
+        assertEquals(7, reloaded.getRatings().getRatingSum());
+        assertEquals(0, reloaded.getRatings().getFourStars());
+        assertEquals(1, reloaded.getRatings().getTwoStars());
+        assertEquals(3.5, reloaded.getRatingAverage(), 1e-9);
+        assertNull(gameRepository.findGameForUpdate(gameId2));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // the rating change commits while the edit is open
+    @DisplayName("Save Game - An Edit Keeps Totals Changed Since It Was Loaded")
+    void whenRatingsChangeWhileAGameIsEdited_thenTheEditKeepsTheNewTotals() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        TransactionTemplate review = new TransactionTemplate(transactionManager);
+        review.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            gameRepository.saveAndFlush(game1);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                Game edited = gameRepository.findGameByGameId(gameId1);
+                review.executeWithoutResult(inner -> addToRatings(gameId1, RatingSummary.change(null, 4)));
+                edited.setTitle("Renamed");
+            });
+
+            GameTitle row = gameRepository.findAllTitles().get(0); // the row, not a cached copy
+            assertEquals("Renamed", row.getTitle());
+            assertEquals(1, row.getPopularity());
+        } finally {
+            gameRepository.deleteAll();
+        }
+    }
+
+    private Game catalogGame(String id, String title, double price) {
+        Game game = new Game();
+        game.setGameId(new GameId(id));
+        game.setTitle(title);
+        game.setPrice(price);
+        game.setReleaseDate(LocalDateTime.of(2020, 1, 1, 0, 0));
+        game.setGenre(Genre.ACTION);
+        return game;
+    }
+
+    private List<String> walkCatalog(CatalogSort sort, boolean descending, int pageSize) {
+        List<String> ids = new ArrayList<>();
+        CatalogCursor after = null;
+        List<GameSummary> page;
+        do {
+            page = gameRepository.findCatalogPage(sort, descending, after, pageSize);
+            page.forEach(game -> ids.add(game.getId()));
+            if (!page.isEmpty()) {
+                // Round-trip the cursor as a client would.
+                after = CatalogCursor.decode(CatalogCursor.after(sort, descending, page.get(page.size() - 1)).encode());
+            }
+        } while (page.size() == pageSize);
+        return ids;
+    }
+
+    @Test
+    @DisplayName("Find Catalog Page - Walks Every Sort Without Gaps Or Repeats")
+    void whenCatalogIsPaged_thenEveryGameIsListedOnceInSortOrderWithUntitledGamesLast() {
+        gameRepository.saveAll(List.of(
+                catalogGame("a", "Zelda", 59.99),
+                catalogGame("b", "Apex", 0),
+                catalogGame("c", "Mario", 59.99),
+                catalogGame("d", null, 19.99),
+                catalogGame("e", "Apex", 29.99),
+                catalogGame("f", null, 9.99)));
+        gameRepository.flush();
+        addToRatings(new GameId("c"), RatingSummary.change(null, 5));
+        addToRatings(new GameId("a"), RatingSummary.change(null, 3));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(List.of("b", "e", "c", "a", "d", "f"), walkCatalog(CatalogSort.TITLE, false, 2));
+        assertEquals(List.of("a", "c", "e", "b", "f", "d"), walkCatalog(CatalogSort.TITLE, true, 4));
+        assertEquals(List.of("c", "a", "e", "d", "f", "b"), walkCatalog(CatalogSort.PRICE, true, 1));
+        assertEquals(List.of("c", "a", "f", "e", "d", "b"), walkCatalog(CatalogSort.RATING, true, 3));
+
+        GameSummary rated = gameRepository.findCatalogPage(CatalogSort.RATING, true, null, 1).get(0);
+        assertEquals("Mario", rated.getTitle());
+        assertEquals(1, rated.getRatingCount());
+        assertEquals(5.0, rated.getRatingAverage(), 1e-9);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // each call commits, as in the service, so it is cached
+    @DisplayName("Find Game By Id - Served From The Second-Level Cache, Which A Rating Change Keeps Current")
+    void whenGameIsCommitted_thenLookupsHitTheCacheAndARatingChangeReplacesOnlyItsEntry() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            gameRepository.saveAllAndFlush(List.of(game1, game2));
+            statistics.clear();
+
+            Game cached = gameRepository.findGameByGameId(gameId1);
+            gameRepository.findGameByGameId(gameId2);
+            long hits = statistics.getSecondLevelCacheHitCount();
+            transactionTemplate.executeWithoutResult(status -> addToRatings(gameId1, RatingSummary.change(null, 5)));
+            statistics.clear();
+            Game reloaded = gameRepository.findGameByGameId(gameId1);
+            Game other = gameRepository.findGameByGameId(gameId2);
+
+            assertEquals("Gmae1", cached.getTitle());
+            assertEquals(2, hits);
+            assertEquals(1, reloaded.getRatings().getRatingCount());
+            assertEquals(5.0, reloaded.getRatingAverage(), 1e-9);
+            assertEquals("Gmae2", other.getTitle());
+            // Both from the cache: the rated game's entry was replaced on commit, the other's left alone
+            assertEquals(2, statistics.getSecondLevelCacheHitCount());
+            assertEquals(0, statistics.getSecondLevelCacheMissCount());
+        } finally {
+            gameRepository.deleteAll();
+        }
+    }
+}
@@ -5,10 +5,22 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional; // Import Optional
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -19,6 +31,12 @@ public class ReviewRepositoryTest {
     @Autowired
     private ReviewRepository reviewRepository;
 
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     // Use meaningful names like review1, review2 instead of game1, game2
     private Review review1;
     private Review review2;
@@ -32,13 +50,13 @@ public class ReviewRepositoryTest {
         reviewId1 = new ReviewId(UUID.randomUUID().toString());
         review1 = new Review();
         review1.setReviewId(reviewId1);
-        review1.setRating("2");
+        review1.setRating(2);
         review1.setComment("Initial comment for review 1"); // Add comment for completeness
 
         reviewId2 = new ReviewId(UUID.randomUUID().toString());
         review2 = new Review();
         review2.setReviewId(reviewId2);
-        review2.setRating("4");
+        review2.setRating(4);
         review2.setComment("Initial comment for review 2"); // Add comment for completeness
 
         // Do NOT set the 'game' field here unless you are also saving a Game entity
@@ -152,7 +170,7 @@ public class ReviewRepositoryTest {
         Review reviewToUpdate = reviewToUpdateOptional.get();
 
         // Update fields that are actually part of the Review entity
-        reviewToUpdate.setRating("5"); // Update rating to "5"
+        reviewToUpdate.setRating(5); // Update rating to 5
         reviewToUpdate.setComment("Updated comment!"); // Add or update comment
 
         reviewRepository.save(reviewToUpdate); // Save the updated entity
@@ -164,7 +182,7 @@ public class ReviewRepositoryTest {
 
         assertEquals(reviewId, updatedReview.getReviewId());
         // FIX: Assert the updated fields
-        assertEquals("5", updatedReview.getRating());
+        assertEquals(5, updatedReview.getRating());
         assertEquals("Updated comment!", updatedReview.getComment());
         // FIX: Remove the incorrect assertion about 'Game'
         // assertEquals("Fairy", updatedReview.getGame()); // This assertion is incorrect for a Review entity
@@ -202,4 +220,98 @@ public class ReviewRepositoryTest {
 
         assertEquals(expectedCount, actualCount);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Page Reviews Of A Game Newest First - Keyset")
+    void whenPagingReviewsOfAGame_ThenEveryReviewComesOnceNewestFirst() {
+        Game game = new Game();
+        game.setGameId(new GameId(UUID.randomUUID().toString()));
+        game.setTitle("Popular Game");
+        gameRepository.save(game);
+        Game other = new Game();
+        other.setGameId(new GameId(UUID.randomUUID().toString()));
+        gameRepository.save(other);
+
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < 5; i++) {
+            Review review = new Review("review-" + i, 5);
+            review.setTimestamp(i < 2 ? base : base.plusMinutes(i)); // review-0 and review-1 share a timestamp
+            review.setGame(game);
+            reviewRepository.save(review);
+        }
+        Review elsewhere = new Review("elsewhere", 1);
+        elsewhere.setTimestamp(base.plusDays(1));
+        elsewhere.setGame(other);
+        reviewRepository.save(elsewhere);
+
+        List<String> seen = new ArrayList<>();
+        List<Review> page = reviewRepository.findNewestByGame(game.getGameId().getUuid(), Limit.of(2));
+        while (!page.isEmpty()) {
+            page.forEach(review -> seen.add(review.getReviewId().getUuid()));
+            ReviewCursor cursor = ReviewCursor.decode(ReviewCursor.after(page.get(page.size() - 1)).encode());
+            page = reviewRepository.findByGameAfter(game.getGameId().getUuid(), cursor.getTimestamp(), cursor.getReviewId(), Limit.of(2));
+        }
+
+        assertEquals(List.of("review-4", "review-3", "review-2", "review-1", "review-0"), seen);
+    }
+
+    @Test
+    @DisplayName("Insert Review Referencing Game By Id - Success")
+    void whenInsertingAReviewWithAGameReference_ThenItIsStoredUnderThatGame() {
+        Game game = new Game();
+        game.setGameId(new GameId(UUID.randomUUID().toString()));
+        gameRepository.saveAndFlush(game);
+
+        Review review = new Review("inserted", 3);
+        review.setTimestamp(LocalDateTime.now());
+        review.setGame(gameRepository.getReferenceById(game.getGameId()));
+        reviewRepository.insert(review);
+        reviewRepository.flush();
+
+        List<Review> stored = reviewRepository.findNewestByGame(game.getGameId().getUuid(), Limit.of(10));
+        assertEquals(1, stored.size());
+        assertEquals(3, stored.get(0).getRating());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // two real transactions, on two threads
+    @DisplayName("Find Review For Update - A Second Writer Waits And Reads The First One's Rating")
+    void whenTwoWritersLoadTheSameReview_ThenTheSecondWaitsForTheFirstToCommit() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Game game = new Game();
+        game.setGameId(new GameId(UUID.randomUUID().toString()));
+        gameRepository.saveAndFlush(game);
+        Review review = new Review("contended", 2);
+        review.setGame(game);
+        reviewRepository.saveAndFlush(review);
+        CountDownLatch locked = new CountDownLatch(1);
+        ExecutorService second = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> secondRead = second.submit(() -> {
+                locked.await();
+                return transactionTemplate.execute(status ->
+                        reviewRepository.findReviewByReviewIdAndGame_GameId(review.getReviewId(), game.getGameId()).getRating());
+            });
+            transactionTemplate.executeWithoutResult(status -> {
+                Review first = reviewRepository.findReviewByReviewIdAndGame_GameId(review.getReviewId(), game.getGameId());
+                first.setRating(5);
+                locked.countDown();
+                sleepQuietly(300); // the second writer is blocked on the row meanwhile
+            });
+
+            assertEquals(5, secondRead.get(10, TimeUnit.SECONDS));
+        } finally {
+            second.shutdownNow();
+            reviewRepository.deleteAll();
+            gameRepository.deleteAll();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,15 +2,19 @@ package com.champsoft.gamemanagement.DataMapper;
 
 import com.champsoft.gamemanagement.DataAccess.Game;
 import com.champsoft.gamemanagement.DataAccess.GameId;
+import com.champsoft.gamemanagement.DataAccess.GameSummary;
 import com.champsoft.gamemanagement.DataAccess.Genre;
+import com.champsoft.gamemanagement.DataAccess.RatingSummary;
 import com.champsoft.gamemanagement.DataAccess.Review;
 import com.champsoft.gamemanagement.Presentation.DTOS.GameResponseModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.GameSummaryResponseModel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -67,9 +71,36 @@ class GameResponseMapperImplTest {
         assertNotNull(responseModel.getReviews());
         assertEquals(2, responseModel.getReviews().size());
         assertEquals(rev1.getComment(), responseModel.getReviews().get(0).getComment());
-        assertEquals("5", responseModel.getReviews().get(0).getRating());
+        assertEquals(5, responseModel.getReviews().get(0).getRating());
         assertEquals(rev2.getComment(), responseModel.getReviews().get(1).getComment());
-        assertEquals("4", responseModel.getReviews().get(1).getRating());
+        assertEquals(4, responseModel.getReviews().get(1).getRating());
+    }
+
+    @Test
+    void gameToGameResponseModel_shouldMapRatingTotalsToAverageAndHistogram() {
+        // Arrange
+        Game game = new Game();
+        game.setGameId(new GameId(UUID.randomUUID()));
+        game.setReleaseDate(LocalDateTime.now());
+        game.setGenre(Genre.RPG);
+        game.getRatings().add(RatingSummary.change(null, 5));
+        game.getRatings().add(RatingSummary.change(null, 4));
+        game.getRatings().add(RatingSummary.change(null, 4));
+
+        // Act
+        GameResponseModel responseModel = gameResponseMapper.gameToGameResponseModel(game);
+        Game unratedGame = new Game();
+        unratedGame.setGameId(new GameId(UUID.randomUUID()));
+        unratedGame.setReleaseDate(LocalDateTime.now());
+        unratedGame.setGenre(Genre.RPG);
+        GameResponseModel unrated = gameResponseMapper.gameToGameSummary(unratedGame);
+
+        // Assert
+        assertEquals(3, responseModel.getRatings().getCount());
+        assertEquals(13, responseModel.getRatings().getSum());
+        assertEquals(13 / 3.0, responseModel.getRatings().getAverage(), 1e-9);
+        assertEquals(Map.of(1, 0L, 2, 0L, 3, 0L, 4, 2L, 5, 1L), responseModel.getRatings().getHistogram());
+        assertNull(unrated.getRatings().getAverage());
     }
 
     @Test
@@ -140,10 +171,7 @@ class GameResponseMapperImplTest {
         assertEquals("Dev 2", response1.getDeveloper());
         assertEquals(game2.getReleaseDate().toString(), response1.getReleaseDate());
         assertEquals(Genre.RPG.toString(), response1.getGenre());
-        assertNotNull(response1.getReviews());
-        assertEquals(2, response1.getReviews().size());
-        assertEquals(rev1.getComment(), response1.getReviews().get(0).getComment());
-        assertEquals("2", response1.getReviews().get(0).getRating());
+        assertNull(response1.getReviews()); // listings leave reviews out; they are paged per game
 
 
         // Verify second game
@@ -157,12 +185,7 @@ class GameResponseMapperImplTest {
         assertEquals("Dev 2", response2.getDeveloper());
         assertEquals(game2.getReleaseDate().toString(), response2.getReleaseDate());
         assertEquals(Genre.RPG.toString(), response2.getGenre());
-        assertNotNull(response2.getReviews());
-        assertEquals(2, response2.getReviews().size());
-        assertEquals("Review A", response2.getReviews().get(0).getComment());
-        assertEquals("2", response2.getReviews().get(0).getRating());
-        assertEquals("Review B", response2.getReviews().get(1).getComment());
-        assertEquals("2", response2.getReviews().get(1).getRating());
+        assertNull(response2.getReviews());
     }
 
     @Test
@@ -189,4 +212,27 @@ class GameResponseMapperImplTest {
         assertNotNull(responseModelList);
         assertTrue(responseModelList.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void gameSummaryToResponseModel_shouldMapColumnsAndLeaveUnratedAverageNull() {
+        // Arrange
+        LocalDateTime releaseDate = LocalDateTime.of(2023, 5, 12, 0, 0);
+        GameSummary rated = new GameSummary("zelda", "Zelda", 69.99, releaseDate, "Nintendo", "Nintendo EPD", Genre.ADVENTURE, 4, 4.5);
+        GameSummary unrated = new GameSummary("new", "New Game", 0, null, "Indie", "Indie", Genre.PUZZLE, 0, 0);
+
+        // Act
+        List<GameSummaryResponseModel> responseModels = gameResponseMapper.gameSummaryToResponseModel(List.of(rated, unrated));
+
+        // Assert
+        GameSummaryResponseModel first = responseModels.get(0);
+        assertEquals("zelda", first.getId());
+        assertEquals("Zelda", first.getTitle());
+        assertEquals(69.99, first.getPrice());
+        assertEquals(releaseDate.toString(), first.getReleaseDate());
+        assertEquals("ADVENTURE", first.getGenre());
+        assertEquals(4, first.getRatingCount());
+        assertEquals(4.5, first.getRatingAverage(), 1e-9);
+        assertNull(responseModels.get(1).getReleaseDate());
+        assertNull(responseModels.get(1).getRatingAverage());
+    }
+}
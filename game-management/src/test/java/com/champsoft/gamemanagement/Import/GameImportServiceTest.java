@@ -0,0 +1,200 @@
+package com.champsoft.gamemanagement.Import;
+
+import com.champsoft.gamemanagement.DataAccess.Game;
+import com.champsoft.gamemanagement.DataAccess.GameId;
+import com.champsoft.gamemanagement.DataAccess.GameRepository;
+import com.champsoft.gamemanagement.DataAccess.Genre;
+import com.champsoft.gamemanagement.Presentation.DTOS.GameImportResponseModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.ImportRowErrorResponseModel;
+import com.champsoft.gamemanagement.Search.GameFacetIndex;
+import com.champsoft.gamemanagement.Search.GameSearchIndex;
+import com.champsoft.gamemanagement.Search.TitleSuggestIndex;
+import com.champsoft.gamemanagement.utils.exceptions.InvalidInputException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameImportServiceTest {
+
+    private static final String EXISTING_ID = "6f1c2b7e-0c1d-4f3e-9a2b-3c4d5e6f7a8b";
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private GameSearchIndex searchIndex;
+
+    @Mock
+    private GameFacetIndex facetIndex;
+
+    @Mock
+    private TitleSuggestIndex suggestIndex;
+
+    private GameImportService importService;
+    private final List<Game> inserted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        importService = new GameImportService(gameRepository, transactionManager, searchIndex, facetIndex, suggestIndex, 2);
+    }
+
+    private GameImportResponseModel importGames(String contentType, String body) throws IOException {
+        return importService.importGames(contentType, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void recordInserts() {
+        doAnswer(invocation -> inserted.add(invocation.getArgument(0))).when(gameRepository).insert(any(Game.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Game> searchIndexed() {
+        ArgumentCaptor<Collection<Game>> games = ArgumentCaptor.forClass(Collection.class);
+        verify(searchIndex).indexAll(games.capture());
+        return List.copyOf(games.getValue());
+    }
+
+    @Test
+    void whenCsvHasQuotedFields_thenInsertEachGameInChunksAndRefreshTheIndexesOnce() throws IOException {
+        // Arrange
+        recordInserts();
+        String csv = "\uFEFFTitle,Price,Genre,ReleaseDate,Description,Publisher\r\n"
+                + "Zelda,59.99,adventure,2023-05-12,\"Link, again\",Nintendo\r\n"
+                + "\"The \"\"Quoted\"\" Game\",10,RPG,,\"Two\nlines\",Indie\r\n"
+                + "\r\n"
+                + "Tetris,4.99,PUZZLE,1989-06-14T10:00:00,,Sega\r\n";
+
+        // Act
+        GameImportResponseModel result = importGames("text/csv; charset=UTF-8", csv);
+
+        // Assert
+        assertEquals(3, result.getReceived());
+        assertEquals(3, result.getInserted());
+        assertEquals(0, result.getRejected());
+        assertEquals(List.of("Zelda", "The \"Quoted\" Game", "Tetris"), inserted.stream().map(Game::getTitle).toList());
+        assertEquals("Link, again", inserted.get(0).getDescription());
+        assertEquals(Genre.ADVENTURE, inserted.get(0).getGenre());
+        assertEquals(LocalDateTime.of(2023, 5, 12, 0, 0), inserted.get(0).getReleaseDate());
+        assertEquals("Two\nlines", inserted.get(1).getDescription());
+        assertNotNull(inserted.get(1).getReleaseDate());
+        assertNull(inserted.get(2).getDescription());
+        verify(gameRepository, times(2)).flush(); // chunks of two
+        assertEquals(3, searchIndexed().size());
+        verify(facetIndex).indexAll(anyCollection());
+        verify(suggestIndex).catalogChanged();
+    }
+
+    @Test
+    void whenRowsAreInvalid_thenReportEachWithItsLineAndImportTheRest() throws IOException {
+        // Arrange
+        recordInserts();
+        String ndjson = "{\"title\":\"Zelda\",\"price\":59.99,\"genre\":\"ADVENTURE\"}\n"
+                + "{\"title\":\"Free\",\"price\":-1,\"genre\":\"RPG\"}\n"
+                + "\n"
+                + "not json\n"
+                + "{\"price\":5,\"genre\":\"RPG\"}\n"
+                + "{\"title\":\"Chess\",\"price\":0,\"genre\":\"BOARD\"}\n"
+                + "{\"id\":\"42\",\"title\":\"Go\",\"price\":0,\"genre\":\"STRATEGY\"}\n";
+
+        // Act
+        GameImportResponseModel result = importGames("application/x-ndjson", ndjson);
+
+        // Assert
+        assertEquals(6, result.getReceived());
+        assertEquals(1, result.getInserted());
+        assertEquals(5, result.getRejected());
+        assertEquals(List.of(2, 4, 5, 6, 7), result.getErrors().stream().map(ImportRowErrorResponseModel::getLine).toList());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("price"));
+        assertEquals("title is required", result.getErrors().get(2).getMessage());
+        assertEquals("Unknown genre: BOARD", result.getErrors().get(3).getMessage());
+        assertFalse(result.isErrorsTruncated());
+        assertEquals(List.of("Zelda"), inserted.stream().map(Game::getTitle).toList());
+    }
+
+    @Test
+    void whenIdBelongsToAGame_thenUpdateItInPlace() throws IOException {
+        // Arrange
+        Game existing = new Game();
+        existing.setGameId(new GameId(EXISTING_ID));
+        existing.setTitle("Old title");
+        existing.setDeveloper("Kept Studio");
+        existing.setReleaseDate(LocalDateTime.of(2020, 1, 1, 0, 0));
+        when(gameRepository.findAllForUpdate(anyCollection())).thenReturn(List.of(existing));
+        String csv = "id,title,price,genre\n" + EXISTING_ID.toUpperCase() + ",New title,19.99,racing\n";
+
+        // Act
+        GameImportResponseModel result = importGames("text/csv", csv);
+
+        // Assert
+        assertEquals(1, result.getUpdated());
+        assertEquals(0, result.getInserted());
+        verify(gameRepository, never()).insert(any());
+        verify(gameRepository, never()).save(any());
+        assertEquals("New title", existing.getTitle());
+        assertEquals(19.99, existing.getPrice());
+        assertEquals("Kept Studio", existing.getDeveloper());
+        assertEquals(LocalDateTime.of(2020, 1, 1, 0, 0), existing.getReleaseDate());
+        assertEquals(List.of(existing), searchIndexed());
+    }
+
+    @Test
+    void whenAChunkFailsToSave_thenRetryItsRowsOneByOneAndRejectOnlyTheBadOne() throws IOException {
+        // Arrange
+        doAnswer(invocation -> {
+            Game game = invocation.getArgument(0);
+            if (game.getTitle().equals("Broken")) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return null;
+        }).when(gameRepository).insert(any(Game.class));
+        String csv = "title,price,genre\nFine,1,RPG\nBroken,2,RPG\n";
+
+        // Act
+        GameImportResponseModel result = importGames("text/csv", csv);
+
+        // Assert
+        assertEquals(1, result.getInserted());
+        assertEquals(1, result.getRejected());
+        assertEquals(3, result.getErrors().get(0).getLine());
+        assertEquals("could not be saved: value too long", result.getErrors().get(0).getMessage());
+        assertEquals(List.of("Fine"), searchIndexed().stream().map(Game::getTitle).toList());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    @Test
+    void whenNothingIsSaved_thenLeaveTheIndexesAlone() throws IOException {
+        // Act
+        GameImportResponseModel result = importGames("text/csv", "title,price,genre\nA,1\n");
+
+        // Assert
+        assertEquals(1, result.getRejected());
+        assertEquals("expected 3 columns but found 2", result.getErrors().get(0).getMessage());
+        verifyNoInteractions(searchIndex, facetIndex, suggestIndex, transactionManager);
+    }
+
+    @Test
+    void whenFormatIsUnsupported_thenThrowInvalidInputException() {
+        // Act & Assert
+        assertThrows(InvalidInputException.class, () -> importGames("application/json", "[]"));
+    }
+}
@@ -2,9 +2,11 @@ package com.champsoft.gamemanagement.Presentation;
 
 import com.champsoft.gamemanagement.BusinessLogic.GameService;
 import com.champsoft.gamemanagement.DataAccess.Game; // Consider if this is needed in a web layer test
+import com.champsoft.gamemanagement.Presentation.DTOS.GameCatalogPageResponseModel;
 import com.champsoft.gamemanagement.Presentation.DTOS.GameController; // Consider if this is needed with @SpringBootTest
 import com.champsoft.gamemanagement.Presentation.DTOS.GameRequestModel;
 import com.champsoft.gamemanagement.Presentation.DTOS.GameResponseModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.GameSummaryResponseModel;
 
 import com.champsoft.gamemanagement.utils.GameAlreadyStartedException;
 import jakarta.persistence.EntityNotFoundException;
@@ -216,23 +218,29 @@ public class ControllerIntegrationTest {
 
     @Test
     @DisplayName("GET /api/v1/game - Success")
-    void whenGetAllGames_thenReturnOkWithList() {
+    void whenGetGames_thenReturnOkWithOnePage() {
         // Arrange
-        List<GameResponseModel> gameList = Arrays.asList(response1, response2);
-        // Stub the service method to return the list (standard List)
-        given(gameService.getAllGames()).willReturn(gameList);
+        GameSummaryResponseModel summary1 = new GameSummaryResponseModel();
+        summary1.setId(id1);
+        summary1.setTitle("Game1");
+        GameSummaryResponseModel summary2 = new GameSummaryResponseModel();
+        summary2.setId(id2);
+        summary2.setTitle("Game2");
+        GameCatalogPageResponseModel page = new GameCatalogPageResponseModel(Arrays.asList(summary1, summary2), "next");
+        // Stub the service method to return one page sorted by price
+        given(gameService.getGames("price", null, "abc", 2)).willReturn(page);
 
         // Act & Assert
-        webTestClient.get().uri("/api/v1/game")
+        webTestClient.get().uri("/api/v1/game?sort=price&cursor=abc&limit=2")
                 .accept(MediaType.APPLICATION_JSON)
                 .exchange()
                 .expectStatus().isOk()
                 .expectHeader().contentType(MediaType.APPLICATION_JSON)
-                .expectBodyList(GameResponseModel.class)
-                .isEqualTo(gameList);
+                .expectBody(GameCatalogPageResponseModel.class)
+                .isEqualTo(page);
 
         // Verify that the service method was called
-        then(gameService).should(times(1)).getAllGames();
+        then(gameService).should(times(1)).getGames("price", null, "abc", 2);
     }
 
     // Assuming your startGame method in GameController calls a service method like gameService.startGame(id)
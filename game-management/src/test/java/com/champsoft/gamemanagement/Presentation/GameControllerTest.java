@@ -5,7 +5,10 @@ import com.champsoft.gamemanagement.DataAccess.GameId;
 import com.champsoft.gamemanagement.Presentation.DTOS.GameController;
 import com.champsoft.gamemanagement.Presentation.DTOS.GameRequestModel;
 import com.champsoft.gamemanagement.Presentation.DTOS.GameResponseModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.RatingSummaryResponseModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.ReviewAddedResponseModel;
 import com.champsoft.gamemanagement.Presentation.DTOS.ReviewRequestModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.ReviewResponseModel;
 import com.champsoft.gamemanagement.utils.exceptions.NotFoundException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -108,10 +111,9 @@ public class GameControllerTest {
         reviewRequest.setRating(String.valueOf(5));
         // Populate other fields of reviewRequest as needed
 
-        GameResponseModel reviewedGameModel = new GameResponseModel();
-        reviewedGameModel.setId(gameUuid);
-        reviewedGameModel.setTitle("Game with Review");
-        // Populate other fields of reviewedGameModel including the added review
+        ReviewResponseModel addedReview = new ReviewResponseModel("review-1", "Great game!", 5, null);
+        RatingSummaryResponseModel ratings = new RatingSummaryResponseModel(1, 5, 5.0, Map.of(5, 1L));
+        ReviewAddedResponseModel reviewedGameModel = new ReviewAddedResponseModel(gameUuid, addedReview, ratings);
 
         when(gameService.addReview(any(ReviewRequestModel.class), eq(gameUuid)))
                 .thenReturn(reviewedGameModel);
@@ -2,9 +2,11 @@ package com.champsoft.gamemanagement.Presentation;
 
 import com.champsoft.gamemanagement.BusinessLogic.GameService;
 // Removed unused import: import com.champsoft.gamemanagement.DataAccess.GameId;
+import com.champsoft.gamemanagement.Presentation.DTOS.GameCatalogPageResponseModel;
 import com.champsoft.gamemanagement.Presentation.DTOS.GameController; // Assuming this is the controller class
 import com.champsoft.gamemanagement.Presentation.DTOS.GameRequestModel;
 import com.champsoft.gamemanagement.Presentation.DTOS.GameResponseModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.GameSummaryResponseModel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith; // Recommended for JUnit 5 with Mockito
@@ -63,16 +65,17 @@ public class GameControllerUnitTest {
     @Test
     public void whenNoGamesExist_ThenReturnEmptyList() {
         //arrange
-        when(gameService.getAllGames()).thenReturn(Collections.emptyList());
+        when(gameService.getGames(null, null, null, null)).thenReturn(new GameCatalogPageResponseModel(Collections.emptyList(), null));
         //act
-        ResponseEntity<List<GameResponseModel>>
-                responseEntity = gameController.getAllGames(); // Changed variable name for consistency
+        ResponseEntity<GameCatalogPageResponseModel>
+                responseEntity = gameController.getGames(null, null, null, null); // Changed variable name for consistency
         //assert
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
         // Use assertEquals for lists for better comparison
-        assertEquals(Collections.emptyList(), responseEntity.getBody());
-        verify(gameService, times(1)).getAllGames();
+        assertEquals(Collections.emptyList(), responseEntity.getBody().getGames());
+        assertNull(responseEntity.getBody().getNextCursor());
+        verify(gameService, times(1)).getGames(null, null, null, null);
     }
 
     @Test
@@ -139,28 +142,28 @@ public class GameControllerUnitTest {
     @Test
     void whenGamesExist_thenReturnGamesList() { // Renamed test
         // Arrange
-        GameResponseModel anotherGame = new GameResponseModel();
+        GameSummaryResponseModel game = new GameSummaryResponseModel();
+        game.setId(VALID_GAME_ID);
+        game.setTitle("My Game");
+        GameSummaryResponseModel anotherGame = new GameSummaryResponseModel();
         anotherGame.setId(UUID.randomUUID().toString()); // Use unique ID
         anotherGame.setTitle("Another Game");
-        anotherGame.setDescription("Another description");
 
-        List<GameResponseModel> gameList = Arrays.asList(gameResponseModel, anotherGame);
-        when(gameService.getAllGames()).thenReturn(gameList);
+        GameCatalogPageResponseModel page = new GameCatalogPageResponseModel(Arrays.asList(game, anotherGame), "next");
+        when(gameService.getGames("price", "desc", "cursor", 2)).thenReturn(page);
 
         // Act
-        ResponseEntity<List<GameResponseModel>> responseEntity = gameController.getAllGames();
+        ResponseEntity<GameCatalogPageResponseModel> responseEntity = gameController.getGames("price", "desc", "cursor", 2);
 
         // Assert
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
         assertNotNull(responseEntity.getBody());
-        assertEquals(2, responseEntity.getBody().size());
-        // Use assertEquals for comparing lists if equals() is implemented in GameResponseModel
-        // Otherwise, compare list contents based on unique identifiers or key properties
-        assertEquals(gameList, responseEntity.getBody());
+        assertEquals(2, responseEntity.getBody().getGames().size());
+        assertEquals(page, responseEntity.getBody());
 
 
-        verify(gameService, times(1)).getAllGames();
+        verify(gameService, times(1)).getGames("price", "desc", "cursor", 2);
     }
 
     // Consider adding tests for update and delete methods in your controller
@@ -0,0 +1,239 @@
+package com.champsoft.gamemanagement.Replication;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        ReadConsistency.end();
+    }
+
+    private static DataSource database(String product, Connection connection) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn(product);
+        return dataSource;
+    }
+
+    private static DataSource postgresReplica(long replayedTo, double lagMillis, Connection connection) throws SQLException {
+        DataSource dataSource = database("PostgreSQL", connection);
+        ResultSet result = query(connection, Replica.POSTGRES_REPLAY);
+        when(result.getLong(1)).thenReturn(replayedTo);
+        when(result.getDouble(2)).thenReturn(lagMillis);
+        return dataSource;
+    }
+
+    private static ResultSet query(Connection connection, String sql) throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet result = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(sql)).thenReturn(result);
+        when(result.next()).thenReturn(true);
+        return result;
+    }
+
+    private void primaryIs(String product) throws SQLException {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(primaryConnection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn(product);
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clear();
+    }
+
+    private ReplicaRoutingDataSource routing(DataSource... replicas) {
+        List<Replica> list = new ArrayList<>();
+        for (DataSource replica : replicas) {
+            list.add(new Replica("replica-" + (list.size() + 1), replica));
+        }
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, list, 1000, new SimpleMeterRegistry());
+        routing.probeReplicas();
+        return routing;
+    }
+
+    private static void inTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    @Test
+    void whenTransactionIsReadOnly_thenReplicasTakeTurnsAndWritesGoToThePrimary() throws SQLException {
+        // Arrange
+        Connection first = mock(Connection.class);
+        Connection second = mock(Connection.class);
+        ReplicaRoutingDataSource routing = routing(database("H2", first), database("H2", second));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // Act & Assert
+        inTransaction(true);
+        assertSame(first, routing.getConnection());
+        assertSame(second, routing.getConnection());
+        assertSame(first, routing.getConnection());
+        inTransaction(false);
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    void whenReplicaLagsTooFar_thenReadFromThePrimary() throws SQLException {
+        // Arrange
+        ReplicaRoutingDataSource routing = routing(postgresReplica(1000, 5000, mock(Connection.class)));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        inTransaction(true);
+
+        // Act & Assert
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    void whenReaderWroteAfterTheReplicaLastCaughtUp_thenReadFromThePrimaryUntilItHas() throws SQLException {
+        // Arrange
+        Connection replicaConnection = mock(Connection.class);
+        ReplicaRoutingDataSource routing = routing(postgresReplica(1000, 0, replicaConnection));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        inTransaction(true);
+
+        // Act & Assert
+        ReadConsistency.begin("1001", token -> { });
+        assertSame(primaryConnection, routing.getConnection());
+        ReadConsistency.begin("not a token", token -> { });
+        assertSame(primaryConnection, routing.getConnection());
+        ReadConsistency.begin("1000", token -> { });
+        assertSame(replicaConnection, routing.getConnection());
+    }
+
+    @Test
+    void whenReplicaCannotBeReached_thenFallBackToThePrimaryAndSkipItUntilItAnswersAProbe() throws SQLException {
+        // Arrange
+        Connection replicaConnection = mock(Connection.class);
+        DataSource replica = database("H2", replicaConnection);
+        ReplicaRoutingDataSource routing = routing(replica);
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        inTransaction(true);
+
+        // Act & Assert
+        assertSame(primaryConnection, routing.getConnection());
+        assertSame(primaryConnection, routing.getConnection());
+        verify(replica, times(2)).getConnection(); // the probe, then the one failed read
+    }
+
+    @Test
+    void whenWriteCommits_thenIssueThePrimarysLogPositionAndReadTheRestOfTheRequestAfterIt() throws SQLException {
+        // Arrange
+        Connection replicaConnection = mock(Connection.class);
+        ReplicaRoutingDataSource routing = routing(postgresReplica(1000, 0, replicaConnection));
+        primaryIs("PostgreSQL");
+        ResultSet position = query(primaryConnection, ReplicaRoutingDataSource.POSTGRES_WRITE_POSITION);
+        when(position.getLong(1)).thenReturn(2000L);
+        List<String> tokens = new ArrayList<>();
+        ReadConsistency.begin("500", tokens::add);
+        TransactionSynchronizationManager.initSynchronization();
+        inTransaction(false);
+
+        // Act
+        routing.getConnection();
+        commit();
+
+        // Assert
+        assertEquals(List.of("2000"), tokens);
+        assertEquals(2000, ReadConsistency.requiredPosition());
+        inTransaction(true);
+        assertSame(primaryConnection, routing.getConnection()); // the replica has replayed only up to 1000
+    }
+
+    @Test
+    void whenLogPositionCannotBeRead_thenReadTheRestOfTheRequestFromThePrimaryAndIssueNoToken() throws SQLException {
+        // Arrange
+        ReplicaRoutingDataSource routing = routing(postgresReplica(1000, 0, mock(Connection.class)));
+        primaryIs("PostgreSQL");
+        when(primaryConnection.createStatement()).thenThrow(new SQLException("Connection is closed"));
+        List<String> tokens = new ArrayList<>();
+        ReadConsistency.begin(null, tokens::add);
+        TransactionSynchronizationManager.initSynchronization();
+        inTransaction(false);
+
+        // Act
+        routing.getConnection();
+        commit();
+
+        // Assert
+        assertTrue(tokens.isEmpty());
+        inTransaction(true);
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    void whenStandInPrimaryCommits_thenIssueNoTokenAndKeepReadingTheStandIns() throws SQLException {
+        // Arrange
+        Connection replicaConnection = mock(Connection.class);
+        ReplicaRoutingDataSource routing = routing(database("H2", replicaConnection));
+        primaryIs("H2");
+        List<String> tokens = new ArrayList<>();
+        ReadConsistency.begin(null, tokens::add);
+        TransactionSynchronizationManager.initSynchronization();
+        inTransaction(false);
+
+        // Act
+        routing.getConnection();
+        commit();
+
+        // Assert
+        assertTrue(tokens.isEmpty());
+        inTransaction(true);
+        assertSame(replicaConnection, routing.getConnection());
+    }
+
+    @Test
+    void whenReadOnlyTransactionIsRoutedAsItBegins_thenItsConnectionComesFromThatReplicaUntilItCompletes() throws SQLException {
+        // Arrange
+        Connection first = mock(Connection.class);
+        Connection second = mock(Connection.class);
+        ReplicaRoutingDataSource routing = routing(database("H2", first), database("H2", second));
+        TransactionSynchronizationManager.initSynchronization();
+        inTransaction(true);
+
+        // Act
+        boolean toReplica = routing.routeReadOnlyTransaction();
+
+        // Assert
+        assertTrue(toReplica);
+        assertSame(first, routing.getConnection());
+        assertSame(first, routing.getConnection()); // the route holds, with no turn taken
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertSame(second, routing.getConnection());
+    }
+}
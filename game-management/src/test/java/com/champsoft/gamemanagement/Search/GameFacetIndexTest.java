@@ -0,0 +1,162 @@
+package com.champsoft.gamemanagement.Search;
+
+import com.champsoft.gamemanagement.DataAccess.Game;
+import com.champsoft.gamemanagement.DataAccess.GameId;
+import com.champsoft.gamemanagement.DataAccess.GameRepository;
+import com.champsoft.gamemanagement.DataAccess.Genre;
+import com.champsoft.gamemanagement.DataAccess.RatingSummary;
+import com.champsoft.gamemanagement.DataMapper.GameResponseMapperImpl;
+import com.champsoft.gamemanagement.Presentation.DTOS.GameBrowseResponseModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.GameFilterRequestModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.GameResponseModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameFacetIndexTest {
+
+    @Mock
+    private GameRepository gameRepository;
+
+    private GameFacetIndex facetIndex;
+
+    @BeforeEach
+    void setUp() {
+        facetIndex = new GameFacetIndex(gameRepository, new GameResponseMapperImpl());
+        facetIndex.index(game("zelda", "Zelda", Genre.ADVENTURE, "Nintendo", 59.99, 2023));
+        facetIndex.index(game("mario", "Mario Kart", Genre.RACING, "Nintendo", 49.99, 2017));
+        facetIndex.index(game("fifa", "FIFA 25", Genre.SPORTS, "EA", 69.99, 2024));
+        facetIndex.index(game("apex", "Apex Legends", Genre.SHOOTER, "EA", 0, 2019));
+        facetIndex.index(game("nfs", "Need for Speed", Genre.RACING, "EA", 19.99, 2019));
+    }
+
+    private static Game game(String id, String title, Genre genre, String publisher, double price, int year) {
+        Game game = new Game();
+        game.setGameId(new GameId(id));
+        game.setTitle(title);
+        game.setGenre(genre);
+        game.setPublisher(publisher);
+        game.setDeveloper(publisher + " Studio");
+        game.setPrice(price);
+        game.setReleaseDate(LocalDateTime.of(year, 3, 1, 0, 0));
+        return game;
+    }
+
+    private static GameFilterRequestModel filter() {
+        return new GameFilterRequestModel();
+    }
+
+    private static List<String> ids(GameBrowseResponseModel page) {
+        return page.getGames().stream().map(GameResponseModel::getId).toList();
+    }
+
+    @Test
+    void whenNoFilters_thenPageTheWholeCatalogByTitleWithAllFacets() {
+        // Act
+        GameBrowseResponseModel page = facetIndex.browse(filter(), 1, 2);
+
+        // Assert
+        assertEquals(5, page.getTotal());
+        assertEquals(List.of("fifa", "mario"), ids(page));
+        assertEquals(Map.of("RACING", 2, "ADVENTURE", 1, "SPORTS", 1, "SHOOTER", 1), page.getFacets().get(GameFacetIndex.GENRE));
+        assertEquals(List.of("EA", "Nintendo"), List.copyOf(page.getFacets().get(GameFacetIndex.PUBLISHER).keySet()));
+        assertEquals(List.of("2024", "2023", "2019", "2017"), List.copyOf(page.getFacets().get(GameFacetIndex.RELEASE_YEAR).keySet()));
+        assertEquals(Map.of("free", 1, "10-20", 1, "40-60", 2, "60+", 1), page.getFacets().get(GameFacetIndex.PRICE));
+    }
+
+    @Test
+    void whenFiltersAreCombined_thenMatchAnyValueOfAFilterAndEveryFilter() {
+        // Arrange
+        GameFilterRequestModel filter = filter();
+        filter.setGenre(List.of("RACING", "SHOOTER"));
+        filter.setPublisher(List.of("EA"));
+        filter.setMaxPrice(19.99);
+
+        // Act
+        GameBrowseResponseModel page = facetIndex.browse(filter, 0, 20);
+
+        // Assert
+        assertEquals(List.of("apex", "nfs"), ids(page));
+        assertEquals(2, page.getTotal());
+    }
+
+    @Test
+    void whenAFacetIsFiltered_thenItsCountsIgnoreItsOwnFilterButNotTheOthers() {
+        // Arrange
+        GameFilterRequestModel filter = filter();
+        filter.setGenre(List.of("RACING"));
+        filter.setMinYear(2018);
+
+        // Act
+        GameBrowseResponseModel page = facetIndex.browse(filter, 0, 20);
+
+        // Assert
+        assertEquals(List.of("nfs"), ids(page));
+        // Other genres released since 2018, so the storefront can offer them next to the selected one.
+        assertEquals(Map.of("RACING", 1, "ADVENTURE", 1, "SPORTS", 1, "SHOOTER", 1), page.getFacets().get(GameFacetIndex.GENRE));
+        assertEquals(Map.of("2019", 1, "2017", 1), page.getFacets().get(GameFacetIndex.RELEASE_YEAR));
+    }
+
+    @Test
+    void whenPriceRangeCutsThroughABucket_thenMatchExactPrices() {
+        // Arrange
+        GameFilterRequestModel filter = filter();
+        filter.setMinPrice(50.0);
+        filter.setMaxPrice(60.0);
+
+        // Act & Assert
+        assertEquals(List.of("zelda"), ids(facetIndex.browse(filter, 0, 20)));
+        filter.setMinPrice(0.0);
+        filter.setMaxPrice(0.0);
+        assertEquals(List.of("apex"), ids(facetIndex.browse(filter, 0, 20)));
+    }
+
+    @Test
+    void whenGamesChange_thenFiltersAndRatingsFollow() {
+        // Act
+        facetIndex.addToRatings("zelda", RatingSummary.change(null, 5));
+        facetIndex.index(game("zelda", "Zelda", Genre.ADVENTURE, "Nintendo", 39.99, 2023));
+        facetIndex.remove("mario");
+
+        // Assert
+        GameFilterRequestModel nintendo = filter();
+        nintendo.setPublisher(List.of("Nintendo"));
+        GameBrowseResponseModel page = facetIndex.browse(nintendo, 0, 20);
+        assertEquals(List.of("zelda"), ids(page));
+        assertEquals(39.99, page.getGames().get(0).getPrice());
+        assertEquals(1, page.getGames().get(0).getRatings().getCount()); // a save does not reset the totals
+        assertNull(facetIndex.browse(filter(), 0, 20).getFacets().get(GameFacetIndex.PRICE).get("40-60"));
+        assertEquals(4, facetIndex.size());
+    }
+
+    @Test
+    void whenStarted_thenLoadTheCatalogWithItsRatings() {
+        // Arrange
+        Game rated = game("tetris", "Tetris", Genre.PUZZLE, "Sega", 4.99, 1989);
+        rated.setRatings(new RatingSummary(2, 9, 0, 0, 0, 1, 1));
+        when(gameRepository.findAll(any(Pageable.class))).thenAnswer(invocation ->
+                new PageImpl<>(List.of(rated), invocation.getArgument(0), 1));
+        GameFacetIndex started = new GameFacetIndex(gameRepository, new GameResponseMapperImpl());
+
+        // Act
+        started.afterSingletonsInstantiated();
+
+        // Assert
+        GameBrowseResponseModel page = started.browse(filter(), 0, 20);
+        assertEquals(List.of("tetris"), ids(page));
+        assertEquals(4.5, page.getGames().get(0).getRatings().getAverage(), 1e-9);
+    }
+}
@@ -0,0 +1,153 @@
+package com.champsoft.gamemanagement.Search;
+
+import com.champsoft.gamemanagement.DataAccess.Game;
+import com.champsoft.gamemanagement.DataAccess.GameId;
+import com.champsoft.gamemanagement.DataAccess.GameRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameSearchIndexTest {
+
+    @Mock
+    private GameRepository gameRepository;
+
+    private GameSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new GameSearchIndex(gameRepository);
+    }
+
+    private static Game game(String id, String title, String description, String publisher, String developer) {
+        Game game = new Game();
+        game.setGameId(new GameId(id));
+        game.setTitle(title);
+        game.setDescription(description);
+        game.setPublisher(publisher);
+        game.setDeveloper(developer);
+        return game;
+    }
+
+    private List<String> ids(String query) {
+        return searchIndex.search(query, 10).stream().map(SearchHit::id).toList();
+    }
+
+    @Test
+    void whenQueryIsInOneGamesTitleAndAnothersDescription_thenRankTheTitleMatchFirst() {
+        // Arrange
+        searchIndex.index(game("described", "Sky Pirates", "A racing game with dragons on the side", "Indie", "Indie"));
+        searchIndex.index(game("titled", "Dragon Racing", "Fast cars", "Indie", "Indie"));
+        searchIndex.index(game("unrelated", "Farm Life", "Grow crops", "Indie", "Indie"));
+
+        // Act & Assert: "dragons" and "Dragon" meet on the same stem
+        assertEquals(List.of("titled", "described"), ids("dragons"));
+    }
+
+    @Test
+    void whenQueryHasAccentsCaseAndStopWords_thenMatchOnTheAnalyzedTerms() {
+        // Arrange
+        searchIndex.index(game("pokemon", "Pok\u00e9mon Adventures", "Catch them all", "Nintendo", "Game Freak"));
+
+        // Act & Assert
+        assertEquals(List.of("pokemon"), ids("the POKEMON adventure"));
+        assertEquals(List.of("pokemon"), ids("game freak"));
+        assertEquals(List.of(), ids("the of and"));
+    }
+
+    @Test
+    void whenGameIsUpdatedOrRemoved_thenSearchSeesOnlyItsLatestText() {
+        // Arrange
+        searchIndex.index(game("one", "Old Title", "", "Indie", "Indie"));
+
+        // Act
+        searchIndex.index(game("one", "New Title", "", "Indie", "Indie"));
+
+        // Assert
+        assertEquals(List.of(), ids("old"));
+        assertEquals(List.of("one"), ids("new"));
+        searchIndex.remove("one");
+        assertEquals(List.of(), ids("title"));
+        assertEquals(0, searchIndex.size());
+    }
+
+    @Test
+    void whenChangedInsideATransaction_thenApplyOnlyAfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            searchIndex.index(game("pending", "Space Trader", "", "Indie", "Indie"));
+
+            // Assert
+            assertEquals(List.of(), ids("trader"));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(List.of("pending"), ids("trader"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void whenStarted_thenIndexEveryPageOfTheCatalog() {
+        // Arrange
+        List<Game> firstPage = List.of(game("a", "Chess", "", "P", "D"));
+        List<Game> lastPage = List.of(game("b", "Checkers", "", "P", "D"));
+        when(gameRepository.findAll(any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable pageable = invocation.getArgument(0);
+            List<Game> content = pageable.getPageNumber() == 0 ? firstPage : lastPage;
+            return new PageImpl<>(content, pageable, 1001);
+        });
+
+        // Act
+        searchIndex.afterSingletonsInstantiated();
+
+        // Assert
+        assertEquals(2, searchIndex.size());
+        assertEquals(List.of("b"), ids("checkers"));
+        verify(gameRepository).findAll(PageRequest.of(1, 1000, Sort.by("gameId.uuid")));
+    }
+
+    @Test
+    void whenMoreGamesMatchThanTheLimit_thenReturnOnlyTheBestOnes() {
+        // Arrange
+        for (int i = 0; i < 50; i++) {
+            // More occurrences of the word in a description of the same length score higher.
+            String description = "quest ".repeat(1 + i % 5) + "filler ".repeat(5 - i % 5);
+            searchIndex.index(game("g" + i, "Game " + i, description, "P", "D"));
+        }
+
+        // Act
+        List<SearchHit> hits = searchIndex.search("quest", 10);
+
+        // Assert
+        assertEquals(10, hits.size());
+        assertTrue(hits.stream().allMatch(hit -> Integer.parseInt(hit.id().substring(1)) % 5 == 4));
+        for (int i = 1; i < hits.size(); i++) {
+            assertTrue(hits.get(i - 1).score() >= hits.get(i).score());
+        }
+    }
+
+    @Test
+    void whenWordsAreStemmed_thenFollowPorter() {
+        assertEquals("race", PorterStemmer.stem("racing"));
+        assertEquals("adventur", PorterStemmer.stem("adventures"));
+        assertEquals("gener", PorterStemmer.stem("generalization"));
+        assertEquals("go", PorterStemmer.stem("go"));
+    }
+}
@@ -0,0 +1,134 @@
+package com.champsoft.gamemanagement.Search;
+
+import com.champsoft.gamemanagement.DataAccess.GameRepository;
+import com.champsoft.gamemanagement.DataAccess.GameTitle;
+import com.champsoft.gamemanagement.Presentation.DTOS.SuggestIndexStatsResponseModel;
+import com.champsoft.gamemanagement.Presentation.DTOS.SuggestionResponseModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TitleSuggestIndexTest {
+
+    @Mock
+    private GameRepository gameRepository;
+
+    private TitleSuggestIndex suggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        suggestIndex = new TitleSuggestIndex(gameRepository, 0, 600_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        suggestIndex.close();
+    }
+
+    private static GameTitle title(String id, String title, long popularity) {
+        return new GameTitle() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public long getPopularity() {
+                return popularity;
+            }
+        };
+    }
+
+    private List<String> ids(String prefix, int limit) {
+        return suggestIndex.suggest(prefix, limit).stream().map(SuggestionResponseModel::getId).toList();
+    }
+
+    @Test
+    void whenPrefixStartsAnyWordOfATitle_thenSuggestEachGameOnceMostPopularFirst() {
+        // Arrange
+        when(gameRepository.findAllTitles()).thenReturn(List.of(
+                title("botw", "The Legend of Zelda: Breath of the Wild", 900),
+                title("totk", "The Legend of Zelda: Tears of the Kingdom", 1200),
+                title("lego", "LEGO Star Wars", 300),
+                title("layers", "Layers of Fear", 50),
+                title("tetris", "Tetris", 2000)));
+        suggestIndex.rebuild();
+
+        // Act & Assert
+        assertEquals(List.of("totk", "botw", "lego", "layers"), ids("l", 10));
+        assertEquals(List.of("totk", "botw"), ids("the leg", 10));
+        assertEquals(List.of("totk"), ids("l", 1));
+        assertEquals(List.of("botw"), ids("breath", 10));
+        assertEquals(List.of(), ids("zzz", 10));
+    }
+
+    @Test
+    void whenPrefixHasAccentsCaseOrPunctuation_thenMatchLikeTheTitle() {
+        // Arrange
+        when(gameRepository.findAllTitles()).thenReturn(List.of(
+                title("pokemon", "Pok\u00e9mon Scarlet", 10),
+                title("halflife", "Half-Life 2", 20)));
+        suggestIndex.rebuild();
+
+        // Act & Assert
+        assertEquals(List.of("pokemon"), ids("POKEM", 10));
+        assertEquals(List.of("pokemon"), ids("pok\u00e9", 10));
+        assertEquals(List.of("halflife"), ids("half life", 10));
+        assertEquals(List.of("halflife"), ids("half-l", 10));
+        assertEquals(List.of(), ids("--", 10));
+        assertEquals("Half-Life 2", suggestIndex.suggest("life", 10).get(0).getTitle());
+    }
+
+    @Test
+    void whenCatalogChanges_thenRebuildOffThreadAndSwapInTheNewTitles() {
+        // Arrange
+        when(gameRepository.findAllTitles())
+                .thenReturn(List.of(title("zelda", "Zelda", 1)))
+                .thenReturn(List.of(title("zelda", "Zelda", 1), title("zuma", "Zuma", 5)));
+        suggestIndex.afterSingletonsInstantiated();
+        assertEquals(List.of("zelda"), ids("z", 10));
+
+        // Act
+        suggestIndex.catalogChanged();
+
+        // Assert
+        verify(gameRepository, timeout(5000).times(2)).findAllTitles();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (suggestIndex.stats().getTitles() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(List.of("zuma", "zelda"), ids("z", 10));
+    }
+
+    @Test
+    void whenBuilt_thenReportSizeAndMemory() {
+        // Arrange
+        when(gameRepository.findAllTitles()).thenReturn(List.of(
+                title("a", "Alpha Beta Gamma", 1),
+                title("b", "Beta", 2)));
+
+        // Act
+        suggestIndex.rebuild();
+
+        // Assert
+        SuggestIndexStatsResponseModel stats = suggestIndex.stats();
+        assertEquals(2, stats.getTitles());
+        assertEquals(4, stats.getKeys());
+        assertTrue(stats.getMemoryBytes() > 0);
+        assertNotNull(stats.getBuiltAt());
+    }
+}